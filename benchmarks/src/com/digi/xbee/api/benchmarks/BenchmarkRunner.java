@@ -0,0 +1,49 @@
+/**
+ * Copyright (c) 2014-2016 Digi International Inc.,
+ * All rights not expressly granted are reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * Digi International Inc. 11001 Bren Road East, Minnetonka, MN 55343
+ * =======================================================================
+ */
+package com.digi.xbee.api.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the benchmarks of the XBee Java Library.
+ * 
+ * <p>It accepts the same arguments as the JMH command line, for example a 
+ * regular expression to select the benchmarks to run or {@code -p mode=API} 
+ * to select the parameters. The GC profiler is always enabled, so the 
+ * allocation rate is reported together with the throughput.</p>
+ */
+public class BenchmarkRunner {
+	
+	/**
+	 * Application main method.
+	 * 
+	 * @param args Command line arguments, as accepted by JMH.
+	 * 
+	 * @throws CommandLineOptionException if the arguments are not valid.
+	 * @throws RunnerException if the benchmarks cannot be run.
+	 */
+	public static void main(String[] args) throws CommandLineOptionException, RunnerException {
+		CommandLineOptions commandLineOptions = new CommandLineOptions(args);
+		ChainedOptionsBuilder options = new OptionsBuilder()
+				.parent(commandLineOptions)
+				.addProfiler(GCProfiler.class);
+		if (commandLineOptions.getIncludes().isEmpty())
+			options.include(BenchmarkRunner.class.getPackage().getName() + ".*");
+		new Runner(options.build()).run();
+	}
+}
@@ -0,0 +1,98 @@
+/**
+ * Copyright (c) 2014-2016 Digi International Inc.,
+ * All rights not expressly granted are reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * Digi International Inc. 11001 Bren Road East, Minnetonka, MN 55343
+ * =======================================================================
+ */
+package com.digi.xbee.api.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.digi.xbee.api.models.XBee64BitAddress;
+import com.digi.xbee.api.utils.ByteUtils;
+import com.digi.xbee.api.utils.HexUtils;
+
+/**
+ * Measures the cost of the conversions of {@link HexUtils} and 
+ * {@link ByteUtils} used while parsing and printing packets.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConversionBenchmark {
+	
+	// Constants.
+	private static final String ADDRESS_STRING = "0013A20040A9E77F";
+	
+	private static final String RF_DATA_STRING = HexUtils.byteArrayToHexString(SampleFrame.RF_DATA);
+	
+	private static final byte[] ADDRESS_BYTES = SampleFrame.ADDRESS_64.getValue();
+	
+	// Variables.
+	private long longValue = 0x0013A20040A9E77FL;
+	
+	private int intValue = 0x0040A9E7;
+	
+	@Benchmark
+	public String byteArrayToHexString() {
+		return HexUtils.byteArrayToHexString(SampleFrame.RF_DATA);
+	}
+	
+	@Benchmark
+	public byte[] hexStringToByteArray() {
+		return HexUtils.hexStringToByteArray(RF_DATA_STRING);
+	}
+	
+	@Benchmark
+	public String prettyHexString() {
+		return HexUtils.prettyHexString(SampleFrame.RF_DATA);
+	}
+	
+	@Benchmark
+	public byte[] longToByteArray() {
+		return ByteUtils.longToByteArray(longValue);
+	}
+	
+	@Benchmark
+	public long byteArrayToLong() {
+		return ByteUtils.byteArrayToLong(ADDRESS_BYTES);
+	}
+	
+	@Benchmark
+	public byte[] intToByteArray() {
+		return ByteUtils.intToByteArray(intValue);
+	}
+	
+	@Benchmark
+	public int byteArrayToInt() {
+		return ByteUtils.byteArrayToInt(ADDRESS_BYTES);
+	}
+	
+	@Benchmark
+	public XBee64BitAddress parse64BitAddress() {
+		return new XBee64BitAddress(ADDRESS_STRING);
+	}
+	
+	@Benchmark
+	public String format64BitAddress() {
+		return SampleFrame.ADDRESS_64.toString();
+	}
+}
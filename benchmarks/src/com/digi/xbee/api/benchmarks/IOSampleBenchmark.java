@@ -0,0 +1,54 @@
+/**
+ * Copyright (c) 2014-2016 Digi International Inc.,
+ * All rights not expressly granted are reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * Digi International Inc. 11001 Bren Road East, Minnetonka, MN 55343
+ * =======================================================================
+ */
+package com.digi.xbee.api.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.digi.xbee.api.io.IOSample;
+
+/**
+ * Measures the cost of parsing the IO samples of the different protocols.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class IOSampleBenchmark {
+	
+	/**
+	 * Parses an IO sample of the ZigBee, DigiMesh and DigiPoint protocols.
+	 */
+	@Benchmark
+	public IOSample parseIOSample() {
+		return new IOSample(SampleFrame.IO_SAMPLE_PAYLOAD);
+	}
+	
+	/**
+	 * Parses an IO sample of the 802.15.4 protocol.
+	 */
+	@Benchmark
+	public IOSample parseRawIOSample() {
+		return new IOSample(SampleFrame.RAW_IO_SAMPLE_PAYLOAD);
+	}
+}
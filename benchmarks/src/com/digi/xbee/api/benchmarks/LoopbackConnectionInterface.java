@@ -0,0 +1,414 @@
+/**
+ * Copyright (c) 2014-2016 Digi International Inc.,
+ * All rights not expressly granted are reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * Digi International Inc. 11001 Bren Road East, Minnetonka, MN 55343
+ * =======================================================================
+ */
+package com.digi.xbee.api.benchmarks;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.HashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import com.digi.xbee.api.connection.IConnectionInterface;
+import com.digi.xbee.api.listeners.IPacketReceiveListener;
+import com.digi.xbee.api.models.ATCommandStatus;
+import com.digi.xbee.api.models.OperatingMode;
+import com.digi.xbee.api.models.XBee16BitAddress;
+import com.digi.xbee.api.models.XBee64BitAddress;
+import com.digi.xbee.api.models.XBeeDiscoveryStatus;
+import com.digi.xbee.api.models.XBeeTransmitStatus;
+import com.digi.xbee.api.packet.XBeePacket;
+import com.digi.xbee.api.packet.XBeePacketDecoder;
+import com.digi.xbee.api.packet.common.ATCommandPacket;
+import com.digi.xbee.api.packet.common.ATCommandResponsePacket;
+import com.digi.xbee.api.packet.common.ReceivePacket;
+import com.digi.xbee.api.packet.common.RemoteATCommandPacket;
+import com.digi.xbee.api.packet.common.RemoteATCommandResponsePacket;
+import com.digi.xbee.api.packet.common.TransmitPacket;
+import com.digi.xbee.api.packet.common.TransmitStatusPacket;
+import com.digi.xbee.api.utils.HexUtils;
+
+/**
+ * This class is an in-memory connection interface that behaves as a ZigBee 
+ * XBee device in API mode, so a local {@code XBeeDevice} can be driven 
+ * through its public API without hardware.
+ * 
+ * <p>The frames written to the interface are decoded and answered:</p>
+ * <ul>
+ * <li>Local AT commands are answered with the value of the parameter, 
+ * which is stored when the command sets it.</li>
+ * <li>Remote AT commands are answered as if the remote device had the same 
+ * parameters.</li>
+ * <li>Transmit requests are answered with a successful transmit status and, 
+ * if the echo is enabled, the data is received back from the destination 
+ * device.</li>
+ * </ul>
+ * 
+ * <p>The answers are delivered after the configured delay, which simulates 
+ * the latency of the serial line and the radio. With no delay they are 
+ * delivered in the thread that writes the request.</p>
+ */
+public class LoopbackConnectionInterface implements IConnectionInterface {
+	
+	// Constants.
+	/**
+	 * 64-bit address of the emulated local device.
+	 */
+	public static final XBee64BitAddress LOCAL_64_BIT_ADDRESS = new XBee64BitAddress("0013A20040A9E700");
+	
+	/**
+	 * 64-bit address of a remote device of the emulated network.
+	 */
+	public static final XBee64BitAddress REMOTE_64_BIT_ADDRESS = new XBee64BitAddress("0013A20040A9E77F");
+	
+	/**
+	 * 16-bit address of the remote device of the emulated network.
+	 */
+	public static final XBee16BitAddress REMOTE_16_BIT_ADDRESS = new XBee16BitAddress("1234");
+	
+	private static final int INITIAL_BUFFER_SIZE = 1024;
+	
+	// Variables.
+	private final HashMap<String, byte[]> parameters = new HashMap<String, byte[]>();
+	
+	private final long responseDelayMicros;
+	
+	private final boolean echoData;
+	
+	private final XBeePacketDecoder decoder;
+	
+	private final LoopbackInputStream inputStream = new LoopbackInputStream();
+	
+	private final OutputStream outputStream = new OutputStream() {
+		/*
+		 * (non-Javadoc)
+		 * @see java.io.OutputStream#write(int)
+		 */
+		@Override
+		public void write(int b) throws IOException {
+			writeData(new byte[] {(byte)b});
+		}
+		
+		/*
+		 * (non-Javadoc)
+		 * @see java.io.OutputStream#write(byte[], int, int)
+		 */
+		@Override
+		public void write(byte[] b, int off, int len) throws IOException {
+			writeData(b, off, len);
+		}
+	};
+	
+	private ScheduledExecutorService responder;
+	
+	private volatile boolean open = false;
+	
+	/**
+	 * Class constructor. Instantiates a new {@code LoopbackConnectionInterface} 
+	 * that answers the requests with the given delay.
+	 * 
+	 * @param responseDelayMicros Delay before answering each request in 
+	 *                            microseconds, {@code 0} to answer 
+	 *                            immediately.
+	 * @param echoData {@code true} to receive back the data of the transmit 
+	 *                 requests, {@code false} otherwise.
+	 * 
+	 * @throws IllegalArgumentException if {@code responseDelayMicros < 0}.
+	 */
+	public LoopbackConnectionInterface(long responseDelayMicros, boolean echoData) {
+		if (responseDelayMicros < 0)
+			throw new IllegalArgumentException("Response delay cannot be less than 0.");
+		
+		this.responseDelayMicros = responseDelayMicros;
+		this.echoData = echoData;
+		this.decoder = new XBeePacketDecoder(OperatingMode.API, new IPacketReceiveListener() {
+			/*
+			 * (non-Javadoc)
+			 * @see com.digi.xbee.api.listeners.IPacketReceiveListener#packetReceived(com.digi.xbee.api.packet.XBeePacket)
+			 */
+			@Override
+			public void packetReceived(XBeePacket receivedPacket) {
+				requestReceived(receivedPacket);
+			}
+		});
+		
+		parameters.put("AP", new byte[] {0x01});
+		parameters.put("SH", HexUtils.hexStringToByteArray("0013A200"));
+		parameters.put("SL", HexUtils.hexStringToByteArray("40A9E700"));
+		parameters.put("NI", "LOOPBACK".getBytes());
+		// XB24-BxIx-xxx hardware with ZigBee firmware.
+		parameters.put("HV", new byte[] {0x19, 0x4B});
+		parameters.put("VR", new byte[] {0x23, (byte)0xA7});
+		parameters.put("MY", new byte[] {0x00, 0x00});
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * @see com.digi.xbee.api.connection.IConnectionInterface#open()
+	 */
+	@Override
+	public void open() {
+		if (responseDelayMicros > 0)
+			responder = Executors.newSingleThreadScheduledExecutor();
+		open = true;
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * @see com.digi.xbee.api.connection.IConnectionInterface#close()
+	 */
+	@Override
+	public void close() {
+		open = false;
+		if (responder != null) {
+			responder.shutdownNow();
+			responder = null;
+		}
+		synchronized (this) {
+			notifyAll();
+		}
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * @see com.digi.xbee.api.connection.IConnectionInterface#isOpen()
+	 */
+	@Override
+	public boolean isOpen() {
+		return open;
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * @see com.digi.xbee.api.connection.IConnectionInterface#getInputStream()
+	 */
+	@Override
+	public InputStream getInputStream() {
+		return inputStream;
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * @see com.digi.xbee.api.connection.IConnectionInterface#getOutputStream()
+	 */
+	@Override
+	public OutputStream getOutputStream() {
+		return outputStream;
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * @see com.digi.xbee.api.connection.IConnectionInterface#writeData(byte[])
+	 */
+	@Override
+	public void writeData(byte[] data) throws IOException {
+		if (data == null)
+			throw new NullPointerException("Data to be sent cannot be null.");
+		
+		writeData(data, 0, data.length);
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * @see com.digi.xbee.api.connection.IConnectionInterface#writeData(byte[], int, int)
+	 */
+	@Override
+	public void writeData(byte[] data, int offset, int length) throws IOException {
+		if (data == null)
+			throw new NullPointerException("Data to be sent cannot be null.");
+		if (!open)
+			throw new IOException("The loopback interface is closed.");
+		
+		synchronized (decoder) {
+			decoder.decode(data, offset, length);
+		}
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * @see com.digi.xbee.api.connection.IConnectionInterface#readData(byte[])
+	 */
+	@Override
+	public int readData(byte[] data) throws IOException {
+		return inputStream.read(data);
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * @see com.digi.xbee.api.connection.IConnectionInterface#readData(byte[], int, int)
+	 */
+	@Override
+	public int readData(byte[] data, int offset, int length) throws IOException {
+		return inputStream.read(data, offset, length);
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		return "[Loopback] ";
+	}
+	
+	/**
+	 * Answers the given request written by the local device.
+	 * 
+	 * @param request The request packet.
+	 */
+	private void requestReceived(XBeePacket request) {
+		if (request instanceof ATCommandPacket) {
+			ATCommandPacket atPacket = (ATCommandPacket)request;
+			byte[] value = executeCommand(atPacket.getCommand(), atPacket.getParameter());
+			respond(new ATCommandResponsePacket(atPacket.getFrameID(), ATCommandStatus.OK, 
+					atPacket.getCommand(), value));
+		} else if (request instanceof RemoteATCommandPacket) {
+			RemoteATCommandPacket remoteATPacket = (RemoteATCommandPacket)request;
+			byte[] value = executeCommand(remoteATPacket.getCommand(), remoteATPacket.getParameter());
+			respond(new RemoteATCommandResponsePacket(remoteATPacket.getFrameID(), 
+					remoteATPacket.get64bitDestinationAddress(), REMOTE_16_BIT_ADDRESS, 
+					remoteATPacket.getCommand(), ATCommandStatus.OK, value));
+		} else if (request instanceof TransmitPacket) {
+			TransmitPacket transmitPacket = (TransmitPacket)request;
+			if (transmitPacket.getFrameID() != 0)
+				respond(new TransmitStatusPacket(transmitPacket.getFrameID(), REMOTE_16_BIT_ADDRESS, 0, 
+						XBeeTransmitStatus.SUCCESS, XBeeDiscoveryStatus.DISCOVERY_STATUS_NO_DISCOVERY_OVERHEAD));
+			if (echoData)
+				respond(new ReceivePacket(transmitPacket.get64bitDestinationAddress(), REMOTE_16_BIT_ADDRESS, 
+						0x01, transmitPacket.getRFData()));
+		}
+	}
+	
+	/**
+	 * Executes the given AT command over the emulated parameters.
+	 * 
+	 * @param command The AT command.
+	 * @param parameter The value to set, {@code null} to read it.
+	 * 
+	 * @return The value of the parameter, {@code null} when it is set.
+	 */
+	private byte[] executeCommand(String command, byte[] parameter) {
+		synchronized (parameters) {
+			if (parameter != null && parameter.length > 0) {
+				parameters.put(command, parameter);
+				return null;
+			}
+			byte[] value = parameters.get(command);
+			return value == null ? new byte[0] : value;
+		}
+	}
+	
+	/**
+	 * Delivers the given answer to the local device after the response 
+	 * delay.
+	 * 
+	 * @param answer The answer packet.
+	 */
+	private void respond(XBeePacket answer) {
+		final byte[] frame = answer.generateByteArray();
+		ScheduledExecutorService executor = responder;
+		if (executor == null) {
+			inputStream.deliver(frame);
+			return;
+		}
+		executor.schedule(new Runnable() {
+			/*
+			 * (non-Javadoc)
+			 * @see java.lang.Runnable#run()
+			 */
+			@Override
+			public void run() {
+				inputStream.deliver(frame);
+			}
+		}, responseDelayMicros, TimeUnit.MICROSECONDS);
+	}
+	
+	/**
+	 * Input stream with the bytes delivered to the local device. It never 
+	 * blocks: like a serial port, it returns {@code -1} when there is no 
+	 * data and the data reader is notified when new data arrives.
+	 */
+	private class LoopbackInputStream extends InputStream {
+		
+		// Variables.
+		private byte[] buffer = new byte[INITIAL_BUFFER_SIZE];
+		
+		private int start = 0;
+		private int end = 0;
+		
+		/**
+		 * Appends the given frame to the stream and notifies the data 
+		 * reader.
+		 * 
+		 * @param frame The frame to append.
+		 */
+		void deliver(byte[] frame) {
+			synchronized (LoopbackConnectionInterface.this) {
+				if (end + frame.length > buffer.length) {
+					// Compact the pending bytes and grow the buffer if needed.
+					int pending = end - start;
+					byte[] newBuffer = buffer;
+					if (pending + frame.length > buffer.length)
+						newBuffer = new byte[Math.max(buffer.length * 2, pending + frame.length)];
+					System.arraycopy(buffer, start, newBuffer, 0, pending);
+					buffer = newBuffer;
+					start = 0;
+					end = pending;
+				}
+				System.arraycopy(frame, 0, buffer, end, frame.length);
+				end += frame.length;
+				LoopbackConnectionInterface.this.notifyAll();
+			}
+		}
+		
+		/*
+		 * (non-Javadoc)
+		 * @see java.io.InputStream#read()
+		 */
+		@Override
+		public int read() {
+			synchronized (LoopbackConnectionInterface.this) {
+				if (start == end)
+					return -1;
+				return buffer[start++] & 0xFF;
+			}
+		}
+		
+		/*
+		 * (non-Javadoc)
+		 * @see java.io.InputStream#read(byte[], int, int)
+		 */
+		@Override
+		public int read(byte[] b, int off, int len) {
+			synchronized (LoopbackConnectionInterface.this) {
+				if (start == end)
+					return len == 0 ? 0 : -1;
+				int count = Math.min(len, end - start);
+				System.arraycopy(buffer, start, b, off, count);
+				start += count;
+				return count;
+			}
+		}
+		
+		/*
+		 * (non-Javadoc)
+		 * @see java.io.InputStream#available()
+		 */
+		@Override
+		public int available() {
+			synchronized (LoopbackConnectionInterface.this) {
+				return end - start;
+			}
+		}
+	}
+}
@@ -0,0 +1,147 @@
+/**
+ * Copyright (c) 2014-2016 Digi International Inc.,
+ * All rights not expressly granted are reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * Digi International Inc. 11001 Bren Road East, Minnetonka, MN 55343
+ * =======================================================================
+ */
+package com.digi.xbee.api.benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.digi.xbee.api.RemoteXBeeDevice;
+import com.digi.xbee.api.XBeeDevice;
+import com.digi.xbee.api.XBeeNetwork;
+import com.digi.xbee.api.exceptions.OperationNotSupportedException;
+import com.digi.xbee.api.exceptions.XBeeException;
+import com.digi.xbee.api.models.XBee16BitAddress;
+import com.digi.xbee.api.models.XBee64BitAddress;
+
+/**
+ * Measures the lookups of remote devices in an {@code XBeeNetwork} with 
+ * many nodes, by node identifier, 64-bit address and 16-bit address, 
+ * with address objects and with their primitive values.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class NetworkLookupBenchmark {
+	
+	// Variables.
+	@Param({"100", "10000"})
+	public int nodes;
+	
+	private XBeeDevice device;
+	private XBeeNetwork network;
+	
+	private String[] nodeIDs;
+	private XBee64BitAddress[] addresses;
+	private XBee16BitAddress[] networkAddresses;
+	
+	private int next = 0;
+	
+	@Setup(Level.Trial)
+	public void setUp() throws XBeeException {
+		device = new XBeeDevice(new LoopbackConnectionInterface(0, false));
+		device.open();
+		network = device.getNetwork();
+		
+		nodeIDs = new String[nodes];
+		addresses = new XBee64BitAddress[nodes];
+		networkAddresses = new XBee16BitAddress[nodes];
+		for (int i = 0; i < nodes; i++) {
+			nodeIDs[i] = "NODE_" + i;
+			addresses[i] = new XBee64BitAddress(String.format("0013A200%08X", i));
+			networkAddresses[i] = new XBee16BitAddress((i >> 8) & 0xFF, i & 0xFF);
+			network.addRemoteDevice(new RemoteXBeeDevice(device, addresses[i], 
+					networkAddresses[i], nodeIDs[i]));
+		}
+	}
+	
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		device.close();
+	}
+	
+	/**
+	 * Looks up a device by node identifier.
+	 */
+	@Benchmark
+	public RemoteXBeeDevice getDeviceByNodeID() {
+		return network.getDevice(nodeIDs[nextIndex()]);
+	}
+	
+	/**
+	 * Looks up all the devices with a node identifier.
+	 */
+	@Benchmark
+	public List<RemoteXBeeDevice> getDevicesByNodeID() {
+		return network.getDevices(nodeIDs[nextIndex()]);
+	}
+	
+	/**
+	 * Looks up a device by 64-bit address.
+	 */
+	@Benchmark
+	public RemoteXBeeDevice getDeviceBy64BitAddress() {
+		return network.getDevice(addresses[nextIndex()]);
+	}
+	
+	/**
+	 * Looks up a device by 16-bit address.
+	 */
+	@Benchmark
+	public RemoteXBeeDevice getDeviceBy16BitAddress() throws OperationNotSupportedException {
+		return network.getDevice(networkAddresses[nextIndex()]);
+	}
+	
+	/**
+	 * Looks up a device by the value of its 64-bit address, as done for the 
+	 * sender of each frame received in the pooled receive mode.
+	 */
+	@Benchmark
+	public RemoteXBeeDevice getDeviceBy64BitAddressValue() {
+		return network.getDeviceBy64BitAddress(addresses[nextIndex()].getLongValue());
+	}
+	
+	/**
+	 * Looks up a device by the value of its 16-bit address.
+	 */
+	@Benchmark
+	public RemoteXBeeDevice getDeviceBy16BitAddressValue() throws OperationNotSupportedException {
+		return network.getDeviceBy16BitAddress(networkAddresses[nextIndex()].getIntValue());
+	}
+	
+	/**
+	 * Returns the index of the next node to look up.
+	 * 
+	 * @return The index of the node.
+	 */
+	private int nextIndex() {
+		int index = next;
+		next = index + 1 == nodes ? 0 : index + 1;
+		return index;
+	}
+}
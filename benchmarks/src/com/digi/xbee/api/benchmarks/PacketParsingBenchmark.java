@@ -0,0 +1,117 @@
+/**
+ * Copyright (c) 2014-2016 Digi International Inc.,
+ * All rights not expressly granted are reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * Digi International Inc. 11001 Bren Road East, Minnetonka, MN 55343
+ * =======================================================================
+ */
+package com.digi.xbee.api.benchmarks;
+
+import java.io.ByteArrayInputStream;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.digi.xbee.api.exceptions.InvalidPacketException;
+import com.digi.xbee.api.listeners.IPacketReceiveListener;
+import com.digi.xbee.api.models.OperatingMode;
+import com.digi.xbee.api.packet.XBeePacket;
+import com.digi.xbee.api.packet.XBeePacketDecoder;
+import com.digi.xbee.api.packet.XBeePacketParser;
+
+/**
+ * Measures the cost of parsing a frame of every frame type in API and API 
+ * escaped modes.
+ * 
+ * @see SampleFrame
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PacketParsingBenchmark {
+	
+	// Variables.
+	@Param
+	public SampleFrame frame;
+	
+	@Param({"API", "API_ESCAPE"})
+	public OperatingMode mode;
+	
+	private XBeePacketParser parser;
+	private XBeePacketDecoder decoder;
+	
+	private XBeePacket decodedPacket;
+	
+	private byte[] frameBytes;
+	private byte[] payload;
+	
+	@Setup
+	public void setUp() {
+		XBeePacket packet = frame.createPacket();
+		frameBytes = mode == OperatingMode.API ? packet.generateByteArray() : packet.generateByteArrayEscaped();
+		payload = packet.getPacketData();
+		parser = new XBeePacketParser();
+		decoder = new XBeePacketDecoder(mode, new IPacketReceiveListener() {
+			/*
+			 * (non-Javadoc)
+			 * @see com.digi.xbee.api.listeners.IPacketReceiveListener#packetReceived(com.digi.xbee.api.packet.XBeePacket)
+			 */
+			@Override
+			public void packetReceived(XBeePacket receivedPacket) {
+				decodedPacket = receivedPacket;
+			}
+		});
+	}
+	
+	/**
+	 * Parses the complete frame from a byte array.
+	 */
+	@Benchmark
+	public XBeePacket parseByteArray() throws InvalidPacketException {
+		return parser.parsePacket(frameBytes, mode);
+	}
+	
+	/**
+	 * Parses the frame from an input stream, as the data reader does, once 
+	 * the start delimiter has been read.
+	 */
+	@Benchmark
+	public XBeePacket parseInputStream() throws InvalidPacketException {
+		return parser.parsePacket(new ByteArrayInputStream(frameBytes, 1, frameBytes.length - 1), mode);
+	}
+	
+	/**
+	 * Creates the packet from its unescaped and verified payload.
+	 */
+	@Benchmark
+	public XBeePacket parsePayload() throws InvalidPacketException {
+		return parser.parsePayload(payload);
+	}
+	
+	/**
+	 * Decodes the frame with the incremental decoder.
+	 */
+	@Benchmark
+	public void decode(Blackhole blackhole) {
+		decoder.decode(frameBytes, 0, frameBytes.length);
+		blackhole.consume(decodedPacket);
+	}
+}
@@ -0,0 +1,96 @@
+/**
+ * Copyright (c) 2014-2016 Digi International Inc.,
+ * All rights not expressly granted are reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * Digi International Inc. 11001 Bren Road East, Minnetonka, MN 55343
+ * =======================================================================
+ */
+package com.digi.xbee.api.benchmarks;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.digi.xbee.api.models.OperatingMode;
+import com.digi.xbee.api.packet.XBeeFrameWriter;
+import com.digi.xbee.api.packet.XBeePacket;
+
+/**
+ * Measures the cost of serializing a frame of every frame type in API and 
+ * API escaped modes.
+ * 
+ * @see SampleFrame
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PacketSerializationBenchmark {
+	
+	// Constants.
+	private static final int BUFFER_SIZE = 1024;
+	
+	// Variables.
+	@Param
+	public SampleFrame frame;
+	
+	@Param({"API", "API_ESCAPE"})
+	public OperatingMode mode;
+	
+	private XBeePacket packet;
+	
+	private XBeeFrameWriter frameWriter;
+	
+	private ByteBuffer buffer;
+	
+	@Setup
+	public void setUp() {
+		packet = frame.createPacket();
+		frameWriter = new XBeeFrameWriter(mode);
+		buffer = ByteBuffer.allocate(BUFFER_SIZE);
+	}
+	
+	/**
+	 * Generates the frame of a packet that was already serialized.
+	 */
+	@Benchmark
+	public byte[] generateByteArray() {
+		return mode == OperatingMode.API ? packet.generateByteArray() : packet.generateByteArrayEscaped();
+	}
+	
+	/**
+	 * Creates a new packet and generates its frame, as done for every 
+	 * transmitted packet.
+	 */
+	@Benchmark
+	public byte[] createAndGenerateByteArray() {
+		XBeePacket newPacket = frame.createPacket();
+		return mode == OperatingMode.API ? newPacket.generateByteArray() : newPacket.generateByteArrayEscaped();
+	}
+	
+	/**
+	 * Writes the frame of the packet into a reused buffer.
+	 */
+	@Benchmark
+	public int writeFrame() {
+		buffer.clear();
+		return frameWriter.write(packet, buffer);
+	}
+}
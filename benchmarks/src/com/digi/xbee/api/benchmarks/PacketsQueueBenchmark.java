@@ -0,0 +1,121 @@
+/**
+ * Copyright (c) 2014-2016 Digi International Inc.,
+ * All rights not expressly granted are reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * Digi International Inc. 11001 Bren Road East, Minnetonka, MN 55343
+ * =======================================================================
+ */
+package com.digi.xbee.api.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.digi.xbee.api.models.XBee64BitAddress;
+import com.digi.xbee.api.models.XBeePacketsQueue;
+import com.digi.xbee.api.packet.XBeePacket;
+import com.digi.xbee.api.packet.raw.RX64Packet;
+
+/**
+ * Measures the latency between adding a data packet to an 
+ * {@code XBeePacketsQueue} and a reader waiting in 
+ * {@code getFirstDataPacket} getting it.
+ * 
+ * <p>The packets bounce between two queues: the benchmark thread adds a 
+ * packet to the first queue and waits for it in the second one, while an 
+ * echo thread moves the packets from the first queue to the second one. 
+ * Each operation is, then, two add-to-read hops with a thread waiting in 
+ * each of them. The {@code addThenRead} benchmark measures the cost of the 
+ * queue when the reader does not have to wait.</p>
+ * 
+ * <p>The sample time mode reports the p50, p99 and p99.9 latencies.</p>
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class PacketsQueueBenchmark {
+	
+	// Constants.
+	private static final int TIMEOUT = 5000;
+	
+	private static final XBeePacket PACKET = new RX64Packet(new XBee64BitAddress("0013A20040A9E77F"), 
+			40, 0, "Packets queue benchmark data".getBytes());
+	
+	// Variables.
+	private XBeePacketsQueue requests;
+	private XBeePacketsQueue responses;
+	private XBeePacketsQueue localQueue;
+	
+	private Thread echoThread;
+	
+	@Setup(Level.Trial)
+	public void setUp() {
+		requests = new XBeePacketsQueue();
+		responses = new XBeePacketsQueue();
+		localQueue = new XBeePacketsQueue();
+		
+		echoThread = new Thread(new Runnable() {
+			/*
+			 * (non-Javadoc)
+			 * @see java.lang.Runnable#run()
+			 */
+			@Override
+			public void run() {
+				while (!Thread.currentThread().isInterrupted()) {
+					XBeePacket packet = requests.getFirstDataPacket(TIMEOUT);
+					if (packet != null)
+						responses.addPacket(packet);
+				}
+			}
+		}, "PacketsQueueBenchmark echo");
+		echoThread.setDaemon(true);
+		echoThread.start();
+	}
+	
+	@TearDown(Level.Trial)
+	public void tearDown() throws InterruptedException {
+		echoThread.interrupt();
+		echoThread.join(TIMEOUT);
+	}
+	
+	/**
+	 * Adds a packet to a queue with a waiting reader and waits for it to be 
+	 * added back to another queue.
+	 * 
+	 * @return The packet received back.
+	 */
+	@Benchmark
+	public XBeePacket addToWaitingReader() {
+		requests.addPacket(PACKET);
+		return responses.getFirstDataPacket(TIMEOUT);
+	}
+	
+	/**
+	 * Adds a packet to a queue and reads it from the same thread.
+	 * 
+	 * @return The packet read.
+	 */
+	@Benchmark
+	public XBeePacket addThenRead() {
+		localQueue.addPacket(PACKET);
+		return localQueue.getFirstDataPacket(TIMEOUT);
+	}
+}
@@ -0,0 +1,216 @@
+/**
+ * Copyright (c) 2014-2016 Digi International Inc.,
+ * All rights not expressly granted are reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * Digi International Inc. 11001 Bren Road East, Minnetonka, MN 55343
+ * =======================================================================
+ */
+package com.digi.xbee.api.benchmarks;
+
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.digi.xbee.api.RemoteXBeeDevice;
+import com.digi.xbee.api.XBeeDevice;
+import com.digi.xbee.api.exceptions.TimeoutException;
+import com.digi.xbee.api.exceptions.XBeeException;
+import com.digi.xbee.api.listeners.IDataReceiveListener;
+import com.digi.xbee.api.models.XBeeMessage;
+
+/**
+ * Measures the round trip latency and throughput of the public API of 
+ * {@code XBeeDevice} over a {@link LoopbackConnectionInterface}, so the 
+ * whole transmit, data reader, correlation and listener path is covered 
+ * without hardware.
+ * 
+ * <p>The sample time mode reports the p50, p99 and p99.9 latencies. Run 
+ * with several threads ({@code -t}) to measure the maximum throughput with 
+ * concurrent callers.</p>
+ * 
+ * @see LoopbackConnectionInterface
+ */
+@BenchmarkMode({Mode.SampleTime, Mode.Throughput})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RoundTripBenchmark {
+	
+	// Constants.
+	private static final int READ_TIMEOUT = 2;
+	
+	private static final byte[] DATA = "Round trip benchmark data".getBytes();
+	
+	/**
+	 * Local device connected to a loopback interface that does not echo 
+	 * the transmitted data.
+	 */
+	@State(Scope.Benchmark)
+	public static class LoopbackDevice {
+		
+		// Variables.
+		@Param({"0", "100"})
+		public long responseDelayMicros;
+		
+		XBeeDevice device;
+		RemoteXBeeDevice remoteDevice;
+		
+		@Setup(Level.Trial)
+		public void open() throws XBeeException {
+			device = openDevice(responseDelayMicros, false);
+			remoteDevice = new RemoteXBeeDevice(device, LoopbackConnectionInterface.REMOTE_64_BIT_ADDRESS);
+		}
+		
+		@TearDown(Level.Trial)
+		public void close() {
+			device.close();
+		}
+	}
+	
+	/**
+	 * Local device connected to a loopback interface that echoes the 
+	 * transmitted data, which is read with {@code readData}.
+	 */
+	@State(Scope.Benchmark)
+	public static class EchoDevice {
+		
+		// Variables.
+		@Param({"0", "100"})
+		public long responseDelayMicros;
+		
+		XBeeDevice device;
+		RemoteXBeeDevice remoteDevice;
+		
+		@Setup(Level.Trial)
+		public void open() throws XBeeException {
+			device = openDevice(responseDelayMicros, true);
+			remoteDevice = new RemoteXBeeDevice(device, LoopbackConnectionInterface.REMOTE_64_BIT_ADDRESS);
+		}
+		
+		@TearDown(Level.Trial)
+		public void close() {
+			device.close();
+		}
+	}
+	
+	/**
+	 * Local device connected to a loopback interface that echoes the 
+	 * transmitted data, which is received by a data listener.
+	 */
+	@State(Scope.Benchmark)
+	public static class ListenerDevice {
+		
+		// Variables.
+		@Param({"0", "100"})
+		public long responseDelayMicros;
+		
+		XBeeDevice device;
+		RemoteXBeeDevice remoteDevice;
+		
+		final LinkedBlockingQueue<XBeeMessage> receivedMessages = new LinkedBlockingQueue<XBeeMessage>();
+		
+		@Setup(Level.Trial)
+		public void open() throws XBeeException {
+			device = openDevice(responseDelayMicros, true);
+			remoteDevice = new RemoteXBeeDevice(device, LoopbackConnectionInterface.REMOTE_64_BIT_ADDRESS);
+			device.addDataListener(new IDataReceiveListener() {
+				/*
+				 * (non-Javadoc)
+				 * @see com.digi.xbee.api.listeners.IDataReceiveListener#dataReceived(com.digi.xbee.api.models.XBeeMessage)
+				 */
+				@Override
+				public void dataReceived(XBeeMessage xbeeMessage) {
+					receivedMessages.offer(xbeeMessage);
+				}
+			});
+		}
+		
+		@TearDown(Level.Trial)
+		public void close() {
+			device.close();
+		}
+	}
+	
+	/**
+	 * Sends data and waits for its transmit status.
+	 */
+	@Benchmark
+	public void sendData(LoopbackDevice state) throws XBeeException {
+		state.device.sendData(state.remoteDevice, DATA);
+	}
+	
+	/**
+	 * Reads a parameter of the local device.
+	 */
+	@Benchmark
+	public byte[] getParameter(LoopbackDevice state) throws XBeeException {
+		return state.device.getParameter("NI");
+	}
+	
+	/**
+	 * Sets a parameter of the local device.
+	 */
+	@Benchmark
+	public void setParameter(LoopbackDevice state) throws XBeeException {
+		state.device.setParameter("NI", DATA);
+	}
+	
+	/**
+	 * Sends data and polls the echoed data with {@code readData}.
+	 */
+	@Benchmark
+	public XBeeMessage readData(EchoDevice state) throws XBeeException {
+		state.device.sendDataAsync(state.remoteDevice, DATA);
+		XBeeMessage message = state.device.readData(READ_TIMEOUT * 1000);
+		if (message == null)
+			throw new TimeoutException();
+		return message;
+	}
+	
+	/**
+	 * Sends data and waits for the echoed data in a data listener.
+	 */
+	@Benchmark
+	public XBeeMessage dataListener(ListenerDevice state) throws XBeeException, InterruptedException {
+		state.device.sendDataAsync(state.remoteDevice, DATA);
+		XBeeMessage message = state.receivedMessages.poll(READ_TIMEOUT, TimeUnit.SECONDS);
+		if (message == null)
+			throw new TimeoutException();
+		return message;
+	}
+	
+	/**
+	 * Creates and opens a local device connected to a new loopback 
+	 * interface.
+	 * 
+	 * @param responseDelayMicros Delay of the answers in microseconds.
+	 * @param echoData {@code true} to echo the transmitted data.
+	 * 
+	 * @return The open device.
+	 * 
+	 * @throws XBeeException if the device cannot be opened.
+	 */
+	private static XBeeDevice openDevice(long responseDelayMicros, boolean echoData) throws XBeeException {
+		XBeeDevice device = new XBeeDevice(new LoopbackConnectionInterface(responseDelayMicros, echoData));
+		device.open();
+		return device;
+	}
+}
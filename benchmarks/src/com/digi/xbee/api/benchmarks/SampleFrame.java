@@ -0,0 +1,204 @@
+/**
+ * Copyright (c) 2014-2016 Digi International Inc.,
+ * All rights not expressly granted are reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * Digi International Inc. 11001 Bren Road East, Minnetonka, MN 55343
+ * =======================================================================
+ */
+package com.digi.xbee.api.benchmarks;
+
+import com.digi.xbee.api.models.ATCommandStatus;
+import com.digi.xbee.api.models.ModemStatusEvent;
+import com.digi.xbee.api.models.XBee16BitAddress;
+import com.digi.xbee.api.models.XBee64BitAddress;
+import com.digi.xbee.api.models.XBeeDiscoveryStatus;
+import com.digi.xbee.api.models.XBeeTransmitStatus;
+import com.digi.xbee.api.packet.XBeePacket;
+import com.digi.xbee.api.packet.common.ATCommandPacket;
+import com.digi.xbee.api.packet.common.ATCommandQueuePacket;
+import com.digi.xbee.api.packet.common.ATCommandResponsePacket;
+import com.digi.xbee.api.packet.common.ExplicitAddressingPacket;
+import com.digi.xbee.api.packet.common.ExplicitRxIndicatorPacket;
+import com.digi.xbee.api.packet.common.IODataSampleRxIndicatorPacket;
+import com.digi.xbee.api.packet.common.ModemStatusPacket;
+import com.digi.xbee.api.packet.common.ReceivePacket;
+import com.digi.xbee.api.packet.common.RemoteATCommandPacket;
+import com.digi.xbee.api.packet.common.RemoteATCommandResponsePacket;
+import com.digi.xbee.api.packet.common.TransmitPacket;
+import com.digi.xbee.api.packet.common.TransmitStatusPacket;
+import com.digi.xbee.api.packet.raw.RX16IOPacket;
+import com.digi.xbee.api.packet.raw.RX16Packet;
+import com.digi.xbee.api.packet.raw.RX64IOPacket;
+import com.digi.xbee.api.packet.raw.RX64Packet;
+import com.digi.xbee.api.packet.raw.TX16Packet;
+import com.digi.xbee.api.packet.raw.TX64Packet;
+import com.digi.xbee.api.packet.raw.TXStatusPacket;
+
+/**
+ * Enumerates a representative frame of every frame type of the 
+ * {@code packet.common} and {@code packet.raw} packages.
+ * 
+ * <p>The data frames carry {@value #RF_DATA_LENGTH} bytes of RF data that 
+ * include special bytes, so the frames are different in API and API escaped 
+ * modes.</p>
+ */
+public enum SampleFrame {
+
+	// Enumeration elements
+	AT_COMMAND {
+		@Override
+		public XBeePacket createPacket() {
+			return new ATCommandPacket(1, "NI", "BENCHMARK");
+		}
+	},
+	AT_COMMAND_QUEUE {
+		@Override
+		public XBeePacket createPacket() {
+			return new ATCommandQueuePacket(1, "NI", "BENCHMARK");
+		}
+	},
+	AT_COMMAND_RESPONSE {
+		@Override
+		public XBeePacket createPacket() {
+			return new ATCommandResponsePacket(1, ATCommandStatus.OK, "NI", RF_DATA);
+		}
+	},
+	EXPLICIT_ADDRESSING {
+		@Override
+		public XBeePacket createPacket() {
+			return new ExplicitAddressingPacket(1, ADDRESS_64, ADDRESS_16, 0xE8, 0xE8, 0x0011, 0xC105, 0, 0, RF_DATA);
+		}
+	},
+	EXPLICIT_RX_INDICATOR {
+		@Override
+		public XBeePacket createPacket() {
+			return new ExplicitRxIndicatorPacket(ADDRESS_64, ADDRESS_16, 0xE8, 0xE8, 0x0011, 0xC105, 0x01, RF_DATA);
+		}
+	},
+	IO_DATA_SAMPLE_RX_INDICATOR {
+		@Override
+		public XBeePacket createPacket() {
+			return new IODataSampleRxIndicatorPacket(ADDRESS_64, ADDRESS_16, 0x01, IO_SAMPLE_PAYLOAD);
+		}
+	},
+	MODEM_STATUS {
+		@Override
+		public XBeePacket createPacket() {
+			return new ModemStatusPacket(ModemStatusEvent.STATUS_JOINED_NETWORK);
+		}
+	},
+	RECEIVE {
+		@Override
+		public XBeePacket createPacket() {
+			return new ReceivePacket(ADDRESS_64, ADDRESS_16, 0x01, RF_DATA);
+		}
+	},
+	REMOTE_AT_COMMAND {
+		@Override
+		public XBeePacket createPacket() {
+			return new RemoteATCommandPacket(1, ADDRESS_64, ADDRESS_16, 0x02, "NI", "BENCHMARK");
+		}
+	},
+	REMOTE_AT_COMMAND_RESPONSE {
+		@Override
+		public XBeePacket createPacket() {
+			return new RemoteATCommandResponsePacket(1, ADDRESS_64, ADDRESS_16, "NI", ATCommandStatus.OK, RF_DATA);
+		}
+	},
+	TRANSMIT {
+		@Override
+		public XBeePacket createPacket() {
+			return new TransmitPacket(1, ADDRESS_64, ADDRESS_16, 0, 0, RF_DATA);
+		}
+	},
+	TRANSMIT_STATUS {
+		@Override
+		public XBeePacket createPacket() {
+			return new TransmitStatusPacket(1, ADDRESS_16, 0, XBeeTransmitStatus.SUCCESS, XBeeDiscoveryStatus.DISCOVERY_STATUS_NO_DISCOVERY_OVERHEAD);
+		}
+	},
+	RX_16 {
+		@Override
+		public XBeePacket createPacket() {
+			return new RX16Packet(ADDRESS_16, 0x28, 0x00, RF_DATA);
+		}
+	},
+	RX_64 {
+		@Override
+		public XBeePacket createPacket() {
+			return new RX64Packet(ADDRESS_64, 0x28, 0x00, RF_DATA);
+		}
+	},
+	RX_IO_16 {
+		@Override
+		public XBeePacket createPacket() {
+			return new RX16IOPacket(ADDRESS_16, 0x28, 0x00, RAW_IO_SAMPLE_PAYLOAD);
+		}
+	},
+	RX_IO_64 {
+		@Override
+		public XBeePacket createPacket() {
+			return new RX64IOPacket(ADDRESS_64, 0x28, 0x00, RAW_IO_SAMPLE_PAYLOAD);
+		}
+	},
+	TX_16 {
+		@Override
+		public XBeePacket createPacket() {
+			return new TX16Packet(1, ADDRESS_16, 0x00, RF_DATA);
+		}
+	},
+	TX_64 {
+		@Override
+		public XBeePacket createPacket() {
+			return new TX64Packet(1, ADDRESS_64, 0x00, RF_DATA);
+		}
+	},
+	TX_STATUS {
+		@Override
+		public XBeePacket createPacket() {
+			return new TXStatusPacket(1, XBeeTransmitStatus.SUCCESS);
+		}
+	};
+	
+	// Constants.
+	/**
+	 * Length of the RF data of the data frames (value: {@value}).
+	 */
+	public static final int RF_DATA_LENGTH = 64;
+	
+	static final XBee64BitAddress ADDRESS_64 = new XBee64BitAddress("0013A20040A9E77F");
+	static final XBee16BitAddress ADDRESS_16 = new XBee16BitAddress("7D11");
+	
+	static final byte[] RF_DATA = new byte[RF_DATA_LENGTH];
+	
+	static {
+		// Multiples of 7 include the 0x7E and 0x11 special bytes.
+		for (int i = 0; i < RF_DATA_LENGTH; i++)
+			RF_DATA[i] = (byte)(i * 7);
+	}
+	
+	/**
+	 * IO sample payload of the ZigBee, DigiMesh and DigiPoint protocols with 
+	 * digital and analog values.
+	 */
+	static final byte[] IO_SAMPLE_PAYLOAD = new byte[] {0x01, 0x02, 0x11, (byte)0x8A, 0x02, 0x01, 0x02, 
+			0x0C, 0x00, (byte)0xFA, 0x04, (byte)0xE2};
+	
+	/**
+	 * IO sample payload of the 802.15.4 protocol with digital and analog 
+	 * values.
+	 */
+	static final byte[] RAW_IO_SAMPLE_PAYLOAD = new byte[] {0x01, 0x15, 0x11, 0x01, 0x01, 0x02, 0x0C, 
+			0x00, (byte)0xFA};
+	
+	/**
+	 * Creates a new packet of the frame type.
+	 * 
+	 * @return The new packet.
+	 */
+	public abstract XBeePacket createPacket();
+}
@@ -12,16 +12,23 @@
 package com.digi.xbee.api;
 
 import java.io.IOException;
-import java.util.ArrayList;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
 import java.util.Arrays;
 import java.util.Set;
 import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.BiConsumer;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.digi.xbee.api.connection.IConnectionInterface;
 import com.digi.xbee.api.connection.DataReader;
+import com.digi.xbee.api.connection.FrameIDAllocator;
+import com.digi.xbee.api.connection.ResponseCorrelator;
+import com.digi.xbee.api.connection.ResponseCorrelator.PendingResponse;
+import com.digi.xbee.api.connection.XBeeMetrics;
 import com.digi.xbee.api.connection.serial.SerialPortParameters;
 import com.digi.xbee.api.exceptions.ATCommandException;
 import com.digi.xbee.api.exceptions.InterfaceNotOpenException;
@@ -52,7 +59,7 @@ import com.digi.xbee.api.models.OperatingMode;
 import com.digi.xbee.api.models.XBeeProtocol;
 import com.digi.xbee.api.models.XBeeTransmitStatus;
 import com.digi.xbee.api.packet.XBeeAPIPacket;
-import com.digi.xbee.api.packet.APIFrameType;
+import com.digi.xbee.api.packet.XBeeFrameWriter;
 import com.digi.xbee.api.packet.XBeePacket;
 import com.digi.xbee.api.packet.common.ATCommandPacket;
 import com.digi.xbee.api.packet.common.ATCommandQueuePacket;
@@ -112,6 +119,12 @@ public abstract class AbstractXBeeDevice {
 	 */
 	protected final static int TIMEOUT_ENTER_COMMAND_MODE = 1500;
 	
+	/**
+	 * Size of the buffer reused to serialize the packets to send: {@value} 
+	 * bytes. Bigger frames are serialized into a new array.
+	 */
+	private final static int WRITE_BUFFER_SIZE = 1024;
+	
 	// Variables.
 	protected IConnectionInterface connectionInterface;
 	
@@ -124,11 +137,23 @@ public abstract class AbstractXBeeDevice {
 	protected XBee16BitAddress xbee16BitAddress = XBee16BitAddress.UNKNOWN_ADDRESS;
 	protected XBee64BitAddress xbee64BitAddress = XBee64BitAddress.UNKNOWN_ADDRESS;
 	
-	protected int currentFrameID = 0xFF;
 	protected int receiveTimeout = DEFAULT_RECEIVE_TIMETOUT;
 	
 	protected AbstractXBeeDevice localXBeeDevice;
 	
+	protected FrameIDAllocator frameIDAllocator;
+	
+	/**
+	 * @deprecated Frame IDs are no longer taken from this field and changing
+	 *             it has no effect. Use {@link #getNextFrameID()} or
+	 *             {@link #getFrameIDAllocator()} instead. This field will be
+	 *             removed in the next release.
+	 */
+	@Deprecated
+	protected int currentFrameID = 0xFF;
+	
+	protected XBeeMetrics metrics;
+	
 	protected Logger logger;
 	
 	private String nodeID;
@@ -138,6 +163,11 @@ public abstract class AbstractXBeeDevice {
 	
 	private Object ioLock = new Object();
 	
+	private final Object writeLock = new Object();
+	
+	private XBeeFrameWriter frameWriter;
+	private ByteBuffer writeBuffer;
+	
 	private boolean ioPacketReceived = false;
 	private boolean applyConfigurationChanges = true;
 	
@@ -235,6 +265,8 @@ public abstract class AbstractXBeeDevice {
 			throw new NullPointerException("ConnectionInterface cannot be null.");
 		
 		this.connectionInterface = connectionInterface;
+		this.frameIDAllocator = new FrameIDAllocator();
+		this.metrics = new XBeeMetrics();
 		this.logger = LoggerFactory.getLogger(this.getClass());
 		logger.debug(toString() + "Using the connection interface {}.", 
 				connectionInterface.getClass().getSimpleName());
@@ -377,7 +409,7 @@ public abstract class AbstractXBeeDevice {
 		}
 		// Get the Node ID.
 		response = getParameter("NI");
-		nodeID = new String(response);
+		changeNodeID(new String(response));
 		
 		// Get the hardware version.
 		if (hardwareVersion == null) {
@@ -409,7 +441,7 @@ public abstract class AbstractXBeeDevice {
 				&& protocol != XBeeProtocol.DIGI_POINT
 				&& protocol != XBeeProtocol.UNKNOWN) {
 			response = getParameter("MY");
-			xbee16BitAddress = new XBee16BitAddress(response);
+			change16BitAddress(new XBee16BitAddress(response));
 		}
 	}
 	
@@ -504,7 +536,58 @@ public abstract class AbstractXBeeDevice {
 		
 		setParameter("NI", nodeID.getBytes());
 		
+		changeNodeID(nodeID);
+	}
+	
+	/**
+	 * Changes the node identifier of this XBee device.
+	 * 
+	 * <p>If this is a remote device, the network of the local device is 
+	 * notified so its node identifier index stays consistent.</p>
+	 * 
+	 * @param nodeID The new node id of the device.
+	 */
+	private void changeNodeID(String nodeID) {
+		String oldNodeID = this.nodeID;
 		this.nodeID = nodeID;
+		
+		if (nodeID == null ? oldNodeID == null : nodeID.equals(oldNodeID))
+			return;
+		XBeeNetwork network = getLocalNetwork();
+		if (network != null)
+			network.nodeIDChanged((RemoteXBeeDevice)this, oldNodeID);
+	}
+	
+	/**
+	 * Changes the 16-bit address of this XBee device.
+	 * 
+	 * <p>If this is a remote device, the network of the local device is 
+	 * notified so its 16-bit address indexes stay consistent.</p>
+	 * 
+	 * @param xbee16BitAddress The new 16-bit address of the device.
+	 */
+	private void change16BitAddress(XBee16BitAddress xbee16BitAddress) {
+		XBee16BitAddress old16BitAddress = this.xbee16BitAddress;
+		this.xbee16BitAddress = xbee16BitAddress;
+		
+		if (xbee16BitAddress.equals(old16BitAddress))
+			return;
+		XBeeNetwork network = getLocalNetwork();
+		if (network != null)
+			network.xbee16BitAddressChanged((RemoteXBeeDevice)this, old16BitAddress);
+	}
+	
+	/**
+	 * Returns the network of the local XBee device if this is a remote device 
+	 * and the network was already created.
+	 * 
+	 * @return The network of the local XBee device, {@code null} if this is 
+	 *         not a remote device or the network does not exist.
+	 */
+	private XBeeNetwork getLocalNetwork() {
+		if (this instanceof RemoteXBeeDevice && localXBeeDevice instanceof XBeeDevice)
+			return ((XBeeDevice)localXBeeDevice).network;
+		return null;
 	}
 	
 	/**
@@ -549,7 +632,7 @@ public abstract class AbstractXBeeDevice {
 		
 		// Only update the Node Identifier if the provided is not null.
 		if (device.getNodeID() != null)
-			this.nodeID = device.getNodeID();
+			changeNodeID(device.getNodeID());
 		
 		// Only update the 64-bit address if the original is null or unknown.
 		XBee64BitAddress addr64 = device.get64BitAddress();
@@ -564,7 +647,7 @@ public abstract class AbstractXBeeDevice {
 		// TODO Should the 16-bit address be always updated? Or following the same rule as the 64-bit address.
 		XBee16BitAddress addr16 = device.get16BitAddress();
 		if (addr16 != null && !addr16.equals(xbee16BitAddress)) {
-			xbee16BitAddress = addr16;
+			change16BitAddress(addr16);
 		}
 		
 		//this.deviceType = device.deviceType; // This is not yet done.
@@ -1027,9 +1110,6 @@ public abstract class AbstractXBeeDevice {
 			throw new InvalidOperatingModeException(operatingMode);
 		case API:
 		case API_ESCAPE:
-			// Build response container.
-			ArrayList<XBeePacket> responseList = new ArrayList<XBeePacket>();
-			
 			// If the packet does not need frame ID, send it async. and return null.
 			if (packet instanceof XBeeAPIPacket) {
 				if (!((XBeeAPIPacket)packet).needsAPIFrameID()) {
@@ -1041,36 +1121,126 @@ public abstract class AbstractXBeeDevice {
 				return null;
 			}
 			
+			// The data reader delivers the responses, it only exists once 
+			// the connection has been opened.
+			if (dataReader == null)
+				throw new InterfaceNotOpenException();
+			
 			// Add the required frame ID to the packet if necessary.
 			insertFrameID(packet);
 			
-			// Generate a packet received listener for the packet to be sent.
-			IPacketReceiveListener packetReceiveListener = createPacketReceivedListener(packet, responseList);
-			
-			// Add the packet listener to the data reader.
-			addPacketListener(packetReceiveListener);
+			// Register the packet in the response correlator so the data 
+			// reader delivers the answer directly to this request.
+			ResponseCorrelator responseCorrelator = dataReader.getResponseCorrelator();
+			PendingResponse pendingResponse = responseCorrelator.register((XBeeAPIPacket)packet);
 			
-			// Write the packet data.
-			writePacket(packet);
 			try {
+				// Write the packet data.
+				long sendTime = System.nanoTime();
+				writePacket(packet);
 				// Wait for response or timeout.
-				synchronized (responseList) {
-					try {
-						responseList.wait(receiveTimeout);
-					} catch (InterruptedException e) {}
-				}
+				XBeePacket response = pendingResponse.waitForResponse(receiveTimeout);
 				// After the wait check if we received any response, if not throw timeout exception.
-				if (responseList.size() < 1)
+				if (response == null) {
+					metrics.requestTimedOut();
 					throw new TimeoutException();
+				}
+				metrics.responseReceived(response, System.nanoTime() - sendTime);
 				// Return the received packet.
-				return responseList.get(0);
+				return response;
 			} finally {
-				// Always remove the packet listener from the list.
-				removePacketListener(packetReceiveListener);
+				// Always remove the request from the correlator.
+				responseCorrelator.unregister(pendingResponse);
 			}
 		}
 	}
 	
+	/**
+	 * Sends the given XBee packet without blocking and returns a future that 
+	 * is completed when its response is received.
+	 * 
+	 * <p>The returned future is never completed by timeout, the caller is 
+	 * responsible for completing or cancelling it when it is no longer 
+	 * interested in the response. Once done, the request is removed from the 
+	 * response correlator.</p>
+	 * 
+	 * <p>If the packet does not need a frame ID, it is sent and the returned 
+	 * future is already completed with a {@code null} response.</p>
+	 * 
+	 * @param packet XBee packet to be sent.
+	 * 
+	 * @return A future completed with the response of the sent packet.
+	 * 
+	 * @throws InterfaceNotOpenException if this device connection is not open.
+	 * @throws InvalidOperatingModeException if the operating mode is different 
+	 *                                       than {@link OperatingMode#API} and 
+	 *                                       {@link OperatingMode#API_ESCAPE}.
+	 * @throws IOException if an I/O error occurs while sending the XBee packet.
+	 * @throws NullPointerException if {@code packet == null}.
+	 * 
+	 * @see #sendXBeePacket(XBeePacket)
+	 * @see #sendXBeePacketAsync(XBeePacket)
+	 * @see com.digi.xbee.api.packet.XBeePacket
+	 */
+	protected CompletableFuture<XBeePacket> sendXBeePacketFuture(XBeePacket packet) 
+			throws InvalidOperatingModeException, IOException {
+		// Check if the packet to send is null.
+		if (packet == null)
+			throw new NullPointerException("XBee packet cannot be null.");
+		// Check connection.
+		if (!connectionInterface.isOpen())
+			throw new InterfaceNotOpenException();
+		
+		OperatingMode operatingMode = getOperatingMode();
+		switch (operatingMode) {
+		case AT:
+		case UNKNOWN:
+		default:
+			throw new InvalidOperatingModeException(operatingMode);
+		case API:
+		case API_ESCAPE:
+			// If the packet does not need frame ID, there is no response to wait for.
+			if (!(packet instanceof XBeeAPIPacket) || !((XBeeAPIPacket)packet).needsAPIFrameID()) {
+				sendXBeePacketAsync(packet);
+				return CompletableFuture.completedFuture(null);
+			}
+			
+			// The data reader delivers the responses, it only exists once 
+			// the connection has been opened.
+			if (dataReader == null)
+				throw new InterfaceNotOpenException();
+			
+			// Add the required frame ID to the packet if necessary.
+			insertFrameID(packet);
+			
+			final ResponseCorrelator responseCorrelator = dataReader.getResponseCorrelator();
+			final PendingResponse pendingResponse = responseCorrelator.register((XBeeAPIPacket)packet);
+			
+			final long sendTime = System.nanoTime();
+			try {
+				writePacket(packet);
+			} catch (IOException e) {
+				responseCorrelator.unregister(pendingResponse);
+				throw e;
+			}
+			
+			// Remove the request from the correlator when the caller gives up.
+			pendingResponse.getFuture().whenComplete(new BiConsumer<XBeePacket, Throwable>() {
+				/*
+				 * (non-Javadoc)
+				 * @see java.util.function.BiConsumer#accept(java.lang.Object, java.lang.Object)
+				 */
+				@Override
+				public void accept(XBeePacket response, Throwable error) {
+					responseCorrelator.unregister(pendingResponse);
+					if (response != null)
+						metrics.responseReceived(response, System.nanoTime() - sendTime);
+				}
+			});
+			return pendingResponse.getFuture();
+		}
+	}
+	
 	/**
 	 * Insert (if possible) the next frame ID stored in the device to the 
 	 * provided packet.
@@ -1080,7 +1250,7 @@ public abstract class AbstractXBeeDevice {
 	 * @see com.digi.xbee.api.packet.XBeePacket
 	 */
 	private void insertFrameID(XBeePacket xbeePacket) {
-		if (xbeePacket instanceof XBeeAPIPacket)
+		if (!(xbeePacket instanceof XBeeAPIPacket))
 			return;
 		
 		XBeeAPIPacket apiPacket = (XBeeAPIPacket)xbeePacket;
@@ -1089,72 +1259,6 @@ public abstract class AbstractXBeeDevice {
 			apiPacket.setFrameID(getNextFrameID());
 	}
 	
-	/**
-	 * Returns the packet listener corresponding to the provided sent packet. 
-	 * 
-	 * <p>The listener will filter those packets  matching with the Frame ID of 
-	 * the sent packet storing them in the provided responseList array.</p>
-	 * 
-	 * @param sentPacket The packet sent.
-	 * @param responseList List of packets received that correspond to the 
-	 *                     frame ID of the packet sent.
-	 * 
-	 * @return A packet receive listener that will filter the packets received 
-	 *         corresponding to the sent one.
-	 * 
-	 * @see com.digi.xbee.api.listeners.IPacketReceiveListener
-	 * @see com.digi.xbee.api.packet.XBeePacket
-	 */
-	private IPacketReceiveListener createPacketReceivedListener(final XBeePacket sentPacket, final ArrayList<XBeePacket> responseList) {
-		IPacketReceiveListener packetReceiveListener = new IPacketReceiveListener() {
-			/*
-			 * (non-Javadoc)
-			 * @see com.digi.xbee.api.listeners.IPacketReceiveListener#packetReceived(com.digi.xbee.api.packet.XBeePacket)
-			 */
-			@Override
-			public void packetReceived(XBeePacket receivedPacket) {
-				// Check if it is the packet we are waiting for.
-				if (((XBeeAPIPacket)receivedPacket).checkFrameID((((XBeeAPIPacket)sentPacket).getFrameID()))) {
-					// Security check to avoid class cast exceptions. It has been observed that parallel processes 
-					// using the same connection but with different frame index may collide and cause this exception at some point.
-					if (sentPacket instanceof XBeeAPIPacket
-							&& receivedPacket instanceof XBeeAPIPacket) {
-						XBeeAPIPacket sentAPIPacket = (XBeeAPIPacket)sentPacket;
-						XBeeAPIPacket receivedAPIPacket = (XBeeAPIPacket)receivedPacket;
-						
-						// If the packet sent is an AT command, verify that the received one is an AT command response and 
-						// the command matches in both packets.
-						if (sentAPIPacket.getFrameType() == APIFrameType.AT_COMMAND) {
-							if (receivedAPIPacket.getFrameType() != APIFrameType.AT_COMMAND_RESPONSE)
-								return;
-							if (!((ATCommandPacket)sentAPIPacket).getCommand().equalsIgnoreCase(((ATCommandResponsePacket)receivedPacket).getCommand()))
-								return;
-						}
-						// If the packet sent is a remote AT command, verify that the received one is a remote AT command response and 
-						// the command matches in both packets.
-						if (sentAPIPacket.getFrameType() == APIFrameType.REMOTE_AT_COMMAND_REQUEST) {
-							if (receivedAPIPacket.getFrameType() != APIFrameType.REMOTE_AT_COMMAND_RESPONSE)
-								return;
-							if (!((RemoteATCommandPacket)sentAPIPacket).getCommand().equalsIgnoreCase(((RemoteATCommandResponsePacket)receivedPacket).getCommand()))
-								return;
-						}
-					}
-					
-					// Verify that the sent packet is not the received one! This can happen when the echo mode is enabled in the 
-					// serial port.
-					if (!sentPacket.equals(receivedPacket)) {
-						responseList.add(receivedPacket);
-						synchronized (responseList) {
-							responseList.notify();
-						}
-					}
-				}
-			}
-		};
-		
-		return packetReceiveListener;
-	}
-	
 	/**
 	 * Writes the given XBee packet in the connection interface of this device.
 	 * 
@@ -1166,33 +1270,87 @@ public abstract class AbstractXBeeDevice {
 	 * @see com.digi.xbee.api.packet.XBeePacket
 	 */
 	private void writePacket(XBeePacket packet) throws IOException {
-		logger.debug(toString() + "Sending XBee packet: \n{}", packet.toPrettyString());
+		if (logger.isDebugEnabled())
+			logger.debug(toString() + "Sending XBee packet: \n{}", packet.toPrettyString());
 		// Write bytes with the required escaping mode.
-		switch (operatingMode) {
-		case API:
-		default:
-			connectionInterface.writeData(packet.generateByteArray());
-			break;
-		case API_ESCAPE:
-			connectionInterface.writeData(packet.generateByteArrayEscaped());
-			break;
+		OperatingMode mode = operatingMode == OperatingMode.API_ESCAPE ? OperatingMode.API_ESCAPE : OperatingMode.API;
+		synchronized (writeLock) {
+			// Serialize the packet into the reused buffer, escaping it and 
+			// computing the checksum in a single pass.
+			if (frameWriter == null) {
+				frameWriter = new XBeeFrameWriter(mode);
+				writeBuffer = ByteBuffer.allocate(WRITE_BUFFER_SIZE);
+			} else
+				frameWriter.setOperatingMode(mode);
+			writeBuffer.clear();
+			int length;
+			try {
+				length = frameWriter.write(packet, writeBuffer);
+				connectionInterface.writeData(writeBuffer.array(), 0, length);
+			} catch (BufferOverflowException e) {
+				byte[] data = mode == OperatingMode.API_ESCAPE ? 
+						packet.generateByteArrayEscaped() : packet.generateByteArray();
+				length = data.length;
+				connectionInterface.writeData(data);
+			}
+			metrics.frameSent(packet, length);
 		}
 	}
 	
 	/**
 	 * Returns the next Frame ID of this XBee device.
 	 * 
+	 * <p>The frame ID is leased from the frame ID allocator of the local 
+	 * device, so it is not handed out again while it is in flight. This 
+	 * method can be called from several threads at the same time.</p>
+	 * 
 	 * @return The next Frame ID.
+	 * 
+	 * @see #getFrameIDAllocator()
 	 */
 	protected int getNextFrameID() {
 		if (isRemote())
 			return localXBeeDevice.getNextFrameID();
-		if (currentFrameID == 0xff) {
-			// Reset counter.
-			currentFrameID = 1;
-		} else
-			currentFrameID ++;
-		return currentFrameID;
+		return frameIDAllocator.allocate();
+	}
+	
+	/**
+	 * Returns the frame ID allocator of this XBee device. Remote devices 
+	 * return the allocator of their local device.
+	 * 
+	 * <p>The allocator provides the number of frame IDs in flight and how 
+	 * many times all of them were in use.</p>
+	 * 
+	 * @return The frame ID allocator.
+	 * 
+	 * @see com.digi.xbee.api.connection.FrameIDAllocator
+	 */
+	public FrameIDAllocator getFrameIDAllocator() {
+		if (isRemote())
+			return localXBeeDevice.getFrameIDAllocator();
+		return frameIDAllocator;
+	}
+	
+	/**
+	 * Returns the runtime metrics of the receive and transmit pipeline of 
+	 * this XBee device. Remote devices return the metrics of their local 
+	 * device.
+	 * 
+	 * <p>The metrics count the received and sent frames per frame type, the 
+	 * parse failures, the dropped packets and the listener queue depth, and 
+	 * keep the histograms of the AT command and transmit status round trip 
+	 * latencies. They can be registered in JMX with 
+	 * {@link XBeeMetrics#registerMBean(String)}.</p>
+	 * 
+	 * @return The metrics of the device.
+	 * 
+	 * @see com.digi.xbee.api.connection.XBeeMetrics
+	 * @see com.digi.xbee.api.connection.XBeeMetricsSnapshot
+	 */
+	public XBeeMetrics getMetrics() {
+		if (isRemote())
+			return localXBeeDevice.getMetrics();
+		return metrics;
 	}
 	
 	/**
@@ -1238,17 +1396,43 @@ public abstract class AbstractXBeeDevice {
 		if (receivedPacket == null)
 			throw new TransmitException(null);
 		
-		XBeeTransmitStatus status = null;
-		if (receivedPacket instanceof TransmitStatusPacket)
-			status = ((TransmitStatusPacket)receivedPacket).getTransmitStatus();
-		else if (receivedPacket instanceof TXStatusPacket)
-			status = ((TXStatusPacket)receivedPacket).getTransmitStatus();
+		XBeeTransmitStatus status = getTransmitStatus(receivedPacket);
 		
 		if (status != XBeeTransmitStatus.SUCCESS
 				&& status != XBeeTransmitStatus.SELF_ADDRESSED)
 				throw new TransmitException(status);
 	}
 	
+	/**
+	 * Returns the transmit status reported by the given packet, received as 
+	 * answer of a transmission.
+	 * 
+	 * @param receivedPacket The packet received as answer of a transmission.
+	 * 
+	 * @return The transmit status of the packet.
+	 * 
+	 * @throws TransmitException if the received packet is not a 
+	 *                           {@code TransmitStatusPacket} or a 
+	 *                           {@code TXStatusPacket}.
+	 * 
+	 * @see #sendAndCheckXBeePacket(XBeePacket, boolean)
+	 * @see com.digi.xbee.api.models.XBeeTransmitStatus
+	 */
+	protected static XBeeTransmitStatus getTransmitStatus(XBeePacket receivedPacket) throws TransmitException {
+		if (receivedPacket instanceof TransmitStatusPacket)
+			return ((TransmitStatusPacket)receivedPacket).getTransmitStatus();
+		else if (receivedPacket instanceof TXStatusPacket)
+			return ((TXStatusPacket)receivedPacket).getTransmitStatus();
+		
+		String packetType = null;
+		if (receivedPacket instanceof XBeeAPIPacket && ((XBeeAPIPacket)receivedPacket).getFrameType() != null)
+			packetType = ((XBeeAPIPacket)receivedPacket).getFrameType().getName();
+		else if (receivedPacket != null)
+			packetType = receivedPacket.getClass().getSimpleName();
+		throw new TransmitException("Unexpected response received instead of a transmit status: " 
+				+ packetType + ".", null);
+	}
+	
 	/**
 	 * Sets the configuration of the given IO line of this XBee device.
 	 * 
@@ -2127,7 +2311,7 @@ public abstract class AbstractXBeeDevice {
 		
 		setParameter("MY", xbee16BitAddress.getValue());
 		
-		this.xbee16BitAddress = xbee16BitAddress;
+		change16BitAddress(xbee16BitAddress);
 	}
 	
 	/**
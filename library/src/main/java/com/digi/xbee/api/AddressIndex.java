@@ -0,0 +1,234 @@
+/**
+ * Copyright (c) 2014-2016 Digi International Inc.,
+ * All rights not expressly granted are reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * Digi International Inc. 11001 Bren Road East, Minnetonka, MN 55343
+ * =======================================================================
+ */
+package com.digi.xbee.api;
+
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * This class maps primitive XBee addresses to the remote devices of a 
+ * network.
+ * 
+ * <p>Unlike a {@code Map} keyed by {@code XBee64BitAddress} or 
+ * {@code XBee16BitAddress}, the lookups take the address value directly, so 
+ * the sender of a received frame can be resolved without creating any 
+ * object. Entries are stored in open addressing arrays with linear probing.</p>
+ * 
+ * <p>Lookups do not block: they run optimistically and only take the read 
+ * lock if a modification happened at the same time. Modifications take the 
+ * write lock.</p>
+ * 
+ * @see XBeeNetwork
+ */
+final class AddressIndex {
+	
+	// Constants.
+	private static final int INITIAL_CAPACITY = 16;
+	
+	// Variables.
+	private final StampedLock lock = new StampedLock();
+	
+	// A slot is free when its device is null.
+	private long[] keys = new long[INITIAL_CAPACITY];
+	private RemoteXBeeDevice[] devices = new RemoteXBeeDevice[INITIAL_CAPACITY];
+	
+	private int size = 0;
+	
+	/**
+	 * Returns the remote device indexed by the given address value.
+	 * 
+	 * @param key The address value.
+	 * 
+	 * @return The remote device, {@code null} if there is no device indexed 
+	 *         by the address.
+	 */
+	RemoteXBeeDevice get(long key) {
+		long stamp = lock.tryOptimisticRead();
+		RemoteXBeeDevice device = find(keys, devices, key);
+		if (!lock.validate(stamp)) {
+			stamp = lock.readLock();
+			try {
+				device = find(keys, devices, key);
+			} finally {
+				lock.unlockRead(stamp);
+			}
+		}
+		return device;
+	}
+	
+	/**
+	 * Indexes the given remote device by the given address value, replacing 
+	 * the device previously indexed by it.
+	 * 
+	 * @param key The address value.
+	 * @param device The remote device.
+	 */
+	void put(long key, RemoteXBeeDevice device) {
+		long stamp = lock.writeLock();
+		try {
+			if ((size + 1) * 4 > devices.length * 3)
+				resize(devices.length * 2);
+			
+			int mask = devices.length - 1;
+			int i = slot(key, mask);
+			while (devices[i] != null) {
+				if (keys[i] == key) {
+					devices[i] = device;
+					return;
+				}
+				i = (i + 1) & mask;
+			}
+			keys[i] = key;
+			devices[i] = device;
+			size++;
+		} finally {
+			lock.unlockWrite(stamp);
+		}
+	}
+	
+	/**
+	 * Removes the given address value from the index only if it is indexing 
+	 * the given remote device.
+	 * 
+	 * @param key The address value.
+	 * @param device The remote device expected to be indexed by the address.
+	 * 
+	 * @return {@code true} if the entry was removed, {@code false} otherwise.
+	 */
+	boolean remove(long key, RemoteXBeeDevice device) {
+		long stamp = lock.writeLock();
+		try {
+			int mask = devices.length - 1;
+			int i = slot(key, mask);
+			while (devices[i] != null && keys[i] != key)
+				i = (i + 1) & mask;
+			if (devices[i] == null || devices[i] != device)
+				return false;
+			
+			// Shift back the following entries of the cluster, so the 
+			// lookups do not stop at the freed slot.
+			devices[i] = null;
+			int j = i;
+			while (true) {
+				j = (j + 1) & mask;
+				if (devices[j] == null)
+					break;
+				int home = slot(keys[j], mask);
+				boolean inPlace = i <= j ? (i < home && home <= j) : (i < home || home <= j);
+				if (!inPlace) {
+					keys[i] = keys[j];
+					devices[i] = devices[j];
+					devices[j] = null;
+					i = j;
+				}
+			}
+			size--;
+			return true;
+		} finally {
+			lock.unlockWrite(stamp);
+		}
+	}
+	
+	/**
+	 * Removes all the entries of the index.
+	 */
+	void clear() {
+		long stamp = lock.writeLock();
+		try {
+			keys = new long[INITIAL_CAPACITY];
+			devices = new RemoteXBeeDevice[INITIAL_CAPACITY];
+			size = 0;
+		} finally {
+			lock.unlockWrite(stamp);
+		}
+	}
+	
+	/**
+	 * Returns the number of entries of the index.
+	 * 
+	 * @return The number of entries.
+	 */
+	int size() {
+		long stamp = lock.readLock();
+		try {
+			return size;
+		} finally {
+			lock.unlockRead(stamp);
+		}
+	}
+	
+	/**
+	 * Looks for the given address value in the given arrays.
+	 * 
+	 * <p>The arrays may be modified at the same time by an optimistic 
+	 * lookup, so this method never fails or loops forever on inconsistent 
+	 * data; the result is discarded in that case.</p>
+	 * 
+	 * @param keys The address values.
+	 * @param devices The remote devices.
+	 * @param key The address value to look for.
+	 * 
+	 * @return The remote device, {@code null} if it is not found.
+	 */
+	private static RemoteXBeeDevice find(long[] keys, RemoteXBeeDevice[] devices, long key) {
+		if (keys.length != devices.length)
+			return null;
+		
+		int mask = devices.length - 1;
+		int i = slot(key, mask);
+		for (int n = 0; n < devices.length; n++) {
+			RemoteXBeeDevice device = devices[i];
+			if (device == null)
+				return null;
+			if (keys[i] == key)
+				return device;
+			i = (i + 1) & mask;
+		}
+		return null;
+	}
+	
+	/**
+	 * Moves the entries to new arrays of the given capacity.
+	 * 
+	 * @param capacity The new capacity, a power of two.
+	 */
+	private void resize(int capacity) {
+		long[] oldKeys = keys;
+		RemoteXBeeDevice[] oldDevices = devices;
+		long[] newKeys = new long[capacity];
+		RemoteXBeeDevice[] newDevices = new RemoteXBeeDevice[capacity];
+		int mask = capacity - 1;
+		for (int i = 0; i < oldDevices.length; i++) {
+			if (oldDevices[i] == null)
+				continue;
+			int j = slot(oldKeys[i], mask);
+			while (newDevices[j] != null)
+				j = (j + 1) & mask;
+			newKeys[j] = oldKeys[i];
+			newDevices[j] = oldDevices[i];
+		}
+		keys = newKeys;
+		devices = newDevices;
+	}
+	
+	/**
+	 * Returns the preferred slot of the given address value.
+	 * 
+	 * @param key The address value.
+	 * @param mask The capacity of the arrays minus one.
+	 * 
+	 * @return The slot.
+	 */
+	private static int slot(long key, int mask) {
+		long hash = key * 0x9E3779B97F4A7C15L;
+		return (int)(hash ^ (hash >>> 32)) & mask;
+	}
+}
@@ -0,0 +1,279 @@
+/**
+ * Copyright (c) 2014-2016 Digi International Inc.,
+ * All rights not expressly granted are reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * Digi International Inc. 11001 Bren Road East, Minnetonka, MN 55343
+ * =======================================================================
+ */
+package com.digi.xbee.api;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.digi.xbee.api.exceptions.InterfaceNotOpenException;
+import com.digi.xbee.api.exceptions.OperationNotSupportedException;
+import com.digi.xbee.api.exceptions.XBeeException;
+import com.digi.xbee.api.listeners.INetworkChangeListener;
+import com.digi.xbee.api.models.XBee16BitAddress;
+import com.digi.xbee.api.models.XBee64BitAddress;
+
+/**
+ * This class repeats the node discovery of an XBee network in the background 
+ * and reports only the changes between scans.
+ * 
+ * <p>The devices that answer a scan are merged into the network. A device is 
+ * reported as added if it was not in the network, and as updated if its 
+ * node identifier or 16-bit address changed. The devices of the network that 
+ * do not answer the configured number of consecutive scans are removed from 
+ * it and reported as lost.</p>
+ * 
+ * @see XBeeNetwork#startContinuousDiscovery(long, int)
+ * @see INetworkChangeListener
+ */
+class ContinuousDiscovery {
+	
+	// Variables.
+	private final XBeeNetwork network;
+	private final XBeeDevice localDevice;
+	private final NodeDiscovery nodeDiscovery;
+	
+	private final List<INetworkChangeListener> listeners;
+	
+	private final long period;
+	private final int lostScans;
+	
+	// Number of consecutive scans each device of the network did not answer.
+	private final Map<RemoteXBeeDevice, Integer> missedScans = new IdentityHashMap<RemoteXBeeDevice, Integer>();
+	
+	private final Object lock = new Object();
+	
+	private volatile boolean running = false;
+	
+	private Logger logger;
+	
+	/**
+	 * Instantiates a new {@code ContinuousDiscovery} object.
+	 * 
+	 * @param network The network to keep updated.
+	 * @param localDevice The local XBee device that performs the discovery.
+	 * @param listeners The listeners to notify about the network changes.
+	 * @param period Time to wait between the end of a scan and the start of 
+	 *               the next one in milliseconds.
+	 * @param lostScans Number of consecutive scans a device must not answer 
+	 *                  to be considered lost.
+	 */
+	ContinuousDiscovery(XBeeNetwork network, XBeeDevice localDevice, 
+			List<INetworkChangeListener> listeners, long period, int lostScans) {
+		this.network = network;
+		this.localDevice = localDevice;
+		this.listeners = listeners;
+		this.period = period;
+		this.lostScans = lostScans;
+		this.nodeDiscovery = new NodeDiscovery(localDevice);
+		
+		logger = LoggerFactory.getLogger(this.getClass());
+	}
+	
+	/**
+	 * Starts the background thread that performs the scans.
+	 * 
+	 * @see #stop()
+	 */
+	void start() {
+		running = true;
+		
+		Thread discoveryThread = new Thread() {
+			@Override
+			public void run() {
+				try {
+					while (running) {
+						if (network.isDiscoveryRunning())
+							logger.debug("{}Discovery process running, skipping scan.", localDevice.toString());
+						else {
+							try {
+								scan();
+							} catch (InterfaceNotOpenException e) {
+								logger.error("{}Continuous discovery stopped: {}", localDevice.toString(), e.getMessage());
+								break;
+							} catch (XBeeException e) {
+								logger.error("{}Error in continuous discovery: {}", localDevice.toString(), e.getMessage());
+							} catch (RuntimeException e) {
+								logger.error(e.getMessage(), e);
+							}
+						}
+						
+						synchronized (lock) {
+							if (running) {
+								try {
+									lock.wait(period);
+								} catch (InterruptedException e) {
+									break;
+								}
+							}
+						}
+					}
+				} finally {
+					// Never report the discovery as running once the thread ends.
+					running = false;
+				}
+			}
+		};
+		discoveryThread.setName("XBeeContinuousDiscovery");
+		discoveryThread.setDaemon(true);
+		discoveryThread.start();
+	}
+	
+	/**
+	 * Stops the scans. If a scan is in progress, it is stopped without 
+	 * reporting any change.
+	 * 
+	 * @see #start()
+	 */
+	void stop() {
+		running = false;
+		nodeDiscovery.stopDiscoveryProcess();
+		synchronized (lock) {
+			lock.notifyAll();
+		}
+	}
+	
+	/**
+	 * Returns whether the scans are running.
+	 * 
+	 * @return {@code true} if the scans are running, {@code false} otherwise.
+	 */
+	boolean isRunning() {
+		return running;
+	}
+	
+	/**
+	 * Performs a scan and notifies the differences with the devices of the 
+	 * network.
+	 * 
+	 * @throws XBeeException if there is an error discovering the devices.
+	 */
+	private void scan() throws XBeeException {
+		List<RemoteXBeeDevice> discovered = nodeDiscovery.discoverAllDevices();
+		// Incomplete scans cannot tell which devices are lost.
+		if (!running)
+			return;
+		
+		List<RemoteXBeeDevice> added = new ArrayList<RemoteXBeeDevice>();
+		List<RemoteXBeeDevice> updated = new ArrayList<RemoteXBeeDevice>();
+		List<RemoteXBeeDevice> lost = new ArrayList<RemoteXBeeDevice>();
+		Map<RemoteXBeeDevice, Boolean> answered = new IdentityHashMap<RemoteXBeeDevice, Boolean>();
+		
+		for (RemoteXBeeDevice device : discovered) {
+			RemoteXBeeDevice existing = getExistingDevice(device);
+			String oldNodeID = existing == null ? null : existing.getNodeID();
+			XBee16BitAddress old16BitAddress = existing == null ? null : existing.get16BitAddress();
+			
+			RemoteXBeeDevice devInNetwork = network.addRemoteDevice(device);
+			if (devInNetwork == null)
+				continue;
+			answered.put(devInNetwork, Boolean.TRUE);
+			
+			if (existing == null)
+				added.add(devInNetwork);
+			else if (!equal(oldNodeID, devInNetwork.getNodeID()) 
+					|| !equal(old16BitAddress, devInNetwork.get16BitAddress()))
+				updated.add(devInNetwork);
+		}
+		
+		// Count the scans missed by the devices of the network.
+		Map<RemoteXBeeDevice, Integer> previous = new IdentityHashMap<RemoteXBeeDevice, Integer>(missedScans);
+		missedScans.clear();
+		for (RemoteXBeeDevice device : network.getDevices()) {
+			if (answered.containsKey(device)) {
+				missedScans.put(device, 0);
+				continue;
+			}
+			Integer missed = previous.get(device);
+			int count = (missed == null ? 0 : missed) + 1;
+			if (count >= lostScans) {
+				network.removeRemoteDevice(device);
+				lost.add(device);
+			} else
+				missedScans.put(device, count);
+		}
+		
+		logger.debug("{}Network scan: {} added, {} updated, {} lost.", localDevice.toString(), 
+				added.size(), updated.size(), lost.size());
+		
+		List<INetworkChangeListener> toNotify;
+		synchronized (listeners) {
+			toNotify = new ArrayList<INetworkChangeListener>(listeners);
+		}
+		for (INetworkChangeListener listener : toNotify) {
+			for (RemoteXBeeDevice device : added) {
+				try {
+					listener.deviceAdded(device);
+				} catch (Exception e) {
+					logger.error(e.getMessage(), e);
+				}
+			}
+			for (RemoteXBeeDevice device : updated) {
+				try {
+					listener.deviceUpdated(device);
+				} catch (Exception e) {
+					logger.error(e.getMessage(), e);
+				}
+			}
+			for (RemoteXBeeDevice device : lost) {
+				try {
+					listener.deviceLost(device);
+				} catch (Exception e) {
+					logger.error(e.getMessage(), e);
+				}
+			}
+		}
+	}
+	
+	/**
+	 * Returns the device of the network that corresponds to the given 
+	 * discovered device.
+	 * 
+	 * @param device The discovered device.
+	 * 
+	 * @return The device of the network, {@code null} if the network does not 
+	 *         contain it.
+	 */
+	private RemoteXBeeDevice getExistingDevice(RemoteXBeeDevice device) {
+		XBee64BitAddress addr64 = device.get64BitAddress();
+		if (addr64 != null && !addr64.equals(XBee64BitAddress.UNKNOWN_ADDRESS)) {
+			RemoteXBeeDevice existing = network.getDevice(addr64);
+			if (existing != null)
+				return existing;
+		}
+		XBee16BitAddress addr16 = device.get16BitAddress();
+		if (addr16 != null && !addr16.equals(XBee16BitAddress.UNKNOWN_ADDRESS)) {
+			try {
+				return network.getDevice(addr16);
+			} catch (OperationNotSupportedException e) {
+				// The protocol does not use 16-bit addresses.
+			}
+		}
+		return null;
+	}
+	
+	/**
+	 * Returns whether the given objects are equal or both {@code null}.
+	 * 
+	 * @param a First object.
+	 * @param b Second object.
+	 * 
+	 * @return {@code true} if the objects are equal, {@code false} otherwise.
+	 */
+	private static boolean equal(Object a, Object b) {
+		return a == null ? b == null : a.equals(b);
+	}
+}
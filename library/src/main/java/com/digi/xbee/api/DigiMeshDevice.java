@@ -11,6 +11,8 @@
  */
 package com.digi.xbee.api;
 
+import java.util.concurrent.CompletableFuture;
+
 import com.digi.xbee.api.connection.IConnectionInterface;
 import com.digi.xbee.api.connection.serial.SerialPortParameters;
 import com.digi.xbee.api.exceptions.InterfaceNotOpenException;
@@ -22,6 +24,7 @@ import com.digi.xbee.api.models.APIOutputMode;
 import com.digi.xbee.api.models.ExplicitXBeeMessage;
 import com.digi.xbee.api.models.XBee64BitAddress;
 import com.digi.xbee.api.models.XBeeProtocol;
+import com.digi.xbee.api.models.XBeeTransmitStatus;
 
 /**
  * This class represents a local DigiMesh device.
@@ -153,6 +156,15 @@ public class DigiMeshDevice extends XBeeDevice {
 		super.sendData(address, data);
 	}
 	
+	/*
+	 * (non-Javadoc)
+	 * @see com.digi.xbee.api.XBeeDevice#sendDataFuture(com.digi.xbee.api.models.XBee64BitAddress, byte[], int)
+	 */
+	@Override
+	public CompletableFuture<XBeeTransmitStatus> sendDataFuture(XBee64BitAddress address, byte[] data, int timeout) throws XBeeException {
+		return super.sendDataFuture(address, data, timeout);
+	}
+	
 	/*
 	 * (non-Javadoc)
 	 * @see com.digi.xbee.api.XBeeDevice#readExplicitData()
@@ -275,4 +287,34 @@ public class DigiMeshDevice extends XBeeDevice {
 			int profileID, byte[] data) throws XBeeException {
 		super.sendExplicitDataAsync(address, sourceEndpoint, destEndpoint, clusterID, profileID, data);
 	}
+	
+	/*
+	 * (non-Javadoc)
+	 * @see com.digi.xbee.api.XBeeDevice#sendExplicitDataFuture(com.digi.xbee.api.RemoteXBeeDevice, int, int, int, int, byte[])
+	 */
+	@Override
+	public CompletableFuture<XBeeTransmitStatus> sendExplicitDataFuture(RemoteXBeeDevice remoteXBeeDevice, int sourceEndpoint, int destEndpoint, 
+			int clusterID, int profileID, byte[] data) throws XBeeException {
+		return super.sendExplicitDataFuture(remoteXBeeDevice, sourceEndpoint, destEndpoint, clusterID, profileID, data);
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * @see com.digi.xbee.api.XBeeDevice#sendExplicitDataFuture(com.digi.xbee.api.RemoteXBeeDevice, int, int, int, int, byte[], int)
+	 */
+	@Override
+	public CompletableFuture<XBeeTransmitStatus> sendExplicitDataFuture(RemoteXBeeDevice remoteXBeeDevice, int sourceEndpoint, int destEndpoint, 
+			int clusterID, int profileID, byte[] data, int timeout) throws XBeeException {
+		return super.sendExplicitDataFuture(remoteXBeeDevice, sourceEndpoint, destEndpoint, clusterID, profileID, data, timeout);
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * @see com.digi.xbee.api.XBeeDevice#sendExplicitDataFuture(com.digi.xbee.api.models.XBee64BitAddress, int, int, int, int, byte[], int)
+	 */
+	@Override
+	public CompletableFuture<XBeeTransmitStatus> sendExplicitDataFuture(XBee64BitAddress address, int sourceEndpoint, int destEndpoint, 
+			int clusterID, int profileID, byte[] data, int timeout) throws XBeeException {
+		return super.sendExplicitDataFuture(address, sourceEndpoint, destEndpoint, clusterID, profileID, data, timeout);
+	}
 }
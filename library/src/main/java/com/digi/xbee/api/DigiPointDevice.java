@@ -11,6 +11,8 @@
  */
 package com.digi.xbee.api;
 
+import java.util.concurrent.CompletableFuture;
+
 import com.digi.xbee.api.connection.IConnectionInterface;
 import com.digi.xbee.api.connection.serial.SerialPortParameters;
 import com.digi.xbee.api.exceptions.InterfaceNotOpenException;
@@ -23,6 +25,7 @@ import com.digi.xbee.api.models.ExplicitXBeeMessage;
 import com.digi.xbee.api.models.XBee16BitAddress;
 import com.digi.xbee.api.models.XBee64BitAddress;
 import com.digi.xbee.api.models.XBeeProtocol;
+import com.digi.xbee.api.models.XBeeTransmitStatus;
 
 /**
  * This class represents a local DigiPoint device.
@@ -157,6 +160,16 @@ public class DigiPointDevice extends XBeeDevice {
 		super.sendData(address64Bit, address16bit, data);
 	}
 	
+	/*
+	 * (non-Javadoc)
+	 * @see com.digi.xbee.api.XBeeDevice#sendDataFuture(com.digi.xbee.api.models.XBee64BitAddress, com.digi.xbee.api.models.XBee16BitAddress, byte[], int)
+	 */
+	@Override
+	public CompletableFuture<XBeeTransmitStatus> sendDataFuture(XBee64BitAddress address64Bit, XBee16BitAddress address16bit, byte[] data, 
+			int timeout) throws XBeeException {
+		return super.sendDataFuture(address64Bit, address16bit, data, timeout);
+	}
+	
 	/*
 	 * (non-Javadoc)
 	 * @see com.digi.xbee.api.XBeeDevice#readExplicitData()
@@ -279,4 +292,34 @@ public class DigiPointDevice extends XBeeDevice {
 			int destEndpoint, int clusterID, int profileID, byte[] data) throws XBeeException {
 		super.sendExplicitDataAsync(address64Bit, address16Bit, sourceEndpoint, destEndpoint, clusterID, profileID, data);
 	}
+	
+	/*
+	 * (non-Javadoc)
+	 * @see com.digi.xbee.api.XBeeDevice#sendExplicitDataFuture(com.digi.xbee.api.RemoteXBeeDevice, int, int, int, int, byte[])
+	 */
+	@Override
+	public CompletableFuture<XBeeTransmitStatus> sendExplicitDataFuture(RemoteXBeeDevice remoteXBeeDevice, int sourceEndpoint, int destEndpoint, 
+			int clusterID, int profileID, byte[] data) throws XBeeException {
+		return super.sendExplicitDataFuture(remoteXBeeDevice, sourceEndpoint, destEndpoint, clusterID, profileID, data);
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * @see com.digi.xbee.api.XBeeDevice#sendExplicitDataFuture(com.digi.xbee.api.RemoteXBeeDevice, int, int, int, int, byte[], int)
+	 */
+	@Override
+	public CompletableFuture<XBeeTransmitStatus> sendExplicitDataFuture(RemoteXBeeDevice remoteXBeeDevice, int sourceEndpoint, int destEndpoint, 
+			int clusterID, int profileID, byte[] data, int timeout) throws XBeeException {
+		return super.sendExplicitDataFuture(remoteXBeeDevice, sourceEndpoint, destEndpoint, clusterID, profileID, data, timeout);
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * @see com.digi.xbee.api.XBeeDevice#sendExplicitDataFuture(com.digi.xbee.api.models.XBee64BitAddress, com.digi.xbee.api.models.XBee16BitAddress, int, int, int, int, byte[], int)
+	 */
+	@Override
+	public CompletableFuture<XBeeTransmitStatus> sendExplicitDataFuture(XBee64BitAddress address64Bit, XBee16BitAddress address16Bit, 
+			int sourceEndpoint, int destEndpoint, int clusterID, int profileID, byte[] data, int timeout) throws XBeeException {
+		return super.sendExplicitDataFuture(address64Bit, address16Bit, sourceEndpoint, destEndpoint, clusterID, profileID, data, timeout);
+	}
 }
@@ -14,6 +14,9 @@ package com.digi.xbee.api;
 import java.io.ByteArrayInputStream;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -44,6 +47,12 @@ import com.digi.xbee.api.utils.HexUtils;
  * 
  * <p>The discovery process updates the network of the local device with the new
  * discovered modules and refreshes the already existing references.</p>
+ * 
+ * <p>The discovered devices are queued by the thread that reads the 
+ * connection and consumed by the thread that performs the discovery, which 
+ * notifies the listeners. That thread wakes up as soon as a device is 
+ * discovered or the discovery finishes, so a discovery of a single device 
+ * returns as soon as it answers.</p>
  */
 class NodeDiscovery {
 	
@@ -52,6 +61,9 @@ class NodeDiscovery {
 	
 	public static final long DEFAULT_TIMEOUT = 20000; // 20 seconds.
 	
+	// Marks the end of the discovery in the queue of discovered devices.
+	private static final Object END_OF_DISCOVERY = new Object();
+	
 	// Variables.
 	private static int globalFrameID = 1;
 	
@@ -59,8 +71,10 @@ class NodeDiscovery {
 	
 	private List<RemoteXBeeDevice> deviceList;
 	
-	private boolean discovering = false;
-	private boolean running = false;
+	private volatile BlockingQueue<Object> discoveryEvents;
+	
+	private volatile boolean discovering = false;
+	private volatile boolean running = false;
 	
 	private int frameID;
 	
@@ -182,6 +196,39 @@ class NodeDiscovery {
 		return foundDevices;
 	}
 	
+	/**
+	 * Discovers all the remote XBee devices of the network without adding 
+	 * them to the network of the local device.
+	 * 
+	 * <p>This method blocks until the configured timeout in the device (NT) 
+	 * expires or the discovery is stopped.</p>
+	 * 
+	 * @return A list with the remote XBee devices that answered the discovery.
+	 * 
+	 * @throws InterfaceNotOpenException if the device is not open.
+	 * @throws XBeeException if there is an error discovering the devices.
+	 * 
+	 * @see #stopDiscoveryProcess()
+	 */
+	List<RemoteXBeeDevice> discoverAllDevices() throws XBeeException {
+		// Check if the connection is open.
+		if (!xbeeDevice.isOpen())
+			throw new InterfaceNotOpenException();
+		
+		logger.debug("{}ND for all devices.", xbeeDevice.toString());
+		
+		running = true;
+		discovering = true;
+		
+		performNodeDiscovery(null, null);
+		
+		if (deviceList == null)
+			return new ArrayList<RemoteXBeeDevice>(0);
+		synchronized (deviceList) {
+			return new ArrayList<RemoteXBeeDevice>(deviceList);
+		}
+	}
+	
 	/**
 	 * Performs a node discover to search for XBee devices in the same network. 
 	 * 
@@ -225,6 +272,10 @@ class NodeDiscovery {
 	 */
 	public void stopDiscoveryProcess() {
 		discovering = false;
+		// Wake up the thread waiting for discovered devices.
+		BlockingQueue<Object> events = discoveryEvents;
+		if (events != null)
+			events.offer(END_OF_DISCOVERY);
 	}
 	
 	/**
@@ -277,6 +328,9 @@ class NodeDiscovery {
 			deviceList = new ArrayList<RemoteXBeeDevice>();
 		deviceList.clear();
 		
+		final BlockingQueue<Object> events = new LinkedBlockingQueue<Object>();
+		discoveryEvents = events;
+		
 		IPacketReceiveListener packetReceiveListener = new IPacketReceiveListener() {
 			/*
 			 * (non-Javadoc)
@@ -292,19 +346,10 @@ class NodeDiscovery {
 				
 				rdevice = parseDiscoveryAPIData(commandValue, xbeeDevice);
 				
-				// If a device with a specific id is being search and it is 
-				// already found, return it.
-				if (id != null) {
-					if (rdevice != null && id.equals(rdevice.getNodeID())) {
-						synchronized (deviceList) {
-							deviceList.add(rdevice);
-						}
-						// If the local device is 802.15.4 wait until the 'end' command is received.
-						if (xbeeDevice.getXBeeProtocol() != XBeeProtocol.RAW_802_15_4)
-							discovering = false;
-					}
-				} else if (rdevice != null)
-					notifyDeviceDiscovered(listeners, rdevice);
+				// Hand the device over to the discovery thread, so this 
+				// thread never waits for the discovery listeners.
+				if (rdevice != null)
+					events.offer(rdevice);
 			}
 		};
 		
@@ -323,25 +368,45 @@ class NodeDiscovery {
 			
 			sendNodeDiscoverCommand(id);
 			
-			if (!is802Compatible) {
-				// Wait for scan timeout.
-				while (discovering) {
-					if (System.currentTimeMillis() < deadLine)
-						try {
-							Thread.sleep(100);
-						} catch (InterruptedException e) { }
-					else
-						discovering = false;
-				}
-			} else {
-				// Wait until the 'end' command is received.
-				while (discovering) {
-					try {
-						Thread.sleep(100);
-					} catch (InterruptedException e) { }
+			while (discovering) {
+				// Wait for the next discovered device, the 'end' command or 
+				// the scan timeout (802.15.4 devices wait until the 'end' 
+				// command is received).
+				Object event;
+				try {
+					if (is802Compatible)
+						event = events.take();
+					else {
+						long remaining = deadLine - System.currentTimeMillis();
+						if (remaining <= 0)
+							break;
+						event = events.poll(remaining, TimeUnit.MILLISECONDS);
+					}
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					break;
 				}
+				if (event == null || event == END_OF_DISCOVERY)
+					break;
+				
+				RemoteXBeeDevice rdevice = (RemoteXBeeDevice)event;
+				// If a device with a specific id is being search and it is 
+				// already found, return it.
+				if (id != null) {
+					if (id.equals(rdevice.getNodeID())) {
+						synchronized (deviceList) {
+							deviceList.add(rdevice);
+						}
+						// If the local device is 802.15.4 wait until the 'end' command is received.
+						if (xbeeDevice.getXBeeProtocol() != XBeeProtocol.RAW_802_15_4)
+							break;
+					}
+				} else
+					notifyDeviceDiscovered(listeners, rdevice);
 			}
 		} finally {
+			discovering = false;
+			discoveryEvents = null;
 			xbeeDevice.removePacketListener(packetReceiveListener);
 			logger.debug("{}Stop listening.", xbeeDevice.toString());
 		}
@@ -404,6 +469,9 @@ class NodeDiscovery {
 	/**
 	 * Returns a byte array with the remote device data to be parsed.
 	 * 
+	 * <p>If the packet is the 'end' command of the discovery, the thread that 
+	 * performs the discovery is notified.</p>
+	 * 
 	 * @param packet The API packet that contains the data.
 	 * 
 	 * @return A byte array with the data to be parsed.
@@ -425,7 +493,9 @@ class NodeDiscovery {
 				return null;
 			// Check if the 'end' command is received (empty response with OK status).
 			if (atResponse.getCommandValue() == null || atResponse.getCommandValue().length == 0) {
-				discovering = atResponse.getStatus() != ATCommandStatus.OK;
+				BlockingQueue<Object> events = discoveryEvents;
+				if (atResponse.getStatus() == ATCommandStatus.OK && events != null)
+					events.offer(END_OF_DISCOVERY);
 				return null;
 			}
 			
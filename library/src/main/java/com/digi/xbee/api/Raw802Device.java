@@ -11,6 +11,8 @@
  */
 package com.digi.xbee.api;
 
+import java.util.concurrent.CompletableFuture;
+
 import com.digi.xbee.api.connection.IConnectionInterface;
 import com.digi.xbee.api.connection.serial.SerialPortParameters;
 import com.digi.xbee.api.exceptions.InterfaceNotOpenException;
@@ -23,6 +25,7 @@ import com.digi.xbee.api.models.XBee16BitAddress;
 import com.digi.xbee.api.models.XBee64BitAddress;
 import com.digi.xbee.api.models.XBeeProtocol;
 import com.digi.xbee.api.models.XBeeTransmitOptions;
+import com.digi.xbee.api.models.XBeeTransmitStatus;
 import com.digi.xbee.api.packet.XBeePacket;
 import com.digi.xbee.api.packet.raw.TX16Packet;
 import com.digi.xbee.api.utils.HexUtils;
@@ -247,6 +250,62 @@ public class Raw802Device extends XBeeDevice {
 		sendAndCheckXBeePacket(xbeePacket, false);
 	}
 	
+	/*
+	 * (non-Javadoc)
+	 * @see com.digi.xbee.api.XBeeDevice#sendDataFuture(com.digi.xbee.api.models.XBee64BitAddress, byte[], int)
+	 */
+	@Override
+	public CompletableFuture<XBeeTransmitStatus> sendDataFuture(XBee64BitAddress address, byte[] data, int timeout) throws XBeeException {
+		return super.sendDataFuture(address, data, timeout);
+	}
+	
+	/**
+	 * Sends the provided data to the XBee device of the network corresponding 
+	 * to the given 16-bit address and returns a future that is completed with 
+	 * the transmit status.
+	 * 
+	 * <p>This is a non-blocking operation. The future is completed with the 
+	 * status reported by the local XBee device (including delivery errors) or
+	 * exceptionally with a {@code TimeoutException} if the transmit status is 
+	 * not received within {@code timeout} milliseconds.</p>
+	 * 
+	 * @param address The 16-bit address of the XBee that will receive the data.
+	 * @param data Byte array containing data to be sent.
+	 * @param timeout Maximum time to wait for the transmit status in 
+	 *                milliseconds.
+	 * 
+	 * @return The future of the transmit status.
+	 * 
+	 * @throws IllegalArgumentException if {@code timeout < 0}.
+	 * @throws InterfaceNotOpenException if the device is not open.
+	 * @throws NullPointerException if {@code address == null} or 
+	 *                              if {@code data == null}.
+	 * @throws XBeeException if there is any XBee related exception.
+	 * 
+	 * @see com.digi.xbee.api.models.XBee16BitAddress
+	 * @see com.digi.xbee.api.models.XBeeTransmitStatus
+	 * @see #sendData(XBee16BitAddress, byte[])
+	 * @see #sendDataAsync(XBee16BitAddress, byte[])
+	 * @see #sendDataFuture(RemoteXBeeDevice, byte[], int)
+	 * @see #sendDataFuture(XBee64BitAddress, byte[], int)
+	 */
+	public CompletableFuture<XBeeTransmitStatus> sendDataFuture(XBee16BitAddress address, byte[] data, int timeout) throws XBeeException {
+		// Verify the parameters are not null, if they are null, throw an exception.
+		if (address == null)
+			throw new NullPointerException("Address cannot be null");
+		if (data == null)
+			throw new NullPointerException("Data cannot be null");
+		
+		// Check if device is remote.
+		if (isRemote())
+			throw new OperationNotSupportedException("Cannot send data to a remote device from a remote device.");
+		
+		logger.info(toString() + "Sending data asynchronously to {} >> {}.", address, HexUtils.prettyHexString(data));
+		
+		XBeePacket xbeePacket = new TX16Packet(getNextFrameID(), address, XBeeTransmitOptions.NONE, data);
+		return sendTransmitPacketFuture(xbeePacket, timeout);
+	}
+	
 	/*
 	 * (non-Javadoc)
 	 * @see com.digi.xbee.api.AbstractXBeeDevice#set16BitAddress(com.digi.xbee.api.models.XBee16BitAddress)
@@ -0,0 +1,479 @@
+/**
+ * Copyright (c) 2014-2016 Digi International Inc.,
+ * All rights not expressly granted are reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * Digi International Inc. 11001 Bren Road East, Minnetonka, MN 55343
+ * =======================================================================
+ */
+package com.digi.xbee.api;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.digi.xbee.api.exceptions.InterfaceNotOpenException;
+import com.digi.xbee.api.exceptions.TimeoutException;
+import com.digi.xbee.api.exceptions.XBeeException;
+import com.digi.xbee.api.packet.XBeePacket;
+
+/**
+ * Helper class used to transmit packets from a local XBee device keeping
+ * several frames in flight at the same time.
+ *
+ * <p>Up to {@code windowSize} packets are sent without waiting for their
+ * responses. Each sent packet is tracked by its frame ID and its response
+ * (usually a transmit status) completes the future returned when the packet
+ * was submitted. Packets submitted while the window is full wait in a queue
+ * and are sent, in order, as soon as a response frees a position.</p>
+ *
+ * <p>Since the frame ID is a single byte, at most
+ * {@value #MAX_WINDOW_SIZE} packets can be in flight.</p>
+ *
+ * @see XBeeDevice#sendPacketFuture(XBeePacket, int)
+ * @see XBeeDevice#setTransmitWindow(int)
+ */
+public class TransmitPipeline {
+
+	// Constants.
+	/**
+	 * Maximum number of packets in flight (value: {@value}).
+	 */
+	public static final int MAX_WINDOW_SIZE = 255;
+
+	/**
+	 * Default number of packets in flight (value: {@value}).
+	 */
+	public static final int DEFAULT_WINDOW_SIZE = 16;
+
+	private static final String THREAD_NAME = "XBee transmit pipeline";
+
+	// Variables.
+	private final AbstractXBeeDevice xbeeDevice;
+
+	private final LinkedList<Transmission> queue = new LinkedList<Transmission>();
+	private final Set<Transmission> sent = new HashSet<Transmission>();
+
+	private final ScheduledThreadPoolExecutor scheduler;
+
+	private final Object lock = new Object();
+
+	private int windowSize;
+	private int maxInFlight = 0;
+
+	private boolean closed = false;
+
+	// Whether a thread is writing the queued packets.
+	private boolean draining = false;
+
+	private final AtomicLong sentCount = new AtomicLong(0);
+	private final AtomicLong timeoutCount = new AtomicLong(0);
+
+	private Logger logger;
+
+	/**
+	 * Class constructor. Instantiates a new {@code TransmitPipeline} for the
+	 * given local XBee device.
+	 *
+	 * @param xbeeDevice Local XBee device used to send the packets.
+	 * @param windowSize Maximum number of packets in flight.
+	 *
+	 * @throws IllegalArgumentException if {@code windowSize < 1} or
+	 *                                  if {@code windowSize > 255}.
+	 * @throws NullPointerException if {@code xbeeDevice == null}.
+	 */
+	TransmitPipeline(AbstractXBeeDevice xbeeDevice, int windowSize) {
+		if (xbeeDevice == null)
+			throw new NullPointerException("Local XBee device cannot be null.");
+		checkWindowSize(windowSize);
+
+		this.xbeeDevice = xbeeDevice;
+		this.windowSize = windowSize;
+		this.logger = LoggerFactory.getLogger(TransmitPipeline.class);
+
+		scheduler = new ScheduledThreadPoolExecutor(1, new ThreadFactory() {
+			/*
+			 * (non-Javadoc)
+			 * @see java.util.concurrent.ThreadFactory#newThread(java.lang.Runnable)
+			 */
+			@Override
+			public Thread newThread(Runnable r) {
+				Thread thread = new Thread(r, THREAD_NAME);
+				thread.setDaemon(true);
+				return thread;
+			}
+		});
+		scheduler.setRemoveOnCancelPolicy(true);
+	}
+
+	/**
+	 * Submits the given packet to be transmitted. This method does not wait
+	 * for the response.
+	 *
+	 * <p>If the window has a free position and no other thread is writing
+	 * packets, the packet is written from the calling thread. Otherwise it is
+	 * left in the queue and written by the thread that is already writing,
+	 * so this method never waits for the writes of other threads.</p>
+	 *
+	 * <p>The returned future is completed with the response of the packet,
+	 * or {@code null} if the packet does not expect any response. It is
+	 * completed exceptionally with:</p>
+	 * <ul>
+	 * <li>{@code TimeoutException} if the response is not received in
+	 * {@code timeout} milliseconds since the packet was submitted.</li>
+	 * <li>{@code XBeeException} if the packet could not be written.</li>
+	 * <li>{@code InterfaceNotOpenException} if the pipeline is closed before
+	 * the response is received.</li>
+	 * </ul>
+	 *
+	 * @param packet The packet to transmit.
+	 * @param timeout Maximum time to wait for the response in milliseconds.
+	 *
+	 * @return The future of the response.
+	 *
+	 * @throws IllegalArgumentException if {@code timeout < 0}.
+	 * @throws NullPointerException if {@code packet == null}.
+	 */
+	public CompletableFuture<XBeePacket> submit(XBeePacket packet, long timeout) {
+		if (packet == null)
+			throw new NullPointerException("XBee packet cannot be null.");
+		if (timeout < 0)
+			throw new IllegalArgumentException("Timeout cannot be less than 0.");
+
+		final Transmission transmission = new Transmission(packet);
+		synchronized (lock) {
+			if (closed) {
+				transmission.result.completeExceptionally(new InterfaceNotOpenException());
+				return transmission.result;
+			}
+			queue.add(transmission);
+		}
+
+		try {
+			transmission.timeoutTask = scheduler.schedule(new Runnable() {
+				/*
+				 * (non-Javadoc)
+				 * @see java.lang.Runnable#run()
+				 */
+				@Override
+				public void run() {
+					if (transmission.result.isDone())
+						return;
+					timeoutCount.incrementAndGet();
+					xbeeDevice.getMetrics().requestTimedOut();
+					transmission.result.completeExceptionally(new TimeoutException());
+				}
+			}, timeout, TimeUnit.MILLISECONDS);
+		} catch (RejectedExecutionException e) {
+			// The pipeline has been closed meanwhile.
+			transmission.result.completeExceptionally(new InterfaceNotOpenException());
+		}
+
+		transmission.result.whenComplete(new BiConsumer<XBeePacket, Throwable>() {
+			/*
+			 * (non-Javadoc)
+			 * @see java.util.function.BiConsumer#accept(java.lang.Object, java.lang.Object)
+			 */
+			@Override
+			public void accept(XBeePacket response, Throwable error) {
+				finished(transmission);
+			}
+		});
+
+		drain();
+		return transmission.result;
+	}
+
+	/**
+	 * Returns the maximum number of packets in flight.
+	 *
+	 * @return The window size.
+	 *
+	 * @see #setWindowSize(int)
+	 */
+	public int getWindowSize() {
+		synchronized (lock) {
+			return windowSize;
+		}
+	}
+
+	/**
+	 * Sets the maximum number of packets in flight.
+	 *
+	 * <p>Reducing the window does not affect the packets already in flight.
+	 * </p>
+	 *
+	 * @param windowSize The new window size.
+	 *
+	 * @throws IllegalArgumentException if {@code windowSize < 1} or
+	 *                                  if {@code windowSize > 255}.
+	 *
+	 * @see #getWindowSize()
+	 */
+	public void setWindowSize(int windowSize) {
+		checkWindowSize(windowSize);
+		synchronized (lock) {
+			this.windowSize = windowSize;
+		}
+		drain();
+	}
+
+	/**
+	 * Returns the number of packets sent that are waiting for a response.
+	 *
+	 * @return The number of packets in flight.
+	 */
+	public int getInFlightCount() {
+		synchronized (lock) {
+			return sent.size();
+		}
+	}
+
+	/**
+	 * Returns the maximum number of packets that have been in flight at the
+	 * same time.
+	 *
+	 * @return The high-water mark of packets in flight.
+	 */
+	public int getMaxInFlightCount() {
+		synchronized (lock) {
+			return maxInFlight;
+		}
+	}
+
+	/**
+	 * Returns the number of submitted packets waiting for a free position in
+	 * the window.
+	 *
+	 * @return The number of queued packets.
+	 */
+	public int getQueuedCount() {
+		synchronized (lock) {
+			return queue.size();
+		}
+	}
+
+	/**
+	 * Returns the total number of packets written by this pipeline.
+	 *
+	 * @return The number of sent packets.
+	 */
+	public long getSentCount() {
+		return sentCount.get();
+	}
+
+	/**
+	 * Returns the total number of packets whose response was not received in
+	 * time.
+	 *
+	 * @return The number of timed out packets.
+	 */
+	public long getTimeoutCount() {
+		return timeoutCount.get();
+	}
+
+	/**
+	 * Closes this pipeline. Queued and in flight packets are completed
+	 * exceptionally with an {@code InterfaceNotOpenException} and new packets
+	 * are rejected.
+	 */
+	public void close() {
+		List<Transmission> pending = new ArrayList<Transmission>();
+		synchronized (lock) {
+			if (closed)
+				return;
+			closed = true;
+			pending.addAll(queue);
+			pending.addAll(sent);
+			queue.clear();
+		}
+		scheduler.shutdownNow();
+		// Responses of the packets in flight will not arrive.
+		for (Transmission transmission : pending)
+			transmission.result.completeExceptionally(new InterfaceNotOpenException());
+	}
+
+	/**
+	 * Returns whether this pipeline is closed.
+	 *
+	 * @return {@code true} if the pipeline is closed, {@code false} otherwise.
+	 */
+	public boolean isClosed() {
+		synchronized (lock) {
+			return closed;
+		}
+	}
+
+	/**
+	 * Sends queued packets while there are free positions in the window.
+	 *
+	 * <p>The packets are taken from the queue holding the lock and written
+	 * without it, so the other methods never wait for the connection. Only
+	 * one thread writes at a time to keep the packets in order; if another
+	 * thread is already writing, it also sends the packets queued meanwhile.
+	 * </p>
+	 */
+	private void drain() {
+		synchronized (lock) {
+			if (draining)
+				return;
+			draining = true;
+		}
+		boolean done = false;
+		try {
+			List<Transmission> toSend = new ArrayList<Transmission>();
+			while (true) {
+				synchronized (lock) {
+					while (!closed && sent.size() < windowSize && !queue.isEmpty()) {
+						Transmission transmission = queue.poll();
+						// Skip the packets that timed out while waiting in the queue.
+						if (transmission.result.isDone())
+							continue;
+						sent.add(transmission);
+						maxInFlight = Math.max(maxInFlight, sent.size());
+						toSend.add(transmission);
+					}
+					if (toSend.isEmpty()) {
+						draining = false;
+						done = true;
+						return;
+					}
+				}
+				for (Transmission transmission : toSend)
+					transmit(transmission);
+				toSend.clear();
+			}
+		} finally {
+			if (!done) {
+				synchronized (lock) {
+					draining = false;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Writes the packet of the given transmission and links its response to
+	 * the result of the transmission.
+	 *
+	 * @param transmission The transmission to send.
+	 */
+	private void transmit(final Transmission transmission) {
+		final CompletableFuture<XBeePacket> response;
+		try {
+			response = xbeeDevice.sendXBeePacketFuture(transmission.packet);
+		} catch (Exception e) {
+			logger.error("Error sending packet in transmit pipeline.", e);
+			transmission.result.completeExceptionally(
+					new XBeeException("Error writing in the communication interface.", e));
+			return;
+		}
+		sentCount.incrementAndGet();
+
+		// Deliver the response outside the thread that reads the connection.
+		response.whenCompleteAsync(new BiConsumer<XBeePacket, Throwable>() {
+			/*
+			 * (non-Javadoc)
+			 * @see java.util.function.BiConsumer#accept(java.lang.Object, java.lang.Object)
+			 */
+			@Override
+			public void accept(XBeePacket packet, Throwable error) {
+				if (error != null)
+					transmission.result.completeExceptionally(error);
+				else
+					transmission.result.complete(packet);
+			}
+		});
+		// If the transmission times out, stop waiting for the response.
+		transmission.result.whenComplete(new BiConsumer<XBeePacket, Throwable>() {
+			/*
+			 * (non-Javadoc)
+			 * @see java.util.function.BiConsumer#accept(java.lang.Object, java.lang.Object)
+			 */
+			@Override
+			public void accept(XBeePacket packet, Throwable error) {
+				if (error != null)
+					response.cancel(false);
+			}
+		});
+	}
+
+	/**
+	 * Releases the resources of the given finished transmission and sends
+	 * the next queued packets.
+	 *
+	 * @param transmission The finished transmission.
+	 */
+	private void finished(Transmission transmission) {
+		if (transmission.timeoutTask != null)
+			transmission.timeoutTask.cancel(false);
+		synchronized (lock) {
+			if (!sent.remove(transmission)) {
+				queue.remove(transmission);
+				return;
+			}
+			if (closed || queue.isEmpty())
+				return;
+		}
+		// Send the next packets from the pipeline thread, never from the
+		// thread that delivers the response.
+		try {
+			scheduler.execute(new Runnable() {
+				/*
+				 * (non-Javadoc)
+				 * @see java.lang.Runnable#run()
+				 */
+				@Override
+				public void run() {
+					drain();
+				}
+			});
+		} catch (RejectedExecutionException e) {
+			// The pipeline has been closed.
+		}
+	}
+
+	/**
+	 * Checks that the given window size is valid.
+	 *
+	 * @param windowSize The window size to check.
+	 *
+	 * @throws IllegalArgumentException if {@code windowSize < 1} or
+	 *                                  if {@code windowSize > 255}.
+	 */
+	private static void checkWindowSize(int windowSize) {
+		if (windowSize < 1 || windowSize > MAX_WINDOW_SIZE)
+			throw new IllegalArgumentException("Window size must be between 1 and " + MAX_WINDOW_SIZE + ".");
+	}
+
+	/**
+	 * Packet submitted to the pipeline together with its result.
+	 */
+	private static class Transmission {
+
+		private final XBeePacket packet;
+		private final CompletableFuture<XBeePacket> result = new CompletableFuture<XBeePacket>();
+
+		private ScheduledFuture<?> timeoutTask;
+
+		Transmission(XBeePacket packet) {
+			this.packet = packet;
+		}
+	}
+}
@@ -12,9 +12,13 @@
 package com.digi.xbee.api;
 
 import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
 
 import com.digi.xbee.api.connection.DataReader;
 import com.digi.xbee.api.connection.IConnectionInterface;
+import com.digi.xbee.api.connection.ListenerDispatcher;
 import com.digi.xbee.api.connection.serial.SerialPortParameters;
 import com.digi.xbee.api.exceptions.ATCommandException;
 import com.digi.xbee.api.exceptions.InterfaceAlreadyOpenException;
@@ -22,10 +26,12 @@ import com.digi.xbee.api.exceptions.InterfaceNotOpenException;
 import com.digi.xbee.api.exceptions.InvalidOperatingModeException;
 import com.digi.xbee.api.exceptions.OperationNotSupportedException;
 import com.digi.xbee.api.exceptions.TimeoutException;
+import com.digi.xbee.api.exceptions.TransmitException;
 import com.digi.xbee.api.exceptions.XBeeException;
 import com.digi.xbee.api.listeners.IIOSampleReceiveListener;
 import com.digi.xbee.api.listeners.IModemStatusReceiveListener;
 import com.digi.xbee.api.listeners.IPacketReceiveListener;
+import com.digi.xbee.api.listeners.IPooledMessageReceiveListener;
 import com.digi.xbee.api.listeners.IDataReceiveListener;
 import com.digi.xbee.api.models.APIOutputMode;
 import com.digi.xbee.api.models.ATCommand;
@@ -33,12 +39,15 @@ import com.digi.xbee.api.models.ATCommandResponse;
 import com.digi.xbee.api.models.ExplicitXBeeMessage;
 import com.digi.xbee.api.models.ModemStatusEvent;
 import com.digi.xbee.api.models.OperatingMode;
+import com.digi.xbee.api.models.QueueOverflowPolicy;
 import com.digi.xbee.api.models.XBee16BitAddress;
 import com.digi.xbee.api.models.XBee64BitAddress;
 import com.digi.xbee.api.models.XBeeMessage;
+import com.digi.xbee.api.models.XBeeMessagePool;
 import com.digi.xbee.api.models.XBeePacketsQueue;
 import com.digi.xbee.api.models.XBeeProtocol;
 import com.digi.xbee.api.models.XBeeTransmitOptions;
+import com.digi.xbee.api.models.XBeeTransmitStatus;
 import com.digi.xbee.api.packet.APIFrameType;
 import com.digi.xbee.api.packet.XBeeAPIPacket;
 import com.digi.xbee.api.packet.XBeePacket;
@@ -75,6 +84,20 @@ public class XBeeDevice extends AbstractXBeeDevice {
 	
 	private boolean modemStatusReceived = false;
 	
+	private ListenerDispatcher listenerDispatcher;
+	private int listenerThreads = ListenerDispatcher.DEFAULT_MAX_THREADS;
+	private int listenerQueueCapacity = ListenerDispatcher.DEFAULT_QUEUE_CAPACITY;
+	
+	private TransmitPipeline transmitPipeline;
+	private int transmitWindow = TransmitPipeline.DEFAULT_WINDOW_SIZE;
+	
+	private boolean bufferedRead = false;
+	
+	private XBeeMessagePool messagePool;
+	
+	private int packetsQueueCapacity = XBeePacketsQueue.DEFAULT_MAX_LENGTH;
+	private QueueOverflowPolicy packetsQueueOverflowPolicy = XBeePacketsQueue.DEFAULT_OVERFLOW_POLICY;
+	
 	/**
 	 * Class constructor. Instantiates a new {@code XBeeDevice} object 
 	 * physically connected to the given port name and configured at the 
@@ -196,10 +219,22 @@ public class XBeeDevice extends AbstractXBeeDevice {
 		
 		logger.info(toString() + "Connection interface open.");
 		
+		// Initialize the listener dispatcher, it lives until the connection is closed.
+		if (listenerDispatcher == null || listenerDispatcher.isShutdown())
+			listenerDispatcher = new ListenerDispatcher(listenerThreads, listenerQueueCapacity);
+		
 		// Initialize the data reader.
-		dataReader = new DataReader(connectionInterface, operatingMode, this);
+		dataReader = new DataReader(connectionInterface, operatingMode, this, listenerDispatcher);
+		dataReader.enableBufferedRead(bufferedRead);
+		dataReader.enablePooledReceive(messagePool);
+		dataReader.configurePacketsQueue(packetsQueueCapacity, packetsQueueOverflowPolicy);
+		dataReader.setMetrics(metrics);
+		metrics.attach(dataReader.getXBeePacketsQueue(), listenerDispatcher);
 		dataReader.start();
 		
+		// Initialize the transmit pipeline.
+		transmitPipeline = new TransmitPipeline(this, transmitWindow);
+		
 		// Wait 10 milliseconds until the dataReader thread is started.
 		// This is because when the connection is opened immediately after 
 		// closing it, there is sometimes a concurrency problem and the 
@@ -236,9 +271,18 @@ public class XBeeDevice extends AbstractXBeeDevice {
 	 * @see #open()
 	 */
 	public void close() {
+		// Stop the continuous discovery of the network.
+		if (network != null)
+			network.stopContinuousDiscovery();
 		// Stop XBee reader.
 		if (dataReader != null && dataReader.isRunning())
 			dataReader.stopReader();
+		// Fail the pipelined transmissions still waiting for a response.
+		if (transmitPipeline != null)
+			transmitPipeline.close();
+		// Stop notifying listeners.
+		if (listenerDispatcher != null)
+			listenerDispatcher.shutdown();
 		// Close interface.
 		connectionInterface.close();
 		logger.info(toString() + "Connection interface closed.");
@@ -337,6 +381,298 @@ public class XBeeDevice extends AbstractXBeeDevice {
 		this.receiveTimeout = receiveTimeout;
 	}
 	
+	/**
+	 * Configures the dispatcher used to notify the listeners of this XBee 
+	 * device.
+	 * 
+	 * <p>Listeners are notified from a pool of at most {@code maxThreads} 
+	 * threads that lives while the connection is open. Notifications that do 
+	 * not fit in a queue of {@code queueCapacity} elements are discarded.</p>
+	 * 
+	 * <p>The new configuration is applied the next time the device is 
+	 * opened.</p>
+	 * 
+	 * @param maxThreads Maximum number of threads notifying listeners in 
+	 *                   parallel.
+	 * @param queueCapacity Maximum number of pending notifications.
+	 * 
+	 * @throws IllegalArgumentException if {@code maxThreads < 1} or 
+	 *                                  if {@code queueCapacity < 1}.
+	 * 
+	 * @see #getListenerDispatcher()
+	 * @see com.digi.xbee.api.connection.ListenerDispatcher
+	 */
+	public void configureListenerDispatcher(int maxThreads, int queueCapacity) {
+		if (maxThreads < 1)
+			throw new IllegalArgumentException("Maximum number of threads must be greater than 0.");
+		if (queueCapacity < 1)
+			throw new IllegalArgumentException("Queue capacity must be greater than 0.");
+		
+		this.listenerThreads = maxThreads;
+		this.listenerQueueCapacity = queueCapacity;
+	}
+	
+	/**
+	 * Returns the dispatcher used to notify the listeners of this XBee 
+	 * device. It provides statistics such as the number of pending 
+	 * notifications or the dispatch latency.
+	 * 
+	 * @return The listener dispatcher, {@code null} if the device has never 
+	 *         been opened.
+	 * 
+	 * @see #configureListenerDispatcher(int, int)
+	 * @see com.digi.xbee.api.connection.ListenerDispatcher
+	 */
+	public ListenerDispatcher getListenerDispatcher() {
+		return listenerDispatcher;
+	}
+	
+	/**
+	 * Configures the maximum number of packets sent through 
+	 * {@link #sendPacketFuture(XBeePacket, int)} that can be waiting for a 
+	 * response at the same time.
+	 * 
+	 * @param windowSize The maximum number of packets in flight.
+	 * 
+	 * @throws IllegalArgumentException if {@code windowSize < 1} or 
+	 *                                  if {@code windowSize > 255}.
+	 * 
+	 * @see #getTransmitWindow()
+	 * @see #getTransmitPipeline()
+	 */
+	public void setTransmitWindow(int windowSize) {
+		if (windowSize < 1 || windowSize > TransmitPipeline.MAX_WINDOW_SIZE)
+			throw new IllegalArgumentException("Window size must be between 1 and " + TransmitPipeline.MAX_WINDOW_SIZE + ".");
+		
+		this.transmitWindow = windowSize;
+		if (transmitPipeline != null)
+			transmitPipeline.setWindowSize(windowSize);
+	}
+	
+	/**
+	 * Returns the maximum number of packets sent through 
+	 * {@link #sendPacketFuture(XBeePacket, int)} that can be waiting for a 
+	 * response at the same time.
+	 * 
+	 * @return The maximum number of packets in flight.
+	 * 
+	 * @see #setTransmitWindow(int)
+	 */
+	public int getTransmitWindow() {
+		return transmitWindow;
+	}
+	
+	/**
+	 * Returns the pipeline used to send packets without waiting for their 
+	 * responses. It provides statistics such as the number of packets in 
+	 * flight or waiting to be sent.
+	 * 
+	 * @return The transmit pipeline, {@code null} if the device has never 
+	 *         been opened.
+	 * 
+	 * @see #sendPacketFuture(XBeePacket, int)
+	 * @see TransmitPipeline
+	 */
+	public TransmitPipeline getTransmitPipeline() {
+		return transmitPipeline;
+	}
+	
+	/**
+	 * Configures the queue that stores the received packets until they are 
+	 * read with {@link #readData()}, {@link #readDataFrom(RemoteXBeeDevice)} 
+	 * or the explicit variants of these methods.
+	 * 
+	 * <p>When a packet is received and the queue is full, the given overflow 
+	 * policy decides whether the oldest or the newest packet is discarded or 
+	 * the data reader waits for the application to read a packet. The 
+	 * configuration is applied to the current connection, if any, and every 
+	 * time the device is opened.</p>
+	 * 
+	 * @param capacity Maximum number of received packets in the queue.
+	 * @param overflowPolicy Policy to apply when the queue is full.
+	 * 
+	 * @throws IllegalArgumentException if {@code capacity < 1}.
+	 * @throws NullPointerException if {@code overflowPolicy == null}.
+	 * 
+	 * @see #getPacketsQueue()
+	 * @see #getPacketsQueueCapacity()
+	 * @see #getPacketsQueueOverflowPolicy()
+	 * @see com.digi.xbee.api.models.QueueOverflowPolicy
+	 */
+	public void configurePacketsQueue(int capacity, QueueOverflowPolicy overflowPolicy) {
+		if (capacity < 1)
+			throw new IllegalArgumentException("Queue capacity must be greater than 0.");
+		if (overflowPolicy == null)
+			throw new NullPointerException("Overflow policy cannot be null.");
+		
+		this.packetsQueueCapacity = capacity;
+		this.packetsQueueOverflowPolicy = overflowPolicy;
+		if (dataReader != null)
+			dataReader.configurePacketsQueue(capacity, overflowPolicy);
+	}
+	
+	/**
+	 * Returns the maximum number of received packets stored until they are 
+	 * read.
+	 * 
+	 * @return The capacity of the received packets queue.
+	 * 
+	 * @see #configurePacketsQueue(int, QueueOverflowPolicy)
+	 */
+	public int getPacketsQueueCapacity() {
+		return packetsQueueCapacity;
+	}
+	
+	/**
+	 * Returns the policy applied when a packet is received and the received 
+	 * packets queue is full.
+	 * 
+	 * @return The overflow policy of the received packets queue.
+	 * 
+	 * @see #configurePacketsQueue(int, QueueOverflowPolicy)
+	 * @see com.digi.xbee.api.models.QueueOverflowPolicy
+	 */
+	public QueueOverflowPolicy getPacketsQueueOverflowPolicy() {
+		return packetsQueueOverflowPolicy;
+	}
+	
+	/**
+	 * Returns the queue that stores the received packets until they are 
+	 * read. It provides statistics such as the number of dropped packets or 
+	 * the high-water mark.
+	 * 
+	 * @return The received packets queue, {@code null} if the device has 
+	 *         never been opened.
+	 * 
+	 * @see #configurePacketsQueue(int, QueueOverflowPolicy)
+	 * @see com.digi.xbee.api.models.XBeePacketsQueue
+	 */
+	public XBeePacketsQueue getPacketsQueue() {
+		if (dataReader == null)
+			return null;
+		return dataReader.getXBeePacketsQueue();
+	}
+	
+	/**
+	 * Enables or disables the buffered read mode of this XBee device.
+	 * 
+	 * <p>In buffered read mode, the bytes available in the connection 
+	 * interface are read in bulk and the API frames are decoded from a 
+	 * reusable buffer instead of reading the interface byte by byte. This is 
+	 * recommended for high baud rates.</p>
+	 * 
+	 * @param enabled {@code true} to enable the buffered read mode, 
+	 *                {@code false} otherwise.
+	 * 
+	 * @see #isBufferedReadEnabled()
+	 * @see com.digi.xbee.api.connection.BufferedPacketReader
+	 */
+	public void enableBufferedRead(boolean enabled) {
+		this.bufferedRead = enabled;
+		if (dataReader != null)
+			dataReader.enableBufferedRead(enabled);
+	}
+	
+	/**
+	 * Returns whether the buffered read mode is enabled.
+	 * 
+	 * @return {@code true} if the buffered read mode is enabled, 
+	 *         {@code false} otherwise.
+	 * 
+	 * @see #enableBufferedRead(boolean)
+	 */
+	public boolean isBufferedReadEnabled() {
+		return bufferedRead;
+	}
+	
+	/**
+	 * Enables the pooled receive mode of this XBee device with the given 
+	 * message pool, or disables it if the pool is {@code null}.
+	 * 
+	 * <p>In pooled receive mode, the data received from remote devices is 
+	 * notified to the listeners added with 
+	 * {@link #addPooledMessageListener(IPooledMessageReceiveListener)} in 
+	 * recyclable messages taken from the given pool, without creating any 
+	 * packet. Listeners must release every message when they finish 
+	 * processing it. While there is any pooled message listener, the 
+	 * received data is not notified to the data listeners nor available 
+	 * through the {@code readData} methods.</p>
+	 * 
+	 * <p>This mode is intended for applications that receive thousands of 
+	 * frames per second and must keep the garbage generation low.</p>
+	 * 
+	 * @param pool The pool to take the messages from, {@code null} to 
+	 *             disable the pooled receive mode.
+	 * 
+	 * @see #getMessagePool()
+	 * @see #addPooledMessageListener(IPooledMessageReceiveListener)
+	 * @see com.digi.xbee.api.models.XBeeMessagePool
+	 * @see com.digi.xbee.api.models.PooledXBeeMessage
+	 */
+	public void enablePooledReceive(XBeeMessagePool pool) {
+		this.messagePool = pool;
+		if (dataReader != null)
+			dataReader.enablePooledReceive(pool);
+	}
+	
+	/**
+	 * Returns the message pool of the pooled receive mode.
+	 * 
+	 * @return The message pool, {@code null} if the pooled receive mode is 
+	 *         disabled.
+	 * 
+	 * @see #enablePooledReceive(XBeeMessagePool)
+	 */
+	public XBeeMessagePool getMessagePool() {
+		return messagePool;
+	}
+	
+	/**
+	 * Adds the provided listener to the list of listeners to be notified 
+	 * when new data is received in the pooled receive mode.
+	 * 
+	 * <p>If the listener has been already included this method does nothing.
+	 * </p>
+	 * 
+	 * @param listener Listener to be notified when new data is received.
+	 * 
+	 * @throws NullPointerException if {@code listener == null}
+	 * 
+	 * @see #enablePooledReceive(XBeeMessagePool)
+	 * @see #removePooledMessageListener(IPooledMessageReceiveListener)
+	 * @see com.digi.xbee.api.listeners.IPooledMessageReceiveListener
+	 */
+	public void addPooledMessageListener(IPooledMessageReceiveListener listener) {
+		if (listener == null)
+			throw new NullPointerException("Listener cannot be null.");
+		
+		if (dataReader == null)
+			return;
+		dataReader.addPooledMessageReceiveListener(listener);
+	}
+	
+	/**
+	 * Removes the provided listener from the list of pooled message 
+	 * listeners.
+	 * 
+	 * <p>If the listener was not in the list this method does nothing.</p>
+	 * 
+	 * @param listener Listener to be removed from the list of listeners.
+	 * 
+	 * @throws NullPointerException if {@code listener == null}
+	 * 
+	 * @see #addPooledMessageListener(IPooledMessageReceiveListener)
+	 * @see com.digi.xbee.api.listeners.IPooledMessageReceiveListener
+	 */
+	public void removePooledMessageListener(IPooledMessageReceiveListener listener) {
+		if (listener == null)
+			throw new NullPointerException("Listener cannot be null.");
+		
+		if (dataReader == null)
+			return;
+		dataReader.removePooledMessageReceiveListener(listener);
+	}
+	
 	/**
 	 * Determines the operating mode of this XBee device.
 	 * 
@@ -855,6 +1191,246 @@ public class XBeeDevice extends AbstractXBeeDevice {
 		sendData(XBee64BitAddress.BROADCAST_ADDRESS, data);
 	}
 	
+	/**
+	 * Sends the provided data to the XBee device of the network corresponding 
+	 * to the given 64-bit address and returns a future that is completed with 
+	 * the transmit status.
+	 * 
+	 * <p>This is a non-blocking operation. The future is completed with the 
+	 * status reported by the local XBee device (including delivery errors) or
+	 * exceptionally with a {@code TimeoutException} if the transmit status is 
+	 * not received within {@code timeout} milliseconds.</p>
+	 * 
+	 * @param address The 64-bit address of the XBee that will receive the data.
+	 * @param data Byte array containing the data to be sent.
+	 * @param timeout Maximum time to wait for the transmit status in 
+	 *                milliseconds.
+	 * 
+	 * @return The future of the transmit status.
+	 * 
+	 * @throws IllegalArgumentException if {@code timeout < 0}.
+	 * @throws InterfaceNotOpenException if this device connection is not open.
+	 * @throws NullPointerException if {@code address == null} or 
+	 *                              if {@code data == null}.
+	 * @throws XBeeException if a remote device is trying to send data or 
+	 *                       if there is any other XBee related exception.
+	 * 
+	 * @see #sendData(XBee64BitAddress, byte[])
+	 * @see #sendDataFuture(RemoteXBeeDevice, byte[], int)
+	 * @see #sendDataFuture(XBee64BitAddress, XBee16BitAddress, byte[], int)
+	 * @see com.digi.xbee.api.models.XBee64BitAddress
+	 * @see com.digi.xbee.api.models.XBeeTransmitStatus
+	 */
+	protected CompletableFuture<XBeeTransmitStatus> sendDataFuture(XBee64BitAddress address, byte[] data, int timeout) throws XBeeException {
+		// Verify the parameters are not null, if they are null, throw an exception.
+		if (address == null)
+			throw new NullPointerException("Address cannot be null");
+		if (data == null)
+			throw new NullPointerException("Data cannot be null");
+		
+		// Check if device is remote.
+		if (isRemote())
+			throw new OperationNotSupportedException("Cannot send data to a remote device from a remote device.");
+		
+		logger.debug(toString() + "Sending data asynchronously to {} >> {}.", address, HexUtils.prettyHexString(data));
+		
+		XBeePacket xbeePacket;
+		switch (getXBeeProtocol()) {
+		case RAW_802_15_4:
+			xbeePacket = new TX64Packet(getNextFrameID(), address, XBeeTransmitOptions.NONE, data);
+			break;
+		default:
+			xbeePacket = new TransmitPacket(getNextFrameID(), address, XBee16BitAddress.UNKNOWN_ADDRESS, 0, XBeeTransmitOptions.NONE, data);
+		}
+		return sendTransmitPacketFuture(xbeePacket, timeout);
+	}
+	
+	/**
+	 * Sends the provided data to the XBee device of the network corresponding 
+	 * to the given 64-bit/16-bit address and returns a future that is 
+	 * completed with the transmit status.
+	 * 
+	 * <p>This is a non-blocking operation. The future is completed with the 
+	 * status reported by the local XBee device (including delivery errors) or
+	 * exceptionally with a {@code TimeoutException} if the transmit status is 
+	 * not received within {@code timeout} milliseconds.</p>
+	 * 
+	 * @param address64Bit The 64-bit address of the XBee that will receive the 
+	 *                     data.
+	 * @param address16Bit The 16-bit address of the XBee that will receive the 
+	 *                     data. If it is unknown the 
+	 *                     {@code XBee16BitAddress.UNKNOWN_ADDRESS} must be 
+	 *                     used.
+	 * @param data Byte array containing the data to be sent.
+	 * @param timeout Maximum time to wait for the transmit status in 
+	 *                milliseconds.
+	 * 
+	 * @return The future of the transmit status.
+	 * 
+	 * @throws IllegalArgumentException if {@code timeout < 0}.
+	 * @throws InterfaceNotOpenException if this device connection is not open.
+	 * @throws NullPointerException if {@code address64Bit == null} or 
+	 *                              if {@code address16Bit == null} or
+	 *                              if {@code data == null}.
+	 * @throws XBeeException if a remote device is trying to send data or 
+	 *                       if there is any other XBee related exception.
+	 * 
+	 * @see #sendData(XBee64BitAddress, XBee16BitAddress, byte[])
+	 * @see #sendDataFuture(RemoteXBeeDevice, byte[], int)
+	 * @see #sendDataFuture(XBee64BitAddress, byte[], int)
+	 * @see com.digi.xbee.api.models.XBee16BitAddress
+	 * @see com.digi.xbee.api.models.XBee64BitAddress
+	 * @see com.digi.xbee.api.models.XBeeTransmitStatus
+	 */
+	protected CompletableFuture<XBeeTransmitStatus> sendDataFuture(XBee64BitAddress address64Bit, XBee16BitAddress address16Bit, 
+			byte[] data, int timeout) throws XBeeException {
+		// Verify the parameters are not null, if they are null, throw an exception.
+		if (address64Bit == null)
+			throw new NullPointerException("64-bit address cannot be null");
+		if (address16Bit == null)
+			throw new NullPointerException("16-bit address cannot be null");
+		if (data == null)
+			throw new NullPointerException("Data cannot be null");
+		
+		// Check if device is remote.
+		if (isRemote())
+			throw new OperationNotSupportedException("Cannot send data to a remote device from a remote device.");
+		
+		logger.debug(toString() + "Sending data asynchronously to {}[{}] >> {}.", 
+				address64Bit, address16Bit, HexUtils.prettyHexString(data));
+		
+		XBeePacket xbeePacket = new TransmitPacket(getNextFrameID(), address64Bit, address16Bit, 0, XBeeTransmitOptions.NONE, data);
+		return sendTransmitPacketFuture(xbeePacket, timeout);
+	}
+	
+	/**
+	 * Sends the provided data to the provided XBee device choosing the optimal 
+	 * send method depending on the protocol of the local XBee device and 
+	 * returns a future that is completed with the transmit status.
+	 * 
+	 * <p>This is a non-blocking operation. The future is completed 
+	 * exceptionally with a {@code TimeoutException} if the transmit status is
+	 * not received within the configured receive timeout.</p>
+	 * 
+	 * @param remoteXBeeDevice The XBee device of the network that will receive 
+	 *                         the data.
+	 * @param data Byte array containing the data to be sent.
+	 * 
+	 * @return The future of the transmit status.
+	 * 
+	 * @throws InterfaceNotOpenException if this device connection is not open.
+	 * @throws NullPointerException if {@code remoteXBeeDevice == null} or 
+	 *                              if {@code data == null}.
+	 * @throws XBeeException if there is any XBee related exception.
+	 * 
+	 * @see #getReceiveTimeout()
+	 * @see #sendDataFuture(RemoteXBeeDevice, byte[], int)
+	 * @see #setReceiveTimeout(int)
+	 * @see RemoteXBeeDevice
+	 * @see com.digi.xbee.api.models.XBeeTransmitStatus
+	 */
+	public CompletableFuture<XBeeTransmitStatus> sendDataFuture(RemoteXBeeDevice remoteXBeeDevice, byte[] data) throws XBeeException {
+		return sendDataFuture(remoteXBeeDevice, data, receiveTimeout);
+	}
+	
+	/**
+	 * Sends the provided data to the provided XBee device choosing the optimal 
+	 * send method depending on the protocol of the local XBee device and 
+	 * returns a future that is completed with the transmit status.
+	 * 
+	 * <p>This is a non-blocking operation: no thread waits for the transmit 
+	 * status. The future is completed with the status reported by the local 
+	 * XBee device (including delivery errors), exceptionally with a 
+	 * {@code TimeoutException} if the transmit status is not received within 
+	 * {@code timeout} milliseconds or with an {@code XBeeException} if the 
+	 * data cannot be written.</p>
+	 * 
+	 * @param remoteXBeeDevice The XBee device of the network that will receive 
+	 *                         the data.
+	 * @param data Byte array containing the data to be sent.
+	 * @param timeout Maximum time to wait for the transmit status in 
+	 *                milliseconds.
+	 * 
+	 * @return The future of the transmit status.
+	 * 
+	 * @throws IllegalArgumentException if {@code timeout < 0}.
+	 * @throws InterfaceNotOpenException if this device connection is not open.
+	 * @throws NullPointerException if {@code remoteXBeeDevice == null} or 
+	 *                              if {@code data == null}.
+	 * @throws XBeeException if there is any XBee related exception.
+	 * 
+	 * @see #sendData(RemoteXBeeDevice, byte[])
+	 * @see #sendDataAsync(RemoteXBeeDevice, byte[])
+	 * @see #sendDataFuture(RemoteXBeeDevice, byte[])
+	 * @see #sendDataFuture(XBee64BitAddress, byte[], int)
+	 * @see #sendDataFuture(XBee64BitAddress, XBee16BitAddress, byte[], int)
+	 * @see RemoteXBeeDevice
+	 * @see com.digi.xbee.api.models.XBeeTransmitStatus
+	 */
+	public CompletableFuture<XBeeTransmitStatus> sendDataFuture(RemoteXBeeDevice remoteXBeeDevice, byte[] data, int timeout) throws XBeeException {
+		if (remoteXBeeDevice == null)
+			throw new NullPointerException("Remote XBee device cannot be null");
+		
+		switch (getXBeeProtocol()) {
+		case ZIGBEE:
+		case DIGI_POINT:
+			if (remoteXBeeDevice.get64BitAddress() != null && remoteXBeeDevice.get16BitAddress() != null)
+				return sendDataFuture(remoteXBeeDevice.get64BitAddress(), remoteXBeeDevice.get16BitAddress(), data, timeout);
+			return sendDataFuture(remoteXBeeDevice.get64BitAddress(), data, timeout);
+		case RAW_802_15_4:
+			if (this instanceof Raw802Device) {
+				if (remoteXBeeDevice.get64BitAddress() != null)
+					return ((Raw802Device)this).sendDataFuture(remoteXBeeDevice.get64BitAddress(), data, timeout);
+				return ((Raw802Device)this).sendDataFuture(remoteXBeeDevice.get16BitAddress(), data, timeout);
+			}
+			return sendDataFuture(remoteXBeeDevice.get64BitAddress(), data, timeout);
+		case DIGI_MESH:
+		default:
+			return sendDataFuture(remoteXBeeDevice.get64BitAddress(), data, timeout);
+		}
+	}
+	
+	/**
+	 * Sends the given transmit packet through the transmit pipeline and 
+	 * returns a future that is completed with the transmit status reported by
+	 * the local XBee device.
+	 * 
+	 * <p>The status is extracted in the thread that receives the response, so
+	 * no thread is blocked waiting for it. The future is completed 
+	 * exceptionally with a {@code TransmitException} if the response is not a
+	 * transmit status.</p>
+	 * 
+	 * @param packet Transmit packet to be sent.
+	 * @param timeout Maximum time to wait for the transmit status in 
+	 *                milliseconds.
+	 * 
+	 * @return The future of the transmit status.
+	 * 
+	 * @throws IllegalArgumentException if {@code timeout < 0}.
+	 * @throws InterfaceNotOpenException if this device connection is not open.
+	 * @throws NullPointerException if {@code packet == null}.
+	 * 
+	 * @see #sendPacketFuture(XBeePacket, int)
+	 * @see com.digi.xbee.api.models.XBeeTransmitStatus
+	 * @see com.digi.xbee.api.packet.XBeePacket
+	 */
+	protected CompletableFuture<XBeeTransmitStatus> sendTransmitPacketFuture(XBeePacket packet, int timeout) {
+		return sendPacketFuture(packet, timeout).thenApply(new Function<XBeePacket, XBeeTransmitStatus>() {
+			/*
+			 * (non-Javadoc)
+			 * @see java.util.function.Function#apply(java.lang.Object)
+			 */
+			@Override
+			public XBeeTransmitStatus apply(XBeePacket receivedPacket) {
+				try {
+					return getTransmitStatus(receivedPacket);
+				} catch (TransmitException e) {
+					throw new CompletionException(e);
+				}
+			}
+		});
+	}
+	
 	/**
 	 * Sends asynchronously the provided data in application layer mode to the 
 	 * XBee device of the network corresponding to the given 64-bit address. 
@@ -1296,6 +1872,255 @@ public class XBeeDevice extends AbstractXBeeDevice {
 		sendExplicitData(XBee64BitAddress.BROADCAST_ADDRESS, sourceEndpoint, destEndpoint, clusterID, profileID, data);
 	}
 	
+	/**
+	 * Sends the provided data in application layer mode to the XBee device of 
+	 * the network corresponding to the given 64-bit address and returns a 
+	 * future that is completed with the transmit status. Application layer 
+	 * mode means that you need to specify the application layer fields to be 
+	 * sent with the data.
+	 * 
+	 * <p>This is a non-blocking operation. The future is completed with the 
+	 * status reported by the local XBee device (including delivery errors) or
+	 * exceptionally with a {@code TimeoutException} if the transmit status is 
+	 * not received within {@code timeout} milliseconds.</p>
+	 * 
+	 * @param address The 64-bit address of the XBee that will receive the data.
+	 * @param sourceEndpoint Source endpoint for the transmission.
+	 * @param destEndpoint Destination endpoint for the transmission.
+	 * @param clusterID Cluster ID used in the transmission.
+	 * @param profileID Profile ID used in the transmission.
+	 * @param data Byte array containing the data to be sent.
+	 * @param timeout Maximum time to wait for the transmit status in 
+	 *                milliseconds.
+	 * 
+	 * @return The future of the transmit status.
+	 * 
+	 * @throws IllegalArgumentException if {@code sourceEndpoint < 0} or 
+	 *                                  if {@code sourceEndpoint > 0xFF} or 
+	 *                                  if {@code destEndpoint < 0} or 
+	 *                                  if {@code destEndpoint > 0xFF} or 
+	 *                                  if {@code clusterID < 0} or 
+	 *                                  if {@code clusterID > 0xFFFF} or 
+	 *                                  if {@code profileID < 0} or 
+	 *                                  if {@code profileID > 0xFFFF} or
+	 *                                  if {@code timeout < 0}.
+	 * @throws InterfaceNotOpenException if this device connection is not open.
+	 * @throws NullPointerException if {@code address == null} or 
+	 *                              if {@code data == null}.
+	 * @throws XBeeException if a remote device is trying to send data or 
+	 *                       if there is any other XBee related exception.
+	 * 
+	 * @see #sendExplicitData(XBee64BitAddress, int, int, int, int, byte[])
+	 * @see #sendExplicitDataFuture(RemoteXBeeDevice, int, int, int, int, byte[], int)
+	 * @see #sendExplicitDataFuture(XBee64BitAddress, XBee16BitAddress, int, int, int, int, byte[], int)
+	 * @see com.digi.xbee.api.models.XBee64BitAddress
+	 * @see com.digi.xbee.api.models.XBeeTransmitStatus
+	 */
+	protected CompletableFuture<XBeeTransmitStatus> sendExplicitDataFuture(XBee64BitAddress address, int sourceEndpoint, 
+			int destEndpoint, int clusterID, int profileID, byte[] data, int timeout) throws XBeeException {
+		if (address == null)
+			throw new NullPointerException("Address cannot be null");
+		
+		return sendExplicitDataFuture(address, XBee16BitAddress.UNKNOWN_ADDRESS, sourceEndpoint, destEndpoint, 
+				clusterID, profileID, data, timeout);
+	}
+	
+	/**
+	 * Sends the provided data in application layer mode to the XBee device of 
+	 * the network corresponding to the given 64-bit/16-bit address and 
+	 * returns a future that is completed with the transmit status. 
+	 * Application layer mode means that you need to specify the application 
+	 * layer fields to be sent with the data.
+	 * 
+	 * <p>This is a non-blocking operation. The future is completed with the 
+	 * status reported by the local XBee device (including delivery errors) or
+	 * exceptionally with a {@code TimeoutException} if the transmit status is 
+	 * not received within {@code timeout} milliseconds.</p>
+	 * 
+	 * @param address64Bit The 64-bit address of the XBee that will receive the 
+	 *                     data.
+	 * @param address16Bit The 16-bit address of the XBee that will receive the 
+	 *                     data. If it is unknown the 
+	 *                     {@code XBee16BitAddress.UNKNOWN_ADDRESS} must be 
+	 *                     used.
+	 * @param sourceEndpoint Source endpoint for the transmission.
+	 * @param destEndpoint Destination endpoint for the transmission.
+	 * @param clusterID Cluster ID used in the transmission.
+	 * @param profileID Profile ID used in the transmission.
+	 * @param data Byte array containing the data to be sent.
+	 * @param timeout Maximum time to wait for the transmit status in 
+	 *                milliseconds.
+	 * 
+	 * @return The future of the transmit status.
+	 * 
+	 * @throws IllegalArgumentException if {@code sourceEndpoint < 0} or 
+	 *                                  if {@code sourceEndpoint > 0xFF} or 
+	 *                                  if {@code destEndpoint < 0} or 
+	 *                                  if {@code destEndpoint > 0xFF} or 
+	 *                                  if {@code clusterID < 0} or 
+	 *                                  if {@code clusterID > 0xFFFF} or 
+	 *                                  if {@code profileID < 0} or 
+	 *                                  if {@code profileID > 0xFFFF} or
+	 *                                  if {@code timeout < 0}.
+	 * @throws InterfaceNotOpenException if this device connection is not open.
+	 * @throws NullPointerException if {@code address64Bit == null} or 
+	 *                              if {@code address16Bit == null} or
+	 *                              if {@code data == null}.
+	 * @throws XBeeException if a remote device is trying to send data or 
+	 *                       if there is any other XBee related exception.
+	 * 
+	 * @see #sendExplicitData(XBee64BitAddress, XBee16BitAddress, int, int, int, int, byte[])
+	 * @see #sendExplicitDataFuture(RemoteXBeeDevice, int, int, int, int, byte[], int)
+	 * @see #sendExplicitDataFuture(XBee64BitAddress, int, int, int, int, byte[], int)
+	 * @see com.digi.xbee.api.models.XBee16BitAddress
+	 * @see com.digi.xbee.api.models.XBee64BitAddress
+	 * @see com.digi.xbee.api.models.XBeeTransmitStatus
+	 */
+	protected CompletableFuture<XBeeTransmitStatus> sendExplicitDataFuture(XBee64BitAddress address64Bit, XBee16BitAddress address16Bit, 
+			int sourceEndpoint, int destEndpoint, int clusterID, int profileID, byte[] data, int timeout) throws XBeeException {
+		if (address64Bit == null)
+			throw new NullPointerException("64-bit address cannot be null.");
+		if (address16Bit == null)
+			throw new NullPointerException("16-bit address cannot be null.");
+		if (data == null)
+			throw new NullPointerException("Data cannot be null.");
+		if (sourceEndpoint < 0 || sourceEndpoint > 0xFF)
+			throw new IllegalArgumentException("Source endpoint must be between 0 and 0xFF.");
+		if (destEndpoint < 0 || destEndpoint > 0xFF)
+			throw new IllegalArgumentException("Destination endpoint must be between 0 and 0xFF.");
+		if (clusterID < 0 || clusterID > 0xFFFF)
+			throw new IllegalArgumentException("Cluster ID must be between 0 and 0xFFFF.");
+		if (profileID < 0 || profileID > 0xFFFF)
+			throw new IllegalArgumentException("Profile ID must be between 0 and 0xFFFF.");
+		
+		// Check if device is remote.
+		if (isRemote())
+			throw new OperationNotSupportedException("Cannot send explicit data to a remote device from a remote device.");
+		
+		logger.debug(toString() + "Sending explicit data asynchronously to {}[{}] [{} - {} - {} - {}] >> {}.", address64Bit, address16Bit, 
+				String.format("%02X", sourceEndpoint), String.format("%02X", destEndpoint), 
+				String.format("%04X", clusterID), String.format("%04X", profileID), 
+				HexUtils.prettyHexString(data));
+		
+		XBeePacket xbeePacket = new ExplicitAddressingPacket(getNextFrameID(), address64Bit, address16Bit, sourceEndpoint, destEndpoint, clusterID, profileID, 0, XBeeTransmitOptions.NONE, data);
+		return sendTransmitPacketFuture(xbeePacket, timeout);
+	}
+	
+	/**
+	 * Sends the provided data in application layer mode to the provided XBee 
+	 * device choosing the optimal send method depending on the protocol of 
+	 * the local XBee device and returns a future that is completed with the 
+	 * transmit status. Application layer mode means that you need to specify 
+	 * the application layer fields to be sent with the data.
+	 * 
+	 * <p>This is a non-blocking operation. The future is completed 
+	 * exceptionally with a {@code TimeoutException} if the transmit status is
+	 * not received within the configured receive timeout.</p>
+	 * 
+	 * @param remoteXBeeDevice The XBee device of the network that will receive 
+	 *                         the data.
+	 * @param sourceEndpoint Source endpoint for the transmission.
+	 * @param destEndpoint Destination endpoint for the transmission.
+	 * @param clusterID Cluster ID used in the transmission.
+	 * @param profileID Profile ID used in the transmission.
+	 * @param data Byte array containing the data to be sent.
+	 * 
+	 * @return The future of the transmit status.
+	 * 
+	 * @throws IllegalArgumentException if {@code sourceEndpoint < 0} or 
+	 *                                  if {@code sourceEndpoint > 0xFF} or 
+	 *                                  if {@code destEndpoint < 0} or 
+	 *                                  if {@code destEndpoint > 0xFF} or 
+	 *                                  if {@code clusterID < 0} or 
+	 *                                  if {@code clusterID > 0xFFFF} or 
+	 *                                  if {@code profileID < 0} or 
+	 *                                  if {@code profileID > 0xFFFF}.
+	 * @throws InterfaceNotOpenException if this device connection is not open.
+	 * @throws NullPointerException if {@code remoteXBeeDevice == null} or
+	 *                              if {@code data == null}.
+	 * @throws XBeeException if there is any XBee related exception.
+	 * 
+	 * @see #getReceiveTimeout()
+	 * @see #sendExplicitDataFuture(RemoteXBeeDevice, int, int, int, int, byte[], int)
+	 * @see #setReceiveTimeout(int)
+	 * @see RemoteXBeeDevice
+	 * @see com.digi.xbee.api.models.XBeeTransmitStatus
+	 */
+	protected CompletableFuture<XBeeTransmitStatus> sendExplicitDataFuture(RemoteXBeeDevice remoteXBeeDevice, int sourceEndpoint, 
+			int destEndpoint, int clusterID, int profileID, byte[] data) throws XBeeException {
+		return sendExplicitDataFuture(remoteXBeeDevice, sourceEndpoint, destEndpoint, clusterID, profileID, data, receiveTimeout);
+	}
+	
+	/**
+	 * Sends the provided data in application layer mode to the provided XBee 
+	 * device choosing the optimal send method depending on the protocol of 
+	 * the local XBee device and returns a future that is completed with the 
+	 * transmit status. Application layer mode means that you need to specify 
+	 * the application layer fields to be sent with the data.
+	 * 
+	 * <p>This is a non-blocking operation: no thread waits for the transmit 
+	 * status. The future is completed with the status reported by the local 
+	 * XBee device (including delivery errors), exceptionally with a 
+	 * {@code TimeoutException} if the transmit status is not received within 
+	 * {@code timeout} milliseconds or with an {@code XBeeException} if the 
+	 * data cannot be written.</p>
+	 * 
+	 * @param remoteXBeeDevice The XBee device of the network that will receive 
+	 *                         the data.
+	 * @param sourceEndpoint Source endpoint for the transmission.
+	 * @param destEndpoint Destination endpoint for the transmission.
+	 * @param clusterID Cluster ID used in the transmission.
+	 * @param profileID Profile ID used in the transmission.
+	 * @param data Byte array containing the data to be sent.
+	 * @param timeout Maximum time to wait for the transmit status in 
+	 *                milliseconds.
+	 * 
+	 * @return The future of the transmit status.
+	 * 
+	 * @throws IllegalArgumentException if {@code sourceEndpoint < 0} or 
+	 *                                  if {@code sourceEndpoint > 0xFF} or 
+	 *                                  if {@code destEndpoint < 0} or 
+	 *                                  if {@code destEndpoint > 0xFF} or 
+	 *                                  if {@code clusterID < 0} or 
+	 *                                  if {@code clusterID > 0xFFFF} or 
+	 *                                  if {@code profileID < 0} or 
+	 *                                  if {@code profileID > 0xFFFF} or
+	 *                                  if {@code timeout < 0}.
+	 * @throws InterfaceNotOpenException if this device connection is not open.
+	 * @throws NullPointerException if {@code remoteXBeeDevice == null} or
+	 *                              if {@code data == null}.
+	 * @throws XBeeException if there is any XBee related exception.
+	 * 
+	 * @see #sendExplicitData(RemoteXBeeDevice, int, int, int, int, byte[])
+	 * @see #sendExplicitDataAsync(RemoteXBeeDevice, int, int, int, int, byte[])
+	 * @see #sendExplicitDataFuture(RemoteXBeeDevice, int, int, int, int, byte[])
+	 * @see #sendExplicitDataFuture(XBee64BitAddress, int, int, int, int, byte[], int)
+	 * @see #sendExplicitDataFuture(XBee64BitAddress, XBee16BitAddress, int, int, int, int, byte[], int)
+	 * @see RemoteXBeeDevice
+	 * @see com.digi.xbee.api.models.XBeeTransmitStatus
+	 */
+	protected CompletableFuture<XBeeTransmitStatus> sendExplicitDataFuture(RemoteXBeeDevice remoteXBeeDevice, int sourceEndpoint, 
+			int destEndpoint, int clusterID, int profileID, byte[] data, int timeout) throws XBeeException {
+		if (remoteXBeeDevice == null)
+			throw new NullPointerException("Remote XBee device cannot be null.");
+		
+		switch (getXBeeProtocol()) {
+		case ZIGBEE:
+		case DIGI_POINT:
+			if (remoteXBeeDevice.get64BitAddress() != null && remoteXBeeDevice.get16BitAddress() != null)
+				return sendExplicitDataFuture(remoteXBeeDevice.get64BitAddress(), remoteXBeeDevice.get16BitAddress(), 
+						sourceEndpoint, destEndpoint, clusterID, profileID, data, timeout);
+			return sendExplicitDataFuture(remoteXBeeDevice.get64BitAddress(), sourceEndpoint, destEndpoint, 
+					clusterID, profileID, data, timeout);
+		case RAW_802_15_4:
+			throw new OperationNotSupportedException("802.15.4. protocol does not support explicit data transmissions.");
+		case DIGI_MESH:
+		default:
+			return sendExplicitDataFuture(remoteXBeeDevice.get64BitAddress(), sourceEndpoint, destEndpoint, 
+					clusterID, profileID, data, timeout);
+		}
+	}
+	
 	/**
 	 * Sends the given XBee packet and registers the given packet listener 
 	 * (if not {@code null}) to be notified when the answers is received.
@@ -1386,6 +2211,72 @@ public class XBeeDevice extends AbstractXBeeDevice {
 		}
 	}
 	
+	/**
+	 * Sends the given XBee packet through the transmit pipeline and returns a 
+	 * future that is completed with its response.
+	 * 
+	 * <p>This is a non-blocking operation. The future is completed 
+	 * exceptionally with a {@code TimeoutException} if the response is not 
+	 * received within the configured receive timeout.</p>
+	 * 
+	 * @param packet XBee packet to be sent.
+	 * 
+	 * @return The future of the response, completed with {@code null} if the 
+	 *         packet does not expect any response.
+	 * 
+	 * @throws InterfaceNotOpenException if this device connection is not open.
+	 * @throws NullPointerException if {@code packet == null}.
+	 * 
+	 * @see #getReceiveTimeout()
+	 * @see #sendPacketFuture(XBeePacket, int)
+	 * @see #setReceiveTimeout(int)
+	 * @see com.digi.xbee.api.packet.XBeePacket
+	 */
+	public CompletableFuture<XBeePacket> sendPacketFuture(XBeePacket packet) {
+		return sendPacketFuture(packet, receiveTimeout);
+	}
+	
+	/**
+	 * Sends the given XBee packet through the transmit pipeline and returns a 
+	 * future that is completed with its response.
+	 * 
+	 * <p>This is a non-blocking operation. Up to the configured transmit 
+	 * window packets are sent without waiting for their responses, the rest 
+	 * are queued and sent in order as responses arrive.</p>
+	 * 
+	 * <p>The future is completed exceptionally with a 
+	 * {@code TimeoutException} if the response is not received within 
+	 * {@code timeout} milliseconds, with an {@code XBeeException} if the 
+	 * packet cannot be written and with an {@code InterfaceNotOpenException} 
+	 * if the device is closed before the response arrives.</p>
+	 * 
+	 * @param packet XBee packet to be sent.
+	 * @param timeout Maximum time to wait for the response in milliseconds.
+	 * 
+	 * @return The future of the response, completed with {@code null} if the 
+	 *         packet does not expect any response.
+	 * 
+	 * @throws IllegalArgumentException if {@code timeout < 0}.
+	 * @throws InterfaceNotOpenException if this device connection is not open.
+	 * @throws NullPointerException if {@code packet == null}.
+	 * 
+	 * @see #getTransmitPipeline()
+	 * @see #sendPacket(XBeePacket)
+	 * @see #sendPacketFuture(XBeePacket)
+	 * @see #setTransmitWindow(int)
+	 * @see com.digi.xbee.api.packet.XBeePacket
+	 */
+	public CompletableFuture<XBeePacket> sendPacketFuture(XBeePacket packet, int timeout) {
+		if (packet == null)
+			throw new NullPointerException("XBee packet cannot be null.");
+		if (timeout < 0)
+			throw new IllegalArgumentException("Timeout cannot be less than 0.");
+		if (!isOpen() || transmitPipeline == null)
+			throw new InterfaceNotOpenException();
+		
+		return transmitPipeline.submit(packet, timeout);
+	}
+	
 	/**
 	 * Waits until a Modem Status packet with a reset status, 
 	 * {@code ModemStatusEvent.STATUS_HARDWARE_RESET} (0x00), or a watchdog 
@@ -12,11 +12,12 @@
 package com.digi.xbee.api;
 
 import java.util.ArrayList;
-import java.util.Collection;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -26,6 +27,7 @@ import com.digi.xbee.api.exceptions.OperationNotSupportedException;
 import com.digi.xbee.api.exceptions.TimeoutException;
 import com.digi.xbee.api.exceptions.XBeeException;
 import com.digi.xbee.api.listeners.IDiscoveryListener;
+import com.digi.xbee.api.listeners.INetworkChangeListener;
 import com.digi.xbee.api.models.DiscoveryOptions;
 import com.digi.xbee.api.models.XBee16BitAddress;
 import com.digi.xbee.api.models.XBee64BitAddress;
@@ -37,20 +39,47 @@ import com.digi.xbee.api.utils.ByteUtils;
  *  
  * <p>The network allows the discovery of remote devices in the same network 
  * as the local one and stores them.</p>
+ * 
+ * <p>The devices are indexed by their 64-bit address, 16-bit address and 
+ * node identifier, so looking them up does not depend on the size of the 
+ * network. The devices stored by 64-bit address are also indexed by their 
+ * 16-bit address, which is kept updated when it changes (for example, when 
+ * a ZigBee device joins the network again).</p>
+ * 
+ * <p>The devices can also be looked up by the primitive value of their 
+ * addresses with {@link #getDeviceBy64BitAddress(long)} and 
+ * {@link #getDeviceBy16BitAddress(int)}, which do not create any object.</p>
  */
 public class XBeeNetwork {
 	
+	// Constants.
+	/**
+	 * Default number of consecutive scans of the continuous discovery a 
+	 * device must not answer to be considered lost (value: {@value}).
+	 */
+	public static final int DEFAULT_LOST_SCANS = 3;
+	
 	// Variables.
 
 	private XBeeDevice localDevice;
 	
 	private Map<XBee64BitAddress, RemoteXBeeDevice> remotesBy64BitAddr;
 	private Map<XBee16BitAddress, RemoteXBeeDevice> remotesBy16BitAddr;
+	private Map<String, List<RemoteXBeeDevice>> remotesByNodeID;
+	
+	// Primitive indexes, kept updated together with the maps.
+	private AddressIndex remotesBy64BitValue;
+	private AddressIndex remotesBy16BitValue;
+	private AddressIndex remotes64By16BitValue;
 	
 	private List<IDiscoveryListener> discoveryListeners = new ArrayList<IDiscoveryListener>();
 	
+	private List<INetworkChangeListener> networkChangeListeners = new ArrayList<INetworkChangeListener>();
+	
 	private NodeDiscovery nodeDiscovery;
 	
+	private volatile ContinuousDiscovery continuousDiscovery;
+	
 	protected Logger logger;
 	
 	/**
@@ -69,6 +98,10 @@ public class XBeeNetwork {
 		localDevice = device;
 		remotesBy64BitAddr = new ConcurrentHashMap<XBee64BitAddress, RemoteXBeeDevice>();
 		remotesBy16BitAddr = new ConcurrentHashMap<XBee16BitAddress, RemoteXBeeDevice>();
+		remotesByNodeID = new ConcurrentHashMap<String, List<RemoteXBeeDevice>>();
+		remotesBy64BitValue = new AddressIndex();
+		remotesBy16BitValue = new AddressIndex();
+		remotes64By16BitValue = new AddressIndex();
 		nodeDiscovery = new NodeDiscovery(localDevice);
 		
 		logger = LoggerFactory.getLogger(this.getClass());
@@ -253,6 +286,145 @@ public class XBeeNetwork {
 		return nodeDiscovery.isRunning();
 	}
 	
+	/**
+	 * Adds the given listener to the list of listeners to be notified about 
+	 * the changes detected by the continuous discovery.
+	 * 
+	 * <p>If the listener has already been included, this method does nothing.
+	 * </p>
+	 * 
+	 * @param listener Listener to be notified about the network changes.
+	 * 
+	 * @throws NullPointerException if {@code listener == null}.
+	 * 
+	 * @see com.digi.xbee.api.listeners.INetworkChangeListener
+	 * @see #removeNetworkChangeListener(INetworkChangeListener)
+	 * @see #startContinuousDiscovery(long)
+	 */
+	public void addNetworkChangeListener(INetworkChangeListener listener) {
+		if (listener == null)
+			throw new NullPointerException("Listener cannot be null.");
+		
+		synchronized (networkChangeListeners) {
+			if (!networkChangeListeners.contains(listener))
+				networkChangeListeners.add(listener);
+		}
+	}
+	
+	/**
+	 * Removes the given listener from the list of network change listeners.
+	 * 
+	 * <p>If the listener is not included in the list, this method does nothing.
+	 * </p>
+	 * 
+	 * @param listener Network change listener to remove.
+	 * 
+	 * @throws NullPointerException if {@code listener == null}.
+	 * 
+	 * @see com.digi.xbee.api.listeners.INetworkChangeListener
+	 * @see #addNetworkChangeListener(INetworkChangeListener)
+	 */
+	public void removeNetworkChangeListener(INetworkChangeListener listener) {
+		if (listener == null)
+			throw new NullPointerException("Listener cannot be null.");
+		
+		synchronized (networkChangeListeners) {
+			networkChangeListeners.remove(listener);
+		}
+	}
+	
+	/**
+	 * Starts repeating the discovery of the network in the background, 
+	 * considering lost the devices that do not answer 
+	 * {@value #DEFAULT_LOST_SCANS} consecutive scans.
+	 * 
+	 * @param period Time to wait between the end of a scan and the start of 
+	 *               the next one in milliseconds.
+	 * 
+	 * @throws IllegalArgumentException if {@code period <= 0}.
+	 * @throws IllegalStateException if the continuous discovery is already 
+	 *                               running.
+	 * @throws InterfaceNotOpenException if the device is not open.
+	 * 
+	 * @see #DEFAULT_LOST_SCANS
+	 * @see #startContinuousDiscovery(long, int)
+	 */
+	public void startContinuousDiscovery(long period) {
+		startContinuousDiscovery(period, DEFAULT_LOST_SCANS);
+	}
+	
+	/**
+	 * Starts repeating the discovery of the network in the background.
+	 * 
+	 * <p>Each scan is compared with the devices of the network, and the 
+	 * listeners added with 
+	 * {@link #addNetworkChangeListener(INetworkChangeListener)} are only 
+	 * notified about the devices that were added, updated or lost since the 
+	 * previous scan. The discovered devices are added to the network and the 
+	 * lost ones are removed from it.</p>
+	 * 
+	 * <p>A scan is skipped while the discovery process started with 
+	 * {@link #startDiscoveryProcess()} is running. The duration of each scan 
+	 * is the discovery timeout, see {@link #setDiscoveryTimeout(long)}.</p>
+	 * 
+	 * @param period Time to wait between the end of a scan and the start of 
+	 *               the next one in milliseconds.
+	 * @param lostScans Number of consecutive scans a device must not answer 
+	 *                  to be considered lost.
+	 * 
+	 * @throws IllegalArgumentException if {@code period <= 0} or 
+	 *                                  if {@code lostScans < 1}.
+	 * @throws IllegalStateException if the continuous discovery is already 
+	 *                               running.
+	 * @throws InterfaceNotOpenException if the device is not open.
+	 * 
+	 * @see #isContinuousDiscoveryRunning()
+	 * @see #stopContinuousDiscovery()
+	 */
+	public void startContinuousDiscovery(long period, int lostScans) {
+		if (period <= 0)
+			throw new IllegalArgumentException("Period must be bigger than 0.");
+		if (lostScans < 1)
+			throw new IllegalArgumentException("Lost scans must be bigger than 0.");
+		if (!localDevice.isOpen())
+			throw new InterfaceNotOpenException();
+		
+		synchronized (networkChangeListeners) {
+			if (isContinuousDiscoveryRunning())
+				throw new IllegalStateException("The continuous discovery is already running.");
+			
+			continuousDiscovery = new ContinuousDiscovery(this, localDevice, 
+					networkChangeListeners, period, lostScans);
+			continuousDiscovery.start();
+		}
+	}
+	
+	/**
+	 * Stops the continuous discovery if it is running.
+	 * 
+	 * @see #isContinuousDiscoveryRunning()
+	 * @see #startContinuousDiscovery(long, int)
+	 */
+	public void stopContinuousDiscovery() {
+		ContinuousDiscovery discovery = continuousDiscovery;
+		if (discovery != null)
+			discovery.stop();
+	}
+	
+	/**
+	 * Retrieves whether the continuous discovery is running or not.
+	 * 
+	 * @return {@code true} if the continuous discovery is running, 
+	 *         {@code false} otherwise.
+	 * 
+	 * @see #startContinuousDiscovery(long, int)
+	 * @see #stopContinuousDiscovery()
+	 */
+	public boolean isContinuousDiscoveryRunning() {
+		ContinuousDiscovery discovery = continuousDiscovery;
+		return discovery != null && discovery.isRunning();
+	}
+	
 	/**
 	 * Configures the discovery timeout ({@code NT} parameter) with the given 
 	 * value.
@@ -338,20 +510,10 @@ public class XBeeNetwork {
 		if (id.length() == 0)
 			throw new IllegalArgumentException("Device identifier cannot be an empty string.");
 		
-		List<RemoteXBeeDevice> devices = new ArrayList<RemoteXBeeDevice>();
-		
-		// Look in the 64-bit map.
-		for (RemoteXBeeDevice remote : remotesBy64BitAddr.values()) {
-			if (id.equals(remote.getNodeID()))
-				devices.add(remote);
-		}
-		// Look in the 16-bit map.
-		for (RemoteXBeeDevice remote : remotesBy16BitAddr.values()) {
-			if (id.equals(remote.getNodeID()))
-				devices.add(remote);
-		}
-		// Return the list.
-		return devices;
+		List<RemoteXBeeDevice> devices = remotesByNodeID.get(id);
+		if (devices == null)
+			return new ArrayList<RemoteXBeeDevice>();
+		return new ArrayList<RemoteXBeeDevice>(devices);
 	}
 	
 	/**
@@ -379,14 +541,9 @@ public class XBeeNetwork {
 		if (id.length() == 0)
 			throw new IllegalArgumentException("Device identifier cannot be an empty string.");
 		
-		// Look in the 64-bit map.
-		for (RemoteXBeeDevice remote : remotesBy64BitAddr.values()) {
-			if (id.equals(remote.getNodeID()))
-				return remote;
-		}
-		// Look in the 16-bit map.
-		for (RemoteXBeeDevice remote : remotesBy16BitAddr.values()) {
-			if (id.equals(remote.getNodeID()))
+		List<RemoteXBeeDevice> devices = remotesByNodeID.get(id);
+		if (devices != null) {
+			for (RemoteXBeeDevice remote : devices)
 				return remote;
 		}
 		// The given ID is not in the network.
@@ -452,17 +609,8 @@ public class XBeeNetwork {
 		//    2.- Then in the 16-bit map.
 		// This should be maintained in the 'addRemoteDevice' method.
 		
-		RemoteXBeeDevice devInNetwork = null;
-		
 		// Look in the 64-bit map.
-		Collection<RemoteXBeeDevice> devices = remotesBy64BitAddr.values();
-		for (RemoteXBeeDevice d: devices) {
-			XBee16BitAddress a = get16BitAddress(d);
-			if (a != null && a.equals(address)) {
-				devInNetwork = d;
-				break;
-			}
-		}
+		RemoteXBeeDevice devInNetwork = getFrom64BitMap(address);
 		
 		// Look in the 16-bit map.
 		if (devInNetwork == null)
@@ -471,6 +619,78 @@ public class XBeeNetwork {
 		return devInNetwork;
 	}
 	
+	/**
+	 * Returns the remote device already contained in the network whose 64-bit 
+	 * address has the given value.
+	 * 
+	 * <p>This method does not create any object, so it is suitable to 
+	 * resolve the sender of every received frame.</p>
+	 * 
+	 * <p>Note that this method <b>does not perform a discovery</b>, only 
+	 * returns the device that has been previously discovered.</p>
+	 * 
+	 * @param address The value of the 64-bit address of the device to be 
+	 *                retrieved.
+	 * 
+	 * @return The remote device in the network or {@code null} if it is not 
+	 *         found.
+	 * 
+	 * @throws IllegalArgumentException if {@code address} is the value of 
+	 *                                  {@link XBee64BitAddress#UNKNOWN_ADDRESS}.
+	 * 
+	 * @see #getDevice(XBee64BitAddress)
+	 * @see XBee64BitAddress#getLongValue()
+	 */
+	public RemoteXBeeDevice getDeviceBy64BitAddress(long address) {
+		if (address == XBee64BitAddress.UNKNOWN_ADDRESS.getLongValue())
+			throw new IllegalArgumentException("64-bit address cannot be unknown.");
+		
+		return remotesBy64BitValue.get(address);
+	}
+	
+	/**
+	 * Returns the remote device already contained in the network whose 16-bit 
+	 * address has the given value.
+	 * 
+	 * <p>This method does not create any object, so it is suitable to 
+	 * resolve the sender of every received frame.</p>
+	 * 
+	 * <p>Note that this method <b>does not perform a discovery</b>, only 
+	 * returns the device that has been previously discovered.</p>
+	 * 
+	 * @param address The value of the 16-bit address of the device to be 
+	 *                retrieved.
+	 * 
+	 * @return The remote device in the network or {@code null} if it is not 
+	 *         found.
+	 * 
+	 * @throws IllegalArgumentException if {@code address < 0} or 
+	 *                                  if {@code address > 0xFFFF} or 
+	 *                                  if {@code address} is the value of 
+	 *                                  {@link XBee16BitAddress#UNKNOWN_ADDRESS}.
+	 * @throws OperationNotSupportedException if the protocol of the local XBee device is DigiMesh or Point-to-Multipoint.
+	 * 
+	 * @see #getDevice(XBee16BitAddress)
+	 * @see XBee16BitAddress#getIntValue()
+	 */
+	public RemoteXBeeDevice getDeviceBy16BitAddress(int address) throws OperationNotSupportedException {
+		if (localDevice.getXBeeProtocol() == XBeeProtocol.DIGI_MESH)
+			throw new OperationNotSupportedException("DigiMesh protocol does not support 16-bit addressing.");
+		if (localDevice.getXBeeProtocol() == XBeeProtocol.DIGI_POINT)
+			throw new OperationNotSupportedException("Point-to-Multipoint protocol does not support 16-bit addressing.");
+		if (address < 0 || address > 0xFFFF)
+			throw new IllegalArgumentException("16-bit address must be between 0 and 0xFFFF.");
+		if (address == XBee16BitAddress.UNKNOWN_ADDRESS.getIntValue())
+			throw new IllegalArgumentException("16-bit address cannot be unknown.");
+		
+		// Same preference order as 'getDevice(XBee16BitAddress)'.
+		RemoteXBeeDevice devInNetwork = getFrom64BitMap(address);
+		if (devInNetwork == null)
+			devInNetwork = remotesBy16BitValue.get(address);
+		
+		return devInNetwork;
+	}
+	
 	/**
 	 * Adds the given remote device to the network. 
 	 * 
@@ -525,18 +745,23 @@ public class XBeeNetwork {
 					if (devInNetwork != null) {
 						// The device exists in the 16-bit map, so remove it and add it to the 64-bit map.
 						logger.debug("{}Existing device '{}' in network.", localDevice.toString(), devInNetwork.toString());
-						devInNetwork = remotesBy16BitAddr.remove(addr16);
+						removeFrom16BitMap(addr16, devInNetwork);
 						devInNetwork.updateDeviceDataFrom(remoteDevice);
-						remotesBy64BitAddr.put(addr64, devInNetwork);
+						putIn64BitMap(addr64, devInNetwork);
+						// The device was in neither map while its node 
+						// identifier was updated, so index it again.
+						addToNodeIDIndex(devInNetwork, devInNetwork.getNodeID());
 						return devInNetwork;
 					} else {
 						// The device does not exist in the 16-bit map, so add it to the 64-bit map.
-						remotesBy64BitAddr.put(addr64, remoteDevice);
+						putIn64BitMap(addr64, remoteDevice);
+						addToNodeIDIndex(remoteDevice, remoteDevice.getNodeID());
 						return remoteDevice;
 					}
 				} else {
 					// The device has not 16-bit address, so add it to the 64-bit map.
-					remotesBy64BitAddr.put(addr64, remoteDevice);
+					putIn64BitMap(addr64, remoteDevice);
+					addToNodeIDIndex(remoteDevice, remoteDevice.getNodeID());
 					return remoteDevice;
 				}
 			}
@@ -545,14 +770,7 @@ public class XBeeNetwork {
 		// If the device has not 64-bit address, check if it has 16-bit address.
 		if (addr16 != null && !addr16.equals(XBee16BitAddress.UNKNOWN_ADDRESS)) {
 			// The device has 16-bit address, so look in the 64-bit map.
-			Collection<RemoteXBeeDevice> devices = remotesBy64BitAddr.values();
-			for (RemoteXBeeDevice d : devices) {
-				XBee16BitAddress a = get16BitAddress(d);
-				if (a != null && a.equals(addr16)) {
-					devInNetwork = d;
-					break;
-				}
-			}
+			devInNetwork = getFrom64BitMap(addr16);
 			// Check if the device exists in the 64-bit map.
 			if (devInNetwork != null) {
 				// The device exists in the 64-bit map, so update the reference and return it.
@@ -569,7 +787,8 @@ public class XBeeNetwork {
 					return devInNetwork;
 				} else {
 					// The device does not exist in the 16-bit map, so add it.
-					remotesBy16BitAddr.put(addr16, remoteDevice);
+					putIn16BitMap(addr16, remoteDevice);
+					addToNodeIDIndex(remoteDevice, remoteDevice.getNodeID());
 					return remoteDevice;
 				}
 			}
@@ -597,9 +816,16 @@ public class XBeeNetwork {
 	 * <li>For the rest will return {@code false} as the result of the addition.</li>
 	 * </ul>
 	 * 
+	 * <p>The whole list, for example the result of a discovery, is merged in 
+	 * a single pass: each device is resolved against the network with 
+	 * constant time lookups, so the time grows linearly with the size of the 
+	 * list and not with the size of the network.</p>
+	 * 
 	 * @param list The list of remote devices to be added to the network.
 	 * 
-	 * @return A list with the successfully added devices to the network.
+	 * @return A list with the successfully added devices to the network. If 
+	 *         several devices of the list correspond to the same device of 
+	 *         the network, it is only included once.
 	 * 
 	 * @throws NullPointerException if {@code list == null}.
 	 * 
@@ -617,13 +843,13 @@ public class XBeeNetwork {
 		
 		logger.debug("{}Adding '{}' devices to network.", localDevice.toString(), list.size());
 		
-		for (int i = 0; i < list.size(); i++) {
-			RemoteXBeeDevice toAdd = list.get(i);
+		Map<RemoteXBeeDevice, Boolean> merged = new IdentityHashMap<RemoteXBeeDevice, Boolean>(list.size());
+		for (RemoteXBeeDevice toAdd : list) {
 			if (toAdd == null)
 				continue;
 			
 			RemoteXBeeDevice d = addRemoteDevice(toAdd);
-			if (d != null)
+			if (d != null && merged.put(d, Boolean.TRUE) == null)
 				addedList.add(d);
 		}
 		
@@ -664,7 +890,8 @@ public class XBeeNetwork {
 			
 			// Remove the device.
 			if (devInNetwork != null) {
-				remotesBy64BitAddr.remove(addr64);
+				removeFrom64BitMap(addr64, devInNetwork);
+				removeFromNodeIDIndex(devInNetwork, devInNetwork.getNodeID());
 				return;
 			}
 		}
@@ -679,13 +906,11 @@ public class XBeeNetwork {
 			// This should be maintained in the 'getDeviceBy16BitAddress' method.
 			
 			// Look for the 16-bit address in the 64-bit map.
-			Collection<RemoteXBeeDevice> devices = remotesBy64BitAddr.values();
-			for (RemoteXBeeDevice d: devices) {
-				XBee16BitAddress a = get16BitAddress(d);
-				if (a != null && a.equals(addr16)) {
-					remotesBy64BitAddr.remove(d.get64BitAddress());
-					return;
-				}
+			devInNetwork = getFrom64BitMap(addr16);
+			if (devInNetwork != null) {
+				removeFrom64BitMap(devInNetwork.get64BitAddress(), devInNetwork);
+				removeFromNodeIDIndex(devInNetwork, devInNetwork.getNodeID());
+				return;
 			}
 			
 			// If not found, look for the 16-bit address in the 16-bit map. 
@@ -693,7 +918,8 @@ public class XBeeNetwork {
 			
 			// Remove the device.
 			if (devInNetwork != null) {
-				remotesBy16BitAddr.remove(addr16);
+				removeFrom16BitMap(addr16, devInNetwork);
+				removeFromNodeIDIndex(devInNetwork, devInNetwork.getNodeID());
 				return;
 			}
 		}
@@ -719,8 +945,14 @@ public class XBeeNetwork {
 	 */
 	public void clearDeviceList() {
 		logger.debug("{}Clearing the network.", localDevice.toString());
-		remotesBy64BitAddr.clear();
-		remotesBy16BitAddr.clear();
+		synchronized (remotesByNodeID) {
+			remotesBy64BitAddr.clear();
+			remotesBy16BitAddr.clear();
+			remotesByNodeID.clear();
+			remotesBy64BitValue.clear();
+			remotesBy16BitValue.clear();
+			remotes64By16BitValue.clear();
+		}
 	}
 	
 	/**
@@ -732,6 +964,201 @@ public class XBeeNetwork {
 		return remotesBy64BitAddr.size() + remotesBy16BitAddr.size();
 	}
 	
+	/**
+	 * Updates the node identifier index after the node identifier of the 
+	 * given remote device changed.
+	 * 
+	 * <p>This method is called by the remote device itself, so the index 
+	 * stays consistent whether the node identifier changes through this 
+	 * network or through the device.</p>
+	 * 
+	 * @param remoteDevice The remote device whose node identifier changed.
+	 * @param oldNodeID The previous node identifier of the device.
+	 */
+	void nodeIDChanged(RemoteXBeeDevice remoteDevice, String oldNodeID) {
+		synchronized (remotesByNodeID) {
+			removeFromNodeIDIndex(remoteDevice, oldNodeID);
+			if (contains(remoteDevice))
+				addToNodeIDIndex(remoteDevice, remoteDevice.getNodeID());
+		}
+	}
+	
+	/**
+	 * Updates the 16-bit address indexes after the 16-bit address of the 
+	 * given remote device changed.
+	 * 
+	 * <p>This method is called by the remote device itself, so the indexes 
+	 * stay consistent whether the address changes through this network or 
+	 * through the device.</p>
+	 * 
+	 * @param remoteDevice The remote device whose 16-bit address changed.
+	 * @param old16BitAddress The previous 16-bit address of the device.
+	 */
+	void xbee16BitAddressChanged(RemoteXBeeDevice remoteDevice, XBee16BitAddress old16BitAddress) {
+		XBee16BitAddress addr16 = get16BitAddress(remoteDevice);
+		XBee64BitAddress addr64 = remoteDevice.get64BitAddress();
+		if (addr64 != null && remotesBy64BitAddr.get(addr64) == remoteDevice) {
+			if (old16BitAddress != null)
+				remotes64By16BitValue.remove(old16BitAddress.getIntValue(), remoteDevice);
+			if (addr16 != null && !addr16.equals(XBee16BitAddress.UNKNOWN_ADDRESS))
+				remotes64By16BitValue.put(addr16.getIntValue(), remoteDevice);
+		} else if (old16BitAddress != null && remotesBy16BitAddr.get(old16BitAddress) == remoteDevice
+				&& addr16 != null && !addr16.equals(XBee16BitAddress.UNKNOWN_ADDRESS)) {
+			removeFrom16BitMap(old16BitAddress, remoteDevice);
+			putIn16BitMap(addr16, remoteDevice);
+		}
+	}
+	
+	/**
+	 * Returns the device of the 64-bit map whose 16-bit address matches the 
+	 * given one.
+	 * 
+	 * @param addr16 The 16-bit address.
+	 * 
+	 * @return The remote device, {@code null} if the 64-bit map does not 
+	 *         contain any device with that 16-bit address.
+	 */
+	private RemoteXBeeDevice getFrom64BitMap(XBee16BitAddress addr16) {
+		return getFrom64BitMap(addr16.getIntValue());
+	}
+	
+	/**
+	 * Returns the device of the 64-bit map whose 16-bit address has the 
+	 * given value.
+	 * 
+	 * @param addr16 The value of the 16-bit address.
+	 * 
+	 * @return The remote device, {@code null} if the 64-bit map does not 
+	 *         contain any device with that 16-bit address.
+	 */
+	private RemoteXBeeDevice getFrom64BitMap(int addr16) {
+		RemoteXBeeDevice device = remotes64By16BitValue.get(addr16);
+		if (device == null)
+			return null;
+		// Discard the entry if the device is no longer in the map or its 
+		// address changed.
+		XBee64BitAddress addr64 = device.get64BitAddress();
+		XBee16BitAddress deviceAddr16 = get16BitAddress(device);
+		if (addr64 == null || remotesBy64BitValue.get(addr64.getLongValue()) != device 
+				|| deviceAddr16 == null || deviceAddr16.getIntValue() != addr16) {
+			remotes64By16BitValue.remove(addr16, device);
+			return null;
+		}
+		return device;
+	}
+	
+	/**
+	 * Adds the given remote device to the 64-bit map and indexes it by its 
+	 * 16-bit address.
+	 * 
+	 * @param addr64 The 64-bit address of the device.
+	 * @param remoteDevice The remote device to add.
+	 */
+	private void putIn64BitMap(XBee64BitAddress addr64, RemoteXBeeDevice remoteDevice) {
+		remotesBy64BitAddr.put(addr64, remoteDevice);
+		remotesBy64BitValue.put(addr64.getLongValue(), remoteDevice);
+		XBee16BitAddress addr16 = get16BitAddress(remoteDevice);
+		if (addr16 != null && !addr16.equals(XBee16BitAddress.UNKNOWN_ADDRESS))
+			remotes64By16BitValue.put(addr16.getIntValue(), remoteDevice);
+	}
+	
+	/**
+	 * Removes the given remote device from the 64-bit map and from the 
+	 * 16-bit address index.
+	 * 
+	 * @param addr64 The 64-bit address of the device.
+	 * @param remoteDevice The remote device to remove.
+	 */
+	private void removeFrom64BitMap(XBee64BitAddress addr64, RemoteXBeeDevice remoteDevice) {
+		remotesBy64BitAddr.remove(addr64);
+		remotesBy64BitValue.remove(addr64.getLongValue(), remoteDevice);
+		XBee16BitAddress addr16 = get16BitAddress(remoteDevice);
+		if (addr16 != null)
+			remotes64By16BitValue.remove(addr16.getIntValue(), remoteDevice);
+	}
+	
+	/**
+	 * Adds the given remote device to the 16-bit map.
+	 * 
+	 * @param addr16 The 16-bit address of the device.
+	 * @param remoteDevice The remote device to add.
+	 */
+	private void putIn16BitMap(XBee16BitAddress addr16, RemoteXBeeDevice remoteDevice) {
+		remotesBy16BitAddr.put(addr16, remoteDevice);
+		remotesBy16BitValue.put(addr16.getIntValue(), remoteDevice);
+	}
+	
+	/**
+	 * Removes the given remote device from the 16-bit map.
+	 * 
+	 * @param addr16 The 16-bit address of the device.
+	 * @param remoteDevice The remote device to remove.
+	 */
+	private void removeFrom16BitMap(XBee16BitAddress addr16, RemoteXBeeDevice remoteDevice) {
+		remotesBy16BitAddr.remove(addr16, remoteDevice);
+		remotesBy16BitValue.remove(addr16.getIntValue(), remoteDevice);
+	}
+	
+	/**
+	 * Returns whether the given instance is one of the devices of the 
+	 * network.
+	 * 
+	 * @param remoteDevice The remote device.
+	 * 
+	 * @return {@code true} if the network contains the instance, 
+	 *         {@code false} otherwise.
+	 */
+	private boolean contains(RemoteXBeeDevice remoteDevice) {
+		XBee64BitAddress addr64 = remoteDevice.get64BitAddress();
+		if (addr64 != null && remotesBy64BitAddr.get(addr64) == remoteDevice)
+			return true;
+		XBee16BitAddress addr16 = get16BitAddress(remoteDevice);
+		return addr16 != null && remotesBy16BitAddr.get(addr16) == remoteDevice;
+	}
+	
+	/**
+	 * Adds the given remote device to the node identifier index.
+	 * 
+	 * @param remoteDevice The remote device to index.
+	 * @param id The node identifier of the device, {@code null} if it does 
+	 *           not have one.
+	 */
+	private void addToNodeIDIndex(RemoteXBeeDevice remoteDevice, String id) {
+		if (id == null)
+			return;
+		
+		synchronized (remotesByNodeID) {
+			List<RemoteXBeeDevice> devices = remotesByNodeID.get(id);
+			if (devices == null) {
+				devices = new CopyOnWriteArrayList<RemoteXBeeDevice>();
+				remotesByNodeID.put(id, devices);
+			}
+			if (!devices.contains(remoteDevice))
+				devices.add(remoteDevice);
+		}
+	}
+	
+	/**
+	 * Removes the given remote device from the node identifier index.
+	 * 
+	 * @param remoteDevice The remote device to remove.
+	 * @param id The node identifier the device is indexed with, {@code null} 
+	 *           if it does not have one.
+	 */
+	private void removeFromNodeIDIndex(RemoteXBeeDevice remoteDevice, String id) {
+		if (id == null)
+			return;
+		
+		synchronized (remotesByNodeID) {
+			List<RemoteXBeeDevice> devices = remotesByNodeID.get(id);
+			if (devices == null)
+				return;
+			devices.remove(remoteDevice);
+			if (devices.isEmpty())
+				remotesByNodeID.remove(id);
+		}
+	}
+	
 	/**
 	 * Retrieves the 16-bit address of the given remote device.
 	 * 
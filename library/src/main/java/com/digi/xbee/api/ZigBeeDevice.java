@@ -11,6 +11,8 @@
  */
 package com.digi.xbee.api;
 
+import java.util.concurrent.CompletableFuture;
+
 import com.digi.xbee.api.connection.IConnectionInterface;
 import com.digi.xbee.api.connection.serial.SerialPortParameters;
 import com.digi.xbee.api.exceptions.InterfaceNotOpenException;
@@ -26,6 +28,7 @@ import com.digi.xbee.api.models.XBee16BitAddress;
 import com.digi.xbee.api.models.XBee64BitAddress;
 import com.digi.xbee.api.models.XBeeProtocol;
 import com.digi.xbee.api.models.XBeeTransmitOptions;
+import com.digi.xbee.api.models.XBeeTransmitStatus;
 import com.digi.xbee.api.packet.XBeePacket;
 import com.digi.xbee.api.packet.common.ExplicitAddressingPacket;
 import com.digi.xbee.api.utils.HexUtils;
@@ -160,6 +163,16 @@ public class ZigBeeDevice extends XBeeDevice {
 		super.sendData(address64Bit, address16bit, data);
 	}
 	
+	/*
+	 * (non-Javadoc)
+	 * @see com.digi.xbee.api.XBeeDevice#sendDataFuture(com.digi.xbee.api.models.XBee64BitAddress, com.digi.xbee.api.models.XBee16BitAddress, byte[], int)
+	 */
+	@Override
+	public CompletableFuture<XBeeTransmitStatus> sendDataFuture(XBee64BitAddress address64Bit, XBee16BitAddress address16bit, byte[] data, 
+			int timeout) throws XBeeException {
+		return super.sendDataFuture(address64Bit, address16bit, data, timeout);
+	}
+	
 	/*
 	 * (non-Javadoc)
 	 * @see com.digi.xbee.api.AbstractXBeeDevice#getAssociationIndicationStatus()
@@ -300,6 +313,36 @@ public class ZigBeeDevice extends XBeeDevice {
 		super.sendExplicitDataAsync(address64Bit, address16Bit, sourceEndpoint, destEndpoint, clusterID, profileID, data);
 	}
 	
+	/*
+	 * (non-Javadoc)
+	 * @see com.digi.xbee.api.XBeeDevice#sendExplicitDataFuture(com.digi.xbee.api.RemoteXBeeDevice, int, int, int, int, byte[])
+	 */
+	@Override
+	public CompletableFuture<XBeeTransmitStatus> sendExplicitDataFuture(RemoteXBeeDevice remoteXBeeDevice, int sourceEndpoint, int destEndpoint, 
+			int clusterID, int profileID, byte[] data) throws XBeeException {
+		return super.sendExplicitDataFuture(remoteXBeeDevice, sourceEndpoint, destEndpoint, clusterID, profileID, data);
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * @see com.digi.xbee.api.XBeeDevice#sendExplicitDataFuture(com.digi.xbee.api.RemoteXBeeDevice, int, int, int, int, byte[], int)
+	 */
+	@Override
+	public CompletableFuture<XBeeTransmitStatus> sendExplicitDataFuture(RemoteXBeeDevice remoteXBeeDevice, int sourceEndpoint, int destEndpoint, 
+			int clusterID, int profileID, byte[] data, int timeout) throws XBeeException {
+		return super.sendExplicitDataFuture(remoteXBeeDevice, sourceEndpoint, destEndpoint, clusterID, profileID, data, timeout);
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * @see com.digi.xbee.api.XBeeDevice#sendExplicitDataFuture(com.digi.xbee.api.models.XBee64BitAddress, com.digi.xbee.api.models.XBee16BitAddress, int, int, int, int, byte[], int)
+	 */
+	@Override
+	public CompletableFuture<XBeeTransmitStatus> sendExplicitDataFuture(XBee64BitAddress address64Bit, XBee16BitAddress address16Bit, 
+			int sourceEndpoint, int destEndpoint, int clusterID, int profileID, byte[] data, int timeout) throws XBeeException {
+		return super.sendExplicitDataFuture(address64Bit, address16Bit, sourceEndpoint, destEndpoint, clusterID, profileID, data, timeout);
+	}
+	
 	/**
 	 * Sends a multicast transmission with the provided data to the given 
 	 * group ID.
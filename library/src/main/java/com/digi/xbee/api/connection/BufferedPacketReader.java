@@ -0,0 +1,275 @@
+/**
+ * Copyright (c) 2014-2016 Digi International Inc.,
+ * All rights not expressly granted are reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * Digi International Inc. 11001 Bren Road East, Minnetonka, MN 55343
+ * =======================================================================
+ */
+package com.digi.xbee.api.connection;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+
+import com.digi.xbee.api.listeners.IPacketReceiveListener;
+import com.digi.xbee.api.listeners.IPacketViewReceiveListener;
+import com.digi.xbee.api.models.OperatingMode;
+import com.digi.xbee.api.packet.XBeePacket;
+import com.digi.xbee.api.packet.XBeePacketDecoder;
+
+/**
+ * This class reads API frames from an input stream in bulk.
+ *
+ * <p>Instead of reading the stream byte by byte, every call to
+ * {@link #read(InputStream, OperatingMode)} drains all the available bytes
+ * into a reusable buffer with a single read operation. The buffer is then
+ * pushed to an {@link XBeePacketDecoder} that looks for the start delimiter
+ * ({@code 0x7E}), unescapes the bytes and verifies the checksum in a single
+ * pass. The decoded packets are retrieved with {@link #nextPacket()}.</p>
+ *
+ * <p>A partially received frame is kept between reads. In
+ * {@link OperatingMode#API_ESCAPE} mode, any unescaped start delimiter
+ * resynchronizes the decoder to a new frame. A partial frame is also
+ * discarded if no byte is received for {@value #FRAME_TIMEOUT} milliseconds.
+ * </p>
+ *
+ * <p>A reader created with an {@link IPacketViewReceiveListener} does not
+ * parse the frames: a reusable view of every frame is notified to the
+ * listener while the bytes are read, and {@link #nextPacket()} always
+ * returns {@code null}.</p>
+ *
+ * <p>This class is not thread-safe, it is intended to be used only by the
+ * thread reading the connection interface.</p>
+ *
+ * @see DataReader
+ * @see com.digi.xbee.api.packet.XBeePacketDecoder
+ */
+public class BufferedPacketReader {
+
+	// Constants.
+	/**
+	 * Default size of the read buffer in bytes (value: {@value}).
+	 */
+	public static final int DEFAULT_BUFFER_SIZE = 4096;
+
+	/**
+	 * Maximum time between two bytes of the same frame in milliseconds
+	 * (value: {@value}).
+	 */
+	public static final int FRAME_TIMEOUT = 300;
+
+	// Variables.
+	private final byte[] buffer;
+	private final ByteBuffer readBuffer;
+
+	private final ArrayDeque<XBeePacket> packets = new ArrayDeque<XBeePacket>();
+
+	private final XBeePacketDecoder decoder;
+
+	private long lastByteTime;
+
+	private long readCount = 0;
+
+	/**
+	 * Class constructor. Instantiates a new {@code BufferedPacketReader} with
+	 * a read buffer of the default size.
+	 *
+	 * @see #DEFAULT_BUFFER_SIZE
+	 * @see #BufferedPacketReader(int)
+	 */
+	public BufferedPacketReader() {
+		this(DEFAULT_BUFFER_SIZE);
+	}
+
+	/**
+	 * Class constructor. Instantiates a new {@code BufferedPacketReader} with
+	 * a read buffer of the given size.
+	 *
+	 * @param bufferSize Size of the read buffer in bytes.
+	 *
+	 * @throws IllegalArgumentException if {@code bufferSize < 1}.
+	 *
+	 * @see #BufferedPacketReader()
+	 */
+	public BufferedPacketReader(int bufferSize) {
+		if (bufferSize < 1)
+			throw new IllegalArgumentException("Buffer size must be greater than 0.");
+
+		this.buffer = new byte[bufferSize];
+		this.readBuffer = ByteBuffer.wrap(buffer);
+		this.decoder = new XBeePacketDecoder(OperatingMode.API, new IPacketReceiveListener() {
+			/*
+			 * (non-Javadoc)
+			 * @see com.digi.xbee.api.listeners.IPacketReceiveListener#packetReceived(com.digi.xbee.api.packet.XBeePacket)
+			 */
+			@Override
+			public void packetReceived(XBeePacket receivedPacket) {
+				packets.add(receivedPacket);
+			}
+		});
+	}
+
+	/**
+	 * Class constructor. Instantiates a new {@code BufferedPacketReader} with
+	 * a read buffer of the given size that notifies a view of every decoded
+	 * frame to the given listener instead of parsing it.
+	 *
+	 * @param bufferSize Size of the read buffer in bytes.
+	 * @param listener Listener to be notified when a frame is decoded.
+	 *
+	 * @throws IllegalArgumentException if {@code bufferSize < 1}.
+	 * @throws NullPointerException if {@code listener == null}.
+	 *
+	 * @see com.digi.xbee.api.listeners.IPacketViewReceiveListener
+	 * @see com.digi.xbee.api.packet.XBeePacketView
+	 */
+	public BufferedPacketReader(int bufferSize, IPacketViewReceiveListener listener) {
+		if (bufferSize < 1)
+			throw new IllegalArgumentException("Buffer size must be greater than 0.");
+
+		this.buffer = new byte[bufferSize];
+		this.readBuffer = ByteBuffer.wrap(buffer);
+		this.decoder = new XBeePacketDecoder(OperatingMode.API, listener);
+	}
+
+	/**
+	 * Reads all the bytes available in the given input stream with a single
+	 * read operation and decodes the API frames they contain.
+	 *
+	 * <p>If there are no bytes available, this method blocks until at least
+	 * one byte is read or the input stream read timeout expires.</p>
+	 *
+	 * @param inputStream Input stream to read bytes from.
+	 * @param mode XBee device operating mode.
+	 *
+	 * @return The number of bytes read, {@code -1} if the end of the stream
+	 *         has been reached.
+	 *
+	 * @throws IllegalArgumentException if {@code mode != OperatingMode.API } and
+	 *                              if {@code mode != OperatingMode.API_ESCAPE}.
+	 * @throws IOException if there is any problem reading from the input stream.
+	 * @throws NullPointerException if {@code inputStream == null} or
+	 *                              if {@code mode == null}.
+	 *
+	 * @see #nextPacket()
+	 * @see #process(byte[], int, int, OperatingMode)
+	 */
+	public int read(InputStream inputStream, OperatingMode mode) throws IOException {
+		if (inputStream == null)
+			throw new NullPointerException("Input stream cannot be null.");
+
+		int available = inputStream.available();
+		int readBytes = inputStream.read(buffer, 0, Math.max(1, Math.min(available, buffer.length)));
+		if (readBytes > 0) {
+			prepare(mode);
+			readCount++;
+			readBuffer.clear();
+			readBuffer.limit(readBytes);
+			decoder.decode(readBuffer);
+		}
+		return readBytes;
+	}
+
+	/**
+	 * Decodes the API frames contained in the given bytes. Decoded packets are
+	 * retrieved with {@link #nextPacket()}.
+	 *
+	 * @param data Byte array containing the received bytes.
+	 * @param offset Position of the first byte to process.
+	 * @param count Number of bytes to process.
+	 * @param mode XBee device operating mode.
+	 *
+	 * @throws IllegalArgumentException if {@code mode != OperatingMode.API } and
+	 *                              if {@code mode != OperatingMode.API_ESCAPE}.
+	 * @throws NullPointerException if {@code data == null} or
+	 *                              if {@code mode == null}.
+	 *
+	 * @see #nextPacket()
+	 */
+	public void process(byte[] data, int offset, int count, OperatingMode mode) {
+		if (data == null)
+			throw new NullPointerException("Data cannot be null.");
+
+		prepare(mode);
+		decoder.decode(data, offset, count);
+	}
+
+	/**
+	 * Returns the next decoded packet.
+	 *
+	 * @return The next decoded packet, {@code null} if there are no more
+	 *         decoded packets.
+	 *
+	 * @see #read(InputStream, OperatingMode)
+	 */
+	public XBeePacket nextPacket() {
+		return packets.poll();
+	}
+
+	/**
+	 * Discards the partially received frame, if any.
+	 */
+	public void reset() {
+		decoder.reset();
+	}
+
+	/**
+	 * Returns the number of bulk reads from an input stream processed with
+	 * {@link #read(InputStream, OperatingMode)}.
+	 *
+	 * @return The number of reads.
+	 */
+	public long getReadCount() {
+		return readCount;
+	}
+
+	/**
+	 * Returns the number of valid frames decoded.
+	 *
+	 * @return The number of decoded frames.
+	 */
+	public long getFrameCount() {
+		return decoder.getPacketCount();
+	}
+
+	/**
+	 * Returns the number of frames discarded because they were incomplete,
+	 * had an invalid checksum or could not be parsed.
+	 *
+	 * @return The number of invalid frames.
+	 */
+	public long getInvalidFrameCount() {
+		return decoder.getInvalidFrameCount();
+	}
+
+	/**
+	 * Returns the number of bytes discarded while looking for the start
+	 * delimiter of a frame.
+	 *
+	 * @return The number of discarded bytes.
+	 */
+	public long getDiscardedByteCount() {
+		return decoder.getDiscardedByteCount();
+	}
+
+	/**
+	 * Prepares the decoder to process a new chunk of bytes received in the
+	 * given operating mode.
+	 *
+	 * @param mode XBee device operating mode.
+	 */
+	private void prepare(OperatingMode mode) {
+		decoder.setOperatingMode(mode);
+
+		// Discard the partial frame if the rest of it did not arrive in time.
+		long now = System.currentTimeMillis();
+		if (decoder.isDecodingFrame() && now - lastByteTime > FRAME_TIMEOUT)
+			decoder.reset();
+		lastByteTime = now;
+	}
+}
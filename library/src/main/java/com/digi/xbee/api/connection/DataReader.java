@@ -12,10 +12,10 @@
 package com.digi.xbee.api.connection;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.HashMap;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.CountDownLatch;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -34,19 +34,25 @@ import com.digi.xbee.api.listeners.IExplicitDataReceiveListener;
 import com.digi.xbee.api.listeners.IIOSampleReceiveListener;
 import com.digi.xbee.api.listeners.IModemStatusReceiveListener;
 import com.digi.xbee.api.listeners.IPacketReceiveListener;
+import com.digi.xbee.api.listeners.IPacketViewReceiveListener;
+import com.digi.xbee.api.listeners.IPooledMessageReceiveListener;
 import com.digi.xbee.api.listeners.IDataReceiveListener;
 import com.digi.xbee.api.models.ExplicitXBeeMessage;
 import com.digi.xbee.api.models.ModemStatusEvent;
 import com.digi.xbee.api.models.SpecialByte;
 import com.digi.xbee.api.models.OperatingMode;
+import com.digi.xbee.api.models.PooledXBeeMessage;
+import com.digi.xbee.api.models.QueueOverflowPolicy;
 import com.digi.xbee.api.models.XBee16BitAddress;
 import com.digi.xbee.api.models.XBee64BitAddress;
 import com.digi.xbee.api.models.XBeeMessage;
+import com.digi.xbee.api.models.XBeeMessagePool;
 import com.digi.xbee.api.models.XBeePacketsQueue;
 import com.digi.xbee.api.packet.XBeeAPIPacket;
 import com.digi.xbee.api.packet.APIFrameType;
 import com.digi.xbee.api.packet.XBeePacket;
 import com.digi.xbee.api.packet.XBeePacketParser;
+import com.digi.xbee.api.packet.XBeePacketView;
 import com.digi.xbee.api.packet.common.ExplicitRxIndicatorPacket;
 import com.digi.xbee.api.packet.common.IODataSampleRxIndicatorPacket;
 import com.digi.xbee.api.packet.common.ModemStatusPacket;
@@ -68,7 +74,6 @@ public class DataReader extends Thread {
 	
 	// Constants.
 	private final static int ALL_FRAME_IDS = 99999;
-	private final static int MAXIMUM_PARALLEL_LISTENER_THREADS = 20;
 	
 	// Variables.
 	private boolean running = false;
@@ -84,6 +89,7 @@ public class DataReader extends Thread {
 	private ArrayList<IIOSampleReceiveListener> ioSampleReceiveListeners = new ArrayList<IIOSampleReceiveListener>();
 	private ArrayList<IModemStatusReceiveListener> modemStatusListeners = new ArrayList<IModemStatusReceiveListener>();
 	private ArrayList<IExplicitDataReceiveListener> explicitDataReceiveListeners = new ArrayList<IExplicitDataReceiveListener>();
+	private ArrayList<IPooledMessageReceiveListener> pooledMessageReceiveListeners = new ArrayList<IPooledMessageReceiveListener>();
 	
 	private Logger logger;
 	
@@ -93,6 +99,21 @@ public class DataReader extends Thread {
 	
 	private XBeeDevice xbeeDevice;
 	
+	private ListenerDispatcher listenerDispatcher;
+	private boolean ownsDispatcher;
+	
+	private ResponseCorrelator responseCorrelator;
+	
+	private volatile BufferedPacketReader bufferedPacketReader;
+	
+	private volatile XBeeMessagePool messagePool;
+	private volatile BufferedPacketReader pooledPacketReader;
+	
+	private volatile XBeeMetrics metrics;
+	
+	// Released once the reader waits for data on the connection interface.
+	private final CountDownLatch waitingForData = new CountDownLatch(1);
+	
 	/**
 	 * Class constructor. Instantiates a new {@code DataReader} object for the 
 	 * given connection interface using the given XBee operating mode and XBee
@@ -111,6 +132,36 @@ public class DataReader extends Thread {
 	 * @see com.digi.xbee.api.models.OperatingMode
 	 */
 	public DataReader(IConnectionInterface connectionInterface, OperatingMode mode, XBeeDevice xbeeDevice) {
+		this(connectionInterface, mode, xbeeDevice, null);
+	}
+	
+	/**
+	 * Class constructor. Instantiates a new {@code DataReader} object for the 
+	 * given connection interface using the given XBee operating mode and XBee
+	 * device. Listeners are notified through the provided dispatcher.
+	 * 
+	 * <p>The dispatcher is not shut down when this data reader stops, it is 
+	 * responsibility of its owner. If {@code listenerDispatcher} is 
+	 * {@code null}, the data reader creates its own dispatcher and shuts it 
+	 * down when it stops.</p>
+	 * 
+	 * @param connectionInterface Connection interface to read data from.
+	 * @param mode XBee operating mode.
+	 * @param xbeeDevice Reference to the XBee device containing this 
+	 *                   {@code DataReader} object.
+	 * @param listenerDispatcher Dispatcher used to notify the listeners. It 
+	 *                           may be {@code null}.
+	 * 
+	 * @throws NullPointerException if {@code connectionInterface == null} or
+	 *                                 {@code mode == null}.
+	 * 
+	 * @see IConnectionInterface
+	 * @see ListenerDispatcher
+	 * @see com.digi.xbee.api.XBeeDevice
+	 * @see com.digi.xbee.api.models.OperatingMode
+	 */
+	public DataReader(IConnectionInterface connectionInterface, OperatingMode mode, XBeeDevice xbeeDevice, 
+			ListenerDispatcher listenerDispatcher) {
 		if (connectionInterface == null)
 			throw new NullPointerException("Connection interface cannot be null.");
 		if (mode == null)
@@ -122,6 +173,13 @@ public class DataReader extends Thread {
 		this.logger = LoggerFactory.getLogger(DataReader.class);
 		parser = new XBeePacketParser();
 		xbeePacketsQueue = new XBeePacketsQueue();
+		responseCorrelator = new ResponseCorrelator();
+		metrics = new XBeeMetrics();
+		if (listenerDispatcher == null) {
+			this.listenerDispatcher = new ListenerDispatcher();
+			this.ownsDispatcher = true;
+		} else
+			this.listenerDispatcher = listenerDispatcher;
 	}
 	
 	/**
@@ -140,6 +198,112 @@ public class DataReader extends Thread {
 		this.mode = mode;
 	}
 	
+	/**
+	 * Enables or disables the buffered read mode of this data reader.
+	 * 
+	 * <p>In buffered read mode, all the bytes available in the connection 
+	 * interface are read at once into a reusable buffer and the API frames 
+	 * are decoded from it in a single pass, instead of reading the input 
+	 * stream byte by byte. This reduces the overhead of serial port 
+	 * libraries that go through native code on every read.</p>
+	 * 
+	 * @param enabled {@code true} to enable the buffered read mode, 
+	 *                {@code false} to read byte by byte.
+	 * 
+	 * @see #isBufferedReadEnabled()
+	 * @see BufferedPacketReader
+	 */
+	public void enableBufferedRead(boolean enabled) {
+		if (enabled && bufferedPacketReader == null)
+			bufferedPacketReader = new BufferedPacketReader();
+		else if (!enabled)
+			bufferedPacketReader = null;
+	}
+	
+	/**
+	 * Returns whether the buffered read mode is enabled.
+	 * 
+	 * @return {@code true} if the buffered read mode is enabled, 
+	 *         {@code false} otherwise.
+	 * 
+	 * @see #enableBufferedRead(boolean)
+	 */
+	public boolean isBufferedReadEnabled() {
+		return bufferedPacketReader != null;
+	}
+	
+	/**
+	 * Enables the pooled receive mode of this data reader with the given 
+	 * message pool, or disables it if the pool is {@code null}.
+	 * 
+	 * <p>In pooled receive mode, the bytes are read in bulk (as in the 
+	 * buffered read mode) and the receive data frames (Receive, RX 64-bit, 
+	 * RX 16-bit and Explicit RX Indicator) are not parsed into packets: 
+	 * their data is copied from the read buffer into a message taken from 
+	 * the pool and notified to the pooled message listeners, which must 
+	 * release it. While there is any pooled message listener, those frames 
+	 * are not notified to any other listener nor added to the packets 
+	 * queue. The rest of the frames are processed as usual.</p>
+	 * 
+	 * @param pool The pool to take the messages from, {@code null} to 
+	 *             disable the pooled receive mode.
+	 * 
+	 * @see #getMessagePool()
+	 * @see #addPooledMessageReceiveListener(IPooledMessageReceiveListener)
+	 * @see com.digi.xbee.api.models.XBeeMessagePool
+	 */
+	public void enablePooledReceive(XBeeMessagePool pool) {
+		if (pool == null) {
+			pooledPacketReader = null;
+			messagePool = null;
+			return;
+		}
+		messagePool = pool;
+		if (pooledPacketReader == null) {
+			pooledPacketReader = new BufferedPacketReader(BufferedPacketReader.DEFAULT_BUFFER_SIZE, 
+					new IPacketViewReceiveListener() {
+				/*
+				 * (non-Javadoc)
+				 * @see com.digi.xbee.api.listeners.IPacketViewReceiveListener#packetReceived(com.digi.xbee.api.packet.XBeePacketView)
+				 */
+				@Override
+				public void packetReceived(XBeePacketView packetView) {
+					packetViewReceived(packetView);
+				}
+			});
+		}
+	}
+	
+	/**
+	 * Returns the message pool of the pooled receive mode.
+	 * 
+	 * @return The message pool, {@code null} if the pooled receive mode is 
+	 *         disabled.
+	 * 
+	 * @see #enablePooledReceive(XBeeMessagePool)
+	 */
+	public XBeeMessagePool getMessagePool() {
+		return messagePool;
+	}
+	
+	/**
+	 * Configures the capacity and the overflow policy of the queue of read 
+	 * XBee packets.
+	 * 
+	 * @param capacity Maximum number of packets in the queue.
+	 * @param overflowPolicy Policy to apply when the queue is full.
+	 * 
+	 * @throws IllegalArgumentException if {@code capacity < 1}.
+	 * @throws NullPointerException if {@code overflowPolicy == null}.
+	 * 
+	 * @see #getXBeePacketsQueue()
+	 * @see com.digi.xbee.api.models.QueueOverflowPolicy
+	 */
+	public void configurePacketsQueue(int capacity, QueueOverflowPolicy overflowPolicy) {
+		xbeePacketsQueue.setOverflowPolicy(overflowPolicy);
+		xbeePacketsQueue.setMaxSize(capacity);
+	}
+	
 	/**
 	 * Adds the given data receive listener to the list of listeners that will 
 	 * be notified when XBee data packets are received.
@@ -379,6 +543,65 @@ public class DataReader extends Thread {
 		}
 	}
 	
+	/**
+	 * Adds the given pooled message receive listener to the list of 
+	 * listeners that will be notified when data is received in the pooled 
+	 * receive mode.
+	 * 
+	 * <p>If the listener has been already added, this method does nothing.</p>
+	 * 
+	 * @param listener Listener to be notified when data is received.
+	 * 
+	 * @throws NullPointerException if {@code listener == null}.
+	 * 
+	 * @see #enablePooledReceive(XBeeMessagePool)
+	 * @see #removePooledMessageReceiveListener(IPooledMessageReceiveListener)
+	 * @see com.digi.xbee.api.listeners.IPooledMessageReceiveListener
+	 */
+	public void addPooledMessageReceiveListener(IPooledMessageReceiveListener listener) {
+		if (listener == null)
+			throw new NullPointerException("Listener cannot be null.");
+		
+		synchronized (pooledMessageReceiveListeners) {
+			if (!pooledMessageReceiveListeners.contains(listener))
+				pooledMessageReceiveListeners.add(listener);
+		}
+	}
+	
+	/**
+	 * Removes the given pooled message receive listener from the list of 
+	 * pooled message receive listeners.
+	 * 
+	 * <p>If the listener is not included in the list, this method does nothing.
+	 * </p>
+	 * 
+	 * @param listener Pooled message receive listener to remove from the list.
+	 * 
+	 * @see #addPooledMessageReceiveListener(IPooledMessageReceiveListener)
+	 * @see com.digi.xbee.api.listeners.IPooledMessageReceiveListener
+	 */
+	public void removePooledMessageReceiveListener(IPooledMessageReceiveListener listener) {
+		synchronized (pooledMessageReceiveListeners) {
+			pooledMessageReceiveListeners.remove(listener);
+		}
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * @see java.lang.Thread#start()
+	 */
+	@Override
+	public void start() {
+		super.start();
+		// Do not return until the reader waits for data, otherwise the 
+		// notification of the first data received could be missed.
+		try {
+			waitingForData.await();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+	
 	/*
 	 * (non-Javadoc)
 	 * @see java.lang.Thread#run()
@@ -391,6 +614,7 @@ public class DataReader extends Thread {
 		xbeePacketsQueue.clearQueue();
 		try {
 			synchronized (connectionInterface) {
+				waitingForData.countDown();
 				connectionInterface.wait();
 			}
 			while (running) {
@@ -402,16 +626,36 @@ public class DataReader extends Thread {
 						break;
 					case API:
 					case API_ESCAPE:
+						BufferedPacketReader packetReader = pooledPacketReader;
+						if (packetReader == null)
+							packetReader = bufferedPacketReader;
+						if (packetReader != null) {
+							// Read all the available bytes at once and process the decoded packets.
+							long invalidFrames = packetReader.getInvalidFrameCount();
+							int readBytes = packetReader.read(connectionInterface.getInputStream(), mode);
+							if (readBytes < 0)
+								break;
+							metrics.bytesReceived(readBytes);
+							metrics.parseFailed(packetReader.getInvalidFrameCount() - invalidFrames);
+							XBeePacket packet;
+							while ((packet = packetReader.nextPacket()) != null)
+								packetReceived(packet);
+							break;
+						}
 						int headerByte = connectionInterface.getInputStream().read();
 						// If it is packet header parse the packet, if not discard this byte and continue.
 						if (headerByte == SpecialByte.HEADER_BYTE.getValue()) {
 							try {
 								XBeePacket packet = parser.parsePacket(connectionInterface.getInputStream(), mode);
+								// Start delimiter, length and checksum are not part of the packet length.
+								metrics.bytesReceived(packet.getPacketLength() + 4);
 								packetReceived(packet);
 							} catch (InvalidPacketException e) {
+								metrics.parseFailed(1);
 								logger.error("Error parsing the API packet.", e);
 							}
-						}
+						} else if (headerByte >= 0)
+							metrics.bytesReceived(1);
 						break;
 					default:
 						break;
@@ -420,11 +664,7 @@ public class DataReader extends Thread {
 					break;
 				if (connectionInterface.getInputStream() == null)
 					break;
-				else if (connectionInterface.getInputStream().available() > 0)
-					continue;
-				synchronized (connectionInterface) {
-					connectionInterface.wait();
-				}
+				waitForData();
 			}
 		} catch (IOException e) {
 			logger.error("Error reading from input stream.", e);
@@ -433,11 +673,36 @@ public class DataReader extends Thread {
 		} catch (IllegalStateException e) {
 			logger.error(e.getMessage(), e);
 		} finally {
+			waitingForData.countDown();
 			if (running) {
 				running = false;
 				if (connectionInterface.isOpen())
 					connectionInterface.close();
 			}
+			if (ownsDispatcher)
+				listenerDispatcher.shutdown();
+		}
+	}
+	
+	/**
+	 * Waits until the connection interface notifies that there is new data, 
+	 * unless there is already data available to read or the input stream is 
+	 * closed.
+	 * 
+	 * <p>The available data is checked while holding the lock of the 
+	 * connection interface, so a notification sent right after the check is 
+	 * not missed: the notifying thread cannot take the lock until this 
+	 * thread starts waiting.</p>
+	 * 
+	 * @throws InterruptedException if the thread is interrupted while 
+	 *                              waiting.
+	 * @throws IOException if the available data cannot be read.
+	 */
+	private void waitForData() throws IOException, InterruptedException {
+		synchronized (connectionInterface) {
+			InputStream inputStream = connectionInterface.getInputStream();
+			if (inputStream != null && inputStream.available() == 0)
+				connectionInterface.wait();
 		}
 	}
 	
@@ -451,10 +716,14 @@ public class DataReader extends Thread {
 	 * @see com.digi.xbee.api.packet.XBeePacket
 	 */
 	private void packetReceived(XBeePacket packet) {
-		// Add the packet to the packets queue.
-		xbeePacketsQueue.addPacket(packet);
+		metrics.frameReceived(packet);
+		// Deliver the packet to the synchronous request waiting for it.
+		correlateResponse(packet);
 		// Notify that a packet has been received to the corresponding listeners.
 		notifyPacketReceived(packet);
+		// Add the packet to the packets queue. This may wait for room, so 
+		// responses and listeners must not depend on it.
+		xbeePacketsQueue.addPacket(packet);
 		
 		// Check if the packet is an API packet.
 		if (!(packet instanceof XBeeAPIPacket))
@@ -533,6 +802,93 @@ public class DataReader extends Thread {
 		}
 	}
 	
+	/**
+	 * Dispatches the frame decoded in pooled receive mode. Receive data 
+	 * frames are notified as pooled messages if there is any pooled message 
+	 * listener, the rest of the frames are parsed and dispatched as usual.
+	 * 
+	 * @param packetView View over the decoded frame.
+	 * 
+	 * @see #enablePooledReceive(XBeeMessagePool)
+	 * @see com.digi.xbee.api.packet.XBeePacketView
+	 */
+	private void packetViewReceived(XBeePacketView packetView) {
+		XBeeMessagePool pool = messagePool;
+		if (pool != null && isPooledDataFrame(packetView.getFrameTypeValue())) {
+			try {
+				if (notifyPooledMessageReceived(pool, packetView)) {
+					metrics.frameReceived(packetView.getFrameTypeValue());
+					return;
+				}
+			} catch (XBeeException e) {
+				logger.error(e.getMessage(), e);
+				return;
+			}
+		}
+		
+		try {
+			packetReceived(packetView.toPacket());
+		} catch (InvalidPacketException e) {
+			metrics.parseFailed(1);
+			logger.error("Error parsing the API packet.", e);
+		}
+	}
+	
+	/**
+	 * Returns whether the given frame type is a receive data frame that is 
+	 * notified as a pooled message.
+	 * 
+	 * @param frameType The frame type value.
+	 * 
+	 * @return {@code true} if the frame is a receive data frame, 
+	 *         {@code false} otherwise.
+	 */
+	private static boolean isPooledDataFrame(int frameType) {
+		return frameType == APIFrameType.RECEIVE_PACKET.getValue() 
+				|| frameType == APIFrameType.RX_64.getValue() 
+				|| frameType == APIFrameType.RX_16.getValue() 
+				|| frameType == APIFrameType.EXPLICIT_RX_INDICATOR.getValue();
+	}
+	
+	/**
+	 * Delivers the given packet to the synchronous request waiting for it, if 
+	 * any. Responses that nobody is waiting for are reported to the response 
+	 * correlator as late or orphaned.
+	 * 
+	 * <p>The frame ID of the response is released, so it can be allocated 
+	 * again. Late responses, received after their request timed out, do not 
+	 * release it: the frame ID may already be leased to a newer request. 
+	 * Orphaned responses do, they answer asynchronous requests that leased 
+	 * the frame ID but do not wait for the response.</p>
+	 * 
+	 * @param packet The received XBee packet.
+	 * 
+	 * @see FrameIDAllocator
+	 * @see ResponseCorrelator
+	 */
+	private void correlateResponse(XBeePacket packet) {
+		if (!ResponseCorrelator.isResponse(packet))
+			return;
+		
+		XBeeAPIPacket response = (XBeeAPIPacket)packet;
+		boolean matched = responseCorrelator.complete(response);
+		if (!matched) {
+			// Responses of asynchronous requests are delivered to frame ID listeners.
+			synchronized (packetReceiveListeners) {
+				matched = packetReceiveListeners.containsValue(response.getFrameID());
+			}
+		}
+		
+		// A late response must not release the frame ID, it may be leased 
+		// to a newer request.
+		if (!matched && responseCorrelator.reportUnmatchedResponse(response))
+			return;
+		
+		FrameIDAllocator frameIDAllocator = xbeeDevice.getFrameIDAllocator();
+		if (frameIDAllocator != null)
+			frameIDAllocator.release(response.getFrameID());
+	}
+	
 	/**
 	 * Returns the remote XBee device from where the given package was sent 
 	 * from.
@@ -629,6 +985,50 @@ public class DataReader extends Thread {
 		return remoteDevice;
 	}
 	
+	/**
+	 * Returns the remote XBee device from which the given receive frame was 
+	 * sent from, adding it to the network if it is not there.
+	 * 
+	 * <p>The sender is looked up by the primitive value of its address, so 
+	 * no object is created when it is already in the network. The address 
+	 * objects are only created to add a new device.</p>
+	 * 
+	 * @param packetView View over a receive data frame.
+	 * 
+	 * @return The remote XBee device that sent the frame.
+	 * 
+	 * @throws XBeeException if any error occur while adding the device to the 
+	 *                       network.
+	 * 
+	 * @see #getRemoteXBeeDeviceFromPacket(XBeeAPIPacket)
+	 */
+	private RemoteXBeeDevice getRemoteXBeeDeviceFromView(XBeePacketView packetView) throws XBeeException {
+		XBeeNetwork network = xbeeDevice.getNetwork();
+		boolean isRx16 = packetView.getFrameTypeValue() == APIFrameType.RX_16.getValue();
+		RemoteXBeeDevice remoteDevice = null;
+		
+		if (isRx16) {
+			int addr16 = packetView.get16BitSourceAddressValue();
+			if (addr16 != XBee16BitAddress.UNKNOWN_ADDRESS.getIntValue())
+				remoteDevice = network.getDeviceBy16BitAddress(addr16);
+		} else {
+			long addr64 = packetView.get64BitSourceAddressValue();
+			if (addr64 != XBee64BitAddress.UNKNOWN_ADDRESS.getLongValue())
+				remoteDevice = network.getDeviceBy64BitAddress(addr64);
+		}
+		
+		// If the origin is not in the network, add it.
+		if (remoteDevice == null) {
+			XBee16BitAddress addr16 = null;
+			if (isRx16 || packetView.getFrameTypeValue() != APIFrameType.RX_64.getValue())
+				addr16 = packetView.get16BitSourceAddress();
+			remoteDevice = createRemoteXBeeDevice(packetView.get64BitSourceAddress(), addr16, null);
+			network.addRemoteDevice(remoteDevice);
+		}
+		
+		return remoteDevice;
+	}
+	
 	/**
 	 * Creates a new remote XBee device with the provided 64-bit address, 
 	 * 16-bit address, node identifier and the XBee device that is using this 
@@ -691,30 +1091,19 @@ public class DataReader extends Thread {
 			logger.info(connectionInterface.toString() + 
 					"Data received from {} >> {}.", xbeeMessage.getDevice().get64BitAddress(), HexUtils.prettyHexString(xbeeMessage.getData()));
 		
-		try {
-			synchronized (dataReceiveListeners) {
-				ScheduledExecutorService executor = Executors.newScheduledThreadPool(Math.min(MAXIMUM_PARALLEL_LISTENER_THREADS, 
-						dataReceiveListeners.size()));
-				for (final IDataReceiveListener listener:dataReceiveListeners) {
-					executor.execute(new Runnable() {
-						/*
-						 * (non-Javadoc)
-						 * @see java.lang.Runnable#run()
-						 */
-						@Override
-						public void run() {
-							/* Synchronize the listener so it is not called 
-							 twice. That is, let the listener to finish its job. */
-							synchronized (listener) {
-								listener.dataReceived(xbeeMessage);
-							}
-						}
-					});
-				}
-				executor.shutdown();
+		synchronized (dataReceiveListeners) {
+			for (final IDataReceiveListener listener:dataReceiveListeners) {
+				listenerDispatcher.dispatch(listener, new Runnable() {
+					/*
+					 * (non-Javadoc)
+					 * @see java.lang.Runnable#run()
+					 */
+					@Override
+					public void run() {
+						listener.dataReceived(xbeeMessage);
+					}
+				});
 			}
-		} catch (Exception e) {
-			logger.error(e.getMessage(), e);
 		}
 	}
 	
@@ -730,42 +1119,33 @@ public class DataReader extends Thread {
 	private void notifyPacketReceived(final XBeePacket packet) {
 		logger.debug(connectionInterface.toString() + "Packet received: \n{}", packet.toPrettyString());
 		
-		try {
-			synchronized (packetReceiveListeners) {
-				final ArrayList<IPacketReceiveListener> removeListeners = new ArrayList<IPacketReceiveListener>();
-				ScheduledExecutorService executor = Executors.newScheduledThreadPool(Math.min(MAXIMUM_PARALLEL_LISTENER_THREADS, 
-						packetReceiveListeners.size()));
-				for (final IPacketReceiveListener listener:packetReceiveListeners.keySet()) {
-					executor.execute(new Runnable() {
-						/*
-						 * (non-Javadoc)
-						 * @see java.lang.Runnable#run()
-						 */
-						@Override
-						public void run() {
-							// Synchronize the listener so it is not called 
-							// twice. That is, let the listener to finish its job.
-							synchronized (packetReceiveListeners) {
-								synchronized (listener) {
-									if (packetReceiveListeners.get(listener) == ALL_FRAME_IDS)
-										listener.packetReceived(packet);
-									else if (((XBeeAPIPacket)packet).needsAPIFrameID() && 
-											((XBeeAPIPacket)packet).getFrameID() == packetReceiveListeners.get(listener)) {
-										listener.packetReceived(packet);
-										removeListeners.add(listener);
-									}
-								}
-							}
-						}
-					});
+		synchronized (packetReceiveListeners) {
+			final ArrayList<IPacketReceiveListener> removeListeners = new ArrayList<IPacketReceiveListener>();
+			for (final IPacketReceiveListener listener:packetReceiveListeners.keySet()) {
+				// Listeners registered for a frame ID are notified only once, 
+				// so they are removed as soon as the packet matches.
+				int frameID = packetReceiveListeners.get(listener);
+				if (frameID != ALL_FRAME_IDS) {
+					if (!(packet instanceof XBeeAPIPacket) 
+							|| !((XBeeAPIPacket)packet).needsAPIFrameID()
+							|| ((XBeeAPIPacket)packet).getFrameID() != frameID)
+						continue;
+					removeListeners.add(listener);
 				}
-				executor.shutdown();
-				// Remove required listeners.
-				for (IPacketReceiveListener listener:removeListeners)
-					packetReceiveListeners.remove(listener);
+				listenerDispatcher.dispatch(listener, new Runnable() {
+					/*
+					 * (non-Javadoc)
+					 * @see java.lang.Runnable#run()
+					 */
+					@Override
+					public void run() {
+						listener.packetReceived(packet);
+					}
+				});
 			}
-		} catch (Exception e) {
-			logger.error(e.getMessage(), e);
+			// Remove required listeners.
+			for (IPacketReceiveListener listener:removeListeners)
+				packetReceiveListeners.remove(listener);
 		}
 	}
 	
@@ -782,30 +1162,19 @@ public class DataReader extends Thread {
 	private void notifyIOSampleReceived(final RemoteXBeeDevice remoteDevice, final IOSample ioSample) {
 		logger.debug(connectionInterface.toString() + "IO sample received.");
 		
-		try {
-			synchronized (ioSampleReceiveListeners) {
-				ScheduledExecutorService executor = Executors.newScheduledThreadPool(Math.min(MAXIMUM_PARALLEL_LISTENER_THREADS, 
-						ioSampleReceiveListeners.size()));
-				for (final IIOSampleReceiveListener listener:ioSampleReceiveListeners) {
-					executor.execute(new Runnable() {
-						/*
-						 * (non-Javadoc)
-						 * @see java.lang.Runnable#run()
-						 */
-						@Override
-						public void run() {
-							// Synchronize the listener so it is not called 
-							// twice. That is, let the listener to finish its job.
-							synchronized (listener) {
-								listener.ioSampleReceived(remoteDevice, ioSample);
-							}
-						}
-					});
-				}
-				executor.shutdown();
+		synchronized (ioSampleReceiveListeners) {
+			for (final IIOSampleReceiveListener listener:ioSampleReceiveListeners) {
+				listenerDispatcher.dispatch(listener, new Runnable() {
+					/*
+					 * (non-Javadoc)
+					 * @see java.lang.Runnable#run()
+					 */
+					@Override
+					public void run() {
+						listener.ioSampleReceived(remoteDevice, ioSample);
+					}
+				});
 			}
-		} catch (Exception e) {
-			logger.error(e.getMessage(), e);
 		}
 	}
 	
@@ -820,30 +1189,19 @@ public class DataReader extends Thread {
 	private void notifyModemStatusReceived(final ModemStatusEvent modemStatusEvent) {
 		logger.debug(connectionInterface.toString() + "Modem Status event received.");
 		
-		try {
-			synchronized (modemStatusListeners) {
-				ScheduledExecutorService executor = Executors.newScheduledThreadPool(Math.min(MAXIMUM_PARALLEL_LISTENER_THREADS, 
-						modemStatusListeners.size()));
-				for (final IModemStatusReceiveListener listener:modemStatusListeners) {
-					executor.execute(new Runnable() {
-						/*
-						 * (non-Javadoc)
-						 * @see java.lang.Runnable#run()
-						 */
-						@Override
-						public void run() {
-							// Synchronize the listener so it is not called 
-							// twice. That is, let the listener to finish its job.
-							synchronized (listener) {
-								listener.modemStatusEventReceived(modemStatusEvent);
-							}
-						}
-					});
-				}
-				executor.shutdown();
+		synchronized (modemStatusListeners) {
+			for (final IModemStatusReceiveListener listener:modemStatusListeners) {
+				listenerDispatcher.dispatch(listener, new Runnable() {
+					/*
+					 * (non-Javadoc)
+					 * @see java.lang.Runnable#run()
+					 */
+					@Override
+					public void run() {
+						listener.modemStatusEventReceived(modemStatusEvent);
+					}
+				});
 			}
-		} catch (Exception e) {
-			logger.error(e.getMessage(), e);
 		}
 	}
 	
@@ -865,33 +1223,71 @@ public class DataReader extends Thread {
 			logger.info(connectionInterface.toString() + 
 					"Explicit data received from {} >> {}.", explicitXBeeMessage.getDevice().get64BitAddress(), HexUtils.prettyHexString(explicitXBeeMessage.getData()));
 		
-		try {
-			synchronized (explicitDataReceiveListeners) {
-				ScheduledExecutorService executor = Executors.newScheduledThreadPool(Math.min(MAXIMUM_PARALLEL_LISTENER_THREADS, 
-						explicitDataReceiveListeners.size()));
-				for (final IExplicitDataReceiveListener listener:explicitDataReceiveListeners) {
-					executor.execute(new Runnable() {
-						/*
-						 * (non-Javadoc)
-						 * @see java.lang.Runnable#run()
-						 */
-						@Override
-						public void run() {
-							/* Synchronize the listener so it is not called 
-							 twice. That is, let the listener to finish its job. */
-							synchronized (listener) {
-								listener.explicitDataReceived(explicitXBeeMessage);
-							}
-						}
-					});
-				}
-				executor.shutdown();
+		synchronized (explicitDataReceiveListeners) {
+			for (final IExplicitDataReceiveListener listener:explicitDataReceiveListeners) {
+				listenerDispatcher.dispatch(listener, new Runnable() {
+					/*
+					 * (non-Javadoc)
+					 * @see java.lang.Runnable#run()
+					 */
+					@Override
+					public void run() {
+						listener.explicitDataReceived(explicitXBeeMessage);
+					}
+				});
 			}
-		} catch (Exception e) {
-			logger.error(e.getMessage(), e);
 		}
 	}
 	
+	/**
+	 * Notifies subscribed pooled message listeners that data has been 
+	 * received in the given frame. The message holds one reference for each 
+	 * listener.
+	 * 
+	 * @param pool The pool to take the message from.
+	 * @param packetView View over the receive data frame.
+	 * 
+	 * @return {@code true} if the frame was notified, {@code false} if there 
+	 *         are no pooled message listeners.
+	 * 
+	 * @throws XBeeException if any error occur while adding the remote device 
+	 *                       to the network.
+	 * 
+	 * @see com.digi.xbee.api.models.PooledXBeeMessage
+	 */
+	private boolean notifyPooledMessageReceived(XBeeMessagePool pool, XBeePacketView packetView) throws XBeeException {
+		synchronized (pooledMessageReceiveListeners) {
+			int listeners = pooledMessageReceiveListeners.size();
+			if (listeners == 0)
+				return false;
+			
+			final PooledXBeeMessage message = pool.acquire(getRemoteXBeeDeviceFromView(packetView), packetView);
+			for (int i = 1; i < listeners; i++)
+				message.retain();
+			
+			if (logger.isDebugEnabled())
+				logger.debug(connectionInterface.toString() + "Pooled data received from {} ({} bytes).", 
+						message.getDevice().get64BitAddress(), message.getDataLength());
+			
+			for (final IPooledMessageReceiveListener listener:pooledMessageReceiveListeners) {
+				boolean dispatched = listenerDispatcher.dispatch(listener, new Runnable() {
+					/*
+					 * (non-Javadoc)
+					 * @see java.lang.Runnable#run()
+					 */
+					@Override
+					public void run() {
+						listener.messageReceived(message);
+					}
+				});
+				// Release the reference of the listener that will not be notified.
+				if (!dispatched)
+					message.release();
+			}
+		}
+		return true;
+	}
+	
 	/**
 	 * Returns whether this Data reader is running or not.
 	 * 
@@ -917,6 +1313,59 @@ public class DataReader extends Thread {
 		logger.debug(connectionInterface.toString() + "Data reader stopped.");
 	}
 	
+	/**
+	 * Returns the dispatcher used to notify the listeners of this data reader.
+	 * 
+	 * @return The listener dispatcher.
+	 * 
+	 * @see ListenerDispatcher
+	 */
+	public ListenerDispatcher getListenerDispatcher() {
+		return listenerDispatcher;
+	}
+	
+	/**
+	 * Returns the correlator that delivers received responses to the 
+	 * synchronous requests waiting for them.
+	 * 
+	 * @return The response correlator.
+	 * 
+	 * @see ResponseCorrelator
+	 */
+	public ResponseCorrelator getResponseCorrelator() {
+		return responseCorrelator;
+	}
+	
+	/**
+	 * Sets the metrics that record the frames received by this data reader.
+	 * 
+	 * @param metrics The metrics to record the received frames in.
+	 * 
+	 * @throws NullPointerException if {@code metrics == null}.
+	 * 
+	 * @see #getMetrics()
+	 * @see XBeeMetrics
+	 */
+	public void setMetrics(XBeeMetrics metrics) {
+		if (metrics == null)
+			throw new NullPointerException("Metrics cannot be null.");
+		
+		this.metrics = metrics;
+	}
+	
+	/**
+	 * Returns the metrics that record the frames received by this data 
+	 * reader.
+	 * 
+	 * @return The metrics of the data reader.
+	 * 
+	 * @see #setMetrics(XBeeMetrics)
+	 * @see XBeeMetrics
+	 */
+	public XBeeMetrics getMetrics() {
+		return metrics;
+	}
+	
 	/**
 	 * Returns the queue of read XBee packets.
 	 * 
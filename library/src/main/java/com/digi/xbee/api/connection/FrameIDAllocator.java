@@ -0,0 +1,295 @@
+/**
+ * Copyright (c) 2014-2016 Digi International Inc.,
+ * All rights not expressly granted are reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * Digi International Inc. 11001 Bren Road East, Minnetonka, MN 55343
+ * =======================================================================
+ */
+package com.digi.xbee.api.connection;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * This class hands out the frame IDs of the packets sent by a local XBee
+ * device.
+ *
+ * <p>A frame ID is leased when it is allocated and is not handed out again
+ * until the response with that frame ID is received and the ID is released,
+ * or the lease expires. This way, concurrent senders never share a frame ID
+ * that is still in flight and responses are always delivered to the right
+ * request.</p>
+ *
+ * <p>The allocator is lock-free: each frame ID has a lease slot that is
+ * claimed with a compare-and-set operation. If all the frame IDs are in
+ * flight, the allocation is reported as an exhaustion and the next ID is
+ * reused.</p>
+ *
+ * @see DataReader
+ * @see ResponseCorrelator
+ */
+public class FrameIDAllocator {
+
+	// Constants.
+	/**
+	 * Lowest frame ID handed out (value: {@value}). Frame ID 0 disables the
+	 * response of the packet.
+	 */
+	public static final int MIN_FRAME_ID = 1;
+
+	/**
+	 * Highest frame ID handed out (value: {@value}).
+	 */
+	public static final int MAX_FRAME_ID = 0xFF;
+
+	/**
+	 * Default time a frame ID is kept in flight waiting for its response in
+	 * milliseconds (value: {@value}).
+	 */
+	public static final long DEFAULT_LEASE_TIMEOUT = 10000;
+
+	private static final int FRAME_IDS = MAX_FRAME_ID - MIN_FRAME_ID + 1;
+
+	private static final long FREE = 0;
+
+	// Variables.
+	private final AtomicLongArray leases = new AtomicLongArray(MAX_FRAME_ID + 1);
+
+	private final AtomicInteger cursor = new AtomicInteger(0);
+	private final AtomicInteger inFlightCount = new AtomicInteger(0);
+	private final AtomicInteger maxInFlightCount = new AtomicInteger(0);
+
+	private final AtomicLong allocatedCount = new AtomicLong(0);
+	private final AtomicLong expiredCount = new AtomicLong(0);
+	private final AtomicLong exhaustedCount = new AtomicLong(0);
+
+	private volatile long leaseTimeout;
+
+	private Logger logger;
+
+	/**
+	 * Class constructor. Instantiates a new {@code FrameIDAllocator} with the
+	 * default lease timeout.
+	 *
+	 * @see #DEFAULT_LEASE_TIMEOUT
+	 * @see #FrameIDAllocator(long)
+	 */
+	public FrameIDAllocator() {
+		this(DEFAULT_LEASE_TIMEOUT);
+	}
+
+	/**
+	 * Class constructor. Instantiates a new {@code FrameIDAllocator} with the
+	 * given lease timeout.
+	 *
+	 * @param leaseTimeout Time a frame ID is kept in flight waiting for its
+	 *                     response in milliseconds.
+	 *
+	 * @throws IllegalArgumentException if {@code leaseTimeout <= 0}.
+	 *
+	 * @see #FrameIDAllocator()
+	 */
+	public FrameIDAllocator(long leaseTimeout) {
+		setLeaseTimeout(leaseTimeout);
+		this.logger = LoggerFactory.getLogger(FrameIDAllocator.class);
+	}
+
+	/**
+	 * Allocates the next frame ID that is not in flight and leases it.
+	 *
+	 * <p>If all the frame IDs are in flight, the exhaustion is counted and the
+	 * next frame ID is returned anyway.</p>
+	 *
+	 * @return The allocated frame ID, between {@value #MIN_FRAME_ID} and
+	 *         {@value #MAX_FRAME_ID}.
+	 *
+	 * @see #getExhaustedCount()
+	 * @see #release(int)
+	 */
+	public int allocate() {
+		long now = System.nanoTime();
+		long deadline = toDeadline(now + TimeUnit.MILLISECONDS.toNanos(leaseTimeout));
+
+		int frameID = MIN_FRAME_ID;
+		for (int i = 0; i < FRAME_IDS; i++) {
+			frameID = nextFrameID();
+			long lease = leases.get(frameID);
+			if (lease == FREE) {
+				if (leases.compareAndSet(frameID, FREE, deadline)) {
+					updateMaxInFlight(inFlightCount.incrementAndGet());
+					allocatedCount.incrementAndGet();
+					return frameID;
+				}
+			} else if (now - lease > 0 && leases.compareAndSet(frameID, lease, deadline)) {
+				// The response never arrived, reuse the frame ID.
+				expiredCount.incrementAndGet();
+				allocatedCount.incrementAndGet();
+				return frameID;
+			}
+		}
+
+		// All the frame IDs are in flight.
+		exhaustedCount.incrementAndGet();
+		logger.warn("All the frame IDs are in flight, frame ID {} is reused.", frameID);
+		if (leases.getAndSet(frameID, deadline) == FREE)
+			updateMaxInFlight(inFlightCount.incrementAndGet());
+		allocatedCount.incrementAndGet();
+		return frameID;
+	}
+
+	/**
+	 * Releases the given frame ID so it can be allocated again.
+	 *
+	 * <p>This method is called when the response with the given frame ID is
+	 * received. Frame IDs out of range or not in flight are ignored.</p>
+	 *
+	 * @param frameID The frame ID to release.
+	 *
+	 * @see #allocate()
+	 */
+	public void release(int frameID) {
+		if (frameID < MIN_FRAME_ID || frameID > MAX_FRAME_ID)
+			return;
+		if (leases.getAndSet(frameID, FREE) != FREE)
+			inFlightCount.decrementAndGet();
+	}
+
+	/**
+	 * Returns whether the given frame ID is in flight, that is, it has been
+	 * allocated and its response has not been received yet.
+	 *
+	 * @param frameID The frame ID to check.
+	 *
+	 * @return {@code true} if the frame ID is in flight, {@code false}
+	 *         otherwise.
+	 */
+	public boolean isInFlight(int frameID) {
+		if (frameID < MIN_FRAME_ID || frameID > MAX_FRAME_ID)
+			return false;
+		long lease = leases.get(frameID);
+		return lease != FREE && System.nanoTime() - lease <= 0;
+	}
+
+	/**
+	 * Returns the time a frame ID is kept in flight waiting for its response.
+	 *
+	 * @return The lease timeout in milliseconds.
+	 *
+	 * @see #setLeaseTimeout(long)
+	 */
+	public long getLeaseTimeout() {
+		return leaseTimeout;
+	}
+
+	/**
+	 * Sets the time a frame ID is kept in flight waiting for its response.
+	 * Once expired, the frame ID can be allocated again even if its response
+	 * was not received.
+	 *
+	 * @param leaseTimeout The lease timeout in milliseconds.
+	 *
+	 * @throws IllegalArgumentException if {@code leaseTimeout <= 0}.
+	 *
+	 * @see #getLeaseTimeout()
+	 */
+	public void setLeaseTimeout(long leaseTimeout) {
+		if (leaseTimeout <= 0)
+			throw new IllegalArgumentException("Lease timeout must be greater than 0.");
+
+		this.leaseTimeout = leaseTimeout;
+	}
+
+	/**
+	 * Returns the number of frame IDs allocated and not released yet,
+	 * including the ones whose lease has expired.
+	 *
+	 * @return The number of frame IDs in flight.
+	 */
+	public int getInFlightCount() {
+		return inFlightCount.get();
+	}
+
+	/**
+	 * Returns the maximum number of frame IDs that have been in flight at the
+	 * same time.
+	 *
+	 * @return The maximum number of frame IDs in flight.
+	 */
+	public int getMaxInFlightCount() {
+		return maxInFlightCount.get();
+	}
+
+	/**
+	 * Returns the number of frame IDs allocated.
+	 *
+	 * @return The number of allocations.
+	 */
+	public long getAllocatedCount() {
+		return allocatedCount.get();
+	}
+
+	/**
+	 * Returns the number of frame IDs allocated again because their response
+	 * was not received before the lease expired.
+	 *
+	 * @return The number of expired leases.
+	 */
+	public long getExpiredCount() {
+		return expiredCount.get();
+	}
+
+	/**
+	 * Returns the number of allocations that found all the frame IDs in
+	 * flight and had to reuse one of them.
+	 *
+	 * @return The number of exhausted allocations.
+	 */
+	public long getExhaustedCount() {
+		return exhaustedCount.get();
+	}
+
+	/**
+	 * Returns the next frame ID to try, cycling between
+	 * {@value #MIN_FRAME_ID} and {@value #MAX_FRAME_ID}.
+	 *
+	 * @return The next frame ID.
+	 */
+	private int nextFrameID() {
+		int position = cursor.getAndIncrement() % FRAME_IDS;
+		if (position < 0)
+			position += FRAME_IDS;
+		return position + MIN_FRAME_ID;
+	}
+
+	/**
+	 * Updates the maximum number of frame IDs in flight.
+	 *
+	 * @param count The current number of frame IDs in flight.
+	 */
+	private void updateMaxInFlight(int count) {
+		int max = maxInFlightCount.get();
+		while (count > max && !maxInFlightCount.compareAndSet(max, count))
+			max = maxInFlightCount.get();
+	}
+
+	/**
+	 * Returns the given deadline making sure it does not collide with the
+	 * value of a free lease.
+	 *
+	 * @param deadline The deadline in nanoseconds.
+	 *
+	 * @return The lease value.
+	 */
+	private static long toDeadline(long deadline) {
+		return deadline == FREE ? 1 : deadline;
+	}
+}
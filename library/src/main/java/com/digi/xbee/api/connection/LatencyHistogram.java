@@ -0,0 +1,185 @@
+/**
+ * Copyright (c) 2014-2016 Digi International Inc.,
+ * All rights not expressly granted are reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * Digi International Inc. 11001 Bren Road East, Minnetonka, MN 55343
+ * =======================================================================
+ */
+package com.digi.xbee.api.connection;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * This class is a histogram of request round trip latencies.
+ *
+ * <p>Latencies are recorded in microseconds into buckets whose bounds grow in
+ * powers of two (bucket {@code n} holds the values between {@code 2^(n-1)}
+ * and {@code 2^n - 1}), so recording a value is a constant time operation
+ * without allocations and percentiles are reported with a relative error
+ * below 2x, which is enough to detect the degradation of a radio link.</p>
+ *
+ * <p>This class is thread-safe. The copies returned by {@link XBeeMetrics}
+ * snapshots are never modified.</p>
+ *
+ * @see XBeeMetrics
+ */
+public class LatencyHistogram {
+
+	// Constants.
+	/**
+	 * Number of buckets of the histogram (value: {@value}).
+	 */
+	public static final int BUCKETS = 40;
+
+	// Variables.
+	private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+
+	private final AtomicLong count = new AtomicLong(0);
+	private final AtomicLong total = new AtomicLong(0);
+	private final AtomicLong max = new AtomicLong(0);
+
+	/**
+	 * Class constructor. Instantiates a new empty {@code LatencyHistogram}.
+	 */
+	LatencyHistogram() {
+	}
+
+	/**
+	 * Records the given latency.
+	 *
+	 * @param latency The latency in nanoseconds.
+	 */
+	void record(long latency) {
+		long micros = Math.max(0, TimeUnit.NANOSECONDS.toMicros(latency));
+		buckets.incrementAndGet(Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(micros)));
+		count.incrementAndGet();
+		total.addAndGet(micros);
+		long currentMax;
+		while (micros > (currentMax = max.get()) && !max.compareAndSet(currentMax, micros));
+	}
+
+	/**
+	 * Discards all the recorded latencies.
+	 */
+	void reset() {
+		for (int i = 0; i < BUCKETS; i++)
+			buckets.set(i, 0);
+		count.set(0);
+		total.set(0);
+		max.set(0);
+	}
+
+	/**
+	 * Returns a copy of this histogram.
+	 *
+	 * @return The copy of the histogram.
+	 */
+	LatencyHistogram copy() {
+		LatencyHistogram copy = new LatencyHistogram();
+		for (int i = 0; i < BUCKETS; i++)
+			copy.buckets.set(i, buckets.get(i));
+		copy.count.set(count.get());
+		copy.total.set(total.get());
+		copy.max.set(max.get());
+		return copy;
+	}
+
+	/**
+	 * Returns the number of recorded latencies.
+	 *
+	 * @return The number of recorded latencies.
+	 */
+	public long getCount() {
+		return count.get();
+	}
+
+	/**
+	 * Returns the mean of the recorded latencies.
+	 *
+	 * @return The mean latency in microseconds, 0 if there are no recorded
+	 *         latencies.
+	 */
+	public long getMean() {
+		long recorded = count.get();
+		if (recorded == 0)
+			return 0;
+		return total.get() / recorded;
+	}
+
+	/**
+	 * Returns the maximum recorded latency.
+	 *
+	 * @return The maximum latency in microseconds.
+	 */
+	public long getMax() {
+		return max.get();
+	}
+
+	/**
+	 * Returns the median of the recorded latencies.
+	 *
+	 * @return The median latency in microseconds.
+	 *
+	 * @see #getPercentile(double)
+	 */
+	public long getMedian() {
+		return getPercentile(50);
+	}
+
+	/**
+	 * Returns the 99th percentile of the recorded latencies.
+	 *
+	 * @return The 99th percentile latency in microseconds.
+	 *
+	 * @see #getPercentile(double)
+	 */
+	public long getPercentile99() {
+		return getPercentile(99);
+	}
+
+	/**
+	 * Returns the given percentile of the recorded latencies. The value is
+	 * the upper bound of the bucket that contains the percentile, limited to
+	 * the maximum recorded latency.
+	 *
+	 * @param percentile The percentile, between 0 and 100.
+	 *
+	 * @return The percentile latency in microseconds, 0 if there are no
+	 *         recorded latencies.
+	 *
+	 * @throws IllegalArgumentException if {@code percentile < 0} or
+	 *                                  if {@code percentile > 100}.
+	 */
+	public long getPercentile(double percentile) {
+		if (percentile < 0 || percentile > 100)
+			throw new IllegalArgumentException("Percentile must be between 0 and 100.");
+
+		long recorded = count.get();
+		if (recorded == 0)
+			return 0;
+		long target = Math.max(1, (long)Math.ceil(recorded * percentile / 100));
+		long accumulated = 0;
+		for (int i = 0; i < BUCKETS; i++) {
+			accumulated += buckets.get(i);
+			if (accumulated >= target)
+				return Math.min(max.get(), i == 0 ? 0 : (1L << i) - 1);
+		}
+		return max.get();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		return "count=" + getCount() + ", mean=" + getMean() + "us, median=" + getMedian()
+				+ "us, p99=" + getPercentile99() + "us, max=" + getMax() + "us";
+	}
+}
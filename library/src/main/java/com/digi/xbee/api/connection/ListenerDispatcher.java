@@ -0,0 +1,409 @@
+/**
+ * Copyright (c) 2014-2016 Digi International Inc.,
+ * All rights not expressly granted are reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * Digi International Inc. 11001 Bren Road East, Minnetonka, MN 55343
+ * =======================================================================
+ */
+package com.digi.xbee.api.connection;
+
+import java.util.Map;
+import java.util.Queue;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * This class dispatches listener notifications using a long-lived and bounded
+ * pool of threads.
+ *
+ * <p>Every listener has its own lane of pending notifications. Notifications
+ * for the same listener are always executed one after the other and in the
+ * same order they were dispatched, while notifications for different
+ * listeners run in parallel up to the configured maximum number of
+ * threads.</p>
+ *
+ * <p>The total number of pending notifications is limited by the configured
+ * queue capacity. When it is reached, new notifications are discarded and
+ * counted as rejected.</p>
+ *
+ * @see DataReader
+ */
+public class ListenerDispatcher {
+
+	// Constants.
+	/**
+	 * Default maximum number of threads used to notify listeners
+	 * (value: {@value}).
+	 */
+	public static final int DEFAULT_MAX_THREADS = 20;
+
+	/**
+	 * Default maximum number of pending notifications (value: {@value}).
+	 */
+	public static final int DEFAULT_QUEUE_CAPACITY = 1000;
+
+	private static final String THREAD_NAME = "XBee listener dispatcher";
+
+	private static final long KEEP_ALIVE_SECONDS = 60;
+
+	// Variables.
+	private final ThreadPoolExecutor executor;
+
+	private final Map<Object, Lane> lanes = new WeakHashMap<Object, Lane>();
+
+	private final int maxThreads;
+	private final int queueCapacity;
+
+	private final AtomicInteger queueDepth = new AtomicInteger(0);
+	private final AtomicInteger maxQueueDepth = new AtomicInteger(0);
+
+	private final AtomicLong dispatchedCount = new AtomicLong(0);
+	private final AtomicLong rejectedCount = new AtomicLong(0);
+	private final AtomicLong totalLatency = new AtomicLong(0);
+	private final AtomicLong maxLatency = new AtomicLong(0);
+
+	private Logger logger;
+
+	/**
+	 * Class constructor. Instantiates a new {@code ListenerDispatcher} with
+	 * the default number of threads and queue capacity.
+	 *
+	 * @see #ListenerDispatcher(int, int)
+	 * @see #DEFAULT_MAX_THREADS
+	 * @see #DEFAULT_QUEUE_CAPACITY
+	 */
+	public ListenerDispatcher() {
+		this(DEFAULT_MAX_THREADS, DEFAULT_QUEUE_CAPACITY);
+	}
+
+	/**
+	 * Class constructor. Instantiates a new {@code ListenerDispatcher} with
+	 * the given maximum number of threads and queue capacity.
+	 *
+	 * <p>Threads are created on demand and released after some time without
+	 * notifications, so an idle dispatcher does not keep any thread alive.</p>
+	 *
+	 * @param maxThreads Maximum number of threads notifying listeners in
+	 *                   parallel.
+	 * @param queueCapacity Maximum number of pending notifications.
+	 *
+	 * @throws IllegalArgumentException if {@code maxThreads < 1} or
+	 *                                  if {@code queueCapacity < 1}.
+	 *
+	 * @see #ListenerDispatcher()
+	 */
+	public ListenerDispatcher(int maxThreads, int queueCapacity) {
+		if (maxThreads < 1)
+			throw new IllegalArgumentException("Maximum number of threads must be greater than 0.");
+		if (queueCapacity < 1)
+			throw new IllegalArgumentException("Queue capacity must be greater than 0.");
+
+		this.maxThreads = maxThreads;
+		this.queueCapacity = queueCapacity;
+		this.logger = LoggerFactory.getLogger(ListenerDispatcher.class);
+
+		executor = new ThreadPoolExecutor(maxThreads, maxThreads, KEEP_ALIVE_SECONDS, TimeUnit.SECONDS,
+				new LinkedBlockingQueue<Runnable>(), new DispatcherThreadFactory());
+		executor.allowCoreThreadTimeOut(true);
+	}
+
+	/**
+	 * Dispatches the given notification for the provided listener.
+	 *
+	 * <p>The notification is executed after any other notification previously
+	 * dispatched for the same listener has finished.</p>
+	 *
+	 * @param listener The listener that is going to be notified.
+	 * @param notification The notification to execute.
+	 *
+	 * @return {@code true} if the notification was queued, {@code false} if it
+	 *         was rejected because the queue is full or the dispatcher has
+	 *         been shut down.
+	 *
+	 * @throws NullPointerException if {@code listener == null} or
+	 *                              if {@code notification == null}.
+	 */
+	public boolean dispatch(Object listener, Runnable notification) {
+		if (listener == null)
+			throw new NullPointerException("Listener cannot be null.");
+		if (notification == null)
+			throw new NullPointerException("Notification cannot be null.");
+
+		if (executor.isShutdown()) {
+			rejectedCount.incrementAndGet();
+			return false;
+		}
+
+		// Reserve a position in the queue.
+		int depth = queueDepth.incrementAndGet();
+		if (depth > queueCapacity) {
+			queueDepth.decrementAndGet();
+			rejectedCount.incrementAndGet();
+			logger.warn("Listener notification discarded, the dispatcher queue is full ({} notifications).", queueCapacity);
+			return false;
+		}
+		updateMaximum(maxQueueDepth, depth);
+
+		Lane lane;
+		synchronized (lanes) {
+			lane = lanes.get(listener);
+			if (lane == null) {
+				lane = new Lane();
+				lanes.put(listener, lane);
+			}
+		}
+		lane.add(new Notification(notification));
+		return true;
+	}
+
+	/**
+	 * Returns the number of notifications waiting to be executed.
+	 *
+	 * @return The number of pending notifications.
+	 */
+	public int getQueueDepth() {
+		return queueDepth.get();
+	}
+
+	/**
+	 * Returns the maximum number of pending notifications observed since this
+	 * dispatcher was created.
+	 *
+	 * @return The high-water mark of the notifications queue.
+	 */
+	public int getMaxQueueDepth() {
+		return maxQueueDepth.get();
+	}
+
+	/**
+	 * Returns the total number of notifications that have been executed.
+	 *
+	 * @return The number of executed notifications.
+	 */
+	public long getDispatchedCount() {
+		return dispatchedCount.get();
+	}
+
+	/**
+	 * Returns the total number of notifications that have been discarded
+	 * because the queue was full or the dispatcher was shut down.
+	 *
+	 * @return The number of rejected notifications.
+	 */
+	public long getRejectedCount() {
+		return rejectedCount.get();
+	}
+
+	/**
+	 * Returns the average time elapsed between a notification is dispatched
+	 * and it starts executing.
+	 *
+	 * @return The average dispatch latency in nanoseconds, 0 if no
+	 *         notification has been executed yet.
+	 */
+	public long getAverageDispatchLatency() {
+		long count = dispatchedCount.get();
+		if (count == 0)
+			return 0;
+		return totalLatency.get() / count;
+	}
+
+	/**
+	 * Returns the maximum time elapsed between a notification is dispatched
+	 * and it starts executing.
+	 *
+	 * @return The maximum dispatch latency in nanoseconds.
+	 */
+	public long getMaxDispatchLatency() {
+		return maxLatency.get();
+	}
+
+	/**
+	 * Returns the maximum number of threads used to notify listeners.
+	 *
+	 * @return The maximum number of threads.
+	 */
+	public int getMaxThreads() {
+		return maxThreads;
+	}
+
+	/**
+	 * Returns the maximum number of pending notifications.
+	 *
+	 * @return The capacity of the notifications queue.
+	 */
+	public int getQueueCapacity() {
+		return queueCapacity;
+	}
+
+	/**
+	 * Shuts down this dispatcher. Pending notifications are still executed,
+	 * but new ones are rejected.
+	 *
+	 * @see #isShutdown()
+	 */
+	public void shutdown() {
+		executor.shutdown();
+	}
+
+	/**
+	 * Returns whether this dispatcher has been shut down.
+	 *
+	 * @return {@code true} if the dispatcher is shut down, {@code false}
+	 *         otherwise.
+	 *
+	 * @see #shutdown()
+	 */
+	public boolean isShutdown() {
+		return executor.isShutdown();
+	}
+
+	/**
+	 * Updates the given maximum with the provided value if it is greater.
+	 *
+	 * @param maximum The maximum to update.
+	 * @param value The new value.
+	 */
+	private static void updateMaximum(AtomicInteger maximum, int value) {
+		int current = maximum.get();
+		while (value > current && !maximum.compareAndSet(current, value))
+			current = maximum.get();
+	}
+
+	/**
+	 * Updates the given maximum with the provided value if it is greater.
+	 *
+	 * @param maximum The maximum to update.
+	 * @param value The new value.
+	 */
+	private static void updateMaximum(AtomicLong maximum, long value) {
+		long current = maximum.get();
+		while (value > current && !maximum.compareAndSet(current, value))
+			current = maximum.get();
+	}
+
+	/**
+	 * Pending notification, with the time it was dispatched.
+	 */
+	private static class Notification {
+
+		private final Runnable task;
+		private final long dispatchTime;
+
+		Notification(Runnable task) {
+			this.task = task;
+			this.dispatchTime = System.nanoTime();
+		}
+	}
+
+	/**
+	 * Serial lane of notifications for a single listener.
+	 *
+	 * <p>At most one task per lane is submitted to the executor at any time,
+	 * so the notifications of a listener never run concurrently.</p>
+	 */
+	private class Lane implements Runnable {
+
+		private final Queue<Notification> pending = new ConcurrentLinkedQueue<Notification>();
+		private final AtomicBoolean scheduled = new AtomicBoolean(false);
+
+		/**
+		 * Adds the given notification to this lane and schedules the lane if
+		 * it is not already scheduled.
+		 *
+		 * @param notification The notification to add.
+		 */
+		void add(Notification notification) {
+			pending.add(notification);
+			schedule();
+		}
+
+		/**
+		 * Submits this lane to the executor if it has pending notifications
+		 * and it is not already scheduled.
+		 */
+		private void schedule() {
+			if (pending.isEmpty() || !scheduled.compareAndSet(false, true))
+				return;
+			try {
+				executor.execute(this);
+			} catch (RejectedExecutionException e) {
+				// The dispatcher has been shut down, discard pending notifications.
+				Notification notification;
+				while ((notification = pending.poll()) != null) {
+					queueDepth.decrementAndGet();
+					rejectedCount.incrementAndGet();
+				}
+				scheduled.set(false);
+			}
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * @see java.lang.Runnable#run()
+		 */
+		@Override
+		public void run() {
+			try {
+				Notification notification;
+				while ((notification = pending.poll()) != null) {
+					queueDepth.decrementAndGet();
+					long latency = System.nanoTime() - notification.dispatchTime;
+					totalLatency.addAndGet(latency);
+					updateMaximum(maxLatency, latency);
+					dispatchedCount.incrementAndGet();
+					try {
+						notification.task.run();
+					} catch (Exception e) {
+						logger.error(e.getMessage(), e);
+					}
+				}
+			} finally {
+				scheduled.set(false);
+				// A notification may have been added after the last poll.
+				schedule();
+			}
+		}
+	}
+
+	/**
+	 * Thread factory that creates daemon threads for the dispatcher.
+	 */
+	private static class DispatcherThreadFactory implements ThreadFactory {
+
+		private static final AtomicInteger poolNumber = new AtomicInteger(1);
+
+		private final AtomicInteger threadNumber = new AtomicInteger(1);
+		private final String namePrefix;
+
+		DispatcherThreadFactory() {
+			namePrefix = THREAD_NAME + " " + poolNumber.getAndIncrement() + "-";
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * @see java.util.concurrent.ThreadFactory#newThread(java.lang.Runnable)
+		 */
+		@Override
+		public Thread newThread(Runnable r) {
+			Thread thread = new Thread(r, namePrefix + threadNumber.getAndIncrement());
+			thread.setDaemon(true);
+			return thread;
+		}
+	}
+}
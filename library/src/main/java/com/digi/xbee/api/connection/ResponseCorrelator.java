@@ -0,0 +1,462 @@
+/**
+ * Copyright (c) 2014-2016 Digi International Inc.,
+ * All rights not expressly granted are reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * Digi International Inc. 11001 Bren Road East, Minnetonka, MN 55343
+ * =======================================================================
+ */
+package com.digi.xbee.api.connection;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.digi.xbee.api.packet.APIFrameType;
+import com.digi.xbee.api.packet.XBeeAPIPacket;
+import com.digi.xbee.api.packet.XBeePacket;
+import com.digi.xbee.api.packet.common.ATCommandPacket;
+import com.digi.xbee.api.packet.common.ATCommandResponsePacket;
+import com.digi.xbee.api.packet.common.RemoteATCommandPacket;
+import com.digi.xbee.api.packet.common.RemoteATCommandResponsePacket;
+
+/**
+ * This class correlates received response frames with the requests waiting
+ * for them.
+ *
+ * <p>Requests are stored in a table of 256 slots indexed by frame ID, so a
+ * received response is delivered to its request without scanning any list of
+ * listeners.</p>
+ *
+ * <p>The correlator also keeps track of frame ID collisions (a request is
+ * registered while another one with the same frame ID is still waiting),
+ * late responses (the response arrives after its request timed out) and
+ * orphaned responses (nobody was waiting for the response).</p>
+ *
+ * @see DataReader
+ * @see PendingResponse
+ */
+public class ResponseCorrelator {
+
+	// Constants.
+	/**
+	 * Number of slots of the correlation table, one per frame ID
+	 * (value: {@value}).
+	 */
+	public static final int FRAME_ID_SLOTS = 256;
+
+	// Variables.
+	private final PendingResponse[] slots = new PendingResponse[FRAME_ID_SLOTS];
+	private final Object[] slotLocks = new Object[FRAME_ID_SLOTS];
+	private final int[] expiredRequests = new int[FRAME_ID_SLOTS];
+
+	private final AtomicInteger pendingCount = new AtomicInteger(0);
+
+	private final AtomicLong completedCount = new AtomicLong(0);
+	private final AtomicLong collisionCount = new AtomicLong(0);
+	private final AtomicLong lateResponseCount = new AtomicLong(0);
+	private final AtomicLong orphanResponseCount = new AtomicLong(0);
+
+	private Logger logger;
+
+	/**
+	 * Class constructor. Instantiates a new empty {@code ResponseCorrelator}.
+	 */
+	public ResponseCorrelator() {
+		for (int i = 0; i < FRAME_ID_SLOTS; i++)
+			slotLocks[i] = new Object();
+		this.logger = LoggerFactory.getLogger(ResponseCorrelator.class);
+	}
+
+	/**
+	 * Registers the given sent packet so its response is delivered to the
+	 * returned pending response.
+	 *
+	 * <p>If there is already a request waiting with the same frame ID, the
+	 * collision is reported and the new request is queued after the existing
+	 * one.</p>
+	 *
+	 * @param sentPacket The packet that is going to be sent.
+	 *
+	 * @return The pending response that will receive the answer.
+	 *
+	 * @throws IllegalArgumentException if the frame ID of {@code sentPacket}
+	 *                                  is not between 0 and 255.
+	 * @throws NullPointerException if {@code sentPacket == null}.
+	 *
+	 * @see #unregister(PendingResponse)
+	 * @see PendingResponse
+	 */
+	public PendingResponse register(XBeeAPIPacket sentPacket) {
+		if (sentPacket == null)
+			throw new NullPointerException("Sent packet cannot be null.");
+
+		int frameID = sentPacket.getFrameID();
+		if (frameID < 0 || frameID >= FRAME_ID_SLOTS)
+			throw new IllegalArgumentException("Frame ID must be between 0 and 255.");
+
+		PendingResponse pending = new PendingResponse(sentPacket, frameID);
+		synchronized (slotLocks[frameID]) {
+			// A new request supersedes the ones that timed out with this ID.
+			expiredRequests[frameID] = 0;
+			if (slots[frameID] == null)
+				slots[frameID] = pending;
+			else {
+				collisionCount.incrementAndGet();
+				logger.warn("Frame ID {} is already in use by another request.", frameID);
+				PendingResponse last = slots[frameID];
+				while (last.next != null)
+					last = last.next;
+				last.next = pending;
+			}
+		}
+		pendingCount.incrementAndGet();
+		return pending;
+	}
+
+	/**
+	 * Removes the given pending response from the table.
+	 *
+	 * <p>If the response was not received yet, the request is considered
+	 * expired and a later response with the same frame ID is reported as a
+	 * late response.</p>
+	 *
+	 * @param pending The pending response to remove.
+	 *
+	 * @throws NullPointerException if {@code pending == null}.
+	 *
+	 * @see #register(XBeeAPIPacket)
+	 */
+	public void unregister(PendingResponse pending) {
+		if (pending == null)
+			throw new NullPointerException("Pending response cannot be null.");
+
+		int frameID = pending.frameID;
+		synchronized (slotLocks[frameID]) {
+			if (!remove(pending))
+				return;
+			if (!pending.isCompleted())
+				expiredRequests[frameID]++;
+		}
+		pendingCount.decrementAndGet();
+	}
+
+	/**
+	 * Delivers the given received packet to the request waiting for it.
+	 *
+	 * @param receivedPacket The received packet.
+	 *
+	 * @return {@code true} if the packet completed a waiting request,
+	 *         {@code false} otherwise.
+	 *
+	 * @see #reportUnmatchedResponse(XBeeAPIPacket)
+	 */
+	public boolean complete(XBeePacket receivedPacket) {
+		if (!isResponse(receivedPacket))
+			return false;
+
+		XBeeAPIPacket response = (XBeeAPIPacket)receivedPacket;
+		int frameID = response.getFrameID();
+		PendingResponse pending;
+		synchronized (slotLocks[frameID]) {
+			pending = slots[frameID];
+			while (pending != null && !matches(pending.sentPacket, response))
+				pending = pending.next;
+			if (pending == null)
+				return false;
+			remove(pending);
+		}
+		pendingCount.decrementAndGet();
+		completedCount.incrementAndGet();
+		pending.complete(response);
+		return true;
+	}
+
+	/**
+	 * Reports that the given response was not delivered to any request.
+	 *
+	 * <p>If a request with the same frame ID timed out before, the response
+	 * is counted as late. Otherwise it is counted as orphaned.</p>
+	 *
+	 * @param response The response that could not be delivered.
+	 *
+	 * @return {@code true} if the response is late, {@code false} if it is
+	 *         orphaned or it is not a response.
+	 *
+	 * @throws NullPointerException if {@code response == null}.
+	 *
+	 * @see #complete(XBeePacket)
+	 * @see #getLateResponseCount()
+	 * @see #getOrphanResponseCount()
+	 */
+	public boolean reportUnmatchedResponse(XBeeAPIPacket response) {
+		if (response == null)
+			throw new NullPointerException("Response cannot be null.");
+		if (!isResponse(response))
+			return false;
+
+		int frameID = response.getFrameID();
+		boolean late = false;
+		synchronized (slotLocks[frameID]) {
+			if (expiredRequests[frameID] > 0) {
+				expiredRequests[frameID]--;
+				late = true;
+			}
+		}
+		if (late) {
+			lateResponseCount.incrementAndGet();
+			logger.warn("Late {} received for frame ID {}, the request already timed out.",
+					response.getFrameType().getName(), frameID);
+		} else {
+			orphanResponseCount.incrementAndGet();
+			logger.warn("Orphaned {} received for frame ID {}, no request was waiting for it.",
+					response.getFrameType().getName(), frameID);
+		}
+		return late;
+	}
+
+	/**
+	 * Returns whether the given packet is a response that can be correlated
+	 * with a request, that is, an incoming API packet with frame ID.
+	 *
+	 * @param packet The packet to check.
+	 *
+	 * @return {@code true} if the packet is a response, {@code false}
+	 *         otherwise.
+	 */
+	public static boolean isResponse(XBeePacket packet) {
+		if (!(packet instanceof XBeeAPIPacket))
+			return false;
+		XBeeAPIPacket apiPacket = (XBeeAPIPacket)packet;
+		if (!apiPacket.needsAPIFrameID())
+			return false;
+		int frameID = apiPacket.getFrameID();
+		// Incoming frame types have the most significant bit set.
+		return (apiPacket.getFrameTypeValue() & 0x80) != 0
+				&& frameID >= 0 && frameID < FRAME_ID_SLOTS;
+	}
+
+	/**
+	 * Returns the number of requests waiting for a response.
+	 *
+	 * @return The number of pending requests.
+	 */
+	public int getPendingCount() {
+		return pendingCount.get();
+	}
+
+	/**
+	 * Returns the number of requests completed with a response.
+	 *
+	 * @return The number of completed requests.
+	 */
+	public long getCompletedCount() {
+		return completedCount.get();
+	}
+
+	/**
+	 * Returns the number of requests registered while another request with
+	 * the same frame ID was still waiting.
+	 *
+	 * @return The number of frame ID collisions.
+	 */
+	public long getCollisionCount() {
+		return collisionCount.get();
+	}
+
+	/**
+	 * Returns the number of responses received after their request timed
+	 * out.
+	 *
+	 * @return The number of late responses.
+	 */
+	public long getLateResponseCount() {
+		return lateResponseCount.get();
+	}
+
+	/**
+	 * Returns the number of responses received without any request waiting
+	 * for them.
+	 *
+	 * @return The number of orphaned responses.
+	 */
+	public long getOrphanResponseCount() {
+		return orphanResponseCount.get();
+	}
+
+	/**
+	 * Removes the given pending response from its slot. Must be called
+	 * holding the lock of the slot.
+	 *
+	 * @param pending The pending response to remove.
+	 *
+	 * @return {@code true} if the pending response was in the table,
+	 *         {@code false} otherwise.
+	 */
+	private boolean remove(PendingResponse pending) {
+		int frameID = pending.frameID;
+		PendingResponse previous = null;
+		PendingResponse current = slots[frameID];
+		while (current != null && current != pending) {
+			previous = current;
+			current = current.next;
+		}
+		if (current == null)
+			return false;
+		if (previous == null)
+			slots[frameID] = current.next;
+		else
+			previous.next = current.next;
+		current.next = null;
+		return true;
+	}
+
+	/**
+	 * Returns whether the given received packet is the answer of the provided
+	 * sent packet. Both packets are expected to have the same frame ID.
+	 *
+	 * @param sentPacket The sent packet.
+	 * @param receivedPacket The received packet.
+	 *
+	 * @return {@code true} if the received packet answers the sent one,
+	 *         {@code false} otherwise.
+	 */
+	private boolean matches(XBeeAPIPacket sentPacket, XBeeAPIPacket receivedPacket) {
+		// If the packet sent is an AT command, verify that the received one is an AT command response and
+		// the command matches in both packets.
+		if (sentPacket.getFrameType() == APIFrameType.AT_COMMAND) {
+			if (receivedPacket.getFrameType() != APIFrameType.AT_COMMAND_RESPONSE)
+				return false;
+			if (!((ATCommandPacket)sentPacket).getCommand().equalsIgnoreCase(((ATCommandResponsePacket)receivedPacket).getCommand()))
+				return false;
+		}
+		// If the packet sent is a remote AT command, verify that the received one is a remote AT command response and
+		// the command matches in both packets.
+		if (sentPacket.getFrameType() == APIFrameType.REMOTE_AT_COMMAND_REQUEST) {
+			if (receivedPacket.getFrameType() != APIFrameType.REMOTE_AT_COMMAND_RESPONSE)
+				return false;
+			if (!((RemoteATCommandPacket)sentPacket).getCommand().equalsIgnoreCase(((RemoteATCommandResponsePacket)receivedPacket).getCommand()))
+				return false;
+		}
+		// Verify that the sent packet is not the received one! This can happen when the echo mode is enabled in the
+		// serial port.
+		return !sentPacket.equals(receivedPacket);
+	}
+
+	/**
+	 * This class represents a request waiting for its response.
+	 * 
+	 * <p>The response can be waited for in a blocking way with 
+	 * {@link #waitForResponse(long)} or consumed without blocking through the 
+	 * future returned by {@link #getFuture()}.</p>
+	 *
+	 * @see ResponseCorrelator#register(XBeeAPIPacket)
+	 */
+	public static class PendingResponse {
+
+		// Variables.
+		private final XBeeAPIPacket sentPacket;
+		private final int frameID;
+
+		private final CompletableFuture<XBeePacket> future = new CompletableFuture<XBeePacket>();
+
+		private volatile XBeePacket response;
+
+		private PendingResponse next;
+
+		/**
+		 * Class constructor. Instantiates a new {@code PendingResponse} for
+		 * the given sent packet.
+		 *
+		 * @param sentPacket The sent packet.
+		 * @param frameID The frame ID of the sent packet.
+		 */
+		private PendingResponse(XBeeAPIPacket sentPacket, int frameID) {
+			this.sentPacket = sentPacket;
+			this.frameID = frameID;
+		}
+
+		/**
+		 * Returns the packet waiting for a response.
+		 *
+		 * @return The sent packet.
+		 */
+		public XBeeAPIPacket getSentPacket() {
+			return sentPacket;
+		}
+
+		/**
+		 * Returns the received response.
+		 *
+		 * @return The response, {@code null} if it has not been received yet.
+		 */
+		public XBeePacket getResponse() {
+			return response;
+		}
+
+		/**
+		 * Returns whether the response has been received.
+		 *
+		 * @return {@code true} if the response has been received,
+		 *         {@code false} otherwise.
+		 */
+		public boolean isCompleted() {
+			return response != null;
+		}
+
+		/**
+		 * Returns the future that is completed when the response is received.
+		 * 
+		 * <p>Dependent actions run in the thread that reads the connection, 
+		 * so they must not block.</p>
+		 *
+		 * @return The future of the response.
+		 */
+		public CompletableFuture<XBeePacket> getFuture() {
+			return future;
+		}
+
+		/**
+		 * Blocks until the response is received or the given timeout expires.
+		 *
+		 * @param timeout Maximum time to wait in milliseconds.
+		 *
+		 * @return The received response, {@code null} if the timeout expired
+		 *         or the thread was interrupted.
+		 */
+		public XBeePacket waitForResponse(long timeout) {
+			try {
+				return future.get(timeout, TimeUnit.MILLISECONDS);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			} catch (ExecutionException e) {
+				// The request was cancelled.
+			} catch (CancellationException e) {
+				// The request was cancelled.
+			} catch (TimeoutException e) {
+				// No response in time.
+			}
+			return response;
+		}
+
+		/**
+		 * Sets the received response and completes the future.
+		 *
+		 * @param receivedPacket The received response.
+		 */
+		private void complete(XBeePacket receivedPacket) {
+			response = receivedPacket;
+			future.complete(receivedPacket);
+		}
+	}
+}
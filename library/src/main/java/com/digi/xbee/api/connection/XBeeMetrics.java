@@ -0,0 +1,507 @@
+/**
+ * Copyright (c) 2014-2016 Digi International Inc.,
+ * All rights not expressly granted are reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * Digi International Inc. 11001 Bren Road East, Minnetonka, MN 55343
+ * =======================================================================
+ */
+package com.digi.xbee.api.connection;
+
+import java.lang.management.ManagementFactory;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import com.digi.xbee.api.models.XBeePacketsQueue;
+import com.digi.xbee.api.models.XBeeTransmitStatus;
+import com.digi.xbee.api.packet.APIFrameType;
+import com.digi.xbee.api.packet.XBeeAPIPacket;
+import com.digi.xbee.api.packet.XBeePacket;
+import com.digi.xbee.api.packet.common.TransmitStatusPacket;
+import com.digi.xbee.api.packet.raw.TXStatusPacket;
+
+/**
+ * This class collects the runtime metrics of the receive and transmit
+ * pipeline of a local XBee device.
+ *
+ * <p>It counts the frames received and sent per frame type, the bytes
+ * exchanged with the device, the frames that could not be parsed, the
+ * packets dropped from the received packets queue and the listener
+ * notifications discarded, and keeps the histograms of the AT command and
+ * transmit status round trip latencies.</p>
+ *
+ * <p>The metrics are read with {@link #getSnapshot()} or through JMX once
+ * registered with {@link #registerMBean(String)}. They are kept while the
+ * device is closed and opened again, until {@link #reset()} is called.</p>
+ *
+ * <p>This class is thread-safe. Recording a metric is a constant time
+ * operation without allocations.</p>
+ *
+ * @see XBeeMetricsSnapshot
+ * @see XBeeMetricsMXBean
+ * @see LatencyHistogram
+ */
+public class XBeeMetrics implements XBeeMetricsMXBean {
+
+	// Constants.
+	/**
+	 * Domain of the object names of the registered metrics
+	 * (value: {@value}).
+	 */
+	public static final String MBEAN_DOMAIN = "com.digi.xbee.api";
+
+	private static final int FRAME_TYPES = 256;
+
+	// Variables.
+	private final AtomicLongArray receivedFrames = new AtomicLongArray(FRAME_TYPES);
+	private final AtomicLongArray sentFrames = new AtomicLongArray(FRAME_TYPES);
+
+	private final AtomicLong receivedBytes = new AtomicLong(0);
+	private final AtomicLong sentBytes = new AtomicLong(0);
+	private final AtomicLong parseFailures = new AtomicLong(0);
+	private final AtomicLong timeouts = new AtomicLong(0);
+	private final AtomicLong transmitFailures = new AtomicLong(0);
+
+	private final LatencyHistogram atCommandLatency = new LatencyHistogram();
+	private final LatencyHistogram transmitLatency = new LatencyHistogram();
+
+	private XBeePacketsQueue packetsQueue;
+	private ListenerDispatcher listenerDispatcher;
+
+	// Counts of the queues and dispatchers no longer attached, minus the
+	// counts at the last reset.
+	private long droppedPacketsOffset = 0;
+	private long rejectedNotificationsOffset = 0;
+
+	private ObjectName objectName;
+
+	/**
+	 * Class constructor. Instantiates a new {@code XBeeMetrics} with all the
+	 * metrics set to 0.
+	 */
+	public XBeeMetrics() {
+	}
+
+	/**
+	 * Records that the given packet has been received.
+	 *
+	 * @param packet The received packet.
+	 *
+	 * @see #frameReceived(int)
+	 */
+	public void frameReceived(XBeePacket packet) {
+		receivedFrames.incrementAndGet(getFrameTypeIndex(packet));
+	}
+
+	/**
+	 * Records that a frame of the given type has been received.
+	 *
+	 * @param frameType The frame type value.
+	 *
+	 * @see #frameReceived(XBeePacket)
+	 */
+	public void frameReceived(int frameType) {
+		receivedFrames.incrementAndGet(frameType & 0xFF);
+	}
+
+	/**
+	 * Records that the given number of bytes has been received.
+	 *
+	 * @param count Number of received bytes.
+	 */
+	public void bytesReceived(long count) {
+		receivedBytes.addAndGet(count);
+	}
+
+	/**
+	 * Records that the given packet has been sent.
+	 *
+	 * @param packet The sent packet.
+	 * @param length Number of bytes written to send the packet.
+	 */
+	public void frameSent(XBeePacket packet, int length) {
+		sentFrames.incrementAndGet(getFrameTypeIndex(packet));
+		sentBytes.addAndGet(length);
+	}
+
+	/**
+	 * Records that the given number of received frames could not be parsed.
+	 *
+	 * @param count Number of discarded frames.
+	 */
+	public void parseFailed(long count) {
+		if (count > 0)
+			parseFailures.addAndGet(count);
+	}
+
+	/**
+	 * Records the round trip latency of the given response. AT command
+	 * responses and transmit status frames are recorded in their histograms,
+	 * and transmit status frames with a failure status are counted.
+	 *
+	 * @param response The received response.
+	 * @param latency Time elapsed between the request was sent and the
+	 *                response was received in nanoseconds.
+	 *
+	 * @see #getATCommandLatency()
+	 * @see #getTransmitLatency()
+	 */
+	public void responseReceived(XBeePacket response, long latency) {
+		XBeeTransmitStatus status = null;
+		if (response instanceof TransmitStatusPacket)
+			status = ((TransmitStatusPacket)response).getTransmitStatus();
+		else if (response instanceof TXStatusPacket)
+			status = ((TXStatusPacket)response).getTransmitStatus();
+		else {
+			int frameType = getFrameTypeIndex(response);
+			if (frameType == APIFrameType.AT_COMMAND_RESPONSE.getValue() 
+					|| frameType == APIFrameType.REMOTE_AT_COMMAND_RESPONSE.getValue())
+				atCommandLatency.record(latency);
+			return;
+		}
+		transmitLatency.record(latency);
+		if (status != XBeeTransmitStatus.SUCCESS && status != XBeeTransmitStatus.SELF_ADDRESSED)
+			transmitFailures.incrementAndGet();
+	}
+
+	/**
+	 * Records that a request timed out waiting for its response.
+	 */
+	public void requestTimedOut() {
+		timeouts.incrementAndGet();
+	}
+
+	/**
+	 * Attaches the received packets queue and the listener dispatcher of the
+	 * current connection, whose dropped packets, discarded notifications and
+	 * queue depth are reported by these metrics. The counts of the previous
+	 * queue and dispatcher are kept.
+	 *
+	 * @param packetsQueue The received packets queue. It may be {@code null}.
+	 * @param listenerDispatcher The listener dispatcher. It may be
+	 *                           {@code null}.
+	 */
+	public synchronized void attach(XBeePacketsQueue packetsQueue, ListenerDispatcher listenerDispatcher) {
+		if (packetsQueue != this.packetsQueue) {
+			if (this.packetsQueue != null)
+				droppedPacketsOffset += this.packetsQueue.getDroppedCount();
+			this.packetsQueue = packetsQueue;
+		}
+		if (listenerDispatcher != this.listenerDispatcher) {
+			if (this.listenerDispatcher != null)
+				rejectedNotificationsOffset += this.listenerDispatcher.getRejectedCount();
+			this.listenerDispatcher = listenerDispatcher;
+		}
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.digi.xbee.api.connection.XBeeMetricsMXBean#getReceivedFrameCount()
+	 */
+	@Override
+	public long getReceivedFrameCount() {
+		return sum(receivedFrames);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.digi.xbee.api.connection.XBeeMetricsMXBean#getReceivedFrameCounts()
+	 */
+	@Override
+	public Map<String, Long> getReceivedFrameCounts() {
+		return toNameMap(getCounts(receivedFrames));
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.digi.xbee.api.connection.XBeeMetricsMXBean#getSentFrameCount()
+	 */
+	@Override
+	public long getSentFrameCount() {
+		return sum(sentFrames);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.digi.xbee.api.connection.XBeeMetricsMXBean#getSentFrameCounts()
+	 */
+	@Override
+	public Map<String, Long> getSentFrameCounts() {
+		return toNameMap(getCounts(sentFrames));
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.digi.xbee.api.connection.XBeeMetricsMXBean#getReceivedByteCount()
+	 */
+	@Override
+	public long getReceivedByteCount() {
+		return receivedBytes.get();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.digi.xbee.api.connection.XBeeMetricsMXBean#getSentByteCount()
+	 */
+	@Override
+	public long getSentByteCount() {
+		return sentBytes.get();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.digi.xbee.api.connection.XBeeMetricsMXBean#getParseFailureCount()
+	 */
+	@Override
+	public long getParseFailureCount() {
+		return parseFailures.get();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.digi.xbee.api.connection.XBeeMetricsMXBean#getDroppedPacketCount()
+	 */
+	@Override
+	public synchronized long getDroppedPacketCount() {
+		return droppedPacketsOffset + (packetsQueue == null ? 0 : packetsQueue.getDroppedCount());
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.digi.xbee.api.connection.XBeeMetricsMXBean#getRejectedNotificationCount()
+	 */
+	@Override
+	public synchronized long getRejectedNotificationCount() {
+		return rejectedNotificationsOffset + (listenerDispatcher == null ? 0 : listenerDispatcher.getRejectedCount());
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.digi.xbee.api.connection.XBeeMetricsMXBean#getListenerQueueDepth()
+	 */
+	@Override
+	public synchronized int getListenerQueueDepth() {
+		return listenerDispatcher == null ? 0 : listenerDispatcher.getQueueDepth();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.digi.xbee.api.connection.XBeeMetricsMXBean#getMaxListenerQueueDepth()
+	 */
+	@Override
+	public synchronized int getMaxListenerQueueDepth() {
+		return listenerDispatcher == null ? 0 : listenerDispatcher.getMaxQueueDepth();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.digi.xbee.api.connection.XBeeMetricsMXBean#getTimeoutCount()
+	 */
+	@Override
+	public long getTimeoutCount() {
+		return timeouts.get();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.digi.xbee.api.connection.XBeeMetricsMXBean#getTransmitFailureCount()
+	 */
+	@Override
+	public long getTransmitFailureCount() {
+		return transmitFailures.get();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.digi.xbee.api.connection.XBeeMetricsMXBean#getATCommandLatency()
+	 */
+	@Override
+	public LatencyHistogram getATCommandLatency() {
+		return atCommandLatency.copy();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.digi.xbee.api.connection.XBeeMetricsMXBean#getTransmitLatency()
+	 */
+	@Override
+	public LatencyHistogram getTransmitLatency() {
+		return transmitLatency.copy();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see com.digi.xbee.api.connection.XBeeMetricsMXBean#reset()
+	 */
+	@Override
+	public synchronized void reset() {
+		for (int i = 0; i < FRAME_TYPES; i++) {
+			receivedFrames.set(i, 0);
+			sentFrames.set(i, 0);
+		}
+		receivedBytes.set(0);
+		sentBytes.set(0);
+		parseFailures.set(0);
+		timeouts.set(0);
+		transmitFailures.set(0);
+		atCommandLatency.reset();
+		transmitLatency.reset();
+		droppedPacketsOffset = packetsQueue == null ? 0 : -packetsQueue.getDroppedCount();
+		rejectedNotificationsOffset = listenerDispatcher == null ? 0 : -listenerDispatcher.getRejectedCount();
+	}
+
+	/**
+	 * Returns a snapshot of the current value of all the metrics.
+	 *
+	 * @return The snapshot of the metrics.
+	 *
+	 * @see XBeeMetricsSnapshot
+	 */
+	public XBeeMetricsSnapshot getSnapshot() {
+		return new XBeeMetricsSnapshot(getCounts(receivedFrames), getCounts(sentFrames),
+				getReceivedByteCount(), getSentByteCount(), getParseFailureCount(),
+				getDroppedPacketCount(), getRejectedNotificationCount(), getListenerQueueDepth(),
+				getMaxListenerQueueDepth(), getTimeoutCount(), getTransmitFailureCount(),
+				getATCommandLatency(), getTransmitLatency());
+	}
+
+	/**
+	 * Registers these metrics in the platform MBean server with the given
+	 * name. The object name is
+	 * {@code com.digi.xbee.api:type=XBeeMetrics,name=<name>}.
+	 *
+	 * <p>If the metrics are already registered, they are registered again
+	 * with the new name.</p>
+	 *
+	 * @param name The name of the metrics, usually the port of the device.
+	 *
+	 * @return The object name of the registered metrics.
+	 *
+	 * @throws JMException if the metrics cannot be registered.
+	 * @throws NullPointerException if {@code name == null}.
+	 *
+	 * @see #unregisterMBean()
+	 */
+	public synchronized ObjectName registerMBean(String name) throws JMException {
+		if (name == null)
+			throw new NullPointerException("Name cannot be null.");
+
+		unregisterMBean();
+		ObjectName newObjectName = new ObjectName(MBEAN_DOMAIN + ":type=XBeeMetrics,name=" + ObjectName.quote(name));
+		ManagementFactory.getPlatformMBeanServer().registerMBean(this, newObjectName);
+		objectName = newObjectName;
+		return objectName;
+	}
+
+	/**
+	 * Unregisters these metrics from the platform MBean server. If they are
+	 * not registered, this method does nothing.
+	 *
+	 * @throws JMException if the metrics cannot be unregistered.
+	 *
+	 * @see #registerMBean(String)
+	 */
+	public synchronized void unregisterMBean() throws JMException {
+		if (objectName == null)
+			return;
+
+		MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+		if (server.isRegistered(objectName))
+			server.unregisterMBean(objectName);
+		objectName = null;
+	}
+
+	/**
+	 * Returns the object name of these metrics in the platform MBean server.
+	 *
+	 * @return The object name, {@code null} if the metrics are not
+	 *         registered.
+	 *
+	 * @see #registerMBean(String)
+	 */
+	public synchronized ObjectName getObjectName() {
+		return objectName;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		return getSnapshot().toString();
+	}
+
+	/**
+	 * Returns the index of the counters of the frame type of the given
+	 * packet.
+	 *
+	 * @param packet The packet.
+	 *
+	 * @return The frame type value of the packet.
+	 */
+	private static int getFrameTypeIndex(XBeePacket packet) {
+		if (packet instanceof XBeeAPIPacket)
+			return ((XBeeAPIPacket)packet).getFrameTypeValue() & 0xFF;
+		return APIFrameType.GENERIC.getValue();
+	}
+
+	/**
+	 * Returns the non-zero counters of the given array grouped by frame
+	 * type. Frame types not supported by the library are grouped as
+	 * {@link APIFrameType#UNKNOWN}.
+	 *
+	 * @param counters Counters indexed by frame type value.
+	 *
+	 * @return Map with the count of each frame type.
+	 */
+	private static Map<APIFrameType, Long> getCounts(AtomicLongArray counters) {
+		Map<APIFrameType, Long> counts = new LinkedHashMap<APIFrameType, Long>();
+		for (int i = 0; i < FRAME_TYPES; i++) {
+			long count = counters.get(i);
+			if (count == 0)
+				continue;
+			APIFrameType frameType = APIFrameType.get(i);
+			Long previous = counts.get(frameType);
+			counts.put(frameType, previous == null ? count : previous + count);
+		}
+		return counts;
+	}
+
+	/**
+	 * Returns the given counts keyed by the name of the frame types.
+	 *
+	 * @param counts Map with the count of each frame type.
+	 *
+	 * @return Map with the count of each frame type name.
+	 */
+	private static Map<String, Long> toNameMap(Map<APIFrameType, Long> counts) {
+		Map<String, Long> names = new LinkedHashMap<String, Long>();
+		for (Map.Entry<APIFrameType, Long> entry : counts.entrySet())
+			names.put(entry.getKey().name(), entry.getValue());
+		return names;
+	}
+
+	/**
+	 * Returns the sum of the given counters.
+	 *
+	 * @param counters The counters.
+	 *
+	 * @return The sum of the counters.
+	 */
+	private static long sum(AtomicLongArray counters) {
+		long total = 0;
+		for (int i = 0; i < FRAME_TYPES; i++)
+			total += counters.get(i);
+		return total;
+	}
+}
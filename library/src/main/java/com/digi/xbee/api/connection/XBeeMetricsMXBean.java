@@ -0,0 +1,142 @@
+/**
+ * Copyright (c) 2014-2016 Digi International Inc.,
+ * All rights not expressly granted are reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * Digi International Inc. 11001 Bren Road East, Minnetonka, MN 55343
+ * =======================================================================
+ */
+package com.digi.xbee.api.connection;
+
+import java.util.Map;
+
+/**
+ * This interface defines the attributes and operations of the XBee metrics
+ * exposed through JMX.
+ *
+ * <p>Frame counts per type are keyed by the name of their
+ * {@link com.digi.xbee.api.packet.APIFrameType} and latencies are expressed
+ * in microseconds.</p>
+ *
+ * @see XBeeMetrics
+ */
+public interface XBeeMetricsMXBean {
+
+	/**
+	 * Returns the number of frames received.
+	 *
+	 * @return The number of received frames.
+	 */
+	public long getReceivedFrameCount();
+
+	/**
+	 * Returns the number of frames received per frame type.
+	 *
+	 * @return Map with the number of received frames of each frame type.
+	 */
+	public Map<String, Long> getReceivedFrameCounts();
+
+	/**
+	 * Returns the number of frames sent.
+	 *
+	 * @return The number of sent frames.
+	 */
+	public long getSentFrameCount();
+
+	/**
+	 * Returns the number of frames sent per frame type.
+	 *
+	 * @return Map with the number of sent frames of each frame type.
+	 */
+	public Map<String, Long> getSentFrameCounts();
+
+	/**
+	 * Returns the number of bytes received.
+	 *
+	 * @return The number of received bytes.
+	 */
+	public long getReceivedByteCount();
+
+	/**
+	 * Returns the number of bytes sent.
+	 *
+	 * @return The number of sent bytes.
+	 */
+	public long getSentByteCount();
+
+	/**
+	 * Returns the number of received frames discarded because they had an
+	 * invalid checksum or could not be parsed.
+	 *
+	 * @return The number of parse failures.
+	 */
+	public long getParseFailureCount();
+
+	/**
+	 * Returns the number of received packets dropped because the received
+	 * packets queue was full.
+	 *
+	 * @return The number of dropped packets.
+	 */
+	public long getDroppedPacketCount();
+
+	/**
+	 * Returns the number of listener notifications discarded because the
+	 * listener queue was full.
+	 *
+	 * @return The number of rejected notifications.
+	 */
+	public long getRejectedNotificationCount();
+
+	/**
+	 * Returns the number of listener notifications waiting to be executed.
+	 *
+	 * @return The listener queue depth.
+	 */
+	public int getListenerQueueDepth();
+
+	/**
+	 * Returns the maximum number of listener notifications waiting to be
+	 * executed.
+	 *
+	 * @return The high-water mark of the listener queue.
+	 */
+	public int getMaxListenerQueueDepth();
+
+	/**
+	 * Returns the number of requests that timed out waiting for their
+	 * response.
+	 *
+	 * @return The number of timeouts.
+	 */
+	public long getTimeoutCount();
+
+	/**
+	 * Returns the number of transmissions answered with a failure status.
+	 *
+	 * @return The number of failed transmissions.
+	 */
+	public long getTransmitFailureCount();
+
+	/**
+	 * Returns the histogram of the AT command round trip latencies.
+	 *
+	 * @return The AT command latency histogram.
+	 */
+	public LatencyHistogram getATCommandLatency();
+
+	/**
+	 * Returns the histogram of the transmit status round trip latencies.
+	 *
+	 * @return The transmit latency histogram.
+	 */
+	public LatencyHistogram getTransmitLatency();
+
+	/**
+	 * Resets all the metrics.
+	 */
+	public void reset();
+}
@@ -0,0 +1,323 @@
+/**
+ * Copyright (c) 2014-2016 Digi International Inc.,
+ * All rights not expressly granted are reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * Digi International Inc. 11001 Bren Road East, Minnetonka, MN 55343
+ * =======================================================================
+ */
+package com.digi.xbee.api.connection;
+
+import java.util.Collections;
+import java.util.Map;
+
+import com.digi.xbee.api.packet.APIFrameType;
+
+/**
+ * This class is an immutable snapshot of the {@link XBeeMetrics} of a local
+ * XBee device.
+ *
+ * <p>Comparing two snapshots taken some time apart gives the rates of the
+ * counters, for example the parse failures or the timeouts per minute, which
+ * reveal the degradation of the radio link.</p>
+ *
+ * @see XBeeMetrics#getSnapshot()
+ */
+public class XBeeMetricsSnapshot {
+
+	// Variables.
+	private final long timestamp;
+
+	private final Map<APIFrameType, Long> receivedFrames;
+	private final Map<APIFrameType, Long> sentFrames;
+
+	private final long receivedBytes;
+	private final long sentBytes;
+	private final long parseFailures;
+	private final long droppedPackets;
+	private final long rejectedNotifications;
+	private final int listenerQueueDepth;
+	private final int maxListenerQueueDepth;
+	private final long timeouts;
+	private final long transmitFailures;
+
+	private final LatencyHistogram atCommandLatency;
+	private final LatencyHistogram transmitLatency;
+
+	/**
+	 * Class constructor. Instantiates a new {@code XBeeMetricsSnapshot} with
+	 * the given values.
+	 *
+	 * @param receivedFrames Number of received frames per frame type.
+	 * @param sentFrames Number of sent frames per frame type.
+	 * @param receivedBytes Number of received bytes.
+	 * @param sentBytes Number of sent bytes.
+	 * @param parseFailures Number of frames that could not be parsed.
+	 * @param droppedPackets Number of packets dropped from the received
+	 *                       packets queue.
+	 * @param rejectedNotifications Number of discarded listener
+	 *                              notifications.
+	 * @param listenerQueueDepth Number of pending listener notifications.
+	 * @param maxListenerQueueDepth Maximum number of pending listener
+	 *                              notifications.
+	 * @param timeouts Number of requests that timed out.
+	 * @param transmitFailures Number of failed transmissions.
+	 * @param atCommandLatency Copy of the AT command latency histogram.
+	 * @param transmitLatency Copy of the transmit latency histogram.
+	 */
+	XBeeMetricsSnapshot(Map<APIFrameType, Long> receivedFrames, Map<APIFrameType, Long> sentFrames,
+			long receivedBytes, long sentBytes, long parseFailures, long droppedPackets,
+			long rejectedNotifications, int listenerQueueDepth, int maxListenerQueueDepth,
+			long timeouts, long transmitFailures, LatencyHistogram atCommandLatency,
+			LatencyHistogram transmitLatency) {
+		this.timestamp = System.currentTimeMillis();
+		this.receivedFrames = Collections.unmodifiableMap(receivedFrames);
+		this.sentFrames = Collections.unmodifiableMap(sentFrames);
+		this.receivedBytes = receivedBytes;
+		this.sentBytes = sentBytes;
+		this.parseFailures = parseFailures;
+		this.droppedPackets = droppedPackets;
+		this.rejectedNotifications = rejectedNotifications;
+		this.listenerQueueDepth = listenerQueueDepth;
+		this.maxListenerQueueDepth = maxListenerQueueDepth;
+		this.timeouts = timeouts;
+		this.transmitFailures = transmitFailures;
+		this.atCommandLatency = atCommandLatency;
+		this.transmitLatency = transmitLatency;
+	}
+
+	/**
+	 * Returns the time the snapshot was taken.
+	 *
+	 * @return The time the snapshot was taken in milliseconds since the
+	 *         epoch.
+	 */
+	public long getTimestamp() {
+		return timestamp;
+	}
+
+	/**
+	 * Returns the number of frames received per frame type. Frame types not
+	 * supported by the library are grouped as {@link APIFrameType#UNKNOWN}.
+	 *
+	 * @return Unmodifiable map with the number of received frames of each
+	 *         frame type. Frame types without frames are not included.
+	 *
+	 * @see #getReceivedFrameCount(APIFrameType)
+	 */
+	public Map<APIFrameType, Long> getReceivedFrameCounts() {
+		return receivedFrames;
+	}
+
+	/**
+	 * Returns the number of frames of the given type received.
+	 *
+	 * @param frameType The frame type.
+	 *
+	 * @return The number of received frames of the type.
+	 *
+	 * @throws NullPointerException if {@code frameType == null}.
+	 */
+	public long getReceivedFrameCount(APIFrameType frameType) {
+		return getCount(receivedFrames, frameType);
+	}
+
+	/**
+	 * Returns the number of frames received.
+	 *
+	 * @return The number of received frames.
+	 */
+	public long getReceivedFrameCount() {
+		return sum(receivedFrames);
+	}
+
+	/**
+	 * Returns the number of frames sent per frame type.
+	 *
+	 * @return Unmodifiable map with the number of sent frames of each frame
+	 *         type. Frame types without frames are not included.
+	 *
+	 * @see #getSentFrameCount(APIFrameType)
+	 */
+	public Map<APIFrameType, Long> getSentFrameCounts() {
+		return sentFrames;
+	}
+
+	/**
+	 * Returns the number of frames of the given type sent.
+	 *
+	 * @param frameType The frame type.
+	 *
+	 * @return The number of sent frames of the type.
+	 *
+	 * @throws NullPointerException if {@code frameType == null}.
+	 */
+	public long getSentFrameCount(APIFrameType frameType) {
+		return getCount(sentFrames, frameType);
+	}
+
+	/**
+	 * Returns the number of frames sent.
+	 *
+	 * @return The number of sent frames.
+	 */
+	public long getSentFrameCount() {
+		return sum(sentFrames);
+	}
+
+	/**
+	 * Returns the number of bytes received. In the byte by byte read mode,
+	 * the escape bytes of the API escaped mode are not counted.
+	 *
+	 * @return The number of received bytes.
+	 */
+	public long getReceivedByteCount() {
+		return receivedBytes;
+	}
+
+	/**
+	 * Returns the number of bytes sent.
+	 *
+	 * @return The number of sent bytes.
+	 */
+	public long getSentByteCount() {
+		return sentBytes;
+	}
+
+	/**
+	 * Returns the number of received frames discarded because they had an
+	 * invalid checksum or could not be parsed.
+	 *
+	 * @return The number of parse failures.
+	 */
+	public long getParseFailureCount() {
+		return parseFailures;
+	}
+
+	/**
+	 * Returns the number of received packets dropped because the received
+	 * packets queue was full.
+	 *
+	 * @return The number of dropped packets.
+	 */
+	public long getDroppedPacketCount() {
+		return droppedPackets;
+	}
+
+	/**
+	 * Returns the number of listener notifications discarded because the
+	 * listener queue was full.
+	 *
+	 * @return The number of rejected notifications.
+	 */
+	public long getRejectedNotificationCount() {
+		return rejectedNotifications;
+	}
+
+	/**
+	 * Returns the number of listener notifications waiting to be executed.
+	 *
+	 * @return The listener queue depth.
+	 */
+	public int getListenerQueueDepth() {
+		return listenerQueueDepth;
+	}
+
+	/**
+	 * Returns the maximum number of listener notifications waiting to be
+	 * executed.
+	 *
+	 * @return The high-water mark of the listener queue.
+	 */
+	public int getMaxListenerQueueDepth() {
+		return maxListenerQueueDepth;
+	}
+
+	/**
+	 * Returns the number of requests that timed out waiting for their
+	 * response.
+	 *
+	 * @return The number of timeouts.
+	 */
+	public long getTimeoutCount() {
+		return timeouts;
+	}
+
+	/**
+	 * Returns the number of transmissions answered with a failure status.
+	 *
+	 * @return The number of failed transmissions.
+	 */
+	public long getTransmitFailureCount() {
+		return transmitFailures;
+	}
+
+	/**
+	 * Returns the histogram of the AT command round trip latencies.
+	 *
+	 * @return The AT command latency histogram.
+	 */
+	public LatencyHistogram getATCommandLatency() {
+		return atCommandLatency;
+	}
+
+	/**
+	 * Returns the histogram of the transmit status round trip latencies.
+	 *
+	 * @return The transmit latency histogram.
+	 */
+	public LatencyHistogram getTransmitLatency() {
+		return transmitLatency;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		return "Received frames: " + getReceivedFrameCount() + " (" + receivedBytes + " bytes), "
+				+ "sent frames: " + getSentFrameCount() + " (" + sentBytes + " bytes), "
+				+ "parse failures: " + parseFailures + ", dropped packets: " + droppedPackets
+				+ ", rejected notifications: " + rejectedNotifications
+				+ ", listener queue depth: " + listenerQueueDepth + ", timeouts: " + timeouts
+				+ ", transmit failures: " + transmitFailures
+				+ ", AT command latency: [" + atCommandLatency + "]"
+				+ ", transmit latency: [" + transmitLatency + "]";
+	}
+
+	/**
+	 * Returns the count of the given frame type.
+	 *
+	 * @param counts Map with the count of each frame type.
+	 * @param frameType The frame type.
+	 *
+	 * @return The count of the frame type, 0 if it is not in the map.
+	 *
+	 * @throws NullPointerException if {@code frameType == null}.
+	 */
+	private static long getCount(Map<APIFrameType, Long> counts, APIFrameType frameType) {
+		if (frameType == null)
+			throw new NullPointerException("Frame type cannot be null.");
+
+		Long count = counts.get(frameType);
+		return count == null ? 0 : count;
+	}
+
+	/**
+	 * Returns the sum of the given counts.
+	 *
+	 * @param counts Map with the count of each frame type.
+	 *
+	 * @return The sum of the counts.
+	 */
+	private static long sum(Map<APIFrameType, Long> counts) {
+		long total = 0;
+		for (long count : counts.values())
+			total += count;
+		return total;
+	}
+}
@@ -0,0 +1,318 @@
+/**
+ * Copyright (c) 2014-2016 Digi International Inc.,
+ * All rights not expressly granted are reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * Digi International Inc. 11001 Bren Road East, Minnetonka, MN 55343
+ * =======================================================================
+*/
+package com.digi.xbee.api.connection.emulator;
+
+import java.util.HashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.digi.xbee.api.models.ATCommandStatus;
+import com.digi.xbee.api.models.XBee16BitAddress;
+import com.digi.xbee.api.models.XBee64BitAddress;
+import com.digi.xbee.api.utils.ByteUtils;
+
+/**
+ * This class represents a simulated remote node of the network of an 
+ * {@link XBeeEmulator}.
+ * 
+ * <p>A node has its own AT parameters, which are read and written with 
+ * remote AT commands, and an IO sample that it sends when the emulator 
+ * generates IO sample traffic. It can also echo the data it receives back 
+ * to the local device.</p>
+ * 
+ * <p>This class is thread-safe.</p>
+ * 
+ * @see XBeeEmulator
+ */
+public class EmulatedRemoteNode {
+	
+	// Constants.
+	/**
+	 * Default IO sample of the nodes, with digital and analog values.
+	 */
+	private static final byte[] DEFAULT_IO_SAMPLE = new byte[] {0x01, 0x02, 0x11, (byte)0x8A, 0x02, 0x01, 
+			0x02, 0x0C, 0x00, (byte)0xFA, 0x04, (byte)0xE2};
+	
+	// Variables.
+	private final XBee64BitAddress xbee64BitAddress;
+	private final XBee16BitAddress xbee16BitAddress;
+	
+	private final HashMap<String, byte[]> parameters = new HashMap<String, byte[]>();
+	
+	private final AtomicLong receivedMessageCount = new AtomicLong();
+	
+	private volatile byte[] ioSamplePayload = DEFAULT_IO_SAMPLE;
+	
+	private volatile boolean echoData = false;
+	
+	/**
+	 * Class constructor. Instantiates a new {@code EmulatedRemoteNode} with 
+	 * the given addresses and node identifier.
+	 * 
+	 * @param xbee64BitAddress The 64-bit address of the node.
+	 * @param xbee16BitAddress The 16-bit address of the node.
+	 * @param nodeID The node identifier of the node.
+	 * 
+	 * @throws NullPointerException if {@code xbee64BitAddress == null} or 
+	 *                              if {@code xbee16BitAddress == null} or 
+	 *                              if {@code nodeID == null}.
+	 * 
+	 * @see com.digi.xbee.api.models.XBee16BitAddress
+	 * @see com.digi.xbee.api.models.XBee64BitAddress
+	 */
+	public EmulatedRemoteNode(XBee64BitAddress xbee64BitAddress, XBee16BitAddress xbee16BitAddress, String nodeID) {
+		if (xbee64BitAddress == null)
+			throw new NullPointerException("64-bit address cannot be null.");
+		if (xbee16BitAddress == null)
+			throw new NullPointerException("16-bit address cannot be null.");
+		if (nodeID == null)
+			throw new NullPointerException("Node ID cannot be null.");
+		
+		this.xbee64BitAddress = xbee64BitAddress;
+		this.xbee16BitAddress = xbee16BitAddress;
+		
+		byte[] address = xbee64BitAddress.getValue();
+		byte[] addressHigh = new byte[4];
+		byte[] addressLow = new byte[4];
+		System.arraycopy(address, 0, addressHigh, 0, 4);
+		System.arraycopy(address, 4, addressLow, 0, 4);
+		parameters.put("SH", addressHigh);
+		parameters.put("SL", addressLow);
+		parameters.put("MY", xbee16BitAddress.getValue());
+		parameters.put("NI", nodeID.getBytes());
+		parameters.put("HV", XBeeEmulator.DEFAULT_HARDWARE_VERSION.clone());
+		parameters.put("VR", XBeeEmulator.DEFAULT_FIRMWARE_VERSION.clone());
+		parameters.put("IR", new byte[] {0x00, 0x00});
+	}
+	
+	/**
+	 * Returns the 64-bit address of the node.
+	 * 
+	 * @return The 64-bit address of the node.
+	 * 
+	 * @see com.digi.xbee.api.models.XBee64BitAddress
+	 */
+	public XBee64BitAddress get64BitAddress() {
+		return xbee64BitAddress;
+	}
+	
+	/**
+	 * Returns the 16-bit address of the node.
+	 * 
+	 * @return The 16-bit address of the node.
+	 * 
+	 * @see com.digi.xbee.api.models.XBee16BitAddress
+	 */
+	public XBee16BitAddress get16BitAddress() {
+		return xbee16BitAddress;
+	}
+	
+	/**
+	 * Returns the node identifier of the node.
+	 * 
+	 * @return The node identifier.
+	 */
+	public String getNodeID() {
+		return new String(getParameter("NI"));
+	}
+	
+	/**
+	 * Returns the value of the given AT parameter of the node.
+	 * 
+	 * @param parameter The AT parameter.
+	 * 
+	 * @return The value of the parameter, {@code null} if the node does not 
+	 *         have it.
+	 * 
+	 * @throws NullPointerException if {@code parameter == null}.
+	 * 
+	 * @see #setParameter(String, byte[])
+	 */
+	public byte[] getParameter(String parameter) {
+		if (parameter == null)
+			throw new NullPointerException("Parameter cannot be null.");
+		
+		synchronized (parameters) {
+			byte[] value = parameters.get(parameter);
+			return value == null ? null : value.clone();
+		}
+	}
+	
+	/**
+	 * Sets the value of the given AT parameter of the node.
+	 * 
+	 * @param parameter The AT parameter.
+	 * @param value The value of the parameter.
+	 * 
+	 * @throws NullPointerException if {@code parameter == null} or 
+	 *                              if {@code value == null}.
+	 * 
+	 * @see #getParameter(String)
+	 */
+	public void setParameter(String parameter, byte[] value) {
+		if (parameter == null)
+			throw new NullPointerException("Parameter cannot be null.");
+		if (value == null)
+			throw new NullPointerException("Value cannot be null.");
+		
+		synchronized (parameters) {
+			parameters.put(parameter, value.clone());
+		}
+	}
+	
+	/**
+	 * Returns the IO sample payload the node sends.
+	 * 
+	 * @return The IO sample payload.
+	 * 
+	 * @see #setIOSamplePayload(byte[])
+	 */
+	public byte[] getIOSamplePayload() {
+		return ioSamplePayload.clone();
+	}
+	
+	/**
+	 * Sets the IO sample payload the node sends, in the format of the 
+	 * ZigBee, DigiMesh and DigiPoint protocols.
+	 * 
+	 * @param ioSamplePayload The IO sample payload.
+	 * 
+	 * @throws IllegalArgumentException if {@code ioSamplePayload.length < 5}.
+	 * @throws NullPointerException if {@code ioSamplePayload == null}.
+	 * 
+	 * @see #getIOSamplePayload()
+	 * @see com.digi.xbee.api.io.IOSample
+	 */
+	public void setIOSamplePayload(byte[] ioSamplePayload) {
+		if (ioSamplePayload == null)
+			throw new NullPointerException("IO sample payload cannot be null.");
+		if (ioSamplePayload.length < 5)
+			throw new IllegalArgumentException("IO sample payload must be longer than 4.");
+		
+		this.ioSamplePayload = ioSamplePayload.clone();
+	}
+	
+	/**
+	 * Returns whether the node sends back the data it receives.
+	 * 
+	 * @return {@code true} if the node echoes the data, {@code false} 
+	 *         otherwise.
+	 * 
+	 * @see #setEchoData(boolean)
+	 */
+	public boolean isEchoData() {
+		return echoData;
+	}
+	
+	/**
+	 * Sets whether the node sends back the data it receives from the local 
+	 * device.
+	 * 
+	 * @param echoData {@code true} to echo the data, {@code false} otherwise.
+	 * 
+	 * @see #isEchoData()
+	 */
+	public void setEchoData(boolean echoData) {
+		this.echoData = echoData;
+	}
+	
+	/**
+	 * Returns the number of messages the node received from the local 
+	 * device.
+	 * 
+	 * @return The number of received messages.
+	 */
+	public long getReceivedMessageCount() {
+		return receivedMessageCount.get();
+	}
+	
+	/**
+	 * Returns the node discovery ({@code ND}) response of the node in the 
+	 * ZigBee format.
+	 * 
+	 * @return The node discovery response.
+	 */
+	byte[] getNodeDiscoveryResponse() {
+		byte[] nodeID = getParameter("NI");
+		byte[] response = new byte[2 + 8 + nodeID.length + 1 + 2 + 1 + 1 + 2 + 2];
+		int index = 0;
+		System.arraycopy(xbee16BitAddress.getValue(), 0, response, index, 2);
+		index += 2;
+		System.arraycopy(xbee64BitAddress.getValue(), 0, response, index, 8);
+		index += 8;
+		System.arraycopy(nodeID, 0, response, index, nodeID.length);
+		index += nodeID.length;
+		// Null terminator of the node identifier.
+		response[index++] = 0x00;
+		// Parent address.
+		response[index++] = (byte)0xFF;
+		response[index++] = (byte)0xFE;
+		// Device type (router) and status.
+		response[index++] = 0x01;
+		response[index++] = 0x00;
+		// Profile ID.
+		response[index++] = (byte)0xC1;
+		response[index++] = 0x05;
+		// Manufacturer ID.
+		response[index++] = 0x10;
+		response[index++] = 0x1E;
+		return response;
+	}
+	
+	/**
+	 * Executes the given AT command received from the local device.
+	 * 
+	 * @param command The AT command.
+	 * @param parameter The value to set, {@code null} or empty to read it.
+	 * @param response Array to store the value of the parameter.
+	 * 
+	 * @return The status of the command.
+	 */
+	ATCommandStatus executeCommand(String command, byte[] parameter, byte[][] response) {
+		synchronized (parameters) {
+			if (parameter != null && parameter.length > 0) {
+				parameters.put(command, parameter.clone());
+				return ATCommandStatus.OK;
+			}
+			byte[] value = parameters.get(command);
+			if (value == null)
+				return XBeeEmulator.isExecutionCommand(command) ? ATCommandStatus.OK : ATCommandStatus.INVALID_COMMAND;
+			response[0] = value.clone();
+			return ATCommandStatus.OK;
+		}
+	}
+	
+	/**
+	 * Counts a message received from the local device.
+	 */
+	void messageReceived() {
+		receivedMessageCount.incrementAndGet();
+	}
+	
+	/**
+	 * Returns the IO sampling rate of the node in milliseconds.
+	 * 
+	 * @return The IO sampling rate, {@code 0} if periodic sampling is 
+	 *         disabled.
+	 */
+	int getIOSamplingRate() {
+		return ByteUtils.byteArrayToInt(getParameter("IR"));
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		return xbee64BitAddress.toString() + " - " + getNodeID();
+	}
+}
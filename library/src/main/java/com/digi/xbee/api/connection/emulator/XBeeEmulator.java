@@ -0,0 +1,1254 @@
+/**
+ * Copyright (c) 2014-2016 Digi International Inc.,
+ * All rights not expressly granted are reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * Digi International Inc. 11001 Bren Road East, Minnetonka, MN 55343
+ * =======================================================================
+*/
+package com.digi.xbee.api.connection.emulator;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.digi.xbee.api.connection.IConnectionInterface;
+import com.digi.xbee.api.listeners.IPacketReceiveListener;
+import com.digi.xbee.api.models.ATCommandStatus;
+import com.digi.xbee.api.models.ModemStatusEvent;
+import com.digi.xbee.api.models.OperatingMode;
+import com.digi.xbee.api.models.XBee16BitAddress;
+import com.digi.xbee.api.models.XBee64BitAddress;
+import com.digi.xbee.api.models.XBeeDiscoveryStatus;
+import com.digi.xbee.api.models.XBeeReceiveOptions;
+import com.digi.xbee.api.models.XBeeTransmitStatus;
+import com.digi.xbee.api.packet.XBeePacket;
+import com.digi.xbee.api.packet.XBeePacketDecoder;
+import com.digi.xbee.api.packet.common.ATCommandPacket;
+import com.digi.xbee.api.packet.common.ATCommandQueuePacket;
+import com.digi.xbee.api.packet.common.ATCommandResponsePacket;
+import com.digi.xbee.api.packet.common.ExplicitAddressingPacket;
+import com.digi.xbee.api.packet.common.ExplicitRxIndicatorPacket;
+import com.digi.xbee.api.packet.common.IODataSampleRxIndicatorPacket;
+import com.digi.xbee.api.packet.common.ModemStatusPacket;
+import com.digi.xbee.api.packet.common.ReceivePacket;
+import com.digi.xbee.api.packet.common.RemoteATCommandPacket;
+import com.digi.xbee.api.packet.common.RemoteATCommandResponsePacket;
+import com.digi.xbee.api.packet.common.TransmitPacket;
+import com.digi.xbee.api.packet.common.TransmitStatusPacket;
+import com.digi.xbee.api.packet.raw.RX16Packet;
+import com.digi.xbee.api.packet.raw.RX64Packet;
+import com.digi.xbee.api.packet.raw.TX16Packet;
+import com.digi.xbee.api.packet.raw.TX64Packet;
+import com.digi.xbee.api.packet.raw.TXStatusPacket;
+import com.digi.xbee.api.utils.ByteUtils;
+
+/**
+ * This class is an in-process emulator of a local XBee module that 
+ * implements the {@code IConnectionInterface}, so an {@code XBeeDevice} 
+ * can be used without radios.
+ * 
+ * <p>The emulator behaves as a ZigBee module in API mode ({@code AP = 1}) 
+ * or API escaped mode ({@code AP = 2}) and answers the frames written by 
+ * the local device:</p>
+ * <ul>
+ * <li>Local AT commands, including the ones used to read the device 
+ * information ({@code SH}, {@code SL}, {@code NI}, {@code HV}, {@code VR}, 
+ * {@code MY}, {@code AP}...), node discovery ({@code ND}) and software 
+ * reset ({@code FR}).</li>
+ * <li>Remote AT commands addressed to the simulated remote nodes.</li>
+ * <li>Transmit requests ({@code TransmitPacket}, 
+ * {@code ExplicitAddressingPacket}, {@code TX64Packet} and 
+ * {@code TX16Packet}), answered with their transmit status.</li>
+ * </ul>
+ * 
+ * <p>The simulated remote nodes send data and IO samples to the local 
+ * device with {@link #receiveData(EmulatedRemoteNode, byte[])}, 
+ * {@link #receiveIOSample(EmulatedRemoteNode)} or the traffic generator 
+ * ({@link #startTraffic(int, int, double)}). Nodes with an IO sampling rate 
+ * ({@code IR}) send IO samples periodically.</p>
+ * 
+ * <p>The frames sent to the local device are delayed by the configured 
+ * latency and, if a baud rate is configured, throttled to the transfer 
+ * rate of the serial line. Transmissions to the remote nodes and the 
+ * traffic they send are lost with the configured loss rate.</p>
+ * 
+ * @see EmulatedRemoteNode
+ */
+public class XBeeEmulator implements IConnectionInterface {
+	
+	// Constants.
+	/**
+	 * Default 64-bit address of the emulated module.
+	 */
+	public static final XBee64BitAddress DEFAULT_64_BIT_ADDRESS = new XBee64BitAddress("0013A20040000000");
+	
+	/**
+	 * Default node discovery timeout ({@code NT}) in hundreds of 
+	 * milliseconds (value: {@value}).
+	 */
+	public static final int DEFAULT_DISCOVERY_TIMEOUT = 0x3C;
+	
+	// XB24-BxIx-xxx hardware with ZigBee firmware.
+	static final byte[] DEFAULT_HARDWARE_VERSION = new byte[] {0x19, 0x4B};
+	static final byte[] DEFAULT_FIRMWARE_VERSION = new byte[] {0x23, (byte)0xA7};
+	
+	private static final String[] EXECUTION_COMMANDS = new String[] {"AC", "WR", "FR", "RE", "ND", "IS"};
+	
+	private static final int BITS_PER_BYTE = 10;
+	
+	private static final int RESET_DELAY = 100;
+	
+	private static final int TRAFFIC_PERIOD = 10;
+	
+	private static final int RSSI = 0x28;
+	
+	private static final int INITIAL_BUFFER_SIZE = 4096;
+	
+	// Variables.
+	private final HashMap<String, byte[]> parameters = new HashMap<String, byte[]>();
+	
+	private final ConcurrentHashMap<XBee64BitAddress, EmulatedRemoteNode> nodesBy64BitAddress = new ConcurrentHashMap<XBee64BitAddress, EmulatedRemoteNode>();
+	private final ConcurrentHashMap<XBee16BitAddress, EmulatedRemoteNode> nodesBy16BitAddress = new ConcurrentHashMap<XBee16BitAddress, EmulatedRemoteNode>();
+	
+	private final ConcurrentHashMap<EmulatedRemoteNode, ScheduledFuture<?>> samplingTasks = new ConcurrentHashMap<EmulatedRemoteNode, ScheduledFuture<?>>();
+	
+	private final XBeePacketDecoder decoder;
+	
+	private final EmulatorInputStream inputStream = new EmulatorInputStream();
+	
+	private final OutputStream outputStream = new OutputStream() {
+		/*
+		 * (non-Javadoc)
+		 * @see java.io.OutputStream#write(int)
+		 */
+		@Override
+		public void write(int b) throws IOException {
+			writeData(new byte[] {(byte)b});
+		}
+		
+		/*
+		 * (non-Javadoc)
+		 * @see java.io.OutputStream#write(byte[], int, int)
+		 */
+		@Override
+		public void write(byte[] b, int off, int len) throws IOException {
+			writeData(b, off, len);
+		}
+	};
+	
+	private final Random random = new Random();
+	
+	private final Object deliveryLock = new Object();
+	
+	private final AtomicLong receivedFrameCount = new AtomicLong();
+	private final AtomicLong sentFrameCount = new AtomicLong();
+	private final AtomicLong lostMessageCount = new AtomicLong();
+	
+	private ScheduledThreadPoolExecutor scheduler;
+	
+	private ScheduledFuture<?> trafficTask;
+	
+	private OperatingMode operatingMode = OperatingMode.API;
+	
+	private long lineFreeTime;
+	
+	private volatile long latency = 0;
+	
+	private volatile double lossRate = 0;
+	
+	private volatile int baudRate = 0;
+	
+	private volatile boolean open = false;
+	
+	/**
+	 * Class constructor. Instantiates a new {@code XBeeEmulator} with the 
+	 * default 64-bit address.
+	 * 
+	 * @see #DEFAULT_64_BIT_ADDRESS
+	 * @see #XBeeEmulator(XBee64BitAddress)
+	 */
+	public XBeeEmulator() {
+		this(DEFAULT_64_BIT_ADDRESS);
+	}
+	
+	/**
+	 * Class constructor. Instantiates a new {@code XBeeEmulator} with the 
+	 * given 64-bit address.
+	 * 
+	 * @param xbee64BitAddress The 64-bit address of the emulated module.
+	 * 
+	 * @throws NullPointerException if {@code xbee64BitAddress == null}.
+	 * 
+	 * @see #XBeeEmulator()
+	 * @see com.digi.xbee.api.models.XBee64BitAddress
+	 */
+	public XBeeEmulator(XBee64BitAddress xbee64BitAddress) {
+		if (xbee64BitAddress == null)
+			throw new NullPointerException("64-bit address cannot be null.");
+		
+		byte[] address = xbee64BitAddress.getValue();
+		byte[] addressHigh = new byte[4];
+		byte[] addressLow = new byte[4];
+		System.arraycopy(address, 0, addressHigh, 0, 4);
+		System.arraycopy(address, 4, addressLow, 0, 4);
+		parameters.put("SH", addressHigh);
+		parameters.put("SL", addressLow);
+		parameters.put("MY", new byte[] {0x00, 0x00});
+		parameters.put("NI", "EMULATOR".getBytes());
+		parameters.put("HV", DEFAULT_HARDWARE_VERSION.clone());
+		parameters.put("VR", DEFAULT_FIRMWARE_VERSION.clone());
+		parameters.put("AP", new byte[] {(byte)OperatingMode.API.getID()});
+		parameters.put("NT", new byte[] {DEFAULT_DISCOVERY_TIMEOUT});
+		parameters.put("ID", new byte[] {0x00, 0x00, 0x00, 0x00, 0x00, 0x00, 0x00, 0x00});
+		parameters.put("CE", new byte[] {0x01});
+		
+		decoder = new XBeePacketDecoder(OperatingMode.API, new IPacketReceiveListener() {
+			/*
+			 * (non-Javadoc)
+			 * @see com.digi.xbee.api.listeners.IPacketReceiveListener#packetReceived(com.digi.xbee.api.packet.XBeePacket)
+			 */
+			@Override
+			public void packetReceived(XBeePacket receivedPacket) {
+				frameReceived(receivedPacket);
+			}
+		});
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * @see com.digi.xbee.api.connection.IConnectionInterface#open()
+	 */
+	@Override
+	public void open() {
+		synchronized (deliveryLock) {
+			if (open)
+				return;
+			scheduler = new ScheduledThreadPoolExecutor(1, new ThreadFactory() {
+				/*
+				 * (non-Javadoc)
+				 * @see java.util.concurrent.ThreadFactory#newThread(java.lang.Runnable)
+				 */
+				@Override
+				public Thread newThread(Runnable runnable) {
+					Thread thread = new Thread(runnable, "XBeeEmulator");
+					thread.setDaemon(true);
+					return thread;
+				}
+			});
+			scheduler.setRemoveOnCancelPolicy(true);
+			lineFreeTime = System.nanoTime();
+			open = true;
+			for (EmulatedRemoteNode node : nodesBy64BitAddress.values())
+				updateSampling(node);
+		}
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * @see com.digi.xbee.api.connection.IConnectionInterface#close()
+	 */
+	@Override
+	public void close() {
+		synchronized (deliveryLock) {
+			if (!open)
+				return;
+			open = false;
+			trafficTask = null;
+			samplingTasks.clear();
+			scheduler.shutdownNow();
+			scheduler = null;
+		}
+		inputStream.clear();
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * @see com.digi.xbee.api.connection.IConnectionInterface#isOpen()
+	 */
+	@Override
+	public boolean isOpen() {
+		return open;
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * @see com.digi.xbee.api.connection.IConnectionInterface#getInputStream()
+	 */
+	@Override
+	public InputStream getInputStream() {
+		return inputStream;
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * @see com.digi.xbee.api.connection.IConnectionInterface#getOutputStream()
+	 */
+	@Override
+	public OutputStream getOutputStream() {
+		return outputStream;
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * @see com.digi.xbee.api.connection.IConnectionInterface#writeData(byte[])
+	 */
+	@Override
+	public void writeData(byte[] data) throws IOException {
+		if (data == null)
+			throw new NullPointerException("Data to be sent cannot be null.");
+		
+		writeData(data, 0, data.length);
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * @see com.digi.xbee.api.connection.IConnectionInterface#writeData(byte[], int, int)
+	 */
+	@Override
+	public void writeData(byte[] data, int offset, int length) throws IOException {
+		if (data == null)
+			throw new NullPointerException("Data to be sent cannot be null.");
+		if (!open)
+			throw new IOException("The emulator is closed.");
+		
+		synchronized (decoder) {
+			decoder.decode(data, offset, length);
+		}
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * @see com.digi.xbee.api.connection.IConnectionInterface#readData(byte[])
+	 */
+	@Override
+	public int readData(byte[] data) throws IOException {
+		return inputStream.read(data);
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * @see com.digi.xbee.api.connection.IConnectionInterface#readData(byte[], int, int)
+	 */
+	@Override
+	public int readData(byte[] data, int offset, int length) throws IOException {
+		return inputStream.read(data, offset, length);
+	}
+	
+	/**
+	 * Adds the given remote node to the network of the emulator.
+	 * 
+	 * @param node The remote node to add.
+	 * 
+	 * @throws NullPointerException if {@code node == null}.
+	 * 
+	 * @see #createRemoteNodes(int)
+	 * @see #removeRemoteNode(EmulatedRemoteNode)
+	 * @see EmulatedRemoteNode
+	 */
+	public void addRemoteNode(EmulatedRemoteNode node) {
+		if (node == null)
+			throw new NullPointerException("Remote node cannot be null.");
+		
+		nodesBy64BitAddress.put(node.get64BitAddress(), node);
+		nodesBy16BitAddress.put(node.get16BitAddress(), node);
+		updateSampling(node);
+	}
+	
+	/**
+	 * Creates the given number of remote nodes and adds them to the network 
+	 * of the emulator. The nodes have consecutive addresses, starting after 
+	 * the last one of the network, and {@code NODE_<n>} identifiers.
+	 * 
+	 * @param count Number of nodes to create.
+	 * 
+	 * @return The list of created nodes.
+	 * 
+	 * @throws IllegalArgumentException if {@code count < 0} or 
+	 *                                  if {@code count > 0xFFFC}.
+	 * 
+	 * @see #addRemoteNode(EmulatedRemoteNode)
+	 */
+	public synchronized List<EmulatedRemoteNode> createRemoteNodes(int count) {
+		if (count < 0 || count > 0xFFFC)
+			throw new IllegalArgumentException("Count must be between 0 and 65532.");
+		
+		List<EmulatedRemoteNode> nodes = new ArrayList<EmulatedRemoteNode>(count);
+		int index = nodesBy64BitAddress.size();
+		while (nodes.size() < count) {
+			index++;
+			XBee64BitAddress address64 = new XBee64BitAddress(ByteUtils.longToByteArray(0x0013A20041000000L + index));
+			XBee16BitAddress address16 = new XBee16BitAddress((index >> 8) & 0xFF, index & 0xFF);
+			if (nodesBy64BitAddress.containsKey(address64) || nodesBy16BitAddress.containsKey(address16))
+				continue;
+			EmulatedRemoteNode node = new EmulatedRemoteNode(address64, address16, "NODE_" + index);
+			addRemoteNode(node);
+			nodes.add(node);
+		}
+		return nodes;
+	}
+	
+	/**
+	 * Removes the given remote node from the network of the emulator.
+	 * 
+	 * @param node The remote node to remove.
+	 * 
+	 * @throws NullPointerException if {@code node == null}.
+	 * 
+	 * @see #addRemoteNode(EmulatedRemoteNode)
+	 */
+	public void removeRemoteNode(EmulatedRemoteNode node) {
+		if (node == null)
+			throw new NullPointerException("Remote node cannot be null.");
+		
+		nodesBy64BitAddress.remove(node.get64BitAddress(), node);
+		nodesBy16BitAddress.remove(node.get16BitAddress(), node);
+		ScheduledFuture<?> task = samplingTasks.remove(node);
+		if (task != null)
+			task.cancel(false);
+	}
+	
+	/**
+	 * Returns the remote node with the given 64-bit address.
+	 * 
+	 * @param xbee64BitAddress The 64-bit address of the node.
+	 * 
+	 * @return The remote node, {@code null} if it is not in the network.
+	 * 
+	 * @throws NullPointerException if {@code xbee64BitAddress == null}.
+	 */
+	public EmulatedRemoteNode getRemoteNode(XBee64BitAddress xbee64BitAddress) {
+		if (xbee64BitAddress == null)
+			throw new NullPointerException("64-bit address cannot be null.");
+		
+		return nodesBy64BitAddress.get(xbee64BitAddress);
+	}
+	
+	/**
+	 * Returns the remote nodes of the network of the emulator.
+	 * 
+	 * @return The list of remote nodes.
+	 */
+	public List<EmulatedRemoteNode> getRemoteNodes() {
+		return new ArrayList<EmulatedRemoteNode>(nodesBy64BitAddress.values());
+	}
+	
+	/**
+	 * Returns the value of the given AT parameter of the emulated module.
+	 * 
+	 * @param parameter The AT parameter.
+	 * 
+	 * @return The value of the parameter, {@code null} if the module does 
+	 *         not have it.
+	 * 
+	 * @throws NullPointerException if {@code parameter == null}.
+	 * 
+	 * @see #setParameter(String, byte[])
+	 */
+	public byte[] getParameter(String parameter) {
+		if (parameter == null)
+			throw new NullPointerException("Parameter cannot be null.");
+		
+		synchronized (parameters) {
+			byte[] value = parameters.get(parameter);
+			return value == null ? null : value.clone();
+		}
+	}
+	
+	/**
+	 * Sets the value of the given AT parameter of the emulated module, as 
+	 * if it was configured before connecting it.
+	 * 
+	 * @param parameter The AT parameter.
+	 * @param value The value of the parameter.
+	 * 
+	 * @throws NullPointerException if {@code parameter == null} or 
+	 *                              if {@code value == null}.
+	 * 
+	 * @see #getParameter(String)
+	 */
+	public void setParameter(String parameter, byte[] value) {
+		if (parameter == null)
+			throw new NullPointerException("Parameter cannot be null.");
+		if (value == null)
+			throw new NullPointerException("Value cannot be null.");
+		
+		synchronized (parameters) {
+			parameters.put(parameter, value.clone());
+		}
+		if (parameter.equals("AP"))
+			updateOperatingMode();
+	}
+	
+	/**
+	 * Returns the latency added to every frame sent to the local device.
+	 * 
+	 * @return The latency in microseconds.
+	 * 
+	 * @see #setLatency(long)
+	 */
+	public long getLatency() {
+		return latency;
+	}
+	
+	/**
+	 * Sets the latency added to every frame sent to the local device, which 
+	 * simulates the processing time of the module and the radio.
+	 * 
+	 * @param latency The latency in microseconds.
+	 * 
+	 * @throws IllegalArgumentException if {@code latency < 0}.
+	 * 
+	 * @see #getLatency()
+	 */
+	public void setLatency(long latency) {
+		if (latency < 0)
+			throw new IllegalArgumentException("Latency cannot be less than 0.");
+		
+		this.latency = latency;
+	}
+	
+	/**
+	 * Returns the probability of losing a message exchanged with a remote 
+	 * node.
+	 * 
+	 * @return The loss rate, between 0 and 1.
+	 * 
+	 * @see #setLossRate(double)
+	 */
+	public double getLossRate() {
+		return lossRate;
+	}
+	
+	/**
+	 * Sets the probability of losing a message exchanged with a remote node. 
+	 * Lost transmissions are answered with a failure transmit status and lost 
+	 * received messages are never delivered to the local device.
+	 * 
+	 * @param lossRate The loss rate, between 0 and 1.
+	 * 
+	 * @throws IllegalArgumentException if {@code lossRate < 0} or 
+	 *                                  if {@code lossRate > 1}.
+	 * 
+	 * @see #getLossRate()
+	 */
+	public void setLossRate(double lossRate) {
+		if (lossRate < 0 || lossRate > 1)
+			throw new IllegalArgumentException("Loss rate must be between 0 and 1.");
+		
+		this.lossRate = lossRate;
+	}
+	
+	/**
+	 * Returns the baud rate the frames sent to the local device are 
+	 * throttled to.
+	 * 
+	 * @return The baud rate, {@code 0} if the frames are not throttled.
+	 * 
+	 * @see #setBaudRate(int)
+	 */
+	public int getBaudRate() {
+		return baudRate;
+	}
+	
+	/**
+	 * Sets the baud rate the frames sent to the local device are throttled 
+	 * to. Each byte takes 10 bits (start, 8 data and stop bits).
+	 * 
+	 * @param baudRate The baud rate, {@code 0} to not throttle the frames.
+	 * 
+	 * @throws IllegalArgumentException if {@code baudRate < 0}.
+	 * 
+	 * @see #getBaudRate()
+	 */
+	public void setBaudRate(int baudRate) {
+		if (baudRate < 0)
+			throw new IllegalArgumentException("Baud rate cannot be less than 0.");
+		
+		this.baudRate = baudRate;
+	}
+	
+	/**
+	 * Sends the given data from the given remote node to the local device.
+	 * 
+	 * @param node The remote node that sends the data.
+	 * @param data The data to send.
+	 * 
+	 * @return {@code true} if the data is sent, {@code false} if it is lost.
+	 * 
+	 * @throws NullPointerException if {@code node == null} or 
+	 *                              if {@code data == null}.
+	 * 
+	 * @see #receiveExplicitData(EmulatedRemoteNode, int, int, int, int, byte[])
+	 */
+	public boolean receiveData(EmulatedRemoteNode node, byte[] data) {
+		if (node == null)
+			throw new NullPointerException("Remote node cannot be null.");
+		if (data == null)
+			throw new NullPointerException("Data cannot be null.");
+		
+		if (isLost())
+			return false;
+		deliver(new ReceivePacket(node.get64BitAddress(), node.get16BitAddress(), 
+				XBeeReceiveOptions.PACKET_ACKNOWLEDGED, data));
+		return true;
+	}
+	
+	/**
+	 * Sends the given data from the given remote node to the local device 
+	 * in an explicit frame.
+	 * 
+	 * @param node The remote node that sends the data.
+	 * @param sourceEndpoint Source endpoint of the transmission.
+	 * @param destEndpoint Destination endpoint of the transmission.
+	 * @param clusterID Cluster ID of the transmission.
+	 * @param profileID Profile ID of the transmission.
+	 * @param data The data to send.
+	 * 
+	 * @return {@code true} if the data is sent, {@code false} if it is lost.
+	 * 
+	 * @throws NullPointerException if {@code node == null} or 
+	 *                              if {@code data == null}.
+	 * 
+	 * @see #receiveData(EmulatedRemoteNode, byte[])
+	 */
+	public boolean receiveExplicitData(EmulatedRemoteNode node, int sourceEndpoint, int destEndpoint, 
+			int clusterID, int profileID, byte[] data) {
+		if (node == null)
+			throw new NullPointerException("Remote node cannot be null.");
+		if (data == null)
+			throw new NullPointerException("Data cannot be null.");
+		
+		if (isLost())
+			return false;
+		deliver(new ExplicitRxIndicatorPacket(node.get64BitAddress(), node.get16BitAddress(), sourceEndpoint, 
+				destEndpoint, clusterID, profileID, XBeeReceiveOptions.PACKET_ACKNOWLEDGED, data));
+		return true;
+	}
+	
+	/**
+	 * Sends the IO sample of the given remote node to the local device.
+	 * 
+	 * @param node The remote node that sends the IO sample.
+	 * 
+	 * @return {@code true} if the IO sample is sent, {@code false} if it is 
+	 *         lost.
+	 * 
+	 * @throws NullPointerException if {@code node == null}.
+	 * 
+	 * @see EmulatedRemoteNode#setIOSamplePayload(byte[])
+	 */
+	public boolean receiveIOSample(EmulatedRemoteNode node) {
+		if (node == null)
+			throw new NullPointerException("Remote node cannot be null.");
+		
+		if (isLost())
+			return false;
+		deliver(new IODataSampleRxIndicatorPacket(node.get64BitAddress(), node.get16BitAddress(), 
+				XBeeReceiveOptions.PACKET_ACKNOWLEDGED, node.getIOSamplePayload()));
+		return true;
+	}
+	
+	/**
+	 * Sends the given modem status to the local device.
+	 * 
+	 * @param modemStatusEvent The modem status event.
+	 * 
+	 * @throws NullPointerException if {@code modemStatusEvent == null}.
+	 * 
+	 * @see com.digi.xbee.api.models.ModemStatusEvent
+	 */
+	public void sendModemStatus(ModemStatusEvent modemStatusEvent) {
+		if (modemStatusEvent == null)
+			throw new NullPointerException("Modem status event cannot be null.");
+		
+		deliver(new ModemStatusPacket(modemStatusEvent));
+	}
+	
+	/**
+	 * Starts generating traffic from the remote nodes to the local device. 
+	 * The nodes send messages in turns at the given rate.
+	 * 
+	 * @param messagesPerSecond Number of messages sent per second.
+	 * @param dataLength Length of the data of each message.
+	 * @param ioSampleRatio Ratio of the messages that are IO samples, 
+	 *                      between 0 and 1.
+	 * 
+	 * @throws IllegalArgumentException if {@code messagesPerSecond < 1} or 
+	 *                                  if {@code dataLength < 0} or 
+	 *                                  if {@code ioSampleRatio < 0} or 
+	 *                                  if {@code ioSampleRatio > 1}.
+	 * @throws IllegalStateException if the emulator is not open.
+	 * 
+	 * @see #stopTraffic()
+	 */
+	public void startTraffic(int messagesPerSecond, int dataLength, final double ioSampleRatio) {
+		if (messagesPerSecond < 1)
+			throw new IllegalArgumentException("Messages per second must be greater than 0.");
+		if (dataLength < 0)
+			throw new IllegalArgumentException("Data length cannot be less than 0.");
+		if (ioSampleRatio < 0 || ioSampleRatio > 1)
+			throw new IllegalArgumentException("IO sample ratio must be between 0 and 1.");
+		
+		final byte[] data = new byte[dataLength];
+		random.nextBytes(data);
+		final double messagesPerPeriod = messagesPerSecond * TRAFFIC_PERIOD / 1000.0;
+		
+		synchronized (deliveryLock) {
+			if (!open)
+				throw new IllegalStateException("The emulator is not open.");
+			if (trafficTask != null)
+				trafficTask.cancel(false);
+			trafficTask = scheduler.scheduleAtFixedRate(new Runnable() {
+				
+				// Variables.
+				private double pending = 0;
+				private int nextNode = 0;
+				
+				/*
+				 * (non-Javadoc)
+				 * @see java.lang.Runnable#run()
+				 */
+				@Override
+				public void run() {
+					List<EmulatedRemoteNode> nodes = getRemoteNodes();
+					if (nodes.isEmpty())
+						return;
+					pending += messagesPerPeriod;
+					while (pending >= 1) {
+						pending--;
+						EmulatedRemoteNode node = nodes.get(nextNode++ % nodes.size());
+						if (random.nextDouble() < ioSampleRatio)
+							receiveIOSample(node);
+						else
+							receiveData(node, data);
+					}
+				}
+			}, TRAFFIC_PERIOD, TRAFFIC_PERIOD, TimeUnit.MILLISECONDS);
+		}
+	}
+	
+	/**
+	 * Stops generating traffic from the remote nodes.
+	 * 
+	 * @see #startTraffic(int, int, double)
+	 */
+	public void stopTraffic() {
+		synchronized (deliveryLock) {
+			if (trafficTask != null) {
+				trafficTask.cancel(false);
+				trafficTask = null;
+			}
+		}
+	}
+	
+	/**
+	 * Returns the number of frames received from the local device.
+	 * 
+	 * @return The number of received frames.
+	 */
+	public long getReceivedFrameCount() {
+		return receivedFrameCount.get();
+	}
+	
+	/**
+	 * Returns the number of frames sent to the local device.
+	 * 
+	 * @return The number of sent frames.
+	 */
+	public long getSentFrameCount() {
+		return sentFrameCount.get();
+	}
+	
+	/**
+	 * Returns the number of messages exchanged with the remote nodes that 
+	 * were lost.
+	 * 
+	 * @return The number of lost messages.
+	 * 
+	 * @see #setLossRate(double)
+	 */
+	public long getLostMessageCount() {
+		return lostMessageCount.get();
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		return "[Emulator] ";
+	}
+	
+	/**
+	 * Returns whether the given AT command is an execution command, which is 
+	 * accepted without a value although it is not a parameter.
+	 * 
+	 * @param command The AT command.
+	 * 
+	 * @return {@code true} if it is an execution command, {@code false} 
+	 *         otherwise.
+	 */
+	static boolean isExecutionCommand(String command) {
+		for (String executionCommand : EXECUTION_COMMANDS) {
+			if (executionCommand.equals(command))
+				return true;
+		}
+		return false;
+	}
+	
+	/**
+	 * Processes the given frame written by the local device.
+	 * 
+	 * @param packet The received frame.
+	 */
+	private void frameReceived(XBeePacket packet) {
+		receivedFrameCount.incrementAndGet();
+		
+		if (packet instanceof ATCommandPacket) {
+			ATCommandPacket atPacket = (ATCommandPacket)packet;
+			executeLocalCommand(atPacket.getFrameID(), atPacket.getCommand(), atPacket.getParameter());
+		} else if (packet instanceof ATCommandQueuePacket) {
+			ATCommandQueuePacket atPacket = (ATCommandQueuePacket)packet;
+			executeLocalCommand(atPacket.getFrameID(), atPacket.getCommand(), atPacket.getParameter());
+		} else if (packet instanceof RemoteATCommandPacket)
+			executeRemoteCommand((RemoteATCommandPacket)packet);
+		else if (packet instanceof TransmitPacket)
+			transmit((TransmitPacket)packet);
+		else if (packet instanceof ExplicitAddressingPacket)
+			transmitExplicit((ExplicitAddressingPacket)packet);
+		else if (packet instanceof TX64Packet)
+			transmit64((TX64Packet)packet);
+		else if (packet instanceof TX16Packet)
+			transmit16((TX16Packet)packet);
+	}
+	
+	/**
+	 * Executes the given local AT command and answers it.
+	 * 
+	 * @param frameID The frame ID of the command.
+	 * @param command The AT command.
+	 * @param parameter The value to set, {@code null} or empty to read it.
+	 */
+	private void executeLocalCommand(int frameID, String command, byte[] parameter) {
+		if (command.equals("ND")) {
+			discoverNodes(frameID, parameter);
+			return;
+		}
+		
+		ATCommandStatus status = ATCommandStatus.OK;
+		byte[] value = null;
+		synchronized (parameters) {
+			if (parameter != null && parameter.length > 0)
+				parameters.put(command, parameter.clone());
+			else if (parameters.containsKey(command))
+				value = parameters.get(command).clone();
+			else if (!isExecutionCommand(command))
+				status = ATCommandStatus.INVALID_COMMAND;
+		}
+		
+		if (frameID != 0)
+			deliver(new ATCommandResponsePacket(frameID, status, command, value));
+		
+		// Apply the new operating mode after answering in the previous one.
+		if (command.equals("AP") && value == null)
+			updateOperatingMode();
+		else if (command.equals("FR"))
+			deliverLater(new ModemStatusPacket(ModemStatusEvent.STATUS_WATCHDOG_TIMER_RESET), RESET_DELAY);
+	}
+	
+	/**
+	 * Answers a node discovery with the remote nodes of the network and 
+	 * finishes it after the node discovery timeout ({@code NT}).
+	 * 
+	 * @param frameID The frame ID of the command.
+	 * @param nodeID The node identifier to look for, {@code null} or empty 
+	 *               to discover all the nodes.
+	 */
+	private void discoverNodes(int frameID, byte[] nodeID) {
+		String id = nodeID == null || nodeID.length == 0 ? null : new String(nodeID);
+		for (EmulatedRemoteNode node : nodesBy64BitAddress.values()) {
+			if (id != null && !id.equals(node.getNodeID()))
+				continue;
+			if (!isLost())
+				deliver(new ATCommandResponsePacket(frameID, ATCommandStatus.OK, "ND", node.getNodeDiscoveryResponse()));
+		}
+		long timeout = ByteUtils.byteArrayToLong(getParameter("NT")) * 100;
+		deliverLater(new ATCommandResponsePacket(frameID, ATCommandStatus.OK, "ND", null), timeout);
+	}
+	
+	/**
+	 * Executes the given remote AT command in the destination node and 
+	 * answers it.
+	 * 
+	 * @param packet The remote AT command packet.
+	 */
+	private void executeRemoteCommand(RemoteATCommandPacket packet) {
+		EmulatedRemoteNode node = findNode(packet.get64bitDestinationAddress(), packet.get16bitDestinationAddress());
+		ATCommandStatus status = ATCommandStatus.TX_FAILURE;
+		byte[][] value = new byte[1][];
+		XBee16BitAddress address16 = packet.get16bitDestinationAddress();
+		if (node != null && !isLost()) {
+			status = node.executeCommand(packet.getCommand(), packet.getParameter(), value);
+			address16 = node.get16BitAddress();
+			if (packet.getCommand().equals("IR") && value[0] == null)
+				updateSampling(node);
+		}
+		if (packet.getFrameID() != 0)
+			deliver(new RemoteATCommandResponsePacket(packet.getFrameID(), packet.get64bitDestinationAddress(), 
+					address16, packet.getCommand(), status, value[0]));
+	}
+	
+	/**
+	 * Transmits the data of the given transmit request to its destination 
+	 * and answers it.
+	 * 
+	 * @param packet The transmit request.
+	 */
+	private void transmit(TransmitPacket packet) {
+		XBee64BitAddress address64 = packet.get64bitDestinationAddress();
+		XBeeTransmitStatus status;
+		XBee16BitAddress address16 = XBee16BitAddress.UNKNOWN_ADDRESS;
+		if (address64.equals(XBee64BitAddress.BROADCAST_ADDRESS)) {
+			for (EmulatedRemoteNode node : nodesBy64BitAddress.values())
+				node.messageReceived();
+			status = XBeeTransmitStatus.SUCCESS;
+		} else {
+			EmulatedRemoteNode node = findNode(address64, packet.get16bitDestinationAddress());
+			if (node == null)
+				status = XBeeTransmitStatus.ADDRESS_NOT_FOUND;
+			else if (isLost())
+				status = XBeeTransmitStatus.NETWORK_ACK_FAILURE;
+			else {
+				status = XBeeTransmitStatus.SUCCESS;
+				address16 = node.get16BitAddress();
+				node.messageReceived();
+				if (node.isEchoData())
+					receiveData(node, packet.getRFData() == null ? new byte[0] : packet.getRFData());
+			}
+		}
+		if (packet.getFrameID() != 0)
+			deliver(new TransmitStatusPacket(packet.getFrameID(), address16, 0, status, 
+					XBeeDiscoveryStatus.DISCOVERY_STATUS_NO_DISCOVERY_OVERHEAD));
+	}
+	
+	/**
+	 * Transmits the data of the given explicit addressing request to its 
+	 * destination and answers it.
+	 * 
+	 * @param packet The explicit addressing request.
+	 */
+	private void transmitExplicit(ExplicitAddressingPacket packet) {
+		XBee64BitAddress address64 = packet.get64BitDestinationAddress();
+		XBeeTransmitStatus status;
+		XBee16BitAddress address16 = XBee16BitAddress.UNKNOWN_ADDRESS;
+		if (address64.equals(XBee64BitAddress.BROADCAST_ADDRESS)) {
+			for (EmulatedRemoteNode node : nodesBy64BitAddress.values())
+				node.messageReceived();
+			status = XBeeTransmitStatus.SUCCESS;
+		} else {
+			EmulatedRemoteNode node = findNode(address64, packet.get16BitDestinationAddress());
+			if (node == null)
+				status = XBeeTransmitStatus.ADDRESS_NOT_FOUND;
+			else if (isLost())
+				status = XBeeTransmitStatus.NETWORK_ACK_FAILURE;
+			else {
+				status = XBeeTransmitStatus.SUCCESS;
+				address16 = node.get16BitAddress();
+				node.messageReceived();
+				if (node.isEchoData())
+					receiveExplicitData(node, packet.getDestinationEndpoint(), packet.getSourceEndpoint(), 
+							packet.getClusterID(), packet.getProfileID(), 
+							packet.getRFData() == null ? new byte[0] : packet.getRFData());
+			}
+		}
+		if (packet.getFrameID() != 0)
+			deliver(new TransmitStatusPacket(packet.getFrameID(), address16, 0, status, 
+					XBeeDiscoveryStatus.DISCOVERY_STATUS_NO_DISCOVERY_OVERHEAD));
+	}
+	
+	/**
+	 * Transmits the data of the given 64-bit transmit request to its 
+	 * destination and answers it.
+	 * 
+	 * @param packet The 64-bit transmit request.
+	 */
+	private void transmit64(TX64Packet packet) {
+		XBeeTransmitStatus status = XBeeTransmitStatus.SUCCESS;
+		if (packet.get64bitDestinationAddress().equals(XBee64BitAddress.BROADCAST_ADDRESS)) {
+			for (EmulatedRemoteNode node : nodesBy64BitAddress.values())
+				node.messageReceived();
+		} else {
+			EmulatedRemoteNode node = nodesBy64BitAddress.get(packet.get64bitDestinationAddress());
+			if (node == null || isLost())
+				status = XBeeTransmitStatus.NO_ACK;
+			else {
+				node.messageReceived();
+				if (node.isEchoData() && !isLost())
+					deliver(new RX64Packet(node.get64BitAddress(), RSSI, 0, 
+							packet.getRFData() == null ? new byte[0] : packet.getRFData()));
+			}
+		}
+		if (packet.getFrameID() != 0)
+			deliver(new TXStatusPacket(packet.getFrameID(), status));
+	}
+	
+	/**
+	 * Transmits the data of the given 16-bit transmit request to its 
+	 * destination and answers it.
+	 * 
+	 * @param packet The 16-bit transmit request.
+	 */
+	private void transmit16(TX16Packet packet) {
+		XBeeTransmitStatus status = XBeeTransmitStatus.SUCCESS;
+		if (packet.get16bitDestinationAddress().equals(XBee16BitAddress.BROADCAST_ADDRESS)) {
+			for (EmulatedRemoteNode node : nodesBy64BitAddress.values())
+				node.messageReceived();
+		} else {
+			EmulatedRemoteNode node = nodesBy16BitAddress.get(packet.get16bitDestinationAddress());
+			if (node == null || isLost())
+				status = XBeeTransmitStatus.NO_ACK;
+			else {
+				node.messageReceived();
+				if (node.isEchoData() && !isLost())
+					deliver(new RX16Packet(node.get16BitAddress(), RSSI, 0, 
+							packet.getRFData() == null ? new byte[0] : packet.getRFData()));
+			}
+		}
+		if (packet.getFrameID() != 0)
+			deliver(new TXStatusPacket(packet.getFrameID(), status));
+	}
+	
+	/**
+	 * Returns the remote node with the given addresses. The 16-bit address 
+	 * is used when the 64-bit address is unknown.
+	 * 
+	 * @param address64 The 64-bit address.
+	 * @param address16 The 16-bit address.
+	 * 
+	 * @return The remote node, {@code null} if it is not in the network.
+	 */
+	private EmulatedRemoteNode findNode(XBee64BitAddress address64, XBee16BitAddress address16) {
+		if (address64 != null && !address64.equals(XBee64BitAddress.UNKNOWN_ADDRESS))
+			return nodesBy64BitAddress.get(address64);
+		if (address16 != null)
+			return nodesBy16BitAddress.get(address16);
+		return null;
+	}
+	
+	/**
+	 * Returns whether a message exchanged with a remote node is lost, 
+	 * according to the loss rate.
+	 * 
+	 * @return {@code true} if the message is lost, {@code false} otherwise.
+	 */
+	private boolean isLost() {
+		double rate = lossRate;
+		if (rate == 0 || random.nextDouble() >= rate)
+			return false;
+		lostMessageCount.incrementAndGet();
+		return true;
+	}
+	
+	/**
+	 * Applies the operating mode of the {@code AP} parameter.
+	 */
+	private void updateOperatingMode() {
+		byte[] value = getParameter("AP");
+		OperatingMode mode = value != null && value.length > 0 && value[value.length - 1] == OperatingMode.API_ESCAPE.getID() 
+				? OperatingMode.API_ESCAPE : OperatingMode.API;
+		synchronized (deliveryLock) {
+			operatingMode = mode;
+		}
+		synchronized (decoder) {
+			decoder.setOperatingMode(mode);
+		}
+	}
+	
+	/**
+	 * Starts, restarts or stops the periodic IO sampling of the given node 
+	 * according to its IO sampling rate ({@code IR}).
+	 * 
+	 * @param node The remote node.
+	 */
+	private void updateSampling(final EmulatedRemoteNode node) {
+		synchronized (deliveryLock) {
+			ScheduledFuture<?> task = samplingTasks.remove(node);
+			if (task != null)
+				task.cancel(false);
+			int rate = node.getIOSamplingRate();
+			if (!open || rate == 0 || !nodesBy64BitAddress.containsKey(node.get64BitAddress()))
+				return;
+			samplingTasks.put(node, scheduler.scheduleAtFixedRate(new Runnable() {
+				/*
+				 * (non-Javadoc)
+				 * @see java.lang.Runnable#run()
+				 */
+				@Override
+				public void run() {
+					receiveIOSample(node);
+				}
+			}, rate, rate, TimeUnit.MILLISECONDS));
+		}
+	}
+	
+	/**
+	 * Sends the given frame to the local device after the latency, once the 
+	 * previous frames have been transferred through the serial line.
+	 * 
+	 * @param packet The frame to send.
+	 */
+	private void deliver(XBeePacket packet) {
+		synchronized (deliveryLock) {
+			if (!open)
+				return;
+			final byte[] frame = operatingMode == OperatingMode.API_ESCAPE 
+					? packet.generateByteArrayEscaped() : packet.generateByteArray();
+			long now = System.nanoTime();
+			long dueTime = Math.max(now + TimeUnit.MICROSECONDS.toNanos(latency), lineFreeTime);
+			int rate = baudRate;
+			if (rate > 0)
+				dueTime += frame.length * BITS_PER_BYTE * TimeUnit.SECONDS.toNanos(1) / rate;
+			lineFreeTime = dueTime;
+			scheduler.schedule(new Runnable() {
+				/*
+				 * (non-Javadoc)
+				 * @see java.lang.Runnable#run()
+				 */
+				@Override
+				public void run() {
+					sentFrameCount.incrementAndGet();
+					inputStream.deliver(frame);
+				}
+			}, dueTime - now, TimeUnit.NANOSECONDS);
+		}
+	}
+	
+	/**
+	 * Sends the given frame to the local device after the given delay.
+	 * 
+	 * @param packet The frame to send.
+	 * @param delay The delay in milliseconds.
+	 */
+	private void deliverLater(final XBeePacket packet, long delay) {
+		synchronized (deliveryLock) {
+			if (!open)
+				return;
+			scheduler.schedule(new Runnable() {
+				/*
+				 * (non-Javadoc)
+				 * @see java.lang.Runnable#run()
+				 */
+				@Override
+				public void run() {
+					deliver(packet);
+				}
+			}, delay, TimeUnit.MILLISECONDS);
+		}
+	}
+	
+	/**
+	 * Input stream with the bytes sent to the local device. It never blocks: 
+	 * like a serial port, it returns {@code -1} when there is no data, and 
+	 * the data reader waiting on the emulator is notified when new data 
+	 * arrives.
+	 */
+	private class EmulatorInputStream extends InputStream {
+		
+		// Variables.
+		private byte[] buffer = new byte[INITIAL_BUFFER_SIZE];
+		
+		private int start = 0;
+		private int end = 0;
+		
+		/**
+		 * Appends the given frame to the stream and notifies the data 
+		 * reader.
+		 * 
+		 * @param frame The frame to append.
+		 */
+		void deliver(byte[] frame) {
+			synchronized (XBeeEmulator.this) {
+				if (end + frame.length > buffer.length) {
+					// Compact the pending bytes and grow the buffer if needed.
+					int pending = end - start;
+					byte[] newBuffer = buffer;
+					if (pending + frame.length > buffer.length)
+						newBuffer = new byte[Math.max(buffer.length * 2, pending + frame.length)];
+					System.arraycopy(buffer, start, newBuffer, 0, pending);
+					buffer = newBuffer;
+					start = 0;
+					end = pending;
+				}
+				System.arraycopy(frame, 0, buffer, end, frame.length);
+				end += frame.length;
+				XBeeEmulator.this.notifyAll();
+			}
+		}
+		
+		/**
+		 * Discards the pending bytes.
+		 */
+		void clear() {
+			synchronized (XBeeEmulator.this) {
+				start = 0;
+				end = 0;
+				XBeeEmulator.this.notifyAll();
+			}
+		}
+		
+		/*
+		 * (non-Javadoc)
+		 * @see java.io.InputStream#read()
+		 */
+		@Override
+		public int read() {
+			synchronized (XBeeEmulator.this) {
+				if (start == end)
+					return -1;
+				return buffer[start++] & 0xFF;
+			}
+		}
+		
+		/*
+		 * (non-Javadoc)
+		 * @see java.io.InputStream#read(byte[], int, int)
+		 */
+		@Override
+		public int read(byte[] b, int off, int len) {
+			synchronized (XBeeEmulator.this) {
+				if (start == end)
+					return len == 0 ? 0 : -1;
+				int count = Math.min(len, end - start);
+				System.arraycopy(buffer, start, b, off, count);
+				start += count;
+				return count;
+			}
+		}
+		
+		/*
+		 * (non-Javadoc)
+		 * @see java.io.InputStream#available()
+		 */
+		@Override
+		public int available() {
+			synchronized (XBeeEmulator.this) {
+				return end - start;
+			}
+		}
+	}
+}
@@ -0,0 +1,58 @@
+/**
+ * Copyright (c) 2014-2016 Digi International Inc.,
+ * All rights not expressly granted are reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * Digi International Inc. 11001 Bren Road East, Minnetonka, MN 55343
+ * =======================================================================
+ */
+package com.digi.xbee.api.listeners;
+
+import com.digi.xbee.api.RemoteXBeeDevice;
+
+/**
+ * Interface defining the required methods that an object should implement to be 
+ * notified about the changes detected by the continuous discovery of the 
+ * network.
+ * 
+ * <p>Only the differences between consecutive discovery scans are notified, 
+ * so the devices that keep answering with the same data are not reported 
+ * again.</p>
+ * 
+ * @see com.digi.xbee.api.XBeeNetwork#startContinuousDiscovery(long)
+ */
+public interface INetworkChangeListener {
+
+	/**
+	 * Notifies that a remote device that was not in the network was 
+	 * discovered.
+	 * 
+	 * @param device The remote device added to the network.
+	 * 
+	 * @see com.digi.xbee.api.RemoteXBeeDevice
+	 */
+	public void deviceAdded(RemoteXBeeDevice device);
+	
+	/**
+	 * Notifies that a remote device of the network was discovered with a 
+	 * different node identifier or 16-bit address.
+	 * 
+	 * @param device The updated remote device of the network.
+	 * 
+	 * @see com.digi.xbee.api.RemoteXBeeDevice
+	 */
+	public void deviceUpdated(RemoteXBeeDevice device);
+	
+	/**
+	 * Notifies that a remote device did not answer the configured number of 
+	 * consecutive discovery scans and was removed from the network.
+	 * 
+	 * @param device The remote device removed from the network.
+	 * 
+	 * @see com.digi.xbee.api.RemoteXBeeDevice
+	 */
+	public void deviceLost(RemoteXBeeDevice device);
+}
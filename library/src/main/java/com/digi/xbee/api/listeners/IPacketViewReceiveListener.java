@@ -0,0 +1,35 @@
+/**
+ * Copyright (c) 2014-2016 Digi International Inc.,
+ * All rights not expressly granted are reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * Digi International Inc. 11001 Bren Road East, Minnetonka, MN 55343
+ * =======================================================================
+ */
+package com.digi.xbee.api.listeners;
+
+import com.digi.xbee.api.packet.XBeePacketView;
+
+/**
+ * This interface defines the required methods that an object should implement
+ * to behave as a packet view listener and be notified when new frames are
+ * decoded, without creating an XBee packet for each of them.
+ */
+public interface IPacketViewReceiveListener {
+
+	/**
+	 * Called when an API frame is decoded.
+	 *
+	 * <p>The view and the buffer it wraps are reused for the next frame, so
+	 * they are only valid until this method returns. Use
+	 * {@link XBeePacketView#toPacket()} to keep the frame.</p>
+	 *
+	 * @param packetView Read-only view over the received frame.
+	 *
+	 * @see com.digi.xbee.api.packet.XBeePacketView
+	 */
+	public void packetReceived(XBeePacketView packetView);
+}
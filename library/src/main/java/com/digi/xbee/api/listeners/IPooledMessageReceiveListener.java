@@ -0,0 +1,36 @@
+/**
+ * Copyright (c) 2014-2016 Digi International Inc.,
+ * All rights not expressly granted are reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * Digi International Inc. 11001 Bren Road East, Minnetonka, MN 55343
+ * =======================================================================
+ */
+package com.digi.xbee.api.listeners;
+
+import com.digi.xbee.api.models.PooledXBeeMessage;
+
+/**
+ * This interface defines the required methods that an object should implement
+ * to behave as a pooled message listener and be notified when new data is
+ * received from a remote XBee device of the network in the pooled receive
+ * mode.
+ */
+public interface IPooledMessageReceiveListener {
+
+	/**
+	 * Called when data is received from a remote node of the network.
+	 *
+	 * <p>The listener must call {@link PooledXBeeMessage#release()} when it
+	 * finishes processing the message and must not use it afterwards.</p>
+	 *
+	 * @param message A pooled message containing the data and the remote XBee
+	 *                device that sent it.
+	 *
+	 * @see com.digi.xbee.api.models.PooledXBeeMessage
+	 */
+	public void messageReceived(PooledXBeeMessage message);
+}
@@ -0,0 +1,303 @@
+/**
+ * Copyright (c) 2014-2016 Digi International Inc.,
+ * All rights not expressly granted are reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * Digi International Inc. 11001 Bren Road East, Minnetonka, MN 55343
+ * =======================================================================
+ */
+package com.digi.xbee.api.models;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.digi.xbee.api.RemoteXBeeDevice;
+
+/**
+ * This class represents a recyclable XBee message that belongs to an
+ * {@link XBeeMessagePool}. It contains the remote XBee device the message
+ * belongs to, the received data and, for explicit messages, the application
+ * layer fields.
+ *
+ * <p>The data is stored in a buffer that is reused when the message is
+ * recycled. Every consumer that receives a pooled message must call
+ * {@link #release()} when it finishes processing it, and must not use the
+ * message afterwards. Use {@link #toXBeeMessage()} or
+ * {@link #toExplicitXBeeMessage()} to keep a copy of it.</p>
+ *
+ * @see XBeeMessagePool
+ * @see com.digi.xbee.api.listeners.IPooledMessageReceiveListener
+ */
+public class PooledXBeeMessage {
+
+	// Variables.
+	private final XBeeMessagePool pool;
+
+	private final AtomicInteger references = new AtomicInteger();
+
+	private RemoteXBeeDevice remoteXBeeDevice;
+
+	private byte[] data;
+	private int dataLength;
+
+	private boolean isBroadcast;
+	private boolean isExplicit;
+
+	private int sourceEndpoint;
+	private int destEndpoint;
+	private int clusterID;
+	private int profileID;
+
+	/**
+	 * Class constructor. Instantiates a new {@code PooledXBeeMessage} that
+	 * belongs to the given pool.
+	 *
+	 * @param pool The pool the message belongs to.
+	 * @param dataCapacity Initial capacity of the data buffer.
+	 */
+	PooledXBeeMessage(XBeeMessagePool pool, int dataCapacity) {
+		this.pool = pool;
+		this.data = new byte[dataCapacity];
+	}
+
+	/**
+	 * Returns the remote XBee device this message is associated to.
+	 *
+	 * @return The remote XBee device this message is associated to.
+	 *
+	 * @see com.digi.xbee.api.RemoteXBeeDevice
+	 */
+	public RemoteXBeeDevice getDevice() {
+		return remoteXBeeDevice;
+	}
+
+	/**
+	 * Returns a copy of the data of the message.
+	 *
+	 * @return A byte array containing the data of the message.
+	 *
+	 * @see #copyData(byte[], int)
+	 * @see #getDataByte(int)
+	 */
+	public byte[] getData() {
+		return Arrays.copyOf(data, dataLength);
+	}
+
+	/**
+	 * Returns the length of the data of the message.
+	 *
+	 * @return The length of the data.
+	 */
+	public int getDataLength() {
+		return dataLength;
+	}
+
+	/**
+	 * Returns the byte of the data at the given index.
+	 *
+	 * @param index Index of the byte within the data.
+	 *
+	 * @return The byte at the given index.
+	 *
+	 * @throws IndexOutOfBoundsException if {@code index < 0} or
+	 *                                   if {@code index >= getDataLength()}.
+	 */
+	public byte getDataByte(int index) {
+		if (index < 0 || index >= dataLength)
+			throw new IndexOutOfBoundsException("Index must be between 0 and " + (dataLength - 1) + ".");
+		return data[index];
+	}
+
+	/**
+	 * Copies the data of the message into the given array.
+	 *
+	 * @param destination Array to copy the data to.
+	 * @param offset Position of the destination array to start copying at.
+	 *
+	 * @return The number of bytes copied.
+	 *
+	 * @throws IndexOutOfBoundsException if the data does not fit in the
+	 *                                   destination array.
+	 * @throws NullPointerException if {@code destination == null}.
+	 */
+	public int copyData(byte[] destination, int offset) {
+		if (destination == null)
+			throw new NullPointerException("Destination cannot be null.");
+
+		System.arraycopy(data, 0, destination, offset, dataLength);
+		return dataLength;
+	}
+
+	/**
+	 * Returns the data of the message in string format.
+	 *
+	 * @return The data of the message in string format.
+	 */
+	public String getDataString() {
+		return new String(data, 0, dataLength);
+	}
+
+	/**
+	 * Returns whether or not the message was received via broadcast.
+	 *
+	 * @return {@code true} if the message was received via broadcast,
+	 *         {@code false} otherwise.
+	 */
+	public boolean isBroadcast() {
+		return isBroadcast;
+	}
+
+	/**
+	 * Returns whether or not the message was received in an explicit frame,
+	 * so it contains the application layer fields.
+	 *
+	 * @return {@code true} if the message is explicit, {@code false}
+	 *         otherwise.
+	 */
+	public boolean isExplicit() {
+		return isExplicit;
+	}
+
+	/**
+	 * Returns the source endpoint of an explicit message.
+	 *
+	 * @return The source endpoint, {@code -1} if the message is not explicit.
+	 */
+	public int getSourceEndpoint() {
+		return sourceEndpoint;
+	}
+
+	/**
+	 * Returns the destination endpoint of an explicit message.
+	 *
+	 * @return The destination endpoint, {@code -1} if the message is not
+	 *         explicit.
+	 */
+	public int getDestinationEndpoint() {
+		return destEndpoint;
+	}
+
+	/**
+	 * Returns the cluster ID of an explicit message.
+	 *
+	 * @return The cluster ID, {@code -1} if the message is not explicit.
+	 */
+	public int getClusterID() {
+		return clusterID;
+	}
+
+	/**
+	 * Returns the profile ID of an explicit message.
+	 *
+	 * @return The profile ID, {@code -1} if the message is not explicit.
+	 */
+	public int getProfileID() {
+		return profileID;
+	}
+
+	/**
+	 * Returns a new {@code XBeeMessage} with a copy of the contents of this
+	 * message, which remains valid after this message is released.
+	 *
+	 * @return The XBee message.
+	 *
+	 * @see XBeeMessage
+	 */
+	public XBeeMessage toXBeeMessage() {
+		return new XBeeMessage(remoteXBeeDevice, getData(), isBroadcast);
+	}
+
+	/**
+	 * Returns a new {@code ExplicitXBeeMessage} with a copy of the contents
+	 * of this message, which remains valid after this message is released.
+	 *
+	 * @return The explicit XBee message.
+	 *
+	 * @throws IllegalStateException if the message is not explicit.
+	 *
+	 * @see ExplicitXBeeMessage
+	 */
+	public ExplicitXBeeMessage toExplicitXBeeMessage() {
+		if (!isExplicit)
+			throw new IllegalStateException("The message is not explicit.");
+
+		return new ExplicitXBeeMessage(remoteXBeeDevice, sourceEndpoint, destEndpoint, clusterID,
+				profileID, getData(), isBroadcast);
+	}
+
+	/**
+	 * Adds a new reference to this message. Every reference must be released
+	 * with {@link #release()}.
+	 *
+	 * @see #release()
+	 */
+	public void retain() {
+		references.incrementAndGet();
+	}
+
+	/**
+	 * Releases a reference to this message. When all the references are
+	 * released, the message is returned to its pool.
+	 *
+	 * @throws IllegalStateException if the message was already released.
+	 *
+	 * @see #retain()
+	 */
+	public void release() {
+		int remaining = references.decrementAndGet();
+		if (remaining < 0) {
+			references.incrementAndGet();
+			throw new IllegalStateException("The message was already released.");
+		}
+		if (remaining == 0) {
+			remoteXBeeDevice = null;
+			pool.recycle(this);
+		}
+	}
+
+	/**
+	 * Fills this message with the given contents. The data buffer grows if
+	 * it is not big enough.
+	 *
+	 * @param remoteXBeeDevice The remote XBee device the message belongs to.
+	 * @param dataLength Length of the data.
+	 * @param isBroadcast Indicates if the message was received via broadcast.
+	 *
+	 * @return The data buffer to copy the data to.
+	 */
+	byte[] prepare(RemoteXBeeDevice remoteXBeeDevice, int dataLength, boolean isBroadcast) {
+		if (data.length < dataLength)
+			data = new byte[dataLength];
+		this.remoteXBeeDevice = remoteXBeeDevice;
+		this.dataLength = dataLength;
+		this.isBroadcast = isBroadcast;
+		this.isExplicit = false;
+		this.sourceEndpoint = -1;
+		this.destEndpoint = -1;
+		this.clusterID = -1;
+		this.profileID = -1;
+		this.references.set(1);
+		return data;
+	}
+
+	/**
+	 * Sets the application layer fields of an explicit message.
+	 *
+	 * @param sourceEndpoint Endpoint of the source that initiated the
+	 *                       transmission.
+	 * @param destEndpoint Endpoint of the destination the message was
+	 *                     addressed to.
+	 * @param clusterID Cluster ID the packet was addressed to.
+	 * @param profileID Profile ID the packet was addressed to.
+	 */
+	void setExplicitFields(int sourceEndpoint, int destEndpoint, int clusterID, int profileID) {
+		this.isExplicit = true;
+		this.sourceEndpoint = sourceEndpoint;
+		this.destEndpoint = destEndpoint;
+		this.clusterID = clusterID;
+		this.profileID = profileID;
+	}
+}
@@ -0,0 +1,70 @@
+/**
+ * Copyright (c) 2014-2016 Digi International Inc.,
+ * All rights not expressly granted are reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * Digi International Inc. 11001 Bren Road East, Minnetonka, MN 55343
+ * =======================================================================
+ */
+package com.digi.xbee.api.models;
+
+/**
+ * Enumerates the different policies applied when a packet is received and
+ * the queue of received packets is full.
+ *
+ * @see XBeePacketsQueue
+ */
+public enum QueueOverflowPolicy {
+
+	// Enumeration types
+	DROP_OLDEST(0, "Drop the oldest packet"),
+	DROP_NEWEST(1, "Drop the newest packet"),
+	BLOCK(2, "Block until there is room");
+
+	// Variables
+	private final int id;
+
+	private final String name;
+
+	/**
+	 * Class constructor. Instantiates a new {@code QueueOverflowPolicy}
+	 * enumeration entry with the given parameters.
+	 *
+	 * @param id Overflow policy ID.
+	 * @param name Overflow policy name.
+	 */
+	private QueueOverflowPolicy(int id, String name) {
+		this.id = id;
+		this.name = name;
+	}
+
+	/**
+	 * Returns the overflow policy ID.
+	 *
+	 * @return Overflow policy ID.
+	 */
+	public int getID() {
+		return id;
+	}
+
+	/**
+	 * Returns the overflow policy name.
+	 *
+	 * @return Overflow policy name.
+	 */
+	public String getName() {
+		return name;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see java.lang.Enum#toString()
+	 */
+	@Override
+	public String toString() {
+		return name;
+	}
+}
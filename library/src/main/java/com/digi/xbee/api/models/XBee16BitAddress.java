@@ -11,8 +11,6 @@
  */
 package com.digi.xbee.api.models;
 
-import java.util.Arrays;
-
 import com.digi.xbee.api.utils.HexUtils;
 
 /**
@@ -33,6 +31,10 @@ import com.digi.xbee.api.utils.HexUtils;
  * It is automatically assigned when the radio joins the network for ZigBee 
  * and ZNet 2.5, and manually configured in 802.15.4 radios.</p>
  * 
+ * <p>The address is stored as a {@code short}, so comparing and hashing 
+ * addresses does not create any object. Use {@link #valueOf(int)} to reuse 
+ * the instances of the most recently used addresses instead of creating a 
+ * new one each time.</p>
  */
 public final class XBee16BitAddress {
 
@@ -55,10 +57,13 @@ public final class XBee16BitAddress {
 	 */
 	private static final String XBEE_16_BIT_ADDRESS_PATTERN = "(0[xX])?[0-9a-fA-F]{1,4}";
 	
-	private static final int HASH_SEED = 23;
+	private static final int CACHE_SIZE = 1024;
+	
+	// Addresses returned by valueOf, indexed by their value.
+	private static final XBee16BitAddress[] CACHE = new XBee16BitAddress[CACHE_SIZE];
 	
 	// Variables
-	private final byte[] address;
+	private final short value;
 	
 	/**
 	 * Class constructor. Instantiates a new object of type 
@@ -78,9 +83,7 @@ public final class XBee16BitAddress {
 		if (lsb > 255 || lsb < 0)
 			throw new IllegalArgumentException("LSB must be between 0 and 255.");
 		
-		address = new byte[2];
-		address[0] = (byte) hsb;
-		address[1] = (byte) lsb;
+		value = (short)((hsb << 8) | lsb);
 	}
 	
 	/**
@@ -101,13 +104,7 @@ public final class XBee16BitAddress {
 		if (address.length > 2)
 			throw new IllegalArgumentException("Address cannot contain more than 2 bytes.");
 		
-		// Check array size.
-		this.address = new byte[2];
-		int diff = this.address.length - address.length;
-		for (int i = 0; i < diff; i++)
-			this.address[i] = 0;
-		for (int i = diff; i < this.address.length; i++)
-			this.address[i] = address[i - diff];
+		this.value = toShort(address);
 	}
 	
 	/**
@@ -134,14 +131,39 @@ public final class XBee16BitAddress {
 			throw new IllegalArgumentException("Address must follow this pattern: (0x)XXXX.");
 		
 		// Convert the string into a byte array.
-		byte[] byteAddress = HexUtils.hexStringToByteArray(address);
-		// Check array size.
-		this.address = new byte[2];
-		int diff = this.address.length - byteAddress.length;
-		for (int i = 0; i < diff; i++)
-			this.address[i] = 0;
-		for (int i = diff; i < this.address.length; i++)
-			this.address[i] = byteAddress[i - diff];
+		this.value = toShort(HexUtils.hexStringToByteArray(address));
+	}
+	
+	/**
+	 * Returns the XBee 16-bit address with the given value, reusing the 
+	 * instance returned by a previous call with the same value when it is 
+	 * still cached.
+	 * 
+	 * <p>The cache holds a limited number of addresses, so this method may 
+	 * return a new instance. Compare addresses with 
+	 * {@link #equals(Object)}, never by reference.</p>
+	 * 
+	 * @param value The 16-bit address value, between 0 and 0xFFFF.
+	 * 
+	 * @return The XBee 16-bit address.
+	 * 
+	 * @throws IllegalArgumentException if {@code value < 0} or 
+	 *                                  if {@code value > 0xFFFF}.
+	 * 
+	 * @see #getIntValue()
+	 */
+	public static XBee16BitAddress valueOf(int value) {
+		if (value < 0 || value > 0xFFFF)
+			throw new IllegalArgumentException("Value must be between 0 and 0xFFFF.");
+		
+		int index = value & (CACHE_SIZE - 1);
+		XBee16BitAddress address = CACHE[index];
+		if (address == null || address.getIntValue() != value) {
+			// Instances are immutable, so a racy publication is safe.
+			address = new XBee16BitAddress(value >> 8, value & 0xFF);
+			CACHE[index] = address;
+		}
+		return address;
 	}
 	
 	/**
@@ -150,7 +172,7 @@ public final class XBee16BitAddress {
 	 * @return Address high significant byte.
 	 */
 	public int getHsb() {
-		return address[0];
+		return (byte)(value >> 8);
 	}
 	
 	/**
@@ -159,7 +181,7 @@ public final class XBee16BitAddress {
 	 * @return Address low significant byte.
 	 */
 	public int getLsb() {
-		return address[1];
+		return (byte)value;
 	}
 	
 	/**
@@ -168,7 +190,18 @@ public final class XBee16BitAddress {
 	 * @return Address value as byte array.
 	 */
 	public byte[] getValue() {
-		return Arrays.copyOf(address, address.length);
+		return new byte[] {(byte)(value >> 8), (byte)value};
+	}
+	
+	/**
+	 * Returns the 16-bit address value as an {@code int}.
+	 * 
+	 * @return Address value, between 0 and 0xFFFF.
+	 * 
+	 * @see #valueOf(int)
+	 */
+	public int getIntValue() {
+		return value & 0xFFFF;
 	}
 	
 	/*
@@ -180,7 +213,7 @@ public final class XBee16BitAddress {
 		if (!(obj instanceof XBee16BitAddress))
 			return false;
 		XBee16BitAddress addr = (XBee16BitAddress)obj;
-		return Arrays.equals(addr.getValue(), getValue());
+		return addr.value == value;
 	}
 	
 	/*
@@ -189,10 +222,7 @@ public final class XBee16BitAddress {
 	 */
 	@Override
 	public int hashCode() {
-		int hash = HASH_SEED;
-		for (byte b:getValue())
-			hash = hash * (hash + b);
-		return hash;
+		return getIntValue();
 	}
 	
 	/*
@@ -201,6 +231,21 @@ public final class XBee16BitAddress {
 	 */
 	@Override
 	public String toString() {
-		return HexUtils.byteArrayToHexString(address);
+		return HexUtils.byteArrayToHexString(getValue());
+	}
+	
+	/**
+	 * Converts the given address bytes, with the most significant byte 
+	 * first, into a {@code short}.
+	 * 
+	 * @param address The address bytes. It may be shorter than 2 bytes.
+	 * 
+	 * @return The address value.
+	 */
+	private static short toShort(byte[] address) {
+		int value = 0;
+		for (int i = 0; i < address.length; i++)
+			value = (value << 8) | (address[i] & 0xFF);
+		return (short)value;
 	}
 }
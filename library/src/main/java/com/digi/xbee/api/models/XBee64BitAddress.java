@@ -11,8 +11,6 @@
  */
 package com.digi.xbee.api.models;
 
-import java.util.Arrays;
-
 import com.digi.xbee.api.utils.HexUtils;
 
 /**
@@ -20,6 +18,11 @@ import com.digi.xbee.api.utils.HexUtils;
  * 
  * <p>The 64-bit address is a unique device address assigned during 
  * manufacturing. This address is unique to each physical device.</p>
+ * 
+ * <p>The address is stored as a {@code long}, so comparing and hashing 
+ * addresses does not create any object. Use {@link #valueOf(long)} to 
+ * reuse the instances of the most recently used addresses instead of 
+ * creating a new one each time.</p>
  */
 public final class XBee64BitAddress {
 
@@ -45,10 +48,13 @@ public final class XBee64BitAddress {
 	 */
 	private static final String XBEE_64_BIT_ADDRESS_PATTERN = "(0[xX])?[0-9a-fA-F]{1,16}";
 	
-	private static final int HASH_SEED = 23;
+	private static final int CACHE_SIZE = 1024;
+	
+	// Addresses returned by valueOf, indexed by their hash code.
+	private static final XBee64BitAddress[] CACHE = new XBee64BitAddress[CACHE_SIZE];
 	
 	// Variables
-	private final byte[] address;
+	private final long value;
 	
 	/**
 	 * Class constructor. Instantiates a new object of type 
@@ -68,12 +74,20 @@ public final class XBee64BitAddress {
 		if (address.length > 8)
 			throw new IllegalArgumentException("Address cannot contain more than 8 bytes.");
 		
-		this.address = new byte[8];
-		int diff = this.address.length - address.length;
-		for (int i = 0; i < diff; i++)
-			this.address[i] = 0;
-		for (int i = diff; i < this.address.length; i++)
-			this.address[i] = address[i - diff];
+		this.value = toLong(address);
+	}
+	
+	/**
+	 * Class constructor. Instantiates a new object of type 
+	 * {@code XBee64BitAddress} with the given value.
+	 * 
+	 * @param value The XBee 64-bit address as a {@code long}.
+	 * 
+	 * @see #getLongValue()
+	 * @see #valueOf(long)
+	 */
+	public XBee64BitAddress(long value) {
+		this.value = value;
 	}
 	
 	/**
@@ -99,13 +113,7 @@ public final class XBee64BitAddress {
 		if (!address.matches(XBEE_64_BIT_ADDRESS_PATTERN))
 			throw new IllegalArgumentException("Address must follow this pattern: (0x)0013A20040XXXXXX.");
 		
-		byte[] byteAddress = HexUtils.hexStringToByteArray(address);
-		this.address = new byte[8];
-		int diff = this.address.length - byteAddress.length;
-		for (int i = 0; i < diff; i++)
-			this.address[i] = 0;
-		for (int i = diff; i < this.address.length; i++)
-			this.address[i] = byteAddress[i - diff];
+		this.value = toLong(HexUtils.hexStringToByteArray(address));
 	}
 	
 	/**
@@ -157,15 +165,34 @@ public final class XBee64BitAddress {
 		if (b7 > 255 || b7 < 0)
 			throw new IllegalArgumentException("B7 must be between 0 and 255.");
 		
-		address = new byte[8];
-		address[0] = (byte) b0;
-		address[1] = (byte) b1;
-		address[2] = (byte) b2;
-		address[3] = (byte) b3;
-		address[4] = (byte) b4;
-		address[5] = (byte) b5;
-		address[6] = (byte) b6;
-		address[7] = (byte) b7;
+		value = ((long)b0 << 56) | ((long)b1 << 48) | ((long)b2 << 40) | ((long)b3 << 32) 
+				| ((long)b4 << 24) | ((long)b5 << 16) | ((long)b6 << 8) | b7;
+	}
+	
+	/**
+	 * Returns the XBee 64-bit address with the given value, reusing the 
+	 * instance returned by a previous call with the same value when it is 
+	 * still cached.
+	 * 
+	 * <p>The cache holds a limited number of addresses, so this method may 
+	 * return a new instance. Compare addresses with 
+	 * {@link #equals(Object)}, never by reference.</p>
+	 * 
+	 * @param value The XBee 64-bit address as a {@code long}.
+	 * 
+	 * @return The XBee 64-bit address.
+	 * 
+	 * @see #XBee64BitAddress(long)
+	 */
+	public static XBee64BitAddress valueOf(long value) {
+		int index = hash(value) & (CACHE_SIZE - 1);
+		XBee64BitAddress address = CACHE[index];
+		if (address == null || address.value != value) {
+			// Instances are immutable, so a racy publication is safe.
+			address = new XBee64BitAddress(value);
+			CACHE[index] = address;
+		}
+		return address;
 	}
 	
 	/**
@@ -174,7 +201,19 @@ public final class XBee64BitAddress {
 	 * @return XBee 64-bit address value as byte array.
 	 */
 	public byte[] getValue() {
-		return Arrays.copyOf(address, address.length);
+		byte[] address = new byte[8];
+		for (int i = 0; i < address.length; i++)
+			address[i] = (byte)(value >>> (56 - 8 * i));
+		return address;
+	}
+	
+	/**
+	 * Returns the XBee 64-bit address value as a {@code long}.
+	 * 
+	 * @return XBee 64-bit address value.
+	 */
+	public long getLongValue() {
+		return value;
 	}
 	
 	/**
@@ -184,6 +223,7 @@ public final class XBee64BitAddress {
 	 * @return Device ID corresponding to this address.
 	 */
 	public String generateDeviceID() {
+		byte[] address = getValue();
 		StringBuilder sb = new StringBuilder();
 		for (int i = 0; i < 2; i++) {
 			for (int j = 0; j < 4; j++)
@@ -211,7 +251,7 @@ public final class XBee64BitAddress {
 		if (!(obj instanceof XBee64BitAddress))
 			return false;
 		XBee64BitAddress addr = (XBee64BitAddress)obj;
-		return Arrays.equals(addr.getValue(), getValue());
+		return addr.value == value;
 	}
 	
 	/*
@@ -220,10 +260,7 @@ public final class XBee64BitAddress {
 	 */
 	@Override
 	public int hashCode() {
-		int hash = HASH_SEED;
-		for (byte b:getValue())
-			hash = hash * (hash + b);
-		return hash;
+		return hash(value);
 	}
 	
 	/*
@@ -232,6 +269,32 @@ public final class XBee64BitAddress {
 	 */
 	@Override
 	public String toString() {
-		return HexUtils.byteArrayToHexString(address);
+		return HexUtils.byteArrayToHexString(getValue());
+	}
+	
+	/**
+	 * Returns the hash code of the given 64-bit address value.
+	 * 
+	 * @param value The XBee 64-bit address as a {@code long}.
+	 * 
+	 * @return The hash code.
+	 */
+	private static int hash(long value) {
+		return (int)(value ^ (value >>> 32));
+	}
+	
+	/**
+	 * Converts the given address bytes, with the most significant byte 
+	 * first, into a {@code long}.
+	 * 
+	 * @param address The address bytes. It may be shorter than 8 bytes.
+	 * 
+	 * @return The address value.
+	 */
+	private static long toLong(byte[] address) {
+		long value = 0;
+		for (int i = 0; i < address.length; i++)
+			value = (value << 8) | (address[i] & 0xFF);
+		return value;
 	}
 }
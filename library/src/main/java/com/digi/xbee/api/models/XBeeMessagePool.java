@@ -0,0 +1,232 @@
+/**
+ * Copyright (c) 2014-2016 Digi International Inc.,
+ * All rights not expressly granted are reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * Digi International Inc. 11001 Bren Road East, Minnetonka, MN 55343
+ * =======================================================================
+ */
+package com.digi.xbee.api.models;
+
+import java.util.ArrayDeque;
+
+import com.digi.xbee.api.RemoteXBeeDevice;
+import com.digi.xbee.api.packet.APIFrameType;
+import com.digi.xbee.api.packet.XBeePacketView;
+
+/**
+ * This class is a bounded pool of recyclable XBee messages.
+ *
+ * <p>Messages are taken from the pool with one of the {@code acquire}
+ * methods and return to it when all their references are released. When
+ * there are no free messages, a new one is created; when a message is
+ * released and the pool already holds {@link #getCapacity()} free messages,
+ * the message is discarded. So the pool never blocks and never retains more
+ * than its capacity.</p>
+ *
+ * <p>This class is thread-safe.</p>
+ *
+ * @see PooledXBeeMessage
+ */
+public class XBeeMessagePool {
+
+	// Constants.
+	/**
+	 * Default maximum number of free messages held by the pool
+	 * (value: {@value}).
+	 */
+	public static final int DEFAULT_CAPACITY = 256;
+
+	/**
+	 * Default initial capacity of the data buffer of the messages in bytes
+	 * (value: {@value}).
+	 */
+	public static final int DEFAULT_DATA_CAPACITY = 128;
+
+	// Variables.
+	private final int capacity;
+	private final int dataCapacity;
+
+	private final ArrayDeque<PooledXBeeMessage> freeMessages;
+
+	private long createdCount = 0;
+	private long reusedCount = 0;
+
+	/**
+	 * Class constructor. Instantiates a new {@code XBeeMessagePool} with the
+	 * default capacity.
+	 *
+	 * @see #DEFAULT_CAPACITY
+	 * @see #XBeeMessagePool(int, int)
+	 */
+	public XBeeMessagePool() {
+		this(DEFAULT_CAPACITY, DEFAULT_DATA_CAPACITY);
+	}
+
+	/**
+	 * Class constructor. Instantiates a new {@code XBeeMessagePool} with the
+	 * given capacity.
+	 *
+	 * @param capacity Maximum number of free messages held by the pool.
+	 * @param dataCapacity Initial capacity of the data buffer of the messages
+	 *                     in bytes.
+	 *
+	 * @throws IllegalArgumentException if {@code capacity < 1} or
+	 *                                  if {@code dataCapacity < 0}.
+	 *
+	 * @see #XBeeMessagePool()
+	 */
+	public XBeeMessagePool(int capacity, int dataCapacity) {
+		if (capacity < 1)
+			throw new IllegalArgumentException("Capacity must be greater than 0.");
+		if (dataCapacity < 0)
+			throw new IllegalArgumentException("Data capacity cannot be less than 0.");
+
+		this.capacity = capacity;
+		this.dataCapacity = dataCapacity;
+		this.freeMessages = new ArrayDeque<PooledXBeeMessage>(capacity);
+	}
+
+	/**
+	 * Returns a message of the pool filled with the given data.
+	 *
+	 * @param remoteXBeeDevice The remote XBee device the message belongs to.
+	 * @param data Byte array containing the data of the message.
+	 * @param offset Position of the first byte of the data.
+	 * @param length Number of bytes of the data.
+	 * @param isBroadcast Indicates if the message was received via broadcast.
+	 *
+	 * @return A message with one reference, which must be released.
+	 *
+	 * @throws IndexOutOfBoundsException if {@code offset < 0} or
+	 *                                   if {@code length < 0} or
+	 *                                   if {@code offset + length > data.length}.
+	 * @throws NullPointerException if {@code remoteXBeeDevice == null} or
+	 *                              if {@code data == null}.
+	 *
+	 * @see PooledXBeeMessage#release()
+	 */
+	public PooledXBeeMessage acquire(RemoteXBeeDevice remoteXBeeDevice, byte[] data, int offset,
+			int length, boolean isBroadcast) {
+		if (remoteXBeeDevice == null)
+			throw new NullPointerException("Remote XBee device cannot be null.");
+		if (data == null)
+			throw new NullPointerException("Data cannot be null.");
+		if (offset < 0 || length < 0 || offset + length > data.length)
+			throw new IndexOutOfBoundsException("Offset and length must be within the data.");
+
+		PooledXBeeMessage message = take();
+		byte[] buffer = message.prepare(remoteXBeeDevice, length, isBroadcast);
+		System.arraycopy(data, offset, buffer, 0, length);
+		return message;
+	}
+
+	/**
+	 * Returns a message of the pool filled with the RF data of the given
+	 * receive frame view.
+	 *
+	 * @param remoteXBeeDevice The remote XBee device the message belongs to.
+	 * @param packetView View over a receive frame.
+	 *
+	 * @return A message with one reference, which must be released.
+	 *
+	 * @throws IllegalArgumentException if the frame is not a receive frame.
+	 * @throws NullPointerException if {@code remoteXBeeDevice == null} or
+	 *                              if {@code packetView == null}.
+	 *
+	 * @see PooledXBeeMessage#release()
+	 * @see com.digi.xbee.api.packet.XBeePacketView
+	 */
+	public PooledXBeeMessage acquire(RemoteXBeeDevice remoteXBeeDevice, XBeePacketView packetView) {
+		if (remoteXBeeDevice == null)
+			throw new NullPointerException("Remote XBee device cannot be null.");
+		if (packetView == null)
+			throw new NullPointerException("Packet view cannot be null.");
+		if (!packetView.isReceiveFrame())
+			throw new IllegalArgumentException("Packet view must be a receive frame.");
+
+		PooledXBeeMessage message = take();
+		byte[] buffer = message.prepare(remoteXBeeDevice, packetView.getRFDataLength(), packetView.isBroadcast());
+		packetView.copyRFData(buffer, 0);
+		if (packetView.getFrameTypeValue() == APIFrameType.EXPLICIT_RX_INDICATOR.getValue())
+			message.setExplicitFields(packetView.getSourceEndpoint(), packetView.getDestinationEndpoint(),
+					packetView.getClusterID(), packetView.getProfileID());
+		return message;
+	}
+
+	/**
+	 * Returns the maximum number of free messages held by the pool.
+	 *
+	 * @return The capacity of the pool.
+	 */
+	public int getCapacity() {
+		return capacity;
+	}
+
+	/**
+	 * Returns the number of free messages in the pool.
+	 *
+	 * @return The number of free messages.
+	 */
+	public int getAvailableCount() {
+		synchronized (freeMessages) {
+			return freeMessages.size();
+		}
+	}
+
+	/**
+	 * Returns the number of messages created because there were no free
+	 * messages in the pool.
+	 *
+	 * @return The number of created messages.
+	 */
+	public long getCreatedCount() {
+		synchronized (freeMessages) {
+			return createdCount;
+		}
+	}
+
+	/**
+	 * Returns the number of times a free message was reused.
+	 *
+	 * @return The number of reused messages.
+	 */
+	public long getReusedCount() {
+		synchronized (freeMessages) {
+			return reusedCount;
+		}
+	}
+
+	/**
+	 * Returns the given released message to the pool, if it is not full.
+	 *
+	 * @param message The released message.
+	 */
+	void recycle(PooledXBeeMessage message) {
+		synchronized (freeMessages) {
+			if (freeMessages.size() < capacity)
+				freeMessages.push(message);
+		}
+	}
+
+	/**
+	 * Takes a free message from the pool or creates a new one if there are
+	 * no free messages.
+	 *
+	 * @return The message.
+	 */
+	private PooledXBeeMessage take() {
+		synchronized (freeMessages) {
+			PooledXBeeMessage message = freeMessages.poll();
+			if (message != null) {
+				reusedCount++;
+				return message;
+			}
+			createdCount++;
+		}
+		return new PooledXBeeMessage(this, dataCapacity);
+	}
+}
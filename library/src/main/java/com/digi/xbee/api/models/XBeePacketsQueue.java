@@ -11,7 +11,10 @@
  */
 package com.digi.xbee.api.models;
 
-import java.util.LinkedList;
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.concurrent.TimeUnit;
 
 import com.digi.xbee.api.RemoteXBeeDevice;
 import com.digi.xbee.api.packet.APIFrameType;
@@ -32,6 +35,18 @@ import com.digi.xbee.api.packet.raw.RX64Packet;
  * <p>The class provides some methods to get specific packet types from 
  * different source nodes.</p>
  * 
+ * <p>Readers waiting for a packet are signaled as soon as a new packet is 
+ * added to the queue, so they do not have to poll it.</p>
+ * 
+ * <p>Besides the arrival order, the queue indexes the packets by their 64-bit 
+ * and 16-bit source addresses, so reading the packets of a remote XBee device 
+ * only visits the packets sent by that device.</p>
+ * 
+ * <p>The {@link QueueOverflowPolicy} decides what happens when a packet is 
+ * added and the queue is full. The queue counts the dropped packets and 
+ * keeps the maximum number of packets it has held, so consumers can be 
+ * sized accordingly.</p>
+ * 
  * @see com.digi.xbee.api.packet.XBeePacket
  */
 public class XBeePacketsQueue {
@@ -43,10 +58,37 @@ public class XBeePacketsQueue {
 	 */
 	public static final int DEFAULT_MAX_LENGTH = 50;
 	
+	/**
+	 * Default overflow policy of the queue.
+	 */
+	public static final QueueOverflowPolicy DEFAULT_OVERFLOW_POLICY = QueueOverflowPolicy.DROP_OLDEST;
+	
+	/**
+	 * Default maximum time in milliseconds to wait for room in the queue 
+	 * with the {@link QueueOverflowPolicy#BLOCK} policy (value: {@value}).
+	 */
+	public static final int DEFAULT_BLOCK_TIMEOUT = 1000;
+	
+	private static final int ANY_PACKET = 0;
+	private static final int DATA_PACKET = 1;
+	private static final int EXPLICIT_DATA_PACKET = 2;
+	
 	// Variables.
 	private int maxLength = DEFAULT_MAX_LENGTH;
+	private int blockTimeout = DEFAULT_BLOCK_TIMEOUT;
+	
+	private QueueOverflowPolicy overflowPolicy;
+	
+	private long droppedCount = 0;
+	private long blockedCount = 0;
+	private int highWaterMark = 0;
+	
+	private LinkedHashSet<PacketEntry> packetsList;
+	
+	private HashMap<XBee64BitAddress, ArrayDeque<PacketEntry>> packetsBy64BitAddr;
+	private HashMap<XBee16BitAddress, ArrayDeque<PacketEntry>> packetsBy16BitAddr;
 	
-	private LinkedList<XBeePacket> packetsList;
+	private long sequence = 0;
 	
 	private Object lock = new Object();
 	
@@ -67,26 +109,92 @@ public class XBeePacketsQueue {
 	 * @throws IllegalArgumentException if {@code maxLength < 1}.
 	 */
 	public XBeePacketsQueue(int maxLength) {
+		this(maxLength, DEFAULT_OVERFLOW_POLICY);
+	}
+	
+	/**
+	 * Class constructor. Instantiates a new object of type 
+	 * {@code XBeePacketsQueue} with the given maximum length and overflow 
+	 * policy.
+	 * 
+	 * @param maxLength Maximum length of the queue.
+	 * @param overflowPolicy Policy to apply when the queue is full.
+	 * 
+	 * @throws IllegalArgumentException if {@code maxLength < 1}.
+	 * @throws NullPointerException if {@code overflowPolicy == null}.
+	 * 
+	 * @see QueueOverflowPolicy
+	 */
+	public XBeePacketsQueue(int maxLength, QueueOverflowPolicy overflowPolicy) {
 		if (maxLength < 1)
 			throw new IllegalArgumentException("Queue length must be greater than 0.");
+		if (overflowPolicy == null)
+			throw new NullPointerException("Overflow policy cannot be null.");
 		
 		this.maxLength = maxLength;
-		packetsList = new LinkedList<XBeePacket>();
+		this.overflowPolicy = overflowPolicy;
+		packetsList = new LinkedHashSet<PacketEntry>();
+		packetsBy64BitAddr = new HashMap<XBee64BitAddress, ArrayDeque<PacketEntry>>();
+		packetsBy16BitAddr = new HashMap<XBee16BitAddress, ArrayDeque<PacketEntry>>();
 	}
 	
 	/**
-	 * Adds the provided packet to the list of packets. If the queue is full 
-	 * the first packet will be discarded to add the given one.
+	 * Adds the provided packet to the list of packets.
+	 * 
+	 * <p>If the queue is full, the overflow policy is applied: 
+	 * {@link QueueOverflowPolicy#DROP_OLDEST} discards the first packet to 
+	 * add the given one, {@link QueueOverflowPolicy#DROP_NEWEST} discards the 
+	 * given packet and {@link QueueOverflowPolicy#BLOCK} waits up to the 
+	 * block timeout for a reader to make room, discarding the first packet 
+	 * if it does not.</p>
+	 * 
+	 * <p>Only the packets received from remote devices (data, explicit data 
+	 * and IO samples) wait for room with {@link QueueOverflowPolicy#BLOCK}. 
+	 * Any other packet, such as a response or a transmit status, is 
+	 * discarded if the queue is full, so the thread adding it never blocks 
+	 * on it.</p>
 	 * 
 	 * @param xbeePacket The XBee packet to be added to the list.
 	 * 
+	 * @see #getDroppedCount()
+	 * @see #getOverflowPolicy()
 	 * @see com.digi.xbee.api.packet.XBeePacket
 	 */
 	public void addPacket(XBeePacket xbeePacket) {
 		synchronized (lock) {
-			if (packetsList.size() == maxLength)
-				packetsList.removeFirst();
-			packetsList.add(xbeePacket);
+			if (packetsList.size() >= maxLength) {
+				switch (overflowPolicy) {
+				case DROP_NEWEST:
+					droppedCount++;
+					return;
+				case BLOCK:
+					if (!isReceivedPacket(xbeePacket)) {
+						droppedCount++;
+						return;
+					}
+					blockedCount++;
+					waitForRoom();
+					break;
+				case DROP_OLDEST:
+				default:
+					break;
+				}
+				while (packetsList.size() >= maxLength) {
+					removePacket(packetsList.iterator().next());
+					droppedCount++;
+				}
+			}
+			
+			PacketEntry entry = new PacketEntry(xbeePacket, sequence++);
+			packetsList.add(entry);
+			if (entry.address64 != null)
+				index(packetsBy64BitAddr, entry.address64, entry);
+			if (entry.address16 != null)
+				index(packetsBy16BitAddr, entry.address16, entry);
+			if (packetsList.size() > highWaterMark)
+				highWaterMark = packetsList.size();
+			// Wake up the readers waiting for a packet.
+			lock.notifyAll();
 		}
 	}
 	
@@ -96,6 +204,10 @@ public class XBeePacketsQueue {
 	public void clearQueue() {
 		synchronized (lock) {
 			packetsList.clear();
+			packetsBy64BitAddr.clear();
+			packetsBy16BitAddr.clear();
+			// Wake up the producer waiting for room.
+			lock.notifyAll();
 		}
 	}
 	
@@ -106,26 +218,13 @@ public class XBeePacketsQueue {
 	 * 
 	 * @param timeout The time in milliseconds to wait for an XBee packet to 
 	 *                become available. 0 to return immediately.
+	 * 
 	 * @return The first packet from the queue, {@code null} if it is empty.
 	 * 
 	 * @see com.digi.xbee.api.packet.XBeePacket
 	 */
 	public XBeePacket getFirstPacket(int timeout) {
-		if (timeout > 0) {
-			XBeePacket xbeePacket = getFirstPacket(0);
-			// Wait for a timeout or until an XBee packet is read.
-			Long deadLine = System.currentTimeMillis() + timeout;
-			while (xbeePacket == null && deadLine > System.currentTimeMillis()) {
-				sleep(100);
-				xbeePacket = getFirstPacket(0);
-			}
-			return xbeePacket;
-		} 
-		synchronized (lock) {
-			if (!packetsList.isEmpty())
-				return packetsList.pop();
-		}
-		return null;
+		return waitForPacket(ANY_PACKET, null, timeout);
 	}
 	
 	/**
@@ -150,25 +249,7 @@ public class XBeePacketsQueue {
 	 * @see com.digi.xbee.api.packet.XBeePacket
 	 */
 	public XBeePacket getFirstPacketFrom(RemoteXBeeDevice remoteXBeeDevice, int timeout) {
-		if (timeout > 0) {
-			XBeePacket xbeePacket = getFirstPacketFrom(remoteXBeeDevice, 0);
-			// Wait for a timeout or until an XBee packet from remoteXBeeDevice is read.
-			Long deadLine = System.currentTimeMillis() + timeout;
-			while (xbeePacket == null && deadLine > System.currentTimeMillis()) {
-				sleep(100);
-				xbeePacket = getFirstPacketFrom(remoteXBeeDevice, 0);
-			}
-			return xbeePacket;
-		} else {
-			synchronized (lock) {
-				for (int i = 0; i < packetsList.size(); i++) {
-					XBeePacket xbeePacket = packetsList.get(i);
-					if (addressesMatch(xbeePacket, remoteXBeeDevice))
-						return packetsList.remove(i);
-				}
-			}
-		}
-		return null;
+		return waitForPacket(ANY_PACKET, remoteXBeeDevice, timeout);
 	}
 	
 	/**
@@ -186,25 +267,7 @@ public class XBeePacketsQueue {
 	 * @see com.digi.xbee.api.packet.XBeePacket
 	 */
 	public XBeePacket getFirstDataPacket(int timeout) {
-		if (timeout > 0) {
-			XBeePacket xbeePacket = getFirstDataPacket(0);
-			// Wait for a timeout or until a data XBee packet is read.
-			Long deadLine = System.currentTimeMillis() + timeout;
-			while (xbeePacket == null && deadLine > System.currentTimeMillis()) {
-				sleep(100);
-				xbeePacket = getFirstDataPacket(0);
-			}
-			return xbeePacket;
-		} else {
-			synchronized (lock) {
-				for (int i = 0; i < packetsList.size(); i++) {
-					XBeePacket xbeePacket = packetsList.get(i);
-					if (isDataPacket(xbeePacket))
-						return packetsList.remove(i);
-				}
-			}
-		}
-		return null;
+		return waitForPacket(DATA_PACKET, null, timeout);
 	}
 	
 	/**
@@ -231,25 +294,7 @@ public class XBeePacketsQueue {
 	 * @see com.digi.xbee.api.packet.XBeePacket
 	 */
 	public XBeePacket getFirstDataPacketFrom(RemoteXBeeDevice remoteXBeeDevice, int timeout) {
-		if (timeout > 0) {
-			XBeePacket xbeePacket = getFirstDataPacketFrom(remoteXBeeDevice, 0);
-			// Wait for a timeout or until an XBee packet from remoteXBeeDevice is read.
-			Long deadLine = System.currentTimeMillis() + timeout;
-			while (xbeePacket == null && deadLine > System.currentTimeMillis()) {
-				sleep(100);
-				xbeePacket = getFirstDataPacketFrom(remoteXBeeDevice, 0);
-			}
-			return xbeePacket;
-		} else {
-			synchronized (lock) {
-				for (int i = 0; i < packetsList.size(); i++) {
-					XBeePacket xbeePacket = packetsList.get(i);
-					if (isDataPacket(xbeePacket) && addressesMatch(xbeePacket, remoteXBeeDevice))
-						return packetsList.remove(i);
-				}
-			}
-		}
-		return null;
+		return waitForPacket(DATA_PACKET, remoteXBeeDevice, timeout);
 	}
 	
 	/**
@@ -268,25 +313,7 @@ public class XBeePacketsQueue {
 	 * @see com.digi.xbee.api.packet.common.ExplicitRxIndicatorPacket
 	 */
 	public XBeePacket getFirstExplicitDataPacket(int timeout) {
-		if (timeout > 0) {
-			XBeePacket xbeePacket = getFirstExplicitDataPacket(0);
-			// Wait for a timeout or until an explicit data XBee packet is read.
-			Long deadLine = System.currentTimeMillis() + timeout;
-			while (xbeePacket == null && deadLine > System.currentTimeMillis()) {
-				sleep(100);
-				xbeePacket = getFirstExplicitDataPacket(0);
-			}
-			return xbeePacket;
-		} else {
-			synchronized (lock) {
-				for (int i = 0; i < packetsList.size(); i++) {
-					XBeePacket xbeePacket = packetsList.get(i);
-					if (isExplicitDataPacket(xbeePacket))
-						return packetsList.remove(i);
-				}
-			}
-		}
-		return null;
+		return waitForPacket(EXPLICIT_DATA_PACKET, null, timeout);
 	}
 	
 	/**
@@ -314,25 +341,7 @@ public class XBeePacketsQueue {
 	 * @see com.digi.xbee.api.packet.common.ExplicitRxIndicatorPacket
 	 */
 	public XBeePacket getFirstExplicitDataPacketFrom(RemoteXBeeDevice remoteXBeeDevice, int timeout) {
-		if (timeout > 0) {
-			XBeePacket xbeePacket = getFirstExplicitDataPacketFrom(remoteXBeeDevice, 0);
-			// Wait for a timeout or until an XBee explicit data packet from remoteXBeeDevice is read.
-			Long deadLine = System.currentTimeMillis() + timeout;
-			while (xbeePacket == null && deadLine > System.currentTimeMillis()) {
-				sleep(100);
-				xbeePacket = getFirstExplicitDataPacketFrom(remoteXBeeDevice, 0);
-			}
-			return xbeePacket;
-		} else {
-			synchronized (lock) {
-				for (int i = 0; i < packetsList.size(); i++) {
-					XBeePacket xbeePacket = packetsList.get(i);
-					if (isExplicitDataPacket(xbeePacket) && addressesMatch(xbeePacket, remoteXBeeDevice))
-						return packetsList.remove(i);
-				}
-			}
-		}
-		return null;
+		return waitForPacket(EXPLICIT_DATA_PACKET, remoteXBeeDevice, timeout);
 	}
 	
 	/**
@@ -436,15 +445,222 @@ public class XBeePacketsQueue {
 	}
 	
 	/**
-	 * Sleeps the thread for the given number of milliseconds.
+	 * Returns whether or not the given XBee packet was received from a 
+	 * remote device: a data, explicit data or IO sample packet.
+	 * 
+	 * @param xbeePacket The XBee packet to check.
+	 * 
+	 * @return {@code true} if the XBee packet was received from a remote 
+	 *         device, {@code false} otherwise.
+	 * 
+	 * @see com.digi.xbee.api.packet.XBeePacket
+	 */
+	private boolean isReceivedPacket(XBeePacket xbeePacket) {
+		if (isDataPacket(xbeePacket) || isExplicitDataPacket(xbeePacket))
+			return true;
+		if (!(xbeePacket instanceof XBeeAPIPacket))
+			return false;
+		APIFrameType packetType = ((XBeeAPIPacket)xbeePacket).getFrameType();
+		switch (packetType) {
+			case IO_DATA_SAMPLE_RX_INDICATOR:
+			case RX_IO_16:
+			case RX_IO_64:
+				return true;
+			default:
+				return false;
+		}
+	}
+	
+	/**
+	 * Removes and returns the first packet of the queue of the given kind 
+	 * sent by the given remote XBee device, waiting up to the specified 
+	 * timeout if necessary for it to become available.
+	 * 
+	 * <p>The waiting thread is signaled every time a packet is added to the 
+	 * queue, so the packet is returned as soon as it arrives.</p>
+	 * 
+	 * @param kind Kind of packet to look for: {@code ANY_PACKET}, 
+	 *             {@code DATA_PACKET} or {@code EXPLICIT_DATA_PACKET}.
+	 * @param remoteXBeeDevice The remote XBee device that sent the packet, 
+	 *                         {@code null} to accept packets from any source.
+	 * @param timeout The time in milliseconds to wait for the packet to 
+	 *                become available. 0 to return immediately.
+	 * 
+	 * @return The first packet of the queue that matches, {@code null} if 
+	 *         none is received before the timeout expires.
+	 */
+	private XBeePacket waitForPacket(int kind, RemoteXBeeDevice remoteXBeeDevice, int timeout) {
+		synchronized (lock) {
+			XBeePacket xbeePacket = removeFirstPacket(kind, remoteXBeeDevice);
+			if (xbeePacket != null || timeout <= 0)
+				return xbeePacket;
+			
+			// Wait for a timeout or until a matching XBee packet is added.
+			long deadLine = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeout);
+			long remaining = deadLine - System.nanoTime();
+			while (xbeePacket == null && remaining > 0) {
+				try {
+					TimeUnit.NANOSECONDS.timedWait(lock, remaining);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					return null;
+				}
+				xbeePacket = removeFirstPacket(kind, remoteXBeeDevice);
+				remaining = deadLine - System.nanoTime();
+			}
+			return xbeePacket;
+		}
+	}
+	
+	/**
+	 * Removes and returns the first packet of the queue of the given kind 
+	 * sent by the given remote XBee device. This method must be called 
+	 * holding the queue lock.
+	 * 
+	 * @param kind Kind of packet to look for: {@code ANY_PACKET}, 
+	 *             {@code DATA_PACKET} or {@code EXPLICIT_DATA_PACKET}.
+	 * @param remoteXBeeDevice The remote XBee device that sent the packet, 
+	 *                         {@code null} to accept packets from any source.
+	 * 
+	 * @return The first packet of the queue that matches, {@code null} if 
+	 *         there is not any.
+	 */
+	private XBeePacket removeFirstPacket(int kind, RemoteXBeeDevice remoteXBeeDevice) {
+		PacketEntry entry = null;
+		if (remoteXBeeDevice == null) {
+			for (PacketEntry candidate : packetsList) {
+				if (matchesKind(candidate.packet, kind)) {
+					entry = candidate;
+					break;
+				}
+			}
+		} else {
+			// Look only at the packets sent by the remote device, the oldest 
+			// one of both indexes is the first one in arrival order.
+			PacketEntry entry64 = findFirst(packetsBy64BitAddr.get(remoteXBeeDevice.get64BitAddress()), kind, remoteXBeeDevice);
+			PacketEntry entry16 = findFirst(packetsBy16BitAddr.get(remoteXBeeDevice.get16BitAddress()), kind, remoteXBeeDevice);
+			if (entry64 == null || (entry16 != null && entry16.sequence < entry64.sequence))
+				entry = entry16;
+			else
+				entry = entry64;
+		}
+		if (entry == null)
+			return null;
+		removePacket(entry);
+		// Wake up the producer waiting for room.
+		if (overflowPolicy == QueueOverflowPolicy.BLOCK)
+			lock.notifyAll();
+		return entry.packet;
+	}
+	
+	/**
+	 * Returns the first entry of the given index of the given kind sent by 
+	 * the given remote XBee device.
+	 * 
+	 * @param entries Entries of an address index, {@code null} if there are 
+	 *                no packets with that address.
+	 * @param kind Kind of packet to look for.
+	 * @param remoteXBeeDevice The remote XBee device that sent the packet.
+	 * 
+	 * @return The first entry that matches, {@code null} if there is not any.
+	 */
+	private PacketEntry findFirst(ArrayDeque<PacketEntry> entries, int kind, RemoteXBeeDevice remoteXBeeDevice) {
+		if (entries == null)
+			return null;
+		for (PacketEntry entry : entries) {
+			if (matchesKind(entry.packet, kind) && addressesMatch(entry.packet, remoteXBeeDevice))
+				return entry;
+		}
+		return null;
+	}
+	
+	/**
+	 * Returns whether or not the given XBee packet is of the given kind.
+	 * 
+	 * @param xbeePacket The XBee packet to check.
+	 * @param kind Kind of packet: {@code ANY_PACKET}, {@code DATA_PACKET} or 
+	 *             {@code EXPLICIT_DATA_PACKET}.
+	 * 
+	 * @return {@code true} if the packet is of the given kind, {@code false} 
+	 *         otherwise.
+	 */
+	private boolean matchesKind(XBeePacket xbeePacket, int kind) {
+		switch (kind) {
+		case DATA_PACKET:
+			return isDataPacket(xbeePacket);
+		case EXPLICIT_DATA_PACKET:
+			return isExplicitDataPacket(xbeePacket);
+		case ANY_PACKET:
+		default:
+			return true;
+		}
+	}
+	
+	/**
+	 * Waits up to the block timeout until a reader removes a packet from the 
+	 * full queue. This method must be called holding the queue lock.
+	 */
+	private void waitForRoom() {
+		long deadLine = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(blockTimeout);
+		long remaining = deadLine - System.nanoTime();
+		while (packetsList.size() >= maxLength && remaining > 0) {
+			try {
+				TimeUnit.NANOSECONDS.timedWait(lock, remaining);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return;
+			}
+			remaining = deadLine - System.nanoTime();
+		}
+	}
+	
+	/**
+	 * Removes the given entry from the queue and from the address indexes. 
+	 * This method must be called holding the queue lock.
+	 * 
+	 * @param entry The entry to remove.
+	 */
+	private void removePacket(PacketEntry entry) {
+		packetsList.remove(entry);
+		if (entry.address64 != null)
+			unindex(packetsBy64BitAddr, entry.address64, entry);
+		if (entry.address16 != null)
+			unindex(packetsBy16BitAddr, entry.address16, entry);
+	}
+	
+	/**
+	 * Adds the given entry to the given address index.
 	 * 
-	 * @param milliseconds The number of milliseconds that the thread should 
-	 *        be sleeping.
+	 * @param addressIndex The address index.
+	 * @param address The source address of the entry.
+	 * @param entry The entry to add.
 	 */
-	private void sleep(int milliseconds) {
-		try {
-			Thread.sleep(milliseconds);
-		} catch (InterruptedException e) { }
+	private static <A> void index(HashMap<A, ArrayDeque<PacketEntry>> addressIndex, A address, PacketEntry entry) {
+		ArrayDeque<PacketEntry> entries = addressIndex.get(address);
+		if (entries == null) {
+			entries = new ArrayDeque<PacketEntry>();
+			addressIndex.put(address, entries);
+		}
+		entries.add(entry);
+	}
+	
+	/**
+	 * Removes the given entry from the given address index.
+	 * 
+	 * <p>Packets are usually read in arrival order, so the entry is normally 
+	 * the first one of its address.</p>
+	 * 
+	 * @param addressIndex The address index.
+	 * @param address The source address of the entry.
+	 * @param entry The entry to remove.
+	 */
+	private static <A> void unindex(HashMap<A, ArrayDeque<PacketEntry>> addressIndex, A address, PacketEntry entry) {
+		ArrayDeque<PacketEntry> entries = addressIndex.get(address);
+		if (entries == null)
+			return;
+		entries.removeFirstOccurrence(entry);
+		if (entries.isEmpty())
+			addressIndex.remove(address);
 	}
 	
 	/**
@@ -456,6 +672,130 @@ public class XBeePacketsQueue {
 		return maxLength;
 	}
 	
+	/**
+	 * Sets the maximum size of the XBee packets queue. If the queue holds 
+	 * more packets than the new size, the oldest ones are discarded.
+	 * 
+	 * @param maxSize The maximum size of the XBee packets queue.
+	 * 
+	 * @throws IllegalArgumentException if {@code maxSize < 1}.
+	 * 
+	 * @see #getMaxSize()
+	 */
+	public void setMaxSize(int maxSize) {
+		if (maxSize < 1)
+			throw new IllegalArgumentException("Queue length must be greater than 0.");
+		
+		synchronized (lock) {
+			this.maxLength = maxSize;
+			while (packetsList.size() > maxLength) {
+				removePacket(packetsList.iterator().next());
+				droppedCount++;
+			}
+			lock.notifyAll();
+		}
+	}
+	
+	/**
+	 * Returns the policy applied when a packet is added and the queue is 
+	 * full.
+	 * 
+	 * @return The overflow policy.
+	 * 
+	 * @see #setOverflowPolicy(QueueOverflowPolicy)
+	 * @see QueueOverflowPolicy
+	 */
+	public QueueOverflowPolicy getOverflowPolicy() {
+		return overflowPolicy;
+	}
+	
+	/**
+	 * Sets the policy applied when a packet is added and the queue is full.
+	 * 
+	 * @param overflowPolicy The overflow policy.
+	 * 
+	 * @throws NullPointerException if {@code overflowPolicy == null}.
+	 * 
+	 * @see #getOverflowPolicy()
+	 * @see QueueOverflowPolicy
+	 */
+	public void setOverflowPolicy(QueueOverflowPolicy overflowPolicy) {
+		if (overflowPolicy == null)
+			throw new NullPointerException("Overflow policy cannot be null.");
+		
+		synchronized (lock) {
+			this.overflowPolicy = overflowPolicy;
+			lock.notifyAll();
+		}
+	}
+	
+	/**
+	 * Returns the maximum time to wait for room in the queue with the 
+	 * {@link QueueOverflowPolicy#BLOCK} policy.
+	 * 
+	 * @return The block timeout in milliseconds.
+	 * 
+	 * @see #setBlockTimeout(int)
+	 */
+	public int getBlockTimeout() {
+		return blockTimeout;
+	}
+	
+	/**
+	 * Sets the maximum time to wait for room in the queue with the 
+	 * {@link QueueOverflowPolicy#BLOCK} policy. Once elapsed, the oldest 
+	 * packet is discarded.
+	 * 
+	 * @param blockTimeout The block timeout in milliseconds.
+	 * 
+	 * @throws IllegalArgumentException if {@code blockTimeout < 0}.
+	 * 
+	 * @see #getBlockTimeout()
+	 */
+	public void setBlockTimeout(int blockTimeout) {
+		if (blockTimeout < 0)
+			throw new IllegalArgumentException("Block timeout cannot be less than 0.");
+		
+		synchronized (lock) {
+			this.blockTimeout = blockTimeout;
+		}
+	}
+	
+	/**
+	 * Returns the number of packets discarded because the queue was full.
+	 * 
+	 * @return The number of dropped packets.
+	 */
+	public long getDroppedCount() {
+		synchronized (lock) {
+			return droppedCount;
+		}
+	}
+	
+	/**
+	 * Returns the number of times a packet had to wait for room in the queue 
+	 * with the {@link QueueOverflowPolicy#BLOCK} policy.
+	 * 
+	 * @return The number of blocked additions.
+	 */
+	public long getBlockedCount() {
+		synchronized (lock) {
+			return blockedCount;
+		}
+	}
+	
+	/**
+	 * Returns the maximum number of packets the queue has held at the same 
+	 * time.
+	 * 
+	 * @return The high-water mark of the queue.
+	 */
+	public int getHighWaterMark() {
+		synchronized (lock) {
+			return highWaterMark;
+		}
+	}
+	
 	/**
 	 * Returns the current size of the XBee packets queue.
 	 * 
@@ -466,4 +806,66 @@ public class XBeePacketsQueue {
 			return packetsList.size();
 		}
 	}
+	
+	/**
+	 * Helper class that holds a packet of the queue together with its 
+	 * arrival order and its source addresses.
+	 */
+	private static class PacketEntry {
+		
+		// Variables.
+		private final XBeePacket packet;
+		private final long sequence;
+		private final XBee64BitAddress address64;
+		private final XBee16BitAddress address16;
+		
+		/**
+		 * Class constructor. Instantiates a new {@code PacketEntry} for the 
+		 * given packet.
+		 * 
+		 * @param packet The XBee packet.
+		 * @param sequence The arrival order of the packet.
+		 */
+		PacketEntry(XBeePacket packet, long sequence) {
+			this.packet = packet;
+			this.sequence = sequence;
+			
+			XBee64BitAddress address64 = null;
+			XBee16BitAddress address16 = null;
+			if (packet instanceof XBeeAPIPacket) {
+				APIFrameType packetType = ((XBeeAPIPacket)packet).getFrameType();
+				if (packetType != null) {
+					switch (packetType) {
+					case RECEIVE_PACKET:
+						address64 = ((ReceivePacket)packet).get64bitSourceAddress();
+						address16 = ((ReceivePacket)packet).get16bitSourceAddress();
+						break;
+					case REMOTE_AT_COMMAND_RESPONSE:
+						address64 = ((RemoteATCommandResponsePacket)packet).get64bitSourceAddress();
+						address16 = ((RemoteATCommandResponsePacket)packet).get16bitSourceAddress();
+						break;
+					case RX_16:
+						address16 = ((RX16Packet)packet).get16bitSourceAddress();
+						break;
+					case RX_64:
+						address64 = ((RX64Packet)packet).get64bitSourceAddress();
+						break;
+					case RX_IO_16:
+						address16 = ((RX16IOPacket)packet).get16bitSourceAddress();
+						break;
+					case RX_IO_64:
+						address64 = ((RX64IOPacket)packet).get64bitSourceAddress();
+						break;
+					case EXPLICIT_RX_INDICATOR:
+						address64 = ((ExplicitRxIndicatorPacket)packet).get64BitSourceAddress();
+						break;
+					default:
+						break;
+					}
+				}
+			}
+			this.address64 = address64;
+			this.address16 = address16;
+		}
+	}
 }
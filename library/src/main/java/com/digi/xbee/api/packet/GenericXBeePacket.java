@@ -118,6 +118,7 @@ public class GenericXBeePacket extends XBeeAPIPacket {
 			this.rfData = null;
 		else
 			this.rfData = Arrays.copyOf(rfData, rfData.length);
+		invalidateSerializedData();
 	}
 	
 	/**
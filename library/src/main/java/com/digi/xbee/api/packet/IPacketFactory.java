@@ -0,0 +1,43 @@
+/**
+ * Copyright (c) 2014-2016 Digi International Inc.,
+ * All rights not expressly granted are reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * Digi International Inc. 11001 Bren Road East, Minnetonka, MN 55343
+ * =======================================================================
+ */
+package com.digi.xbee.api.packet;
+
+import com.digi.xbee.api.exceptions.InvalidPacketException;
+
+/**
+ * This interface defines the required methods that an object should implement
+ * to create the XBee packets of a frame type from their payload.
+ *
+ * <p>Factories are registered in the {@link XBeePacketParser} with
+ * {@link XBeePacketParser#registerPacketFactory(int, IPacketFactory)} to
+ * parse frame types that are not supported by the library.</p>
+ *
+ * @see XBeePacketParser
+ */
+public interface IPacketFactory {
+
+	/**
+	 * Creates a new XBee packet from the given payload.
+	 *
+	 * @param payload The API frame payload. It must start with the frame type
+	 *                and must not include the start delimiter, length or
+	 *                checksum.
+	 *
+	 * @return The parsed XBee packet.
+	 *
+	 * @throws InvalidPacketException if the payload is not valid for the
+	 *                                frame type.
+	 *
+	 * @see XBeePacket
+	 */
+	public XBeePacket createPacket(byte[] payload) throws InvalidPacketException;
+}
@@ -119,6 +119,7 @@ public class UnknownXBeePacket extends XBeeAPIPacket {
 			this.rfData = null;
 		else
 			this.rfData = Arrays.copyOf(rfData, rfData.length);
+		invalidateSerializedData();
 	}
 	
 	/**
@@ -172,6 +172,61 @@ public abstract class XBeeAPIPacket extends XBeePacket {
 	 */
 	protected abstract byte[] getAPIPacketSpecificData();
 	
+	/*
+	 * (non-Javadoc)
+	 * @see com.digi.xbee.api.packet.XBeePacket#getPacketDataLength()
+	 */
+	@Override
+	protected int getPacketDataLength() {
+		return 1 + (needsAPIFrameID() ? 1 : 0) + getAPIPacketSpecificDataLength();
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * @see com.digi.xbee.api.packet.XBeePacket#writePacketData(com.digi.xbee.api.packet.XBeeFrameWriter)
+	 */
+	@Override
+	protected void writePacketData(XBeeFrameWriter writer) {
+		writer.writeByte(frameTypeValue);
+		if (needsAPIFrameID())
+			writer.writeByte(frameID);
+		writeAPIPacketSpecificData(writer);
+	}
+	
+	/**
+	 * Returns the length of the XBee API packet specific data.
+	 * 
+	 * <p>Derived classes that override 
+	 * {@link #writeAPIPacketSpecificData(XBeeFrameWriter)} should override 
+	 * this method to compute the length without generating the data.</p>
+	 * 
+	 * @return The length of the XBee API packet specific data.
+	 * 
+	 * @see #writeAPIPacketSpecificData(XBeeFrameWriter)
+	 */
+	protected int getAPIPacketSpecificDataLength() {
+		byte[] apiData = getAPIPacketSpecificData();
+		if (apiData == null)
+			return 0;
+		return apiData.length;
+	}
+	
+	/**
+	 * Writes the XBee API packet specific data to the given frame writer.
+	 * 
+	 * <p>This does not include the frame ID if it is needed. Derived classes 
+	 * can override this method to write their fields directly instead of 
+	 * generating the data array.</p>
+	 * 
+	 * @param writer The frame writer.
+	 * 
+	 * @see #getAPIPacketSpecificDataLength()
+	 * @see XBeeFrameWriter
+	 */
+	protected void writeAPIPacketSpecificData(XBeeFrameWriter writer) {
+		writer.writeBytes(getAPIPacketSpecificData());
+	}
+	
 	/**
 	 * Returns whether the API packet needs API Frame ID or not.
 	 * 
@@ -216,8 +271,10 @@ public abstract class XBeeAPIPacket extends XBeePacket {
 		if (frameID < 0 || frameID > 255)
 			throw new IllegalArgumentException("Frame ID must be between 0 and 255.");
 		
-		if (needsAPIFrameID())
+		if (needsAPIFrameID()) {
 			this.frameID = frameID;
+			invalidateSerializedData();
+		}
 	}
 	
 	/**
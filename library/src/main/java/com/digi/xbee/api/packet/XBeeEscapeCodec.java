@@ -0,0 +1,252 @@
+/**
+ * Copyright (c) 2014-2016 Digi International Inc.,
+ * All rights not expressly granted are reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * Digi International Inc. 11001 Bren Road East, Minnetonka, MN 55343
+ * =======================================================================
+ */
+package com.digi.xbee.api.packet;
+
+import com.digi.xbee.api.exceptions.InvalidPacketException;
+import com.digi.xbee.api.models.SpecialByte;
+import com.digi.xbee.api.utils.HexUtils;
+
+/**
+ * This class escapes and unescapes the special bytes of the frames exchanged
+ * in API escaped mode ({@link com.digi.xbee.api.models.OperatingMode#API_ESCAPE}).
+ *
+ * <p>A special byte is escaped by inserting the {@link SpecialByte#ESCAPE_BYTE}
+ * followed by the byte XOR'd with {@code 0x20}. The special bytes are looked
+ * up in a table indexed by byte value, and runs of bytes that do not need
+ * escaping are copied at once, so each range is processed in a single
+ * pass.</p>
+ *
+ * <p>The methods work on byte ranges and never include the start delimiter:
+ * callers write it unescaped before the escaped data.</p>
+ *
+ * @see SpecialByte
+ * @see com.digi.xbee.api.models.OperatingMode#API_ESCAPE
+ */
+public class XBeeEscapeCodec {
+
+	// Constants.
+	private static final int ESCAPE_XOR = 0x20;
+
+	private static final boolean[] SPECIAL_BYTES = new boolean[256];
+
+	static {
+		for (SpecialByte specialByte : SpecialByte.values())
+			SPECIAL_BYTES[specialByte.getValue()] = true;
+	}
+
+	/**
+	 * Returns whether the given byte must be escaped in API escaped mode.
+	 *
+	 * @param b The byte to check. Only its lowest 8 bits are considered.
+	 *
+	 * @return {@code true} if the byte is special, {@code false} otherwise.
+	 *
+	 * @see SpecialByte
+	 */
+	public static boolean isSpecialByte(int b) {
+		return SPECIAL_BYTES[b & 0xFF];
+	}
+
+	/**
+	 * Returns the number of bytes the given range occupies once escaped.
+	 *
+	 * @param data Byte array containing the data.
+	 * @param offset Position of the first byte of the range.
+	 * @param length Number of bytes of the range.
+	 *
+	 * @return The escaped length of the range.
+	 *
+	 * @throws IndexOutOfBoundsException if the range is not within the array.
+	 * @throws NullPointerException if {@code data == null}.
+	 */
+	public static int getEscapedLength(byte[] data, int offset, int length) {
+		checkRange(data, offset, length);
+
+		int escapedLength = length;
+		for (int i = offset; i < offset + length; i++) {
+			if (SPECIAL_BYTES[data[i] & 0xFF])
+				escapedLength++;
+		}
+		return escapedLength;
+	}
+
+	/**
+	 * Escapes the given range into the destination array.
+	 *
+	 * @param src Byte array containing the data to escape.
+	 * @param srcOffset Position of the first byte to escape.
+	 * @param length Number of bytes to escape.
+	 * @param dest Byte array to write the escaped data to.
+	 * @param destOffset Position of the destination array to start writing at.
+	 *
+	 * @return The number of bytes written to the destination array.
+	 *
+	 * @throws IndexOutOfBoundsException if the range is not within the source
+	 *                                   array or if the escaped data does not
+	 *                                   fit in the destination array.
+	 * @throws NullPointerException if {@code src == null} or
+	 *                              if {@code dest == null}.
+	 *
+	 * @see #getEscapedLength(byte[], int, int)
+	 * @see #unescape(byte[], int, int, byte[], int)
+	 */
+	public static int escape(byte[] src, int srcOffset, int length, byte[] dest, int destOffset) {
+		checkRange(src, srcOffset, length);
+		if (dest == null)
+			throw new NullPointerException("Destination cannot be null.");
+
+		int end = srcOffset + length;
+		int i = srcOffset;
+		int j = destOffset;
+		while (i < end) {
+			// Copy the run of bytes that do not need escaping at once.
+			int runStart = i;
+			while (i < end && !SPECIAL_BYTES[src[i] & 0xFF])
+				i++;
+			int runLength = i - runStart;
+			if (runLength > 0) {
+				System.arraycopy(src, runStart, dest, j, runLength);
+				j += runLength;
+			}
+			if (i < end) {
+				if (j + 2 > dest.length)
+					throw new IndexOutOfBoundsException("Destination is too small for the escaped data.");
+				dest[j++] = (byte)SpecialByte.ESCAPE_BYTE.getValue();
+				dest[j++] = (byte)(src[i++] ^ ESCAPE_XOR);
+			}
+		}
+		return j - destOffset;
+	}
+
+	/**
+	 * Returns a new array with the given range escaped.
+	 *
+	 * @param data Byte array containing the data to escape.
+	 * @param offset Position of the first byte to escape.
+	 * @param length Number of bytes to escape.
+	 *
+	 * @return The escaped data.
+	 *
+	 * @throws IndexOutOfBoundsException if the range is not within the array.
+	 * @throws NullPointerException if {@code data == null}.
+	 *
+	 * @see #escape(byte[], int, int, byte[], int)
+	 */
+	public static byte[] escape(byte[] data, int offset, int length) {
+		byte[] escaped = new byte[getEscapedLength(data, offset, length)];
+		escape(data, offset, length, escaped, 0);
+		return escaped;
+	}
+
+	/**
+	 * Unescapes the given range into the destination array. The destination
+	 * may be the source array itself, as the unescaped data is never longer
+	 * than the escaped one.
+	 *
+	 * @param src Byte array containing the escaped data.
+	 * @param srcOffset Position of the first byte to unescape.
+	 * @param length Number of bytes to unescape.
+	 * @param dest Byte array to write the unescaped data to.
+	 * @param destOffset Position of the destination array to start writing at.
+	 *
+	 * @return The number of bytes written to the destination array.
+	 *
+	 * @throws IndexOutOfBoundsException if the range is not within the source
+	 *                                   array or if the unescaped data does
+	 *                                   not fit in the destination array.
+	 * @throws InvalidPacketException if the range contains a special byte
+	 *                                that is not escaped or
+	 *                                if it ends with an escape byte.
+	 * @throws NullPointerException if {@code src == null} or
+	 *                              if {@code dest == null}.
+	 *
+	 * @see #escape(byte[], int, int, byte[], int)
+	 */
+	public static int unescape(byte[] src, int srcOffset, int length, byte[] dest, int destOffset)
+			throws InvalidPacketException {
+		checkRange(src, srcOffset, length);
+		if (dest == null)
+			throw new NullPointerException("Destination cannot be null.");
+
+		int end = srcOffset + length;
+		int i = srcOffset;
+		int j = destOffset;
+		while (i < end) {
+			// Copy the run of bytes that are not escaped at once.
+			int runStart = i;
+			while (i < end && !SPECIAL_BYTES[src[i] & 0xFF])
+				i++;
+			int runLength = i - runStart;
+			if (runLength > 0) {
+				if (src != dest || runStart != j)
+					System.arraycopy(src, runStart, dest, j, runLength);
+				j += runLength;
+			}
+			if (i < end) {
+				int b = src[i++] & 0xFF;
+				if (b != SpecialByte.ESCAPE_BYTE.getValue())
+					throw new InvalidPacketException("Special byte not escaped: 0x"
+							+ HexUtils.byteToHexString((byte)b) + ".");
+				if (i == end)
+					throw new InvalidPacketException("Error parsing packet: Incomplete packet.");
+				if (j >= dest.length)
+					throw new IndexOutOfBoundsException("Destination is too small for the unescaped data.");
+				dest[j++] = (byte)(src[i++] ^ ESCAPE_XOR);
+			}
+		}
+		return j - destOffset;
+	}
+
+	/**
+	 * Returns a new array with the given range unescaped.
+	 *
+	 * @param data Byte array containing the escaped data.
+	 * @param offset Position of the first byte to unescape.
+	 * @param length Number of bytes to unescape.
+	 *
+	 * @return The unescaped data.
+	 *
+	 * @throws IndexOutOfBoundsException if the range is not within the array.
+	 * @throws InvalidPacketException if the range contains a special byte
+	 *                                that is not escaped or
+	 *                                if it ends with an escape byte.
+	 * @throws NullPointerException if {@code data == null}.
+	 *
+	 * @see #unescape(byte[], int, int, byte[], int)
+	 */
+	public static byte[] unescape(byte[] data, int offset, int length) throws InvalidPacketException {
+		byte[] unescaped = new byte[length];
+		int unescapedLength = unescape(data, offset, length, unescaped, 0);
+		if (unescapedLength == length)
+			return unescaped;
+		byte[] result = new byte[unescapedLength];
+		System.arraycopy(unescaped, 0, result, 0, unescapedLength);
+		return result;
+	}
+
+	/**
+	 * Verifies that the given range is within the array.
+	 *
+	 * @param data Byte array.
+	 * @param offset Position of the first byte of the range.
+	 * @param length Number of bytes of the range.
+	 *
+	 * @throws IndexOutOfBoundsException if the range is not within the array.
+	 * @throws NullPointerException if {@code data == null}.
+	 */
+	private static void checkRange(byte[] data, int offset, int length) {
+		if (data == null)
+			throw new NullPointerException("Data cannot be null.");
+		if (offset < 0 || length < 0 || offset + length > data.length)
+			throw new IndexOutOfBoundsException("Offset and length must be within the data.");
+	}
+}
@@ -0,0 +1,220 @@
+/**
+ * Copyright (c) 2014-2016 Digi International Inc.,
+ * All rights not expressly granted are reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * Digi International Inc. 11001 Bren Road East, Minnetonka, MN 55343
+ * =======================================================================
+ */
+package com.digi.xbee.api.packet;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+
+import com.digi.xbee.api.models.OperatingMode;
+import com.digi.xbee.api.models.SpecialByte;
+import com.digi.xbee.api.models.XBee16BitAddress;
+import com.digi.xbee.api.models.XBee64BitAddress;
+
+/**
+ * This class serializes XBee packets straight into a {@code ByteBuffer}.
+ *
+ * <p>The frame data is escaped (in {@link OperatingMode#API_ESCAPE} mode) and
+ * the checksum is computed in the same pass that writes it, without
+ * building intermediate byte arrays. A writer can be reused for any number
+ * of packets, so sending packets through a writer and a pooled buffer does
+ * not generate garbage for the packet types that write their fields
+ * directly.</p>
+ *
+ * <p>This class is not thread-safe, every sending thread must use its own
+ * writer.</p>
+ *
+ * @see XBeePacket#writeTo(ByteBuffer, OperatingMode)
+ */
+public class XBeeFrameWriter {
+
+	// Variables.
+	private OperatingMode mode;
+
+	private ByteBuffer buffer;
+
+	private int checksum;
+
+	/**
+	 * Class constructor. Instantiates a new {@code XBeeFrameWriter} for the
+	 * given operating mode.
+	 *
+	 * @param mode XBee device operating mode.
+	 *
+	 * @throws IllegalArgumentException if {@code mode != OperatingMode.API } and
+	 *                              if {@code mode != OperatingMode.API_ESCAPE}.
+	 * @throws NullPointerException if {@code mode == null}.
+	 *
+	 * @see com.digi.xbee.api.models.OperatingMode
+	 */
+	public XBeeFrameWriter(OperatingMode mode) {
+		setOperatingMode(mode);
+	}
+
+	/**
+	 * Returns the operating mode used to write the frames.
+	 *
+	 * @return The XBee device operating mode.
+	 *
+	 * @see #setOperatingMode(OperatingMode)
+	 */
+	public OperatingMode getOperatingMode() {
+		return mode;
+	}
+
+	/**
+	 * Sets the operating mode used to write the frames.
+	 *
+	 * @param mode XBee device operating mode.
+	 *
+	 * @throws IllegalArgumentException if {@code mode != OperatingMode.API } and
+	 *                              if {@code mode != OperatingMode.API_ESCAPE}.
+	 * @throws NullPointerException if {@code mode == null}.
+	 *
+	 * @see #getOperatingMode()
+	 */
+	public void setOperatingMode(OperatingMode mode) {
+		if (mode == null)
+			throw new NullPointerException("Operating mode cannot be null.");
+		if (mode != OperatingMode.API && mode != OperatingMode.API_ESCAPE)
+			throw new IllegalArgumentException("Operating mode must be API or API Escaped.");
+
+		this.mode = mode;
+	}
+
+	/**
+	 * Writes the complete frame of the given packet (start delimiter,
+	 * length, frame data and checksum) at the current position of the given
+	 * buffer.
+	 *
+	 * <p>If the frame does not fit in the remaining space of the buffer, the
+	 * position of the buffer is restored and a
+	 * {@code BufferOverflowException} is thrown.</p>
+	 *
+	 * @param packet The XBee packet to write.
+	 * @param buffer Buffer to write the frame to.
+	 *
+	 * @return The number of bytes written.
+	 *
+	 * @throws BufferOverflowException if the frame does not fit in the
+	 *                                 buffer.
+	 * @throws NullPointerException if {@code packet == null} or
+	 *                              if {@code buffer == null}.
+	 *
+	 * @see XBeePacket#writeTo(ByteBuffer, OperatingMode)
+	 */
+	public int write(XBeePacket packet, ByteBuffer buffer) {
+		if (packet == null)
+			throw new NullPointerException("Packet cannot be null.");
+		if (buffer == null)
+			throw new NullPointerException("Buffer cannot be null.");
+
+		int start = buffer.position();
+		this.buffer = buffer;
+		try {
+			buffer.put((byte)SpecialByte.HEADER_BYTE.getValue());
+			int length = packet.getPacketDataLength();
+			writeEscaped(length >> 8);
+			writeEscaped(length);
+			checksum = 0;
+			packet.writePacketData(this);
+			writeEscaped(0xFF - (checksum & 0xFF));
+		} catch (BufferOverflowException e) {
+			buffer.position(start);
+			throw e;
+		} finally {
+			this.buffer = null;
+		}
+		return buffer.position() - start;
+	}
+
+	/**
+	 * Writes the given byte of frame data.
+	 *
+	 * @param b The byte to write, only the 8 lowest bits are written.
+	 */
+	public void writeByte(int b) {
+		checksum += b & 0xFF;
+		writeEscaped(b);
+	}
+
+	/**
+	 * Writes the given bytes of frame data.
+	 *
+	 * @param data The bytes to write, {@code null} to write nothing.
+	 */
+	public void writeBytes(byte[] data) {
+		if (data == null)
+			return;
+		for (int i = 0; i < data.length; i++)
+			writeByte(data[i]);
+	}
+
+	/**
+	 * Writes the given 16-bit value of frame data, most significant byte
+	 * first.
+	 *
+	 * @param value The value to write.
+	 */
+	public void writeShort(int value) {
+		writeByte(value >> 8);
+		writeByte(value);
+	}
+
+	/**
+	 * Writes the given 16-bit address.
+	 *
+	 * @param address The 16-bit address to write.
+	 *
+	 * @see com.digi.xbee.api.models.XBee16BitAddress
+	 */
+	public void writeAddress(XBee16BitAddress address) {
+		writeByte(address.getHsb());
+		writeByte(address.getLsb());
+	}
+
+	/**
+	 * Writes the given 64-bit address.
+	 *
+	 * @param address The 64-bit address to write.
+	 *
+	 * @see com.digi.xbee.api.models.XBee64BitAddress
+	 */
+	public void writeAddress(XBee64BitAddress address) {
+		long value = address.getLongValue();
+		for (int shift = 56; shift >= 0; shift -= 8)
+			writeByte((int)(value >>> shift));
+	}
+
+	/**
+	 * Writes the characters of the given ASCII string, such as an AT command.
+	 *
+	 * @param value The string to write.
+	 */
+	public void writeASCII(String value) {
+		for (int i = 0; i < value.length(); i++)
+			writeByte(value.charAt(i));
+	}
+
+	/**
+	 * Puts the given byte in the buffer, escaping it if needed.
+	 *
+	 * @param b The byte to put.
+	 */
+	private void writeEscaped(int b) {
+		b &= 0xFF;
+		if (mode == OperatingMode.API_ESCAPE && XBeeEscapeCodec.isSpecialByte(b)) {
+			buffer.put((byte)SpecialByte.ESCAPE_BYTE.getValue());
+			buffer.put((byte)(b ^ 0x20));
+		} else
+			buffer.put((byte)b);
+	}
+}
@@ -13,8 +13,10 @@ package com.digi.xbee.api.packet;
 
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
 import java.util.Arrays;
 import java.util.LinkedHashMap;
+import java.util.Map;
 
 import com.digi.xbee.api.exceptions.InvalidPacketException;
 import com.digi.xbee.api.models.SpecialByte;
@@ -30,19 +32,24 @@ import com.digi.xbee.api.utils.HexUtils;
  * 
  * <p>Generic actions like checksum compute or packet length calculation is 
  * performed here.</p>
+ * 
+ * <p>The serialized frame, its checksum and its hash code are computed once 
+ * and cached until the packet is modified. Derived classes must call 
+ * {@link #invalidateSerializedData()} from every method that modifies the 
+ * packet data. Modifying an array passed to a constructor or returned by a 
+ * getter does not invalidate the cached frame.</p>
  */
 public abstract class XBeePacket {
 
 	private static final int HASH_SEED = 23;
 	
 	// Variables.
-	private XBeeChecksum checksum;
+	private volatile SerializedPacket serializedPacket;
 	
 	/**
 	 * Class constructor. Instantiates a new {@code XBeePacket} object.
 	 */
 	protected XBeePacket() {
-		checksum = new XBeeChecksum();
 	}
 
 	/**
@@ -56,7 +63,21 @@ public abstract class XBeePacket {
 	 * @see #generateByteArrayEscaped()
 	 */
 	public byte[] generateByteArray() {
-		checksum.reset();
+		byte[] data = getSerializedPacket().data;
+		return Arrays.copyOf(data, data.length);
+	}
+	
+	/**
+	 * Builds the XBee packet byte array from the packet data.
+	 * 
+	 * @return The XBee packet byte array.
+	 * 
+	 * @see #getSerializedPacket()
+	 */
+	private byte[] buildByteArray() {
+		// Use a local checksum, several threads may serialize the packet at 
+		// the same time.
+		XBeeChecksum checksum = new XBeeChecksum();
 		byte[] packetData = getPacketData();
 		ByteArrayOutputStream os = new ByteArrayOutputStream();
 		os.write(SpecialByte.HEADER_BYTE.getValue());
@@ -89,28 +110,81 @@ public abstract class XBeePacket {
 	 * @see #generateByteArray()
 	 */
 	public byte[] generateByteArrayEscaped() {
-		byte[] unescapedArray = generateByteArray();
-		ByteArrayOutputStream os = new ByteArrayOutputStream();
-		// Write header byte and do not escape it.
-		os.write(SpecialByte.HEADER_BYTE.getValue());
-		for (int i = 1; i < unescapedArray.length; i++) {
-			// Start at 1 to avoid escaping header byte.
-			if (SpecialByte.isSpecialByte(unescapedArray[i])) {
-				os.write(SpecialByte.ESCAPE_BYTE.getValue());
-				SpecialByte specialByte = SpecialByte.get(unescapedArray[i]);
-				os.write(specialByte.escapeByte());
-			} else
-				os.write(unescapedArray[i]);
-		}
-		return os.toByteArray();
+		byte[] unescapedArray = getSerializedPacket().data;
+		// Start at 1 to avoid escaping header byte.
+		byte[] escapedArray = new byte[1 + XBeeEscapeCodec.getEscapedLength(unescapedArray, 1, unescapedArray.length - 1)];
+		escapedArray[0] = (byte)SpecialByte.HEADER_BYTE.getValue();
+		XBeeEscapeCodec.escape(unescapedArray, 1, unescapedArray.length - 1, escapedArray, 1);
+		return escapedArray;
 	}
 
+	/**
+	 * Writes the XBee packet frame at the current position of the given 
+	 * buffer, escaping the special bytes if the operating mode is 
+	 * {@link OperatingMode#API_ESCAPE}.
+	 * 
+	 * <p>The frame is escaped and its checksum is computed in a single pass 
+	 * without building intermediate arrays. To serialize many packets 
+	 * without generating garbage, reuse an {@link XBeeFrameWriter} instead 
+	 * of calling this method.</p>
+	 * 
+	 * @param buffer Buffer to write the frame to.
+	 * @param mode The operating mode to write the packet (API 1 or API 2).
+	 * 
+	 * @return The number of bytes written.
+	 * 
+	 * @throws java.nio.BufferOverflowException if the frame does not fit in 
+	 *                                          the buffer. The position of 
+	 *                                          the buffer is not modified.
+	 * @throws IllegalArgumentException if {@code mode != OperatingMode.API } and
+	 *                                  if {@code mode != OperatingMode.API_ESCAPE}.
+	 * @throws NullPointerException if {@code buffer == null} or 
+	 *                              if {@code mode == null}.
+	 * 
+	 * @see #generateByteArray()
+	 * @see #generateByteArrayEscaped()
+	 * @see XBeeFrameWriter
+	 */
+	public int writeTo(ByteBuffer buffer, OperatingMode mode) {
+		return new XBeeFrameWriter(mode).write(this, buffer);
+	}
+	
 	/**
 	 * Returns the packet data.
 	 * 
 	 * @return The packet data.
 	 */
 	public abstract byte[] getPacketData();
+	
+	/**
+	 * Returns the length of the packet data.
+	 * 
+	 * <p>Derived classes that override 
+	 * {@link #writePacketData(XBeeFrameWriter)} should override this method 
+	 * to compute the length without generating the packet data.</p>
+	 * 
+	 * @return The length of the packet data.
+	 * 
+	 * @see #writePacketData(XBeeFrameWriter)
+	 */
+	protected int getPacketDataLength() {
+		return getPacketLength();
+	}
+	
+	/**
+	 * Writes the packet data to the given frame writer.
+	 * 
+	 * <p>Derived classes can override this method to write their fields 
+	 * directly instead of generating the packet data array.</p>
+	 * 
+	 * @param writer The frame writer.
+	 * 
+	 * @see #getPacketDataLength()
+	 * @see XBeeFrameWriter
+	 */
+	protected void writePacketData(XBeeFrameWriter writer) {
+		writer.writeBytes(getPacketData());
+	}
 
 	/**
 	 * Returns the packet length.
@@ -118,10 +192,8 @@ public abstract class XBeePacket {
 	 * @return The packet length.
 	 */
 	public int getPacketLength() {
-		byte[] packetData = getPacketData();
-		if (packetData == null)
-			return 0;
-		return packetData.length;
+		// Start delimiter, length and checksum are not part of the packet data.
+		return getSerializedPacket().data.length - 4;
 	}
 	
 	/**
@@ -134,11 +206,36 @@ public abstract class XBeePacket {
 	 * @return The packet checksum.
 	 */
 	public int getChecksum() {
-		checksum.reset();
-		byte[] packetData = getPacketData();
-		if (packetData != null)
-			checksum.add(packetData);
-		return (byte)checksum.generate() & 0xFF;
+		byte[] data = getSerializedPacket().data;
+		return data[data.length - 1] & 0xFF;
+	}
+	
+	/**
+	 * Discards the cached serialized frame of this packet, so it is generated 
+	 * again the next time it is needed.
+	 * 
+	 * <p>Derived classes must call this method every time the packet data is 
+	 * modified, for example, when a new frame ID or RF data are set.</p>
+	 */
+	protected void invalidateSerializedData() {
+		serializedPacket = null;
+	}
+	
+	/**
+	 * Returns the serialized frame of this packet, generating it if it is not 
+	 * cached.
+	 * 
+	 * @return The serialized frame.
+	 * 
+	 * @see #invalidateSerializedData()
+	 */
+	private SerializedPacket getSerializedPacket() {
+		SerializedPacket serialized = serializedPacket;
+		if (serialized == null) {
+			serialized = new SerializedPacket(buildByteArray());
+			serializedPacket = serialized;
+		}
+		return serialized;
 	}
 	
 	/**
@@ -152,7 +249,7 @@ public abstract class XBeePacket {
 		parameters.put("Start delimiter", HexUtils.integerToHexString(SpecialByte.HEADER_BYTE.getValue(), 1));
 		parameters.put("Length", HexUtils.prettyHexString(HexUtils.integerToHexString(getPacketLength(), 2)) + " (" + getPacketLength() + ")");
 		parameters.putAll(getPacketParameters());
-		parameters.put("Checksum", toString().substring(toString().length() - 2));
+		parameters.put("Checksum", HexUtils.byteToHexString((byte)getChecksum()));
 		return parameters;
 	}
 	
@@ -172,9 +269,13 @@ public abstract class XBeePacket {
 	public boolean equals(Object obj) {
 		if (!(obj instanceof XBeePacket))
 			return false;
-		XBeePacket packet = (XBeePacket)obj;
+		if (obj == this)
+			return true;
+		SerializedPacket serialized = ((XBeePacket)obj).getSerializedPacket();
+		SerializedPacket ownSerialized = getSerializedPacket();
 		
-		return Arrays.equals(packet.generateByteArray(), generateByteArray());
+		return serialized.hash == ownSerialized.hash 
+				&& Arrays.equals(serialized.data, ownSerialized.data);
 	}
 	
 	/*
@@ -183,12 +284,7 @@ public abstract class XBeePacket {
 	 */
 	@Override
 	public int hashCode() {
-		int hash = HASH_SEED;
-		
-		byte [] array = generateByteArray();
-		for (byte b: array)
-			hash = 31 * (hash + b);
-		return hash;
+		return getSerializedPacket().hash;
 	}
 	
 	/*
@@ -197,7 +293,10 @@ public abstract class XBeePacket {
 	 */
 	@Override
 	public String toString() {
-		return HexUtils.byteArrayToHexString(generateByteArray());
+		SerializedPacket serialized = getSerializedPacket();
+		if (serialized.hexString == null)
+			serialized.hexString = HexUtils.byteArrayToHexString(serialized.data);
+		return serialized.hexString;
 	}
 	
 	/**
@@ -206,11 +305,11 @@ public abstract class XBeePacket {
 	 * @return Pretty String representing the packet.
 	 */
 	public String toPrettyString() {
-		String value = "Packet: " + toString() + "\n";
+		StringBuilder value = new StringBuilder("Packet: ").append(toString()).append("\n");
 		LinkedHashMap<String, String> parameters = getParameters();
-		for (String parameter:parameters.keySet())
-			value = value + parameter + ": " + parameters.get(parameter) + "\n";
-		return value;
+		for (Map.Entry<String, String> parameter:parameters.entrySet())
+			value.append(parameter.getKey()).append(": ").append(parameter.getValue()).append("\n");
+		return value.toString();
 	}
 	
 	/**
@@ -276,4 +375,33 @@ public abstract class XBeePacket {
 		XBeePacket xbeePacket = parser.parsePacket(new ByteArrayInputStream(packet, 1, packet.length - 1), mode);
 		return xbeePacket;
 	}
+	
+	/**
+	 * Helper class that holds the serialized frame of a packet together with 
+	 * the values derived from it.
+	 */
+	private static class SerializedPacket {
+		
+		// Variables.
+		private final byte[] data;
+		
+		private final int hash;
+		
+		private String hexString;
+		
+		/**
+		 * Class constructor. Instantiates a new {@code SerializedPacket} 
+		 * for the given frame.
+		 * 
+		 * @param data The serialized frame.
+		 */
+		private SerializedPacket(byte[] data) {
+			this.data = data;
+			
+			int hash = HASH_SEED;
+			for (byte b: data)
+				hash = 31 * (hash + b);
+			this.hash = hash;
+		}
+	}
 }
@@ -0,0 +1,437 @@
+/**
+ * Copyright (c) 2014-2016 Digi International Inc.,
+ * All rights not expressly granted are reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * Digi International Inc. 11001 Bren Road East, Minnetonka, MN 55343
+ * =======================================================================
+ */
+package com.digi.xbee.api.packet;
+
+import java.nio.ByteBuffer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.digi.xbee.api.exceptions.InvalidPacketException;
+import com.digi.xbee.api.listeners.IPacketReceiveListener;
+import com.digi.xbee.api.listeners.IPacketViewReceiveListener;
+import com.digi.xbee.api.models.OperatingMode;
+import com.digi.xbee.api.models.SpecialByte;
+import com.digi.xbee.api.utils.HexUtils;
+
+/**
+ * This class decodes XBee packets from chunks of bytes pushed to it.
+ *
+ * <p>Unlike {@link XBeePacketParser}, this decoder never blocks waiting for
+ * the rest of a frame: every call to {@link #decode(ByteBuffer)} consumes all
+ * the given bytes, keeps the state of the partially received frame and
+ * notifies each complete packet to the listener provided in the
+ * constructor. Chunks can be split at any position, even in the middle of an
+ * escape sequence, so a single thread can decode the data of many
+ * connections as it arrives.</p>
+ *
+ * <p>The decoder looks for the start delimiter ({@code 0x7E}), unescapes the
+ * bytes (in {@link OperatingMode#API_ESCAPE} mode) and verifies the checksum
+ * in a single pass. Invalid frames are discarded and the decoder looks for
+ * the next start delimiter. In {@code API_ESCAPE} mode, an unescaped start
+ * delimiter always starts a new frame.</p>
+ *
+ * <p>When the decoder is created with an {@link IPacketViewReceiveListener},
+ * frames are not parsed into packets. The frame data is accumulated in a
+ * buffer that is reused for every frame and notified through a reusable
+ * {@link XBeePacketView}, so decoding a frame does not create any object.</p>
+ *
+ * <p>This class is not thread-safe, every connection must use its own
+ * decoder.</p>
+ *
+ * @see XBeePacket
+ * @see XBeePacketParser
+ * @see XBeePacketView
+ * @see com.digi.xbee.api.listeners.IPacketReceiveListener
+ * @see com.digi.xbee.api.listeners.IPacketViewReceiveListener
+ */
+public class XBeePacketDecoder {
+
+	// Constants.
+	private static final int STATE_HEADER = 0;
+	private static final int STATE_LENGTH_MSB = 1;
+	private static final int STATE_LENGTH_LSB = 2;
+	private static final int STATE_FRAME_DATA = 3;
+	private static final int STATE_CHECKSUM = 4;
+
+	// Variables.
+	private final IPacketReceiveListener listener;
+	private final IPacketViewReceiveListener viewListener;
+
+	private final XBeePacketParser parser = new XBeePacketParser();
+
+	private OperatingMode mode;
+
+	private int state = STATE_HEADER;
+	private int length;
+	private int position;
+	private int checksum;
+
+	private boolean escaped = false;
+
+	private byte[] payload;
+
+	private XBeePacketView view;
+	private ByteBuffer viewBuffer;
+
+	private long packetCount = 0;
+	private long invalidFrameCount = 0;
+	private long discardedByteCount = 0;
+
+	private Logger logger;
+
+	/**
+	 * Class constructor. Instantiates a new {@code XBeePacketDecoder} for the
+	 * given operating mode that notifies the decoded packets to the given
+	 * listener.
+	 *
+	 * @param mode XBee device operating mode.
+	 * @param listener Listener to be notified when a packet is decoded.
+	 *
+	 * @throws IllegalArgumentException if {@code mode != OperatingMode.API } and
+	 *                              if {@code mode != OperatingMode.API_ESCAPE}.
+	 * @throws NullPointerException if {@code mode == null} or
+	 *                              if {@code listener == null}.
+	 *
+	 * @see com.digi.xbee.api.listeners.IPacketReceiveListener
+	 * @see com.digi.xbee.api.models.OperatingMode
+	 */
+	public XBeePacketDecoder(OperatingMode mode, IPacketReceiveListener listener) {
+		if (listener == null)
+			throw new NullPointerException("Listener cannot be null.");
+
+		setOperatingMode(mode);
+		this.listener = listener;
+		this.viewListener = null;
+		this.logger = LoggerFactory.getLogger(XBeePacketDecoder.class);
+	}
+
+	/**
+	 * Class constructor. Instantiates a new {@code XBeePacketDecoder} for the
+	 * given operating mode that notifies a read-only view of every decoded
+	 * frame to the given listener, without parsing it.
+	 *
+	 * @param mode XBee device operating mode.
+	 * @param listener Listener to be notified when a frame is decoded.
+	 *
+	 * @throws IllegalArgumentException if {@code mode != OperatingMode.API } and
+	 *                              if {@code mode != OperatingMode.API_ESCAPE}.
+	 * @throws NullPointerException if {@code mode == null} or
+	 *                              if {@code listener == null}.
+	 *
+	 * @see XBeePacketView
+	 * @see com.digi.xbee.api.listeners.IPacketViewReceiveListener
+	 * @see com.digi.xbee.api.models.OperatingMode
+	 */
+	public XBeePacketDecoder(OperatingMode mode, IPacketViewReceiveListener listener) {
+		if (listener == null)
+			throw new NullPointerException("Listener cannot be null.");
+
+		setOperatingMode(mode);
+		this.listener = null;
+		this.viewListener = listener;
+		this.view = new XBeePacketView();
+		this.logger = LoggerFactory.getLogger(XBeePacketDecoder.class);
+	}
+
+	/**
+	 * Decodes all the remaining bytes of the given buffer.
+	 *
+	 * <p>Every complete and valid packet is notified to the listener before
+	 * this method returns. The bytes of an incomplete frame are kept until
+	 * the next call. When this method returns, the position of the buffer is
+	 * equal to its limit.</p>
+	 *
+	 * @param chunk Buffer with the received bytes.
+	 *
+	 * @throws NullPointerException if {@code chunk == null}.
+	 *
+	 * @see #decode(byte[], int, int)
+	 */
+	public void decode(ByteBuffer chunk) {
+		if (chunk == null)
+			throw new NullPointerException("Buffer cannot be null.");
+
+		if (chunk.hasArray()) {
+			decode(chunk.array(), chunk.arrayOffset() + chunk.position(), chunk.remaining());
+			chunk.position(chunk.limit());
+			return;
+		}
+		while (chunk.hasRemaining())
+			decodeByte(chunk.get() & 0xFF);
+	}
+
+	/**
+	 * Decodes the given bytes.
+	 *
+	 * <p>Every complete and valid packet is notified to the listener before
+	 * this method returns. The bytes of an incomplete frame are kept until
+	 * the next call.</p>
+	 *
+	 * @param data Byte array with the received bytes.
+	 * @param offset Position of the first byte to decode.
+	 * @param count Number of bytes to decode.
+	 *
+	 * @throws IllegalArgumentException if {@code offset < 0} or
+	 *                                  if {@code count < 0} or
+	 *                                  if {@code offset + count > data.length}.
+	 * @throws NullPointerException if {@code data == null}.
+	 *
+	 * @see #decode(ByteBuffer)
+	 */
+	public void decode(byte[] data, int offset, int count) {
+		if (data == null)
+			throw new NullPointerException("Data cannot be null.");
+		if (offset < 0)
+			throw new IllegalArgumentException("Offset cannot be less than 0.");
+		if (count < 0)
+			throw new IllegalArgumentException("Count cannot be less than 0.");
+		if (offset + count > data.length)
+			throw new IllegalArgumentException("Offset + count cannot be greater than the data length.");
+
+		int end = offset + count;
+		for (int i = offset; i < end; i++)
+			decodeByte(data[i] & 0xFF);
+	}
+
+	/**
+	 * Discards the partially received frame, if any, and reports it as
+	 * invalid.
+	 *
+	 * @return {@code true} if there was a partial frame, {@code false}
+	 *         otherwise.
+	 */
+	public boolean reset() {
+		if (state == STATE_HEADER)
+			return false;
+		clearFrame();
+		invalidFrame("Error parsing packet: Incomplete packet.");
+		return true;
+	}
+
+	/**
+	 * Returns whether a frame is partially received.
+	 *
+	 * @return {@code true} if the decoder is in the middle of a frame,
+	 *         {@code false} otherwise.
+	 */
+	public boolean isDecodingFrame() {
+		return state != STATE_HEADER;
+	}
+
+	/**
+	 * Returns the operating mode used to decode the frames.
+	 *
+	 * @return The XBee device operating mode.
+	 *
+	 * @see #setOperatingMode(OperatingMode)
+	 */
+	public OperatingMode getOperatingMode() {
+		return mode;
+	}
+
+	/**
+	 * Sets the operating mode used to decode the frames. If the mode changes,
+	 * the partially received frame is discarded.
+	 *
+	 * @param mode XBee device operating mode.
+	 *
+	 * @throws IllegalArgumentException if {@code mode != OperatingMode.API } and
+	 *                              if {@code mode != OperatingMode.API_ESCAPE}.
+	 * @throws NullPointerException if {@code mode == null}.
+	 *
+	 * @see #getOperatingMode()
+	 */
+	public void setOperatingMode(OperatingMode mode) {
+		if (mode == null)
+			throw new NullPointerException("Operating mode cannot be null.");
+		if (mode != OperatingMode.API && mode != OperatingMode.API_ESCAPE)
+			throw new IllegalArgumentException("Operating mode must be API or API Escaped.");
+
+		if (this.mode != null && this.mode != mode)
+			reset();
+		this.mode = mode;
+	}
+
+	/**
+	 * Returns the number of packets decoded.
+	 *
+	 * @return The number of decoded packets.
+	 */
+	public long getPacketCount() {
+		return packetCount;
+	}
+
+	/**
+	 * Returns the number of frames discarded because they were incomplete,
+	 * had an invalid checksum or could not be parsed.
+	 *
+	 * @return The number of invalid frames.
+	 */
+	public long getInvalidFrameCount() {
+		return invalidFrameCount;
+	}
+
+	/**
+	 * Returns the number of bytes discarded while looking for the start
+	 * delimiter of a frame.
+	 *
+	 * @return The number of discarded bytes.
+	 */
+	public long getDiscardedByteCount() {
+		return discardedByteCount;
+	}
+
+	/**
+	 * Feeds the given byte to the frame state machine.
+	 *
+	 * @param b The received byte.
+	 */
+	private void decodeByte(int b) {
+		if (state == STATE_HEADER) {
+			if (b == SpecialByte.HEADER_BYTE.getValue())
+				state = STATE_LENGTH_MSB;
+			else
+				discardedByteCount++;
+			return;
+		}
+
+		if (mode == OperatingMode.API_ESCAPE) {
+			if (b == SpecialByte.HEADER_BYTE.getValue()) {
+				// Unescaped start delimiter, a new frame starts here.
+				reset();
+				state = STATE_LENGTH_MSB;
+				return;
+			}
+			if (escaped) {
+				b ^= 0x20;
+				escaped = false;
+			} else if (b == SpecialByte.ESCAPE_BYTE.getValue()) {
+				escaped = true;
+				return;
+			} else if (b == SpecialByte.XON_BYTE.getValue() || b == SpecialByte.XOFF_BYTE.getValue()) {
+				clearFrame();
+				invalidFrame("Special byte not escaped: 0x" + HexUtils.byteToHexString((byte)b) + ".");
+				return;
+			}
+		}
+
+		switch (state) {
+		case STATE_LENGTH_MSB:
+			length = b << 8;
+			state = STATE_LENGTH_LSB;
+			break;
+		case STATE_LENGTH_LSB:
+			length |= b;
+			if (length == 0) {
+				clearFrame();
+				invalidFrame("Error parsing packet: Incomplete packet.");
+				break;
+			}
+			payload = allocatePayload(length);
+			position = 0;
+			checksum = 0;
+			state = STATE_FRAME_DATA;
+			break;
+		case STATE_FRAME_DATA:
+			payload[position++] = (byte)b;
+			checksum += b;
+			if (position == length)
+				state = STATE_CHECKSUM;
+			break;
+		case STATE_CHECKSUM:
+		default:
+			frameReceived(b);
+			break;
+		}
+	}
+
+	/**
+	 * Verifies the checksum of the received frame, parses it and notifies
+	 * the packet to the listener.
+	 *
+	 * @param readChecksum The checksum byte of the frame.
+	 */
+	private void frameReceived(int readChecksum) {
+		byte[] frameData = payload;
+		int frameLength = length;
+		int expectedChecksum = 0xFF - (checksum & 0xFF);
+		clearFrame();
+
+		if (readChecksum != expectedChecksum) {
+			invalidFrame("Invalid checksum (expected 0x"
+					+ HexUtils.byteToHexString((byte)expectedChecksum) + ").");
+			return;
+		}
+
+		if (viewListener != null) {
+			viewBuffer.clear();
+			viewBuffer.limit(frameLength);
+			try {
+				view.wrap(viewBuffer);
+			} catch (InvalidPacketException e) {
+				invalidFrameCount++;
+				logger.error("Error parsing the API packet.", e);
+				return;
+			}
+			packetCount++;
+			viewListener.packetReceived(view);
+			return;
+		}
+
+		XBeePacket packet;
+		try {
+			packet = parser.parsePayload(frameData);
+		} catch (InvalidPacketException e) {
+			invalidFrameCount++;
+			logger.error("Error parsing the API packet.", e);
+			return;
+		}
+		packetCount++;
+		listener.packetReceived(packet);
+	}
+
+	/**
+	 * Returns the array to store the frame data of a frame of the given
+	 * length. In view mode, the same array is reused for all the frames.
+	 *
+	 * @param length The length of the frame data.
+	 *
+	 * @return The array to store the frame data.
+	 */
+	private byte[] allocatePayload(int length) {
+		if (viewListener == null)
+			return new byte[length];
+		if (viewBuffer == null || viewBuffer.capacity() < length)
+			viewBuffer = ByteBuffer.wrap(new byte[Math.max(length, viewBuffer == null ? 0 : Math.min(viewBuffer.capacity() * 2, 0xFFFF))]);
+		return viewBuffer.array();
+	}
+
+	/**
+	 * Clears the state of the frame being received.
+	 */
+	private void clearFrame() {
+		state = STATE_HEADER;
+		escaped = false;
+		payload = null;
+	}
+
+	/**
+	 * Reports an invalid frame.
+	 *
+	 * @param reason The reason why the frame is invalid.
+	 */
+	private void invalidFrame(String reason) {
+		invalidFrameCount++;
+		logger.error("Error parsing the API packet.", new InvalidPacketException(reason));
+	}
+}
@@ -135,6 +135,12 @@ import com.digi.xbee.api.utils.HexUtils;
  */
 public class XBeePacketParser {
 	
+	// Constants.
+	private static final IPacketFactory[] DEFAULT_PACKET_FACTORIES = createDefaultPacketFactories();
+	
+	// Variables.
+	private static volatile IPacketFactory[] packetFactories = DEFAULT_PACKET_FACTORIES.clone();
+	
 	/**
 	 * Parses the bytes from the given input stream depending on the provided 
 	 * operating mode and returns the API packet.
@@ -242,6 +248,14 @@ public class XBeePacketParser {
 			throw new InvalidPacketException("Invalid start delimiter (expected 0x" 
 						+ HexUtils.byteToHexString((byte)SpecialByte.HEADER_BYTE.getValue()) + ").");
 		
+		if (mode == OperatingMode.API_ESCAPE) {
+			// Unescape the frame in a single pass and parse it as API. Any 
+			// data after the checksum is ignored, as in API mode.
+			int escapedLength = getEscapedFrameLength(packetByteArray);
+			byte[] unescapedArray = XBeeEscapeCodec.unescape(packetByteArray, 1, escapedLength);
+			return parsePacket(new ByteArrayInputStream(unescapedArray), OperatingMode.API);
+		}
+		
 		return parsePacket(new ByteArrayInputStream(packetByteArray, 1, packetByteArray.length - 1), mode);
 	}
 	
@@ -249,93 +263,269 @@ public class XBeePacketParser {
 	 * Parses the given API payload to get the right API packet, depending 
 	 * on its API type ({@code payload[0]}).
 	 * 
+	 * <p>The payload must be already unescaped and its checksum verified.</p>
+	 * 
 	 * @param payload The payload of the API frame.
 	 * 
 	 * @return The corresponding API packet or {@code UnknownXBeePacket} if 
 	 *         the frame API type is unknown.
 	 *         
-	 * @throws InvalidPacketException if the payload is invalid for the 
+	 * @throws InvalidPacketException if the payload is empty or 
+	 *                                if the payload is invalid for the 
 	 *                                specified frame type.
+	 * @throws NullPointerException if {@code payload == null}.
 	 * 
 	 * @see APIFrameType
 	 * @see XBeePacket
 	 */
-	private XBeePacket parsePayload(byte[] payload) throws InvalidPacketException {
-		// Get the API frame type.
-		APIFrameType apiType = APIFrameType.get(payload[0] & 0xFF);
+	public XBeePacket parsePayload(byte[] payload) throws InvalidPacketException {
+		if (payload == null)
+			throw new NullPointerException("Payload cannot be null.");
+		if (payload.length == 0)
+			throw new InvalidPacketException("Error parsing packet: Incomplete packet.");
 		
-		if (apiType == null)
+		// Get the factory of the frame type.
+		IPacketFactory factory = packetFactories[payload[0] & 0xFF];
+		
+		if (factory == null)
 			// Create unknown packet.
 			return UnknownXBeePacket.createPacket(payload);
 		
-		// Parse API payload depending on API ID.
-		XBeePacket packet = null;
-		switch (apiType) {
-		case TX_64:
-			packet = TX64Packet.createPacket(payload);
-			break;
-		case TX_16:
-			packet = TX16Packet.createPacket(payload);
-			break;
-		case AT_COMMAND:
-			packet = ATCommandPacket.createPacket(payload);
-			break;
-		case AT_COMMAND_QUEUE:
-			packet = ATCommandQueuePacket.createPacket(payload);
-			break;
-		case TRANSMIT_REQUEST:
-			packet = TransmitPacket.createPacket(payload);
-			break;
-		case EXPLICIT_ADDRESSING_COMMAND_FRAME:
-			packet = ExplicitAddressingPacket.createPacket(payload);
-			break;
-		case REMOTE_AT_COMMAND_REQUEST:
-			packet = RemoteATCommandPacket.createPacket(payload);
-			break;
-		case RX_64:
-			packet = RX64Packet.createPacket(payload);
-			break;
-		case RX_16:
-			packet = RX16Packet.createPacket(payload);
-			break;
-		case RX_IO_64:
-			packet = RX64IOPacket.createPacket(payload);
-			break;
-		case RX_IO_16:
-			packet = RX16IOPacket.createPacket(payload);
-			break;
-		case AT_COMMAND_RESPONSE:
-			packet = ATCommandResponsePacket.createPacket(payload);
-			break;
-		case TX_STATUS:
-			packet = TXStatusPacket.createPacket(payload);
-			break;
-		case MODEM_STATUS:
-			packet = ModemStatusPacket.createPacket(payload);
-			break;
-		case TRANSMIT_STATUS:
-			packet = TransmitStatusPacket.createPacket(payload);
-			break;
-		case RECEIVE_PACKET:
-			packet = ReceivePacket.createPacket(payload);
-			break;
-		case EXPLICIT_RX_INDICATOR:
-			packet = ExplicitRxIndicatorPacket.createPacket(payload);
-			break;
-		case IO_DATA_SAMPLE_RX_INDICATOR:
-			packet = IODataSampleRxIndicatorPacket.createPacket(payload);
-			break;
-		case REMOTE_AT_COMMAND_RESPONSE:
-			packet = RemoteATCommandResponsePacket.createPacket(payload);
-			break;
-		case GENERIC:
-			packet = GenericXBeePacket.createPacket(payload);
-			break;
-		case UNKNOWN:
-		default:
-			packet = UnknownXBeePacket.createPacket(payload);
+		return factory.createPacket(payload);
+	}
+	
+	/**
+	 * Registers the given factory to create the packets of the given frame 
+	 * type, replacing the current one.
+	 * 
+	 * <p>This allows applications to parse frame types that are not 
+	 * supported by the library, which are otherwise parsed as 
+	 * {@link UnknownXBeePacket}. The factory is used by all the parsers.</p>
+	 * 
+	 * @param frameType The frame type value.
+	 * @param factory The factory to create the packets of the frame type.
+	 * 
+	 * @return The previous factory of the frame type, {@code null} if there 
+	 *         was not any.
+	 * 
+	 * @throws IllegalArgumentException if {@code frameType < 0} or 
+	 *                                  if {@code frameType > 255}.
+	 * @throws NullPointerException if {@code factory == null}.
+	 * 
+	 * @see #unregisterPacketFactory(int)
+	 * @see #getPacketFactory(int)
+	 * @see IPacketFactory
+	 */
+	public static IPacketFactory registerPacketFactory(int frameType, IPacketFactory factory) {
+		if (factory == null)
+			throw new NullPointerException("Packet factory cannot be null.");
+		
+		return setPacketFactory(frameType, factory);
+	}
+	
+	/**
+	 * Unregisters the factory of the given frame type, restoring the factory 
+	 * of the library if the frame type is supported.
+	 * 
+	 * @param frameType The frame type value.
+	 * 
+	 * @return The unregistered factory, {@code null} if there was not any.
+	 * 
+	 * @throws IllegalArgumentException if {@code frameType < 0} or 
+	 *                                  if {@code frameType > 255}.
+	 * 
+	 * @see #registerPacketFactory(int, IPacketFactory)
+	 */
+	public static IPacketFactory unregisterPacketFactory(int frameType) {
+		checkFrameType(frameType);
+		return setPacketFactory(frameType, DEFAULT_PACKET_FACTORIES[frameType]);
+	}
+	
+	/**
+	 * Returns the factory that creates the packets of the given frame type.
+	 * 
+	 * @param frameType The frame type value.
+	 * 
+	 * @return The factory of the frame type, {@code null} if the packets of 
+	 *         the frame type are parsed as {@link UnknownXBeePacket}.
+	 * 
+	 * @throws IllegalArgumentException if {@code frameType < 0} or 
+	 *                                  if {@code frameType > 255}.
+	 * 
+	 * @see #registerPacketFactory(int, IPacketFactory)
+	 */
+	public static IPacketFactory getPacketFactory(int frameType) {
+		checkFrameType(frameType);
+		return packetFactories[frameType];
+	}
+	
+	/**
+	 * Sets the factory of the given frame type. The table is copied so the 
+	 * parsers never see a partially updated table.
+	 * 
+	 * @param frameType The frame type value.
+	 * @param factory The factory, {@code null} to parse the frame type as 
+	 *                {@link UnknownXBeePacket}.
+	 * 
+	 * @return The previous factory of the frame type.
+	 * 
+	 * @throws IllegalArgumentException if {@code frameType < 0} or 
+	 *                                  if {@code frameType > 255}.
+	 */
+	private static IPacketFactory setPacketFactory(int frameType, IPacketFactory factory) {
+		checkFrameType(frameType);
+		
+		synchronized (DEFAULT_PACKET_FACTORIES) {
+			IPacketFactory[] factories = packetFactories.clone();
+			IPacketFactory previous = factories[frameType];
+			factories[frameType] = factory;
+			packetFactories = factories;
+			return previous;
 		}
-		return packet;
+	}
+	
+	/**
+	 * Verifies that the given frame type value is between 0 and 255.
+	 * 
+	 * @param frameType The frame type value.
+	 * 
+	 * @throws IllegalArgumentException if {@code frameType < 0} or 
+	 *                                  if {@code frameType > 255}.
+	 */
+	private static void checkFrameType(int frameType) {
+		if (frameType < 0 || frameType > 255)
+			throw new IllegalArgumentException("Frame type must be between 0 and 255.");
+	}
+	
+	/**
+	 * Creates the table of factories for the frame types supported by the 
+	 * library, indexed by frame type value.
+	 * 
+	 * @return The table of factories.
+	 */
+	private static IPacketFactory[] createDefaultPacketFactories() {
+		IPacketFactory[] factories = new IPacketFactory[256];
+		factories[APIFrameType.TX_64.getValue()] = new IPacketFactory() {
+			@Override
+			public XBeePacket createPacket(byte[] payload) {
+				return TX64Packet.createPacket(payload);
+			}
+		};
+		factories[APIFrameType.TX_16.getValue()] = new IPacketFactory() {
+			@Override
+			public XBeePacket createPacket(byte[] payload) {
+				return TX16Packet.createPacket(payload);
+			}
+		};
+		factories[APIFrameType.AT_COMMAND.getValue()] = new IPacketFactory() {
+			@Override
+			public XBeePacket createPacket(byte[] payload) {
+				return ATCommandPacket.createPacket(payload);
+			}
+		};
+		factories[APIFrameType.AT_COMMAND_QUEUE.getValue()] = new IPacketFactory() {
+			@Override
+			public XBeePacket createPacket(byte[] payload) {
+				return ATCommandQueuePacket.createPacket(payload);
+			}
+		};
+		factories[APIFrameType.TRANSMIT_REQUEST.getValue()] = new IPacketFactory() {
+			@Override
+			public XBeePacket createPacket(byte[] payload) {
+				return TransmitPacket.createPacket(payload);
+			}
+		};
+		factories[APIFrameType.EXPLICIT_ADDRESSING_COMMAND_FRAME.getValue()] = new IPacketFactory() {
+			@Override
+			public XBeePacket createPacket(byte[] payload) {
+				return ExplicitAddressingPacket.createPacket(payload);
+			}
+		};
+		factories[APIFrameType.REMOTE_AT_COMMAND_REQUEST.getValue()] = new IPacketFactory() {
+			@Override
+			public XBeePacket createPacket(byte[] payload) {
+				return RemoteATCommandPacket.createPacket(payload);
+			}
+		};
+		factories[APIFrameType.RX_64.getValue()] = new IPacketFactory() {
+			@Override
+			public XBeePacket createPacket(byte[] payload) {
+				return RX64Packet.createPacket(payload);
+			}
+		};
+		factories[APIFrameType.RX_16.getValue()] = new IPacketFactory() {
+			@Override
+			public XBeePacket createPacket(byte[] payload) {
+				return RX16Packet.createPacket(payload);
+			}
+		};
+		factories[APIFrameType.RX_IO_64.getValue()] = new IPacketFactory() {
+			@Override
+			public XBeePacket createPacket(byte[] payload) {
+				return RX64IOPacket.createPacket(payload);
+			}
+		};
+		factories[APIFrameType.RX_IO_16.getValue()] = new IPacketFactory() {
+			@Override
+			public XBeePacket createPacket(byte[] payload) {
+				return RX16IOPacket.createPacket(payload);
+			}
+		};
+		factories[APIFrameType.AT_COMMAND_RESPONSE.getValue()] = new IPacketFactory() {
+			@Override
+			public XBeePacket createPacket(byte[] payload) {
+				return ATCommandResponsePacket.createPacket(payload);
+			}
+		};
+		factories[APIFrameType.TX_STATUS.getValue()] = new IPacketFactory() {
+			@Override
+			public XBeePacket createPacket(byte[] payload) {
+				return TXStatusPacket.createPacket(payload);
+			}
+		};
+		factories[APIFrameType.MODEM_STATUS.getValue()] = new IPacketFactory() {
+			@Override
+			public XBeePacket createPacket(byte[] payload) {
+				return ModemStatusPacket.createPacket(payload);
+			}
+		};
+		factories[APIFrameType.TRANSMIT_STATUS.getValue()] = new IPacketFactory() {
+			@Override
+			public XBeePacket createPacket(byte[] payload) {
+				return TransmitStatusPacket.createPacket(payload);
+			}
+		};
+		factories[APIFrameType.RECEIVE_PACKET.getValue()] = new IPacketFactory() {
+			@Override
+			public XBeePacket createPacket(byte[] payload) {
+				return ReceivePacket.createPacket(payload);
+			}
+		};
+		factories[APIFrameType.EXPLICIT_RX_INDICATOR.getValue()] = new IPacketFactory() {
+			@Override
+			public XBeePacket createPacket(byte[] payload) {
+				return ExplicitRxIndicatorPacket.createPacket(payload);
+			}
+		};
+		factories[APIFrameType.IO_DATA_SAMPLE_RX_INDICATOR.getValue()] = new IPacketFactory() {
+			@Override
+			public XBeePacket createPacket(byte[] payload) {
+				return IODataSampleRxIndicatorPacket.createPacket(payload);
+			}
+		};
+		factories[APIFrameType.REMOTE_AT_COMMAND_RESPONSE.getValue()] = new IPacketFactory() {
+			@Override
+			public XBeePacket createPacket(byte[] payload) {
+				return RemoteATCommandResponsePacket.createPacket(payload);
+			}
+		};
+		factories[APIFrameType.GENERIC.getValue()] = new IPacketFactory() {
+			@Override
+			public XBeePacket createPacket(byte[] payload) {
+				return GenericXBeePacket.createPacket(payload);
+			}
+		};
+		return factories;
 	}
 	
 	/**
@@ -371,7 +561,7 @@ public class XBeePacketParser {
 		/* Process the byte for API2. */
 		
 		// Check if the byte is special.
-		if (!SpecialByte.isSpecialByte(b))
+		if (!XBeeEscapeCodec.isSpecialByte(b))
 			return b;
 		
 		// Check if the byte is ESCAPE.
@@ -443,4 +633,35 @@ public class XBeePacketParser {
 		
 		return b;
 	}
+	
+	/**
+	 * Returns the number of escaped bytes of the given API escaped frame 
+	 * after the start delimiter, up to and including the checksum.
+	 * 
+	 * <p>The length field is read from the escaped data, so the bytes that 
+	 * follow the frame in the array are not considered. If the array does 
+	 * not contain the complete frame, the number of bytes after the start 
+	 * delimiter is returned.</p>
+	 * 
+	 * @param packetByteArray Byte array starting with the start delimiter.
+	 * 
+	 * @return The number of escaped bytes of the frame.
+	 */
+	private static int getEscapedFrameLength(byte[] packetByteArray) {
+		int count = 0;
+		int length = 0;
+		int i = 1;
+		while (i < packetByteArray.length) {
+			int b = packetByteArray[i++] & 0xFF;
+			if (b == SpecialByte.ESCAPE_BYTE.getValue() && i < packetByteArray.length)
+				b = (packetByteArray[i++] & 0xFF) ^ 0x20;
+			count++;
+			if (count <= 2)
+				length = (length << 8) | b;
+			// Length field, payload and checksum.
+			else if (count == length + 3)
+				return i - 1;
+		}
+		return packetByteArray.length - 1;
+	}
 }
@@ -0,0 +1,536 @@
+/**
+ * Copyright (c) 2014-2016 Digi International Inc.,
+ * All rights not expressly granted are reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * Digi International Inc. 11001 Bren Road East, Minnetonka, MN 55343
+ * =======================================================================
+ */
+package com.digi.xbee.api.packet;
+
+import java.nio.ByteBuffer;
+
+import com.digi.xbee.api.exceptions.InvalidPacketException;
+import com.digi.xbee.api.models.XBee16BitAddress;
+import com.digi.xbee.api.models.XBee64BitAddress;
+
+/**
+ * This class is a read-only view over the frame data of an API frame (from
+ * the frame type to the last byte before the checksum) stored in a
+ * {@code ByteBuffer}.
+ *
+ * <p>Unlike the {@link XBeePacket} classes, a view does not copy the frame
+ * data nor create any object when it is wrapped: the fields are decoded from
+ * the buffer only when they are requested and the RF data is exposed as a
+ * read-only buffer that shares the content of the wrapped one. The same view
+ * can be reused for any number of frames with {@link #wrap(ByteBuffer)}.</p>
+ *
+ * <p>The addressing fields, RSSI, receive options and RF data are available
+ * for the receive frames ({@link APIFrameType#RX_64},
+ * {@link APIFrameType#RX_16}, {@link APIFrameType#RX_IO_64},
+ * {@link APIFrameType#RX_IO_16}, {@link APIFrameType#RECEIVE_PACKET},
+ * {@link APIFrameType#EXPLICIT_RX_INDICATOR} and
+ * {@link APIFrameType#IO_DATA_SAMPLE_RX_INDICATOR}). For other frame types
+ * use {@link #toPacket()} to parse the full packet.</p>
+ *
+ * <p>A view is only valid while the content of the wrapped buffer does not
+ * change. This class is not thread-safe.</p>
+ *
+ * @see XBeePacket
+ * @see XBeePacketDecoder
+ * @see com.digi.xbee.api.listeners.IPacketViewReceiveListener
+ */
+public class XBeePacketView {
+
+	// Constants.
+	private static final int NO_FIELD = -1;
+
+	// Variables.
+	private ByteBuffer buffer;
+
+	private int start;
+	private int length;
+	private int frameType;
+	private int dataOffset = NO_FIELD;
+	private int address16Offset = NO_FIELD;
+
+	private XBeePacketParser parser;
+
+	/**
+	 * Makes this view point to the frame data contained between the position
+	 * and the limit of the given buffer.
+	 *
+	 * <p>The buffer is not copied and its position is not modified.</p>
+	 *
+	 * @param frameData Buffer containing the frame data, starting with the
+	 *                  frame type.
+	 *
+	 * @return This view.
+	 *
+	 * @throws InvalidPacketException if the frame data is empty or too short
+	 *                                for its frame type.
+	 * @throws NullPointerException if {@code frameData == null}.
+	 */
+	public XBeePacketView wrap(ByteBuffer frameData) throws InvalidPacketException {
+		if (frameData == null)
+			throw new NullPointerException("Frame data cannot be null.");
+		if (!frameData.hasRemaining())
+			throw new InvalidPacketException("Error parsing packet: Incomplete packet.");
+
+		int type = frameData.get(frameData.position()) & 0xFF;
+		int offset = getDataOffset(type);
+		if (offset != NO_FIELD && frameData.remaining() < offset)
+			throw new InvalidPacketException("Error parsing packet: Incomplete packet.");
+
+		buffer = frameData;
+		start = frameData.position();
+		length = frameData.remaining();
+		frameType = type;
+		dataOffset = offset;
+		address16Offset = get16BitAddressOffset(type);
+		return this;
+	}
+
+	/**
+	 * Returns the frame type value of the frame.
+	 *
+	 * @return The frame type value.
+	 *
+	 * @see #getFrameType()
+	 */
+	public int getFrameTypeValue() {
+		return frameType;
+	}
+
+	/**
+	 * Returns the frame type of the frame.
+	 *
+	 * @return The frame type, {@link APIFrameType#UNKNOWN} if it is not
+	 *         supported.
+	 *
+	 * @see #getFrameTypeValue()
+	 */
+	public APIFrameType getFrameType() {
+		APIFrameType type = APIFrameType.get(frameType);
+		return type == null ? APIFrameType.UNKNOWN : type;
+	}
+
+	/**
+	 * Returns the length of the frame data.
+	 *
+	 * @return The length of the frame data.
+	 */
+	public int getLength() {
+		return length;
+	}
+
+	/**
+	 * Returns whether the frame is a receive frame that contains RF data.
+	 *
+	 * @return {@code true} if the frame is a receive frame, {@code false}
+	 *         otherwise.
+	 */
+	public boolean isReceiveFrame() {
+		return dataOffset != NO_FIELD;
+	}
+
+	/**
+	 * Returns the 64-bit source address of the frame as a {@code long}.
+	 *
+	 * <p>This method does not create any object.</p>
+	 *
+	 * @return The 64-bit source address value, the value of
+	 *         {@link XBee64BitAddress#UNKNOWN_ADDRESS} if the frame does not
+	 *         contain it.
+	 *
+	 * @see #get64BitSourceAddress()
+	 */
+	public long get64BitSourceAddressValue() {
+		if (!has64BitSourceAddress())
+			return XBee64BitAddress.UNKNOWN_ADDRESS.getLongValue();
+		long value = 0;
+		for (int i = 1; i <= 8; i++)
+			value = (value << 8) | getByte(start + i);
+		return value;
+	}
+
+	/**
+	 * Returns the 64-bit source address of the frame.
+	 *
+	 * @return The 64-bit source address, {@link XBee64BitAddress#UNKNOWN_ADDRESS}
+	 *         if the frame does not contain it.
+	 *
+	 * @see #get64BitSourceAddressValue()
+	 * @see com.digi.xbee.api.models.XBee64BitAddress
+	 */
+	public XBee64BitAddress get64BitSourceAddress() {
+		if (!has64BitSourceAddress())
+			return XBee64BitAddress.UNKNOWN_ADDRESS;
+		return XBee64BitAddress.valueOf(get64BitSourceAddressValue());
+	}
+
+	/**
+	 * Returns the 16-bit source address of the frame as an {@code int}.
+	 *
+	 * <p>This method does not create any object.</p>
+	 *
+	 * @return The 16-bit source address value, the value of
+	 *         {@link XBee16BitAddress#UNKNOWN_ADDRESS} if the frame does not
+	 *         contain it.
+	 *
+	 * @see #get16BitSourceAddress()
+	 */
+	public int get16BitSourceAddressValue() {
+		if (address16Offset == NO_FIELD)
+			return XBee16BitAddress.UNKNOWN_ADDRESS.getIntValue();
+		return getShort(start + address16Offset);
+	}
+
+	/**
+	 * Returns the 16-bit source address of the frame.
+	 *
+	 * @return The 16-bit source address, {@link XBee16BitAddress#UNKNOWN_ADDRESS}
+	 *         if the frame does not contain it.
+	 *
+	 * @see #get16BitSourceAddressValue()
+	 * @see com.digi.xbee.api.models.XBee16BitAddress
+	 */
+	public XBee16BitAddress get16BitSourceAddress() {
+		if (address16Offset == NO_FIELD)
+			return XBee16BitAddress.UNKNOWN_ADDRESS;
+		return XBee16BitAddress.valueOf(get16BitSourceAddressValue());
+	}
+
+	/**
+	 * Returns the receive options bitfield of the frame.
+	 *
+	 * @return The receive options bitfield, {@code -1} if the frame does not
+	 *         contain it.
+	 *
+	 * @see com.digi.xbee.api.models.XBeeReceiveOptions
+	 */
+	public int getReceiveOptions() {
+		if (dataOffset == NO_FIELD)
+			return NO_FIELD;
+		// The receive options are always the last field before the RF data.
+		return getByte(start + dataOffset - 1);
+	}
+
+	/**
+	 * Returns whether the frame was received via broadcast, according to its
+	 * receive options.
+	 *
+	 * @return {@code true} if the frame was received via broadcast,
+	 *         {@code false} otherwise.
+	 */
+	public boolean isBroadcast() {
+		int options = getReceiveOptions();
+		if (options == NO_FIELD)
+			return false;
+		if (isRawReceiveFrame(frameType))
+			// Address or PAN broadcast.
+			return (options & 0x06) != 0;
+		return (options & 0x02) != 0;
+	}
+
+	/**
+	 * Returns the RSSI of the frame.
+	 *
+	 * @return The RSSI, {@code -1} if the frame does not contain it.
+	 */
+	public int getRSSI() {
+		if (!isRawReceiveFrame(frameType))
+			return NO_FIELD;
+		// The RSSI is followed by the receive options.
+		return getByte(start + dataOffset - 2);
+	}
+
+	/**
+	 * Returns the source endpoint of an explicit RX indicator frame.
+	 *
+	 * @return The source endpoint, {@code -1} if the frame does not contain
+	 *         it.
+	 */
+	public int getSourceEndpoint() {
+		if (frameType != APIFrameType.EXPLICIT_RX_INDICATOR.getValue())
+			return NO_FIELD;
+		return getByte(start + 11);
+	}
+
+	/**
+	 * Returns the destination endpoint of an explicit RX indicator frame.
+	 *
+	 * @return The destination endpoint, {@code -1} if the frame does not
+	 *         contain it.
+	 */
+	public int getDestinationEndpoint() {
+		if (frameType != APIFrameType.EXPLICIT_RX_INDICATOR.getValue())
+			return NO_FIELD;
+		return getByte(start + 12);
+	}
+
+	/**
+	 * Returns the cluster ID of an explicit RX indicator frame.
+	 *
+	 * @return The cluster ID, {@code -1} if the frame does not contain it.
+	 */
+	public int getClusterID() {
+		if (frameType != APIFrameType.EXPLICIT_RX_INDICATOR.getValue())
+			return NO_FIELD;
+		return getShort(start + 13);
+	}
+
+	/**
+	 * Returns the profile ID of an explicit RX indicator frame.
+	 *
+	 * @return The profile ID, {@code -1} if the frame does not contain it.
+	 */
+	public int getProfileID() {
+		if (frameType != APIFrameType.EXPLICIT_RX_INDICATOR.getValue())
+			return NO_FIELD;
+		return getShort(start + 15);
+	}
+
+	/**
+	 * Returns the length of the RF data of the frame.
+	 *
+	 * @return The length of the RF data, {@code 0} if the frame does not
+	 *         contain RF data.
+	 *
+	 * @see #getRFData()
+	 * @see #getRFDataByte(int)
+	 */
+	public int getRFDataLength() {
+		if (dataOffset == NO_FIELD)
+			return 0;
+		return length - dataOffset;
+	}
+
+	/**
+	 * Returns the byte of the RF data at the given index.
+	 *
+	 * <p>This method does not create any object.</p>
+	 *
+	 * @param index Index of the byte within the RF data.
+	 *
+	 * @return The byte at the given index.
+	 *
+	 * @throws IndexOutOfBoundsException if {@code index < 0} or
+	 *                                   if {@code index >= getRFDataLength()}.
+	 *
+	 * @see #getRFDataLength()
+	 */
+	public byte getRFDataByte(int index) {
+		if (index < 0 || index >= getRFDataLength())
+			throw new IndexOutOfBoundsException("Index must be between 0 and " + (getRFDataLength() - 1) + ".");
+		return buffer.get(start + dataOffset + index);
+	}
+
+	/**
+	 * Copies the RF data of the frame into the given array.
+	 *
+	 * <p>This method does not create any object.</p>
+	 *
+	 * @param destination Array to copy the RF data to.
+	 * @param offset Position of the destination array to start copying at.
+	 *
+	 * @return The number of bytes copied.
+	 *
+	 * @throws IndexOutOfBoundsException if the RF data does not fit in the
+	 *                                   destination array.
+	 * @throws NullPointerException if {@code destination == null}.
+	 *
+	 * @see #getRFDataLength()
+	 */
+	public int copyRFData(byte[] destination, int offset) {
+		if (destination == null)
+			throw new NullPointerException("Destination cannot be null.");
+
+		int count = getRFDataLength();
+		if (offset < 0 || offset + count > destination.length)
+			throw new IndexOutOfBoundsException("RF data does not fit in the destination array.");
+		if (buffer.hasArray())
+			System.arraycopy(buffer.array(), buffer.arrayOffset() + start + dataOffset, destination, offset, count);
+		else {
+			for (int i = 0; i < count; i++)
+				destination[offset + i] = buffer.get(start + dataOffset + i);
+		}
+		return count;
+	}
+
+	/**
+	 * Returns the RF data of the frame.
+	 *
+	 * <p>The returned buffer is read-only and shares the content of the
+	 * wrapped buffer, the RF data is not copied.</p>
+	 *
+	 * @return The RF data, {@code null} if the frame does not contain RF
+	 *         data.
+	 *
+	 * @see #getRFDataByte(int)
+	 * @see #getRFDataLength()
+	 */
+	public ByteBuffer getRFData() {
+		if (dataOffset == NO_FIELD)
+			return null;
+		return slice(start + dataOffset, start + length);
+	}
+
+	/**
+	 * Returns the complete frame data.
+	 *
+	 * <p>The returned buffer is read-only and shares the content of the
+	 * wrapped buffer, the frame data is not copied.</p>
+	 *
+	 * @return The frame data.
+	 */
+	public ByteBuffer getFrameData() {
+		return slice(start, start + length);
+	}
+
+	/**
+	 * Parses the frame data into a new XBee packet. The packet does not depend
+	 * on the wrapped buffer, so it can be kept after the view is reused.
+	 *
+	 * @return The XBee packet.
+	 *
+	 * @throws InvalidPacketException if the frame data is not valid for its
+	 *                                frame type.
+	 *
+	 * @see XBeePacketParser#parsePayload(byte[])
+	 */
+	public XBeePacket toPacket() throws InvalidPacketException {
+		byte[] payload = new byte[length];
+		for (int i = 0; i < length; i++)
+			payload[i] = buffer.get(start + i);
+		if (parser == null)
+			parser = new XBeePacketParser();
+		return parser.parsePayload(payload);
+	}
+
+	/**
+	 * Returns whether the frame contains a 64-bit source address.
+	 *
+	 * @return {@code true} if the frame contains a 64-bit source address,
+	 *         {@code false} otherwise.
+	 */
+	private boolean has64BitSourceAddress() {
+		return dataOffset != NO_FIELD && !is16BitRawReceiveFrame(frameType);
+	}
+
+	/**
+	 * Returns the offset of the 16-bit source address within the frame data
+	 * of the given frame type.
+	 *
+	 * @param frameType The frame type value.
+	 *
+	 * @return The offset, {@code -1} if the frame does not contain it.
+	 */
+	private static int get16BitAddressOffset(int frameType) {
+		if (is16BitRawReceiveFrame(frameType))
+			return 1;
+		if (getDataOffset(frameType) >= 12)
+			// Frame type and 64-bit address.
+			return 9;
+		return NO_FIELD;
+	}
+
+	/**
+	 * Returns the offset of the RF data within the frame data of the given
+	 * frame type.
+	 *
+	 * <p>The frame type values are compared directly to avoid boxing them in
+	 * the {@link APIFrameType#get(int)} lookup.</p>
+	 *
+	 * @param frameType The frame type value.
+	 *
+	 * @return The offset, {@code -1} if the frame type is not a receive
+	 *         frame.
+	 */
+	private static int getDataOffset(int frameType) {
+		if (is16BitRawReceiveFrame(frameType))
+			// Frame type, 16-bit address, RSSI and receive options.
+			return 5;
+		if (isRawReceiveFrame(frameType))
+			// Frame type, 64-bit address, RSSI and receive options.
+			return 11;
+		if (frameType == APIFrameType.RECEIVE_PACKET.getValue()
+				|| frameType == APIFrameType.IO_DATA_SAMPLE_RX_INDICATOR.getValue())
+			// Frame type, 64-bit address, 16-bit address and receive options.
+			return 12;
+		if (frameType == APIFrameType.EXPLICIT_RX_INDICATOR.getValue())
+			// Frame type, addresses, endpoints, cluster ID, profile ID and
+			// receive options.
+			return 18;
+		return NO_FIELD;
+	}
+
+	/**
+	 * Returns whether the given frame type is an RX (Receive) frame of the
+	 * 802.15.4 protocol, which contains an RSSI field.
+	 *
+	 * @param frameType The frame type value.
+	 *
+	 * @return {@code true} if the frame type is an RX frame, {@code false}
+	 *         otherwise.
+	 */
+	private static boolean isRawReceiveFrame(int frameType) {
+		return frameType == APIFrameType.RX_64.getValue() || frameType == APIFrameType.RX_IO_64.getValue()
+				|| is16BitRawReceiveFrame(frameType);
+	}
+
+	/**
+	 * Returns whether the given frame type is an RX (Receive) frame with a
+	 * 16-bit source address.
+	 *
+	 * @param frameType The frame type value.
+	 *
+	 * @return {@code true} if the frame type is an RX 16-bit frame,
+	 *         {@code false} otherwise.
+	 */
+	private static boolean is16BitRawReceiveFrame(int frameType) {
+		return frameType == APIFrameType.RX_16.getValue() || frameType == APIFrameType.RX_IO_16.getValue();
+	}
+
+	/**
+	 * Returns the unsigned byte at the given absolute index of the buffer.
+	 *
+	 * @param index Absolute index.
+	 *
+	 * @return The unsigned byte.
+	 */
+	private int getByte(int index) {
+		return buffer.get(index) & 0xFF;
+	}
+
+	/**
+	 * Returns the unsigned 16-bit value at the given absolute index of the
+	 * buffer, most significant byte first.
+	 *
+	 * @param index Absolute index.
+	 *
+	 * @return The unsigned 16-bit value.
+	 */
+	private int getShort(int index) {
+		return (getByte(index) << 8) | getByte(index + 1);
+	}
+
+	/**
+	 * Returns a read-only buffer that shares the given range of the wrapped
+	 * buffer.
+	 *
+	 * @param from Absolute index of the first byte.
+	 * @param to Absolute index after the last byte.
+	 *
+	 * @return The read-only buffer.
+	 */
+	private ByteBuffer slice(int from, int to) {
+		ByteBuffer slice = buffer.asReadOnlyBuffer();
+		slice.limit(to);
+		slice.position(from);
+		return slice.slice();
+	}
+}
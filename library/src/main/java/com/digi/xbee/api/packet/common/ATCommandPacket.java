@@ -21,6 +21,7 @@ import org.slf4j.LoggerFactory;
 
 import com.digi.xbee.api.models.ATStringCommands;
 import com.digi.xbee.api.packet.XBeeAPIPacket;
+import com.digi.xbee.api.packet.XBeeFrameWriter;
 import com.digi.xbee.api.packet.APIFrameType;
 import com.digi.xbee.api.utils.HexUtils;
 
@@ -154,6 +155,25 @@ public class ATCommandPacket extends XBeeAPIPacket {
 		return os.toByteArray();
 	}
 	
+	/*
+	 * (non-Javadoc)
+	 * @see com.digi.xbee.api.packet.XBeeAPIPacket#getAPIPacketSpecificDataLength()
+	 */
+	@Override
+	protected int getAPIPacketSpecificDataLength() {
+		return command.length() + (parameter == null ? 0 : parameter.length);
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * @see com.digi.xbee.api.packet.XBeeAPIPacket#writeAPIPacketSpecificData(com.digi.xbee.api.packet.XBeeFrameWriter)
+	 */
+	@Override
+	protected void writeAPIPacketSpecificData(XBeeFrameWriter writer) {
+		writer.writeASCII(command);
+		writer.writeBytes(parameter);
+	}
+	
 	/*
 	 * (non-Javadoc)
 	 * @see com.digi.xbee.api.packet.XBeeAPIPacket#needsAPIFrameID()
@@ -182,6 +202,7 @@ public class ATCommandPacket extends XBeeAPIPacket {
 			this.parameter = null;
 		else
 			this.parameter = parameter.getBytes();
+		invalidateSerializedData();
 	}
 	
 	/**
@@ -191,6 +212,7 @@ public class ATCommandPacket extends XBeeAPIPacket {
 	 */
 	public void setParameter(byte[] parameter) {
 		this.parameter = parameter;
+		invalidateSerializedData();
 	}
 	
 	/**
@@ -21,6 +21,7 @@ import org.slf4j.LoggerFactory;
 
 import com.digi.xbee.api.models.ATStringCommands;
 import com.digi.xbee.api.packet.XBeeAPIPacket;
+import com.digi.xbee.api.packet.XBeeFrameWriter;
 import com.digi.xbee.api.packet.APIFrameType;
 import com.digi.xbee.api.utils.HexUtils;
 
@@ -160,6 +161,25 @@ public class ATCommandQueuePacket extends XBeeAPIPacket {
 		return os.toByteArray();
 	}
 	
+	/*
+	 * (non-Javadoc)
+	 * @see com.digi.xbee.api.packet.XBeeAPIPacket#getAPIPacketSpecificDataLength()
+	 */
+	@Override
+	protected int getAPIPacketSpecificDataLength() {
+		return command.length() + (parameter == null ? 0 : parameter.length);
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * @see com.digi.xbee.api.packet.XBeeAPIPacket#writeAPIPacketSpecificData(com.digi.xbee.api.packet.XBeeFrameWriter)
+	 */
+	@Override
+	protected void writeAPIPacketSpecificData(XBeeFrameWriter writer) {
+		writer.writeASCII(command);
+		writer.writeBytes(parameter);
+	}
+	
 	/*
 	 * (non-Javadoc)
 	 * @see com.digi.xbee.api.packet.XBeeAPIPacket#needsAPIFrameID()
@@ -188,6 +208,7 @@ public class ATCommandQueuePacket extends XBeeAPIPacket {
 			this.parameter = null;
 		else
 			this.parameter = parameter.getBytes();
+		invalidateSerializedData();
 	}
 	
 	/**
@@ -197,6 +218,7 @@ public class ATCommandQueuePacket extends XBeeAPIPacket {
 	 */
 	public void setParameter(byte[] parameter) {
 		this.parameter = parameter;
+		invalidateSerializedData();
 	}
 	
 	/**
@@ -197,6 +197,7 @@ public class ATCommandResponsePacket extends XBeeAPIPacket {
 			this.commandValue = null;
 		else
 			this.commandValue = commandValue.getBytes();
+		invalidateSerializedData();
 	}
 	
 	/**
@@ -206,6 +207,7 @@ public class ATCommandResponsePacket extends XBeeAPIPacket {
 	 */
 	public void setCommandValue(byte[] commandValue) {
 		this.commandValue = commandValue;
+		invalidateSerializedData();
 	}
 	
 	/**
@@ -23,6 +23,7 @@ import com.digi.xbee.api.models.XBee16BitAddress;
 import com.digi.xbee.api.models.XBee64BitAddress;
 import com.digi.xbee.api.packet.APIFrameType;
 import com.digi.xbee.api.packet.XBeeAPIPacket;
+import com.digi.xbee.api.packet.XBeeFrameWriter;
 import com.digi.xbee.api.utils.HexUtils;
 
 /**
@@ -287,6 +288,32 @@ public class ExplicitAddressingPacket extends XBeeAPIPacket {
 		return data.toByteArray();
 	}
 	
+	/*
+	 * (non-Javadoc)
+	 * @see com.digi.xbee.api.packet.XBeeAPIPacket#getAPIPacketSpecificDataLength()
+	 */
+	@Override
+	protected int getAPIPacketSpecificDataLength() {
+		return 8 + 2 + 2 + 4 + 2 + (rfData == null ? 0 : rfData.length);
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * @see com.digi.xbee.api.packet.XBeeAPIPacket#writeAPIPacketSpecificData(com.digi.xbee.api.packet.XBeeFrameWriter)
+	 */
+	@Override
+	protected void writeAPIPacketSpecificData(XBeeFrameWriter writer) {
+		writer.writeAddress(destAddress64);
+		writer.writeAddress(destAddress16);
+		writer.writeByte(sourceEndpoint);
+		writer.writeByte(destEndpoint);
+		writer.writeShort(clusterID);
+		writer.writeShort(profileID);
+		writer.writeByte(broadcastRadius);
+		writer.writeByte(transmitOptions);
+		writer.writeBytes(rfData);
+	}
+	
 	/*
 	 * (non-Javadoc)
 	 * @see com.digi.xbee.api.packet.XBeeAPIPacket#needsAPIFrameID()
@@ -396,6 +423,7 @@ public class ExplicitAddressingPacket extends XBeeAPIPacket {
 			this.rfData = null;
 		else
 			this.rfData = Arrays.copyOf(rfData, rfData.length);
+		invalidateSerializedData();
 	}
 	
 	/**
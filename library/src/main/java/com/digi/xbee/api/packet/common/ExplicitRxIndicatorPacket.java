@@ -330,6 +330,7 @@ public class ExplicitRxIndicatorPacket extends XBeeAPIPacket {
 			this.rfData = null;
 		else
 			this.rfData = Arrays.copyOf(rfData, rfData.length);
+		invalidateSerializedData();
 	}
 	
 	/**
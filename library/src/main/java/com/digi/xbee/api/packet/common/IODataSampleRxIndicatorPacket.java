@@ -248,6 +248,8 @@ public class IODataSampleRxIndicatorPacket extends XBeeAPIPacket {
 			ioSample = new IOSample(this.rfData);
 		else
 			ioSample = null;
+		
+		invalidateSerializedData();
 	}
 	
 	/**
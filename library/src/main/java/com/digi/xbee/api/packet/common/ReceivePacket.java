@@ -223,6 +223,7 @@ public class ReceivePacket extends XBeeAPIPacket {
 			this.rfData = null;
 		else
 			this.rfData = Arrays.copyOf(rfData, rfData.length);
+		invalidateSerializedData();
 	}
 	
 	/**
@@ -24,6 +24,7 @@ import com.digi.xbee.api.models.XBee16BitAddress;
 import com.digi.xbee.api.models.XBee64BitAddress;
 import com.digi.xbee.api.packet.APIFrameType;
 import com.digi.xbee.api.packet.XBeeAPIPacket;
+import com.digi.xbee.api.packet.XBeeFrameWriter;
 import com.digi.xbee.api.utils.ByteUtils;
 import com.digi.xbee.api.utils.HexUtils;
 
@@ -238,6 +239,28 @@ public class RemoteATCommandPacket extends XBeeAPIPacket {
 		return data.toByteArray();
 	}
 	
+	/*
+	 * (non-Javadoc)
+	 * @see com.digi.xbee.api.packet.XBeeAPIPacket#getAPIPacketSpecificDataLength()
+	 */
+	@Override
+	protected int getAPIPacketSpecificDataLength() {
+		return 8 + 2 + 1 + command.length() + (parameter == null ? 0 : parameter.length);
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * @see com.digi.xbee.api.packet.XBeeAPIPacket#writeAPIPacketSpecificData(com.digi.xbee.api.packet.XBeeFrameWriter)
+	 */
+	@Override
+	protected void writeAPIPacketSpecificData(XBeeFrameWriter writer) {
+		writer.writeAddress(destAddress64);
+		writer.writeAddress(destAddress16);
+		writer.writeByte(transmitOptions);
+		writer.writeASCII(command);
+		writer.writeBytes(parameter);
+	}
+	
 	/*
 	 * (non-Javadoc)
 	 * @see com.digi.xbee.api.packet.XBeeAPIPacket#needsAPIFrameID()
@@ -309,6 +332,7 @@ public class RemoteATCommandPacket extends XBeeAPIPacket {
 			this.parameter = null;
 		else
 			this.parameter = parameter.getBytes();
+		invalidateSerializedData();
 	}
 	
 	/**
@@ -318,6 +342,7 @@ public class RemoteATCommandPacket extends XBeeAPIPacket {
 	 */
 	public void setParameter(byte[] parameter) {
 		this.parameter = parameter;
+		invalidateSerializedData();
 	}
 	
 	/**
@@ -253,6 +253,7 @@ public class RemoteATCommandResponsePacket extends XBeeAPIPacket {
 			this.commandValue = null;
 		else
 			this.commandValue = commandValue.getBytes();
+		invalidateSerializedData();
 	}
 	
 	/**
@@ -262,6 +263,7 @@ public class RemoteATCommandResponsePacket extends XBeeAPIPacket {
 	 */
 	public void setCommandValue(byte[] commandValue) {
 		this.commandValue = commandValue;
+		invalidateSerializedData();
 	}
 	
 	/**
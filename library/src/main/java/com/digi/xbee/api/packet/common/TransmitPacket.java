@@ -22,6 +22,7 @@ import org.slf4j.LoggerFactory;
 import com.digi.xbee.api.models.XBee16BitAddress;
 import com.digi.xbee.api.models.XBee64BitAddress;
 import com.digi.xbee.api.packet.XBeeAPIPacket;
+import com.digi.xbee.api.packet.XBeeFrameWriter;
 import com.digi.xbee.api.packet.APIFrameType;
 import com.digi.xbee.api.utils.HexUtils;
 
@@ -215,6 +216,28 @@ public class TransmitPacket extends XBeeAPIPacket {
 		}
 		return data.toByteArray();
 	}
+	
+	/*
+	 * (non-Javadoc)
+	 * @see com.digi.xbee.api.packet.XBeeAPIPacket#getAPIPacketSpecificDataLength()
+	 */
+	@Override
+	protected int getAPIPacketSpecificDataLength() {
+		return 8 + 2 + 2 + (rfData == null ? 0 : rfData.length);
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * @see com.digi.xbee.api.packet.XBeeAPIPacket#writeAPIPacketSpecificData(com.digi.xbee.api.packet.XBeeFrameWriter)
+	 */
+	@Override
+	protected void writeAPIPacketSpecificData(XBeeFrameWriter writer) {
+		writer.writeAddress(destAddress64);
+		writer.writeAddress(destAddress16);
+		writer.writeByte(broadcastRadius);
+		writer.writeByte(transmitOptions);
+		writer.writeBytes(rfData);
+	}
 
 	/*
 	 * (non-Javadoc)
@@ -287,6 +310,7 @@ public class TransmitPacket extends XBeeAPIPacket {
 			this.rfData = null;
 		else
 			this.rfData = Arrays.copyOf(rfData, rfData.length);
+		invalidateSerializedData();
 	}
 	
 	/**
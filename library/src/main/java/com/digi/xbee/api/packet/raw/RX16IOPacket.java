@@ -239,6 +239,8 @@ public class RX16IOPacket extends XBeeAPIPacket {
 			ioSample = new IOSample(this.rfData);
 		else
 			ioSample = null;
+		
+		invalidateSerializedData();
 	}
 	
 	/**
@@ -239,6 +239,8 @@ public class RX64IOPacket extends XBeeAPIPacket {
 			ioSample = new IOSample(this.rfData);
 		else
 			ioSample = null;
+		
+		invalidateSerializedData();
 	}
 	
 	/**
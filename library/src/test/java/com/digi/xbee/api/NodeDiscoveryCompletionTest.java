@@ -0,0 +1,149 @@
+/**
+ * Copyright (c) 2014-2016 Digi International Inc.,
+ * All rights not expressly granted are reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * Digi International Inc. 11001 Bren Road East, Minnetonka, MN 55343
+ * =======================================================================
+ */
+package com.digi.xbee.api;
+
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.junit.Assert.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.digi.xbee.api.connection.emulator.EmulatedRemoteNode;
+import com.digi.xbee.api.connection.emulator.XBeeEmulator;
+import com.digi.xbee.api.exceptions.XBeeException;
+import com.digi.xbee.api.listeners.IDiscoveryListener;
+import com.digi.xbee.api.models.XBee16BitAddress;
+import com.digi.xbee.api.models.XBee64BitAddress;
+
+public class NodeDiscoveryCompletionTest {
+	
+	// Constants.
+	private final static byte[] NT_10_SECONDS = new byte[] {0x64};
+	
+	private final static long MAX_WAIT = 2000;
+	
+	// Variables.
+	private XBeeEmulator emulator;
+	private XBeeDevice xbeeDevice;
+	private EmulatedRemoteNode node;
+	
+	@Before
+	public void setUp() throws XBeeException {
+		emulator = new XBeeEmulator();
+		node = new EmulatedRemoteNode(new XBee64BitAddress("0013A20040A9E77F"), new XBee16BitAddress("1234"), "REMOTE");
+		emulator.addRemoteNode(node);
+		emulator.setParameter("NT", NT_10_SECONDS);
+		xbeeDevice = new XBeeDevice(emulator);
+		xbeeDevice.open();
+	}
+	
+	@After
+	public void tearDown() {
+		xbeeDevice.close();
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.NodeDiscovery#discoverDevice(String)}.
+	 * 
+	 * <p>Verify that the discovery of a device finishes as soon as the device 
+	 * answers, without waiting for the discovery timeout.</p>
+	 * 
+	 * @throws XBeeException
+	 */
+	@Test
+	public final void testDiscoverDeviceReturnsWhenFound() throws XBeeException {
+		// Call the method under test.
+		long start = System.currentTimeMillis();
+		RemoteXBeeDevice remote = new NodeDiscovery(xbeeDevice).discoverDevice("REMOTE");
+		long elapsed = System.currentTimeMillis() - start;
+		
+		// Verify the result.
+		assertThat(remote.get64BitAddress(), is(equalTo(node.get64BitAddress())));
+		assertThat(elapsed < MAX_WAIT, is(equalTo(true)));
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.NodeDiscovery#stopDiscoveryProcess()}.
+	 * 
+	 * <p>Verify that the discovered devices are notified while the discovery 
+	 * is running and that stopping it finishes the discovery immediately.</p>
+	 * 
+	 * @throws InterruptedException
+	 */
+	@Test
+	public final void testStopDiscoveryProcess() throws InterruptedException {
+		// Setup the resources for the test.
+		final List<RemoteXBeeDevice> discovered = new ArrayList<RemoteXBeeDevice>();
+		final Object finishedLock = new Object();
+		final boolean[] finished = new boolean[1];
+		IDiscoveryListener listener = new IDiscoveryListener() {
+			/*
+			 * (non-Javadoc)
+			 * @see com.digi.xbee.api.listeners.IDiscoveryListener#deviceDiscovered(com.digi.xbee.api.RemoteXBeeDevice)
+			 */
+			@Override
+			public void deviceDiscovered(RemoteXBeeDevice discoveredDevice) {
+				synchronized (discovered) {
+					discovered.add(discoveredDevice);
+					discovered.notifyAll();
+				}
+			}
+			
+			/*
+			 * (non-Javadoc)
+			 * @see com.digi.xbee.api.listeners.IDiscoveryListener#discoveryError(java.lang.String)
+			 */
+			@Override
+			public void discoveryError(String error) {}
+			
+			/*
+			 * (non-Javadoc)
+			 * @see com.digi.xbee.api.listeners.IDiscoveryListener#discoveryFinished(java.lang.String)
+			 */
+			@Override
+			public void discoveryFinished(String error) {
+				synchronized (finishedLock) {
+					finished[0] = true;
+					finishedLock.notifyAll();
+				}
+			}
+		};
+		List<IDiscoveryListener> listeners = new ArrayList<IDiscoveryListener>();
+		listeners.add(listener);
+		NodeDiscovery nodeDiscovery = new NodeDiscovery(xbeeDevice);
+		
+		nodeDiscovery.startDiscoveryProcess(listeners);
+		synchronized (discovered) {
+			if (discovered.isEmpty())
+				discovered.wait(MAX_WAIT);
+		}
+		
+		// Call the method under test.
+		long start = System.currentTimeMillis();
+		nodeDiscovery.stopDiscoveryProcess();
+		synchronized (finishedLock) {
+			if (!finished[0])
+				finishedLock.wait(MAX_WAIT);
+		}
+		long elapsed = System.currentTimeMillis() - start;
+		
+		// Verify the result.
+		assertThat(discovered.size(), is(equalTo(1)));
+		assertThat(finished[0], is(equalTo(true)));
+		assertThat(elapsed < MAX_WAIT, is(equalTo(true)));
+	}
+}
@@ -0,0 +1,280 @@
+/**
+ * Copyright (c) 2014-2016 Digi International Inc.,
+ * All rights not expressly granted are reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * Digi International Inc. 11001 Bren Road East, Minnetonka, MN 55343
+ * =======================================================================
+ */
+package com.digi.xbee.api;
+
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.junit.Assert.assertThat;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.mockito.Mockito;
+
+import com.digi.xbee.api.connection.IConnectionInterface;
+import com.digi.xbee.api.exceptions.InterfaceNotOpenException;
+import com.digi.xbee.api.exceptions.OperationNotSupportedException;
+import com.digi.xbee.api.exceptions.TransmitException;
+import com.digi.xbee.api.models.ATCommandStatus;
+import com.digi.xbee.api.models.OperatingMode;
+import com.digi.xbee.api.models.XBee16BitAddress;
+import com.digi.xbee.api.models.XBee64BitAddress;
+import com.digi.xbee.api.models.XBeeDiscoveryStatus;
+import com.digi.xbee.api.models.XBeeTransmitStatus;
+import com.digi.xbee.api.packet.XBeePacket;
+import com.digi.xbee.api.packet.common.ATCommandResponsePacket;
+import com.digi.xbee.api.packet.common.ExplicitAddressingPacket;
+import com.digi.xbee.api.packet.common.TransmitPacket;
+import com.digi.xbee.api.packet.common.TransmitStatusPacket;
+import com.digi.xbee.api.packet.raw.TX16Packet;
+import com.digi.xbee.api.packet.raw.TXStatusPacket;
+
+public class SendDataFutureTest {
+	
+	// Constants.
+	private final static long TIMEOUT = 5000;
+	
+	private final static XBee64BitAddress XBEE_64BIT_ADDRESS = new XBee64BitAddress("0013A2004032D9AB");
+	private final static XBee16BitAddress XBEE_16BIT_ADDRESS = new XBee16BitAddress("B45C");
+	
+	private final static byte[] DATA = "data".getBytes();
+	
+	// Variables.
+	private TestZigBeeDevice zigbeeDevice;
+	private Test802Device raw802Device;
+	
+	private RemoteXBeeDevice remoteDevice;
+	
+	@Rule
+	public ExpectedException exception = ExpectedException.none();
+	
+	/**
+	 * ZigBee device that records the last packet sent through the transmit 
+	 * pipeline instead of writing it.
+	 */
+	private static class TestZigBeeDevice extends ZigBeeDevice {
+		
+		XBeePacket sentPacket;
+		CompletableFuture<XBeePacket> response = new CompletableFuture<XBeePacket>();
+		
+		TestZigBeeDevice() {
+			super(Mockito.mock(IConnectionInterface.class));
+		}
+		
+		@Override
+		public CompletableFuture<XBeePacket> sendPacketFuture(XBeePacket packet, int timeout) {
+			sentPacket = packet;
+			return response;
+		}
+	}
+	
+	/**
+	 * 802.15.4 device that records the last packet sent through the transmit 
+	 * pipeline instead of writing it.
+	 */
+	private static class Test802Device extends Raw802Device {
+		
+		XBeePacket sentPacket;
+		CompletableFuture<XBeePacket> response = new CompletableFuture<XBeePacket>();
+		
+		Test802Device() {
+			super(Mockito.mock(IConnectionInterface.class));
+		}
+		
+		@Override
+		public CompletableFuture<XBeePacket> sendPacketFuture(XBeePacket packet, int timeout) {
+			sentPacket = packet;
+			return response;
+		}
+	}
+	
+	@Before
+	public void setUp() {
+		zigbeeDevice = new TestZigBeeDevice();
+		raw802Device = new Test802Device();
+		remoteDevice = new RemoteXBeeDevice(zigbeeDevice, XBEE_64BIT_ADDRESS, XBEE_16BIT_ADDRESS, "Remote");
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.XBeeDevice#sendDataFuture(RemoteXBeeDevice, byte[], int)}.
+	 * 
+	 * <p>Verify that a null data array cannot be sent.</p>
+	 * 
+	 * @throws Exception
+	 */
+	@Test
+	public final void testSendDataFutureNullData() throws Exception {
+		exception.expect(NullPointerException.class);
+		exception.expectMessage(is(equalTo("Data cannot be null")));
+		
+		zigbeeDevice.sendDataFuture(remoteDevice, null, 100);
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.XBeeDevice#sendDataFuture(RemoteXBeeDevice, byte[], int)}.
+	 * 
+	 * <p>Verify that the future is not completed until the transmit status 
+	 * is received and then it is completed with that status.</p>
+	 * 
+	 * @throws Exception
+	 */
+	@Test
+	public final void testSendDataFutureSuccess() throws Exception {
+		// Call the method under test.
+		CompletableFuture<XBeeTransmitStatus> result = zigbeeDevice.sendDataFuture(remoteDevice, DATA, 100);
+		
+		// Verify the result.
+		assertThat(result.isDone(), is(equalTo(false)));
+		TransmitPacket packet = (TransmitPacket)zigbeeDevice.sentPacket;
+		assertThat(packet.get64bitDestinationAddress(), is(equalTo(XBEE_64BIT_ADDRESS)));
+		assertThat(packet.get16bitDestinationAddress(), is(equalTo(XBEE_16BIT_ADDRESS)));
+		
+		zigbeeDevice.response.complete(createTransmitStatusPacket(packet.getFrameID(), XBeeTransmitStatus.SUCCESS));
+		assertThat(result.get(TIMEOUT, TimeUnit.MILLISECONDS), is(equalTo(XBeeTransmitStatus.SUCCESS)));
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.XBeeDevice#sendDataFuture(RemoteXBeeDevice, byte[], int)}.
+	 * 
+	 * <p>Verify that a delivery error is reported as the status of the future
+	 * instead of failing it.</p>
+	 * 
+	 * @throws Exception
+	 */
+	@Test
+	public final void testSendDataFutureDeliveryError() throws Exception {
+		// Call the method under test.
+		CompletableFuture<XBeeTransmitStatus> result = zigbeeDevice.sendDataFuture(remoteDevice, DATA, 100);
+		zigbeeDevice.response.complete(createTransmitStatusPacket(
+				((TransmitPacket)zigbeeDevice.sentPacket).getFrameID(), XBeeTransmitStatus.ADDRESS_NOT_FOUND));
+		
+		// Verify the result.
+		assertThat(result.get(TIMEOUT, TimeUnit.MILLISECONDS), is(equalTo(XBeeTransmitStatus.ADDRESS_NOT_FOUND)));
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.XBeeDevice#sendDataFuture(RemoteXBeeDevice, byte[], int)}.
+	 * 
+	 * <p>Verify that the future fails with a {@code TransmitException} if the
+	 * response is not a transmit status.</p>
+	 * 
+	 * @throws Exception
+	 */
+	@Test
+	public final void testSendDataFutureInvalidResponse() throws Exception {
+		// Call the method under test.
+		CompletableFuture<XBeeTransmitStatus> result = zigbeeDevice.sendDataFuture(remoteDevice, DATA, 100);
+		zigbeeDevice.response.complete(new ATCommandResponsePacket(1, ATCommandStatus.OK, "NI", new byte[0]));
+		
+		// Verify the result.
+		try {
+			result.get(TIMEOUT, TimeUnit.MILLISECONDS);
+		} catch (ExecutionException e) {
+			assertThat(e.getCause() instanceof TransmitException, is(equalTo(true)));
+			assertThat(e.getCause().getMessage(), 
+					is(equalTo("Unexpected response received instead of a transmit status: AT Command Response.")));
+		}
+		assertThat(result.isCompletedExceptionally(), is(equalTo(true)));
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.Raw802Device#sendDataFuture(XBee16BitAddress, byte[], int)}.
+	 * 
+	 * <p>Verify that 802.15.4 devices send a TX16 packet and complete the 
+	 * future with the status of the TX status packet.</p>
+	 * 
+	 * @throws Exception
+	 */
+	@Test
+	public final void testSendDataFuture802() throws Exception {
+		// Call the method under test.
+		CompletableFuture<XBeeTransmitStatus> result = raw802Device.sendDataFuture(XBEE_16BIT_ADDRESS, DATA, 100);
+		
+		// Verify the result.
+		TX16Packet packet = (TX16Packet)raw802Device.sentPacket;
+		assertThat(packet.get16bitDestinationAddress(), is(equalTo(XBEE_16BIT_ADDRESS)));
+		
+		raw802Device.response.complete(new TXStatusPacket(packet.getFrameID(), XBeeTransmitStatus.NO_ACK));
+		assertThat(result.get(TIMEOUT, TimeUnit.MILLISECONDS), is(equalTo(XBeeTransmitStatus.NO_ACK)));
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.ZigBeeDevice#sendExplicitDataFuture(RemoteXBeeDevice, int, int, int, int, byte[], int)}.
+	 * 
+	 * <p>Verify that explicit data is sent in an explicit addressing packet.
+	 * </p>
+	 * 
+	 * @throws Exception
+	 */
+	@Test
+	public final void testSendExplicitDataFuture() throws Exception {
+		// Call the method under test.
+		CompletableFuture<XBeeTransmitStatus> result = zigbeeDevice.sendExplicitDataFuture(remoteDevice, 0xA0, 0xA1, 0x1554, 0xC105, DATA, 100);
+		
+		// Verify the result.
+		ExplicitAddressingPacket packet = (ExplicitAddressingPacket)zigbeeDevice.sentPacket;
+		assertThat(packet.getClusterID(), is(equalTo(0x1554)));
+		assertThat(packet.getProfileID(), is(equalTo(0xC105)));
+		
+		zigbeeDevice.response.complete(createTransmitStatusPacket(packet.getFrameID(), XBeeTransmitStatus.SUCCESS));
+		assertThat(result.get(TIMEOUT, TimeUnit.MILLISECONDS), is(equalTo(XBeeTransmitStatus.SUCCESS)));
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.XBeeDevice#sendExplicitDataFuture(RemoteXBeeDevice, int, int, int, int, byte[], int)}.
+	 * 
+	 * <p>Verify that 802.15.4 devices cannot send explicit data.</p>
+	 * 
+	 * @throws Exception
+	 */
+	@Test
+	public final void testSendExplicitDataFuture802() throws Exception {
+		exception.expect(OperationNotSupportedException.class);
+		exception.expectMessage(is(equalTo("802.15.4. protocol does not support explicit data transmissions.")));
+		
+		raw802Device.sendExplicitDataFuture(new RemoteXBeeDevice(raw802Device, XBEE_64BIT_ADDRESS), 
+				0xA0, 0xA1, 0x1554, 0xC105, DATA, 100);
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.AbstractXBeeDevice#sendXBeePacketFuture(XBeePacket)}.
+	 * 
+	 * <p>Verify that a packet cannot be sent if the device has no data reader
+	 * to receive its response, even if the connection reports that it is 
+	 * open.</p>
+	 * 
+	 * @throws Exception
+	 */
+	@Test
+	public final void testSendXBeePacketFutureNoDataReader() throws Exception {
+		// Setup the resources for the test.
+		IConnectionInterface connectionInterface = Mockito.mock(IConnectionInterface.class);
+		Mockito.when(connectionInterface.isOpen()).thenReturn(true);
+		ZigBeeDevice device = new ZigBeeDevice(connectionInterface);
+		device.operatingMode = OperatingMode.API;
+		
+		exception.expect(InterfaceNotOpenException.class);
+		
+		// Call the method under test.
+		device.sendXBeePacketFuture(new TransmitPacket(0, XBEE_64BIT_ADDRESS, XBEE_16BIT_ADDRESS, 0, 0, DATA));
+	}
+	
+	private static TransmitStatusPacket createTransmitStatusPacket(int frameID, XBeeTransmitStatus status) {
+		return new TransmitStatusPacket(frameID, XBEE_16BIT_ADDRESS, 0, status, 
+				XBeeDiscoveryStatus.DISCOVERY_STATUS_NO_DISCOVERY_OVERHEAD);
+	}
+}
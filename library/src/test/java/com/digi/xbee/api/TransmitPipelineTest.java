@@ -0,0 +1,269 @@
+/**
+ * Copyright (c) 2014-2016 Digi International Inc.,
+ * All rights not expressly granted are reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * Digi International Inc. 11001 Bren Road East, Minnetonka, MN 55343
+ * =======================================================================
+ */
+package com.digi.xbee.api;
+
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.junit.Assert.assertThat;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.mockito.Mockito;
+
+import com.digi.xbee.api.connection.IConnectionInterface;
+import com.digi.xbee.api.exceptions.InterfaceNotOpenException;
+import com.digi.xbee.api.exceptions.TimeoutException;
+import com.digi.xbee.api.models.XBee16BitAddress;
+import com.digi.xbee.api.models.XBee64BitAddress;
+import com.digi.xbee.api.models.XBeeDiscoveryStatus;
+import com.digi.xbee.api.models.XBeeTransmitStatus;
+import com.digi.xbee.api.packet.XBeePacket;
+import com.digi.xbee.api.packet.common.TransmitPacket;
+import com.digi.xbee.api.packet.common.TransmitStatusPacket;
+
+public class TransmitPipelineTest {
+
+	// Constants.
+	private final static long TIMEOUT = 5000;
+
+	// Variables.
+	private TestXBeeDevice xbeeDevice;
+	private TransmitPipeline pipeline;
+
+	@Rule
+	public ExpectedException exception = ExpectedException.none();
+
+	/**
+	 * XBee device that records the sent packets instead of writing them.
+	 */
+	private static class TestXBeeDevice extends XBeeDevice {
+
+		final List<XBeePacket> sentPackets = Collections.synchronizedList(new ArrayList<XBeePacket>());
+		final List<CompletableFuture<XBeePacket>> responses = Collections.synchronizedList(new ArrayList<CompletableFuture<XBeePacket>>());
+
+		// If set, the writes wait for it to simulate a slow connection.
+		volatile CountDownLatch writeLatch;
+		final CountDownLatch writing = new CountDownLatch(1);
+
+		TestXBeeDevice() {
+			super(Mockito.mock(IConnectionInterface.class));
+		}
+
+		@Override
+		protected CompletableFuture<XBeePacket> sendXBeePacketFuture(XBeePacket packet) {
+			CountDownLatch latch = writeLatch;
+			if (latch != null) {
+				writing.countDown();
+				try {
+					latch.await();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+			}
+			CompletableFuture<XBeePacket> response = new CompletableFuture<XBeePacket>();
+			sentPackets.add(packet);
+			responses.add(response);
+			return response;
+		}
+	}
+
+	@Before
+	public void setUp() {
+		xbeeDevice = new TestXBeeDevice();
+		pipeline = new TransmitPipeline(xbeeDevice, 2);
+	}
+
+	@After
+	public void tearDown() {
+		pipeline.close();
+	}
+
+	/**
+	 * Test method for {@link com.digi.xbee.api.TransmitPipeline#setWindowSize(int)}.
+	 *
+	 * <p>Verify that the window cannot hold more than 255 packets.</p>
+	 */
+	@Test
+	public final void testSetWindowSizeTooBig() {
+		exception.expect(IllegalArgumentException.class);
+		exception.expectMessage(is(equalTo("Window size must be between 1 and 255.")));
+
+		pipeline.setWindowSize(256);
+	}
+
+	/**
+	 * Test method for {@link com.digi.xbee.api.TransmitPipeline#submit(XBeePacket, long)}.
+	 *
+	 * <p>Verify that no more packets than the window size are in flight and
+	 * that queued packets are sent when a response arrives.</p>
+	 *
+	 * @throws Exception
+	 */
+	@Test
+	public final void testSubmitWindowFull() throws Exception {
+		// Call the method under test.
+		CompletableFuture<XBeePacket> first = pipeline.submit(createTransmitPacket(1), TIMEOUT);
+		pipeline.submit(createTransmitPacket(2), TIMEOUT);
+		pipeline.submit(createTransmitPacket(3), TIMEOUT);
+
+		// Verify the result.
+		assertThat(xbeeDevice.sentPackets.size(), is(equalTo(2)));
+		assertThat(pipeline.getInFlightCount(), is(equalTo(2)));
+		assertThat(pipeline.getQueuedCount(), is(equalTo(1)));
+
+		// Receive the response of the first packet.
+		TransmitStatusPacket status = createTransmitStatusPacket(1);
+		xbeeDevice.responses.get(0).complete(status);
+
+		assertThat(first.get(TIMEOUT, TimeUnit.MILLISECONDS), is(equalTo((XBeePacket)status)));
+		waitForSentPackets(3);
+		assertThat(pipeline.getQueuedCount(), is(equalTo(0)));
+		assertThat(pipeline.getMaxInFlightCount(), is(equalTo(2)));
+		assertThat(pipeline.getSentCount(), is(equalTo(3L)));
+	}
+
+	/**
+	 * Test method for {@link com.digi.xbee.api.TransmitPipeline#submit(XBeePacket, long)}.
+	 *
+	 * <p>Verify that submitting a packet and reading the statistics do not
+	 * wait for a write in progress in another thread, and that the packets
+	 * are written in order.</p>
+	 *
+	 * @throws Exception
+	 */
+	@Test
+	public final void testSubmitDoesNotWaitForWrites() throws Exception {
+		// Setup the resources for the test.
+		CountDownLatch latch = new CountDownLatch(1);
+		xbeeDevice.writeLatch = latch;
+		Thread writer = new Thread(new Runnable() {
+			/*
+			 * (non-Javadoc)
+			 * @see java.lang.Runnable#run()
+			 */
+			@Override
+			public void run() {
+				pipeline.submit(createTransmitPacket(1), TIMEOUT);
+			}
+		});
+		writer.start();
+		assertThat(xbeeDevice.writing.await(TIMEOUT, TimeUnit.MILLISECONDS), is(equalTo(true)));
+
+		// Call the method under test while the first packet is being written.
+		pipeline.submit(createTransmitPacket(2), TIMEOUT);
+
+		// Verify the result.
+		assertThat(pipeline.getInFlightCount(), is(equalTo(1)));
+		assertThat(pipeline.getQueuedCount(), is(equalTo(1)));
+		assertThat(xbeeDevice.sentPackets.size(), is(equalTo(0)));
+
+		// Finish the write, the writing thread also sends the second packet.
+		latch.countDown();
+		writer.join(TIMEOUT);
+		waitForSentPackets(2);
+		assertThat(((TransmitPacket)xbeeDevice.sentPackets.get(0)).getFrameID(), is(equalTo(1)));
+		assertThat(((TransmitPacket)xbeeDevice.sentPackets.get(1)).getFrameID(), is(equalTo(2)));
+	}
+
+	/**
+	 * Test method for {@link com.digi.xbee.api.TransmitPipeline#submit(XBeePacket, long)}.
+	 *
+	 * <p>Verify that a packet without response in time is completed with a
+	 * timeout and frees its position in the window.</p>
+	 *
+	 * @throws Exception
+	 */
+	@Test
+	public final void testSubmitTimeout() throws Exception {
+		// Call the method under test.
+		CompletableFuture<XBeePacket> result = pipeline.submit(createTransmitPacket(1), 50);
+
+		// Verify the result.
+		try {
+			result.get(TIMEOUT, TimeUnit.MILLISECONDS);
+		} catch (ExecutionException e) {
+			assertThat(e.getCause() instanceof TimeoutException, is(equalTo(true)));
+		}
+		assertThat(result.isCompletedExceptionally(), is(equalTo(true)));
+		waitForInFlightPackets(0);
+		assertThat(xbeeDevice.responses.get(0).isCancelled(), is(equalTo(true)));
+		assertThat(pipeline.getTimeoutCount(), is(equalTo(1L)));
+	}
+
+	/**
+	 * Test method for {@link com.digi.xbee.api.TransmitPipeline#close()}.
+	 *
+	 * <p>Verify that closing the pipeline fails the packets in flight and the
+	 * queued ones, and rejects new packets.</p>
+	 *
+	 * @throws Exception
+	 */
+	@Test
+	public final void testClose() throws Exception {
+		// Setup the resources for the test.
+		List<CompletableFuture<XBeePacket>> results = new ArrayList<CompletableFuture<XBeePacket>>();
+		for (int i = 1; i <= 3; i++)
+			results.add(pipeline.submit(createTransmitPacket(i), TIMEOUT));
+
+		// Call the method under test.
+		pipeline.close();
+		CompletableFuture<XBeePacket> afterClose = pipeline.submit(createTransmitPacket(4), TIMEOUT);
+
+		// Verify the result.
+		results.add(afterClose);
+		for (CompletableFuture<XBeePacket> result : results) {
+			try {
+				result.get(TIMEOUT, TimeUnit.MILLISECONDS);
+			} catch (ExecutionException e) {
+				assertThat(e.getCause() instanceof InterfaceNotOpenException, is(equalTo(true)));
+			}
+			assertThat(result.isCompletedExceptionally(), is(equalTo(true)));
+		}
+		assertThat(pipeline.isClosed(), is(equalTo(true)));
+		assertThat(xbeeDevice.sentPackets.size(), is(equalTo(2)));
+	}
+
+	private void waitForSentPackets(int count) throws InterruptedException {
+		long deadline = System.currentTimeMillis() + TIMEOUT;
+		while (xbeeDevice.sentPackets.size() < count && System.currentTimeMillis() < deadline)
+			Thread.sleep(10);
+		assertThat(xbeeDevice.sentPackets.size(), is(equalTo(count)));
+	}
+
+	private void waitForInFlightPackets(int count) throws InterruptedException {
+		long deadline = System.currentTimeMillis() + TIMEOUT;
+		while (pipeline.getInFlightCount() != count && System.currentTimeMillis() < deadline)
+			Thread.sleep(10);
+		assertThat(pipeline.getInFlightCount(), is(equalTo(count)));
+	}
+
+	private static TransmitPacket createTransmitPacket(int frameID) {
+		return new TransmitPacket(frameID, XBee64BitAddress.BROADCAST_ADDRESS,
+				XBee16BitAddress.UNKNOWN_ADDRESS, 0, 0, new byte[]{0x01});
+	}
+
+	private static TransmitStatusPacket createTransmitStatusPacket(int frameID) {
+		return new TransmitStatusPacket(frameID, XBee16BitAddress.UNKNOWN_ADDRESS, 0,
+				XBeeTransmitStatus.SUCCESS, XBeeDiscoveryStatus.DISCOVERY_STATUS_NO_DISCOVERY_OVERHEAD);
+	}
+}
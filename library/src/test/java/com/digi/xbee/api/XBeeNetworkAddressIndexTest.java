@@ -0,0 +1,140 @@
+/**
+ * Copyright (c) 2014-2016 Digi International Inc.,
+ * All rights not expressly granted are reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * Digi International Inc. 11001 Bren Road East, Minnetonka, MN 55343
+ * =======================================================================
+ */
+package com.digi.xbee.api;
+
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.hamcrest.core.IsNull.nullValue;
+import static org.junit.Assert.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.digi.xbee.api.connection.emulator.XBeeEmulator;
+import com.digi.xbee.api.exceptions.OperationNotSupportedException;
+import com.digi.xbee.api.exceptions.XBeeException;
+import com.digi.xbee.api.models.XBee16BitAddress;
+import com.digi.xbee.api.models.XBee64BitAddress;
+
+public class XBeeNetworkAddressIndexTest {
+	
+	// Constants.
+	private final static XBee64BitAddress ADDRESS_64 = new XBee64BitAddress("0013A20040A9E77F");
+	private final static XBee16BitAddress ADDRESS_16 = new XBee16BitAddress("1234");
+	private final static XBee16BitAddress NEW_ADDRESS_16 = new XBee16BitAddress("5678");
+	
+	// Variables.
+	private XBeeDevice xbeeDevice;
+	private XBeeNetwork network;
+	
+	private RemoteXBeeDevice remote;
+	
+	@Before
+	public void setUp() throws XBeeException {
+		xbeeDevice = new XBeeDevice(new XBeeEmulator());
+		xbeeDevice.open();
+		network = xbeeDevice.getNetwork();
+		remote = network.addRemoteDevice(new RemoteZigBeeDevice(xbeeDevice, ADDRESS_64, ADDRESS_16, "REMOTE"));
+	}
+	
+	@After
+	public void tearDown() {
+		xbeeDevice.close();
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.XBeeNetwork#addRemoteDevice(RemoteXBeeDevice)}.
+	 * 
+	 * <p>Verify that a device with only a 16-bit address is merged with the 
+	 * device of the network that has the same 16-bit address.</p>
+	 * 
+	 * @throws OperationNotSupportedException
+	 */
+	@Test
+	public final void testAddRemoteDeviceWith16BitAddress() throws OperationNotSupportedException {
+		// Call the method under test.
+		RemoteXBeeDevice merged = network.addRemoteDevice(new RemoteZigBeeDevice(xbeeDevice, 
+				XBee64BitAddress.UNKNOWN_ADDRESS, ADDRESS_16, "RENAMED"));
+		
+		// Verify the result.
+		assertThat(merged == remote, is(equalTo(true)));
+		assertThat(merged.getNodeID(), is(equalTo("RENAMED")));
+		assertThat(network.getNumberOfDevices(), is(equalTo(1)));
+		assertThat(network.getDevice(ADDRESS_16) == remote, is(equalTo(true)));
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.XBeeNetwork#addRemoteDevice(RemoteXBeeDevice)}.
+	 * 
+	 * <p>Verify that the device is found by its new 16-bit address after it 
+	 * joins the network again.</p>
+	 * 
+	 * @throws OperationNotSupportedException
+	 */
+	@Test
+	public final void testAddRemoteDeviceNew16BitAddress() throws OperationNotSupportedException {
+		// Call the method under test.
+		network.addRemoteDevice(new RemoteZigBeeDevice(xbeeDevice, ADDRESS_64, NEW_ADDRESS_16, "REMOTE"));
+		
+		// Verify the result.
+		assertThat(network.getDevice(ADDRESS_16), is(nullValue()));
+		assertThat(network.getDevice(NEW_ADDRESS_16) == remote, is(equalTo(true)));
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.XBeeNetwork#removeRemoteDevice(RemoteXBeeDevice)}.
+	 * 
+	 * <p>Verify that a device with only a 16-bit address removes the device 
+	 * of the network with that address.</p>
+	 * 
+	 * @throws OperationNotSupportedException
+	 */
+	@Test
+	public final void testRemoveRemoteDeviceWith16BitAddress() throws OperationNotSupportedException {
+		// Call the method under test.
+		network.removeRemoteDevice(new RemoteZigBeeDevice(xbeeDevice, XBee64BitAddress.UNKNOWN_ADDRESS, ADDRESS_16, null));
+		
+		// Verify the result.
+		assertThat(network.getNumberOfDevices(), is(equalTo(0)));
+		assertThat(network.getDevice(ADDRESS_16), is(nullValue()));
+		assertThat(network.getDevice("REMOTE"), is(nullValue()));
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.XBeeNetwork#addRemoteDevices(List)}.
+	 * 
+	 * <p>Verify that a discovery result is merged with the network and that 
+	 * each device of the network is returned once.</p>
+	 */
+	@Test
+	public final void testAddRemoteDevices() {
+		// Setup the resources for the test.
+		List<RemoteXBeeDevice> list = new ArrayList<RemoteXBeeDevice>();
+		for (int i = 0; i < 1000; i++)
+			list.add(new RemoteZigBeeDevice(xbeeDevice, new XBee64BitAddress(String.format("0013A200%08X", i)), 
+					new XBee16BitAddress(i >> 8, i & 0xFF), "NODE_" + i));
+		list.add(new RemoteZigBeeDevice(xbeeDevice, XBee64BitAddress.UNKNOWN_ADDRESS, ADDRESS_16, "REMOTE"));
+		list.add(new RemoteZigBeeDevice(xbeeDevice, ADDRESS_64, ADDRESS_16, "REMOTE"));
+		
+		// Call the method under test.
+		List<RemoteXBeeDevice> added = network.addRemoteDevices(list);
+		
+		// Verify the result.
+		assertThat(added.size(), is(equalTo(1001)));
+		assertThat(network.getNumberOfDevices(), is(equalTo(1001)));
+		assertThat(network.getDevice("NODE_999").get16BitAddress(), is(equalTo(new XBee16BitAddress(0x03, 0xE7))));
+	}
+}
@@ -0,0 +1,232 @@
+/**
+ * Copyright (c) 2014-2016 Digi International Inc.,
+ * All rights not expressly granted are reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * Digi International Inc. 11001 Bren Road East, Minnetonka, MN 55343
+ * =======================================================================
+ */
+package com.digi.xbee.api;
+
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.junit.Assert.assertThat;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import com.digi.xbee.api.connection.emulator.EmulatedRemoteNode;
+import com.digi.xbee.api.connection.emulator.XBeeEmulator;
+import com.digi.xbee.api.exceptions.InterfaceNotOpenException;
+import com.digi.xbee.api.exceptions.XBeeException;
+import com.digi.xbee.api.listeners.INetworkChangeListener;
+import com.digi.xbee.api.models.XBee16BitAddress;
+import com.digi.xbee.api.models.XBee64BitAddress;
+
+public class XBeeNetworkContinuousDiscoveryTest {
+	
+	// Constants.
+	private final static long PERIOD = 50;
+	
+	private final static long MAX_WAIT = 5000;
+	
+	// Variables.
+	private XBeeEmulator emulator;
+	private XBeeDevice xbeeDevice;
+	private EmulatedRemoteNode node;
+	
+	private BlockingQueue<String> events;
+	
+	private INetworkChangeListener listener = new INetworkChangeListener() {
+		/*
+		 * (non-Javadoc)
+		 * @see com.digi.xbee.api.listeners.INetworkChangeListener#deviceAdded(com.digi.xbee.api.RemoteXBeeDevice)
+		 */
+		@Override
+		public void deviceAdded(RemoteXBeeDevice device) {
+			events.add("added " + device.getNodeID());
+		}
+		
+		/*
+		 * (non-Javadoc)
+		 * @see com.digi.xbee.api.listeners.INetworkChangeListener#deviceUpdated(com.digi.xbee.api.RemoteXBeeDevice)
+		 */
+		@Override
+		public void deviceUpdated(RemoteXBeeDevice device) {
+			events.add("updated " + device.getNodeID());
+		}
+		
+		/*
+		 * (non-Javadoc)
+		 * @see com.digi.xbee.api.listeners.INetworkChangeListener#deviceLost(com.digi.xbee.api.RemoteXBeeDevice)
+		 */
+		@Override
+		public void deviceLost(RemoteXBeeDevice device) {
+			events.add("lost " + device.getNodeID());
+		}
+	};
+	
+	@Rule
+	public ExpectedException exception = ExpectedException.none();
+	
+	@Before
+	public void setUp() {
+		emulator = new XBeeEmulator();
+		node = new EmulatedRemoteNode(new XBee64BitAddress("0013A20040A9E77F"), new XBee16BitAddress("1234"), "REMOTE");
+		emulator.addRemoteNode(node);
+		emulator.setParameter("NT", new byte[] {0x01});
+		xbeeDevice = new XBeeDevice(emulator);
+		events = new LinkedBlockingQueue<String>();
+	}
+	
+	@After
+	public void tearDown() {
+		xbeeDevice.close();
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.XBeeNetwork#startContinuousDiscovery(long, int)}.
+	 * 
+	 * <p>Verify that only the added, updated and lost devices are notified 
+	 * and that the network is kept updated.</p>
+	 * 
+	 * @throws InterruptedException
+	 * @throws XBeeException
+	 */
+	@Test
+	public final void testContinuousDiscoveryNotifiesChanges() throws XBeeException, InterruptedException {
+		// Setup the resources for the test.
+		xbeeDevice.open();
+		XBeeNetwork network = xbeeDevice.getNetwork();
+		network.addNetworkChangeListener(listener);
+		
+		// Call the method under test.
+		network.startContinuousDiscovery(PERIOD, 1);
+		
+		// Verify the result.
+		assertThat(network.isContinuousDiscoveryRunning(), is(equalTo(true)));
+		assertThat(events.poll(MAX_WAIT, TimeUnit.MILLISECONDS), is(equalTo("added REMOTE")));
+		assertThat(network.getNumberOfDevices(), is(equalTo(1)));
+		
+		// The following scans do not notify the device again.
+		node.setParameter("NI", "RENAMED".getBytes());
+		assertThat(events.poll(MAX_WAIT, TimeUnit.MILLISECONDS), is(equalTo("updated RENAMED")));
+		
+		emulator.removeRemoteNode(node);
+		assertThat(events.poll(MAX_WAIT, TimeUnit.MILLISECONDS), is(equalTo("lost RENAMED")));
+		assertThat(network.getNumberOfDevices(), is(equalTo(0)));
+		
+		network.stopContinuousDiscovery();
+		assertThat(network.isContinuousDiscoveryRunning(), is(equalTo(false)));
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.XBeeNetwork#startContinuousDiscovery(long, int)}.
+	 * 
+	 * <p>Verify that a listener that throws an exception neither stops the 
+	 * continuous discovery nor prevents the other listeners from being 
+	 * notified.</p>
+	 * 
+	 * @throws InterruptedException
+	 * @throws XBeeException
+	 */
+	@Test
+	public final void testContinuousDiscoveryListenerThrows() throws XBeeException, InterruptedException {
+		// Setup the resources for the test.
+		xbeeDevice.open();
+		XBeeNetwork network = xbeeDevice.getNetwork();
+		network.addNetworkChangeListener(new INetworkChangeListener() {
+			/*
+			 * (non-Javadoc)
+			 * @see com.digi.xbee.api.listeners.INetworkChangeListener#deviceAdded(com.digi.xbee.api.RemoteXBeeDevice)
+			 */
+			@Override
+			public void deviceAdded(RemoteXBeeDevice device) {
+				throw new RuntimeException("Listener error.");
+			}
+			
+			/*
+			 * (non-Javadoc)
+			 * @see com.digi.xbee.api.listeners.INetworkChangeListener#deviceUpdated(com.digi.xbee.api.RemoteXBeeDevice)
+			 */
+			@Override
+			public void deviceUpdated(RemoteXBeeDevice device) {
+				throw new RuntimeException("Listener error.");
+			}
+			
+			/*
+			 * (non-Javadoc)
+			 * @see com.digi.xbee.api.listeners.INetworkChangeListener#deviceLost(com.digi.xbee.api.RemoteXBeeDevice)
+			 */
+			@Override
+			public void deviceLost(RemoteXBeeDevice device) {
+				throw new RuntimeException("Listener error.");
+			}
+		});
+		network.addNetworkChangeListener(listener);
+		
+		// Call the method under test.
+		network.startContinuousDiscovery(PERIOD, 1);
+		
+		// Verify the result.
+		assertThat(events.poll(MAX_WAIT, TimeUnit.MILLISECONDS), is(equalTo("added REMOTE")));
+		
+		// The discovery keeps scanning after the exception.
+		node.setParameter("NI", "RENAMED".getBytes());
+		assertThat(events.poll(MAX_WAIT, TimeUnit.MILLISECONDS), is(equalTo("updated RENAMED")));
+		assertThat(network.isContinuousDiscoveryRunning(), is(equalTo(true)));
+		
+		// It can be stopped and started again.
+		network.stopContinuousDiscovery();
+		network.startContinuousDiscovery(PERIOD, 1);
+		assertThat(network.isContinuousDiscoveryRunning(), is(equalTo(true)));
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.XBeeNetwork#startContinuousDiscovery(long, int)}.
+	 * 
+	 * <p>Verify that the continuous discovery cannot be started with a 
+	 * period of 0.</p>
+	 * 
+	 * @throws XBeeException
+	 */
+	@Test
+	public final void testStartContinuousDiscoveryInvalidPeriod() throws XBeeException {
+		xbeeDevice.open();
+		
+		exception.expect(IllegalArgumentException.class);
+		exception.expectMessage(is(equalTo("Period must be bigger than 0.")));
+		
+		xbeeDevice.getNetwork().startContinuousDiscovery(0);
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.XBeeNetwork#startContinuousDiscovery(long)}.
+	 * 
+	 * <p>Verify that the continuous discovery cannot be started if the device 
+	 * is not open.</p>
+	 * 
+	 * @throws XBeeException
+	 */
+	@Test
+	public final void testStartContinuousDiscoveryNotOpen() throws XBeeException {
+		// Setup the resources for the test.
+		xbeeDevice.open();
+		XBeeNetwork network = xbeeDevice.getNetwork();
+		xbeeDevice.close();
+		
+		exception.expect(InterfaceNotOpenException.class);
+		
+		network.startContinuousDiscovery(PERIOD);
+	}
+}
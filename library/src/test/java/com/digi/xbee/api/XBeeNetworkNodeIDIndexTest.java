@@ -0,0 +1,144 @@
+/**
+ * Copyright (c) 2014-2016 Digi International Inc.,
+ * All rights not expressly granted are reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * Digi International Inc. 11001 Bren Road East, Minnetonka, MN 55343
+ * =======================================================================
+ */
+package com.digi.xbee.api;
+
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.hamcrest.core.IsNull.nullValue;
+import static org.junit.Assert.assertThat;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.digi.xbee.api.connection.emulator.EmulatedRemoteNode;
+import com.digi.xbee.api.connection.emulator.XBeeEmulator;
+import com.digi.xbee.api.exceptions.XBeeException;
+import com.digi.xbee.api.models.XBee16BitAddress;
+import com.digi.xbee.api.models.XBee64BitAddress;
+
+public class XBeeNetworkNodeIDIndexTest {
+	
+	// Constants.
+	private final static XBee64BitAddress ADDRESS_64 = new XBee64BitAddress("0013A20040A9E77F");
+	private final static XBee16BitAddress ADDRESS_16 = new XBee16BitAddress("1234");
+	
+	// Variables.
+	private XBeeEmulator emulator;
+	private XBeeDevice xbeeDevice;
+	private XBeeNetwork network;
+	
+	@Before
+	public void setUp() throws XBeeException {
+		emulator = new XBeeEmulator();
+		emulator.addRemoteNode(new EmulatedRemoteNode(ADDRESS_64, ADDRESS_16, "REMOTE"));
+		xbeeDevice = new XBeeDevice(emulator);
+		xbeeDevice.open();
+		network = xbeeDevice.getNetwork();
+	}
+	
+	@After
+	public void tearDown() {
+		xbeeDevice.close();
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.XBeeNetwork#addRemoteDevice(RemoteXBeeDevice)}.
+	 * 
+	 * <p>Verify that the node identifier index follows the updates of a 
+	 * device added again with a different node identifier.</p>
+	 */
+	@Test
+	public final void testAddRemoteDeviceUpdatesNodeID() {
+		// Setup the resources for the test.
+		RemoteXBeeDevice remote = network.addRemoteDevice(new RemoteXBeeDevice(xbeeDevice, ADDRESS_64, ADDRESS_16, "OLD"));
+		
+		// Call the method under test.
+		RemoteXBeeDevice updated = network.addRemoteDevice(new RemoteXBeeDevice(xbeeDevice, ADDRESS_64, ADDRESS_16, "NEW"));
+		
+		// Verify the result.
+		assertThat(updated == remote, is(equalTo(true)));
+		assertThat(network.getDevice("OLD"), is(nullValue()));
+		assertThat(network.getDevice("NEW") == remote, is(equalTo(true)));
+		assertThat(network.getDevices("NEW").size(), is(equalTo(1)));
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.XBeeNetwork#addRemoteDevice(RemoteXBeeDevice)}.
+	 * 
+	 * <p>Verify that a device first known by its 16-bit address and then 
+	 * added with its 64-bit address and node identifier can be found by the 
+	 * new node identifier.</p>
+	 */
+	@Test
+	public final void testAddRemoteDevice16BitPromotedTo64Bit() {
+		// Setup the resources for the test.
+		RemoteXBeeDevice remote = network.addRemoteDevice(new RemoteXBeeDevice(xbeeDevice, 
+				XBee64BitAddress.UNKNOWN_ADDRESS, ADDRESS_16, "OLD"));
+		
+		// Call the method under test.
+		RemoteXBeeDevice updated = network.addRemoteDevice(new RemoteXBeeDevice(xbeeDevice, ADDRESS_64, ADDRESS_16, "REMOTE"));
+		
+		// Verify the result.
+		assertThat(updated == remote, is(equalTo(true)));
+		assertThat(network.getDevice(ADDRESS_64) == remote, is(equalTo(true)));
+		assertThat(network.getDevice("OLD"), is(nullValue()));
+		assertThat(network.getDevice("REMOTE") == remote, is(equalTo(true)));
+		assertThat(network.getDevices("REMOTE").size(), is(equalTo(1)));
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.XBeeNetwork#removeRemoteDevice(RemoteXBeeDevice)}.
+	 * 
+	 * <p>Verify that a removed device cannot be found by its node identifier 
+	 * and that the rest of devices with the same one can.</p>
+	 */
+	@Test
+	public final void testRemoveRemoteDevice() {
+		// Setup the resources for the test.
+		RemoteXBeeDevice remote1 = network.addRemoteDevice(new RemoteXBeeDevice(xbeeDevice, ADDRESS_64, ADDRESS_16, "NODE"));
+		RemoteXBeeDevice remote2 = network.addRemoteDevice(new RemoteXBeeDevice(xbeeDevice, 
+				new XBee64BitAddress("0013A20040A9E780"), new XBee16BitAddress("5678"), "NODE"));
+		assertThat(network.getDevices("NODE").size(), is(equalTo(2)));
+		
+		// Call the method under test.
+		network.removeRemoteDevice(remote1);
+		
+		// Verify the result.
+		assertThat(network.getDevices("NODE").size(), is(equalTo(1)));
+		assertThat(network.getDevice("NODE") == remote2, is(equalTo(true)));
+		
+		network.clearDeviceList();
+		assertThat(network.getDevice("NODE"), is(nullValue()));
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.AbstractXBeeDevice#setNodeID(String)}.
+	 * 
+	 * <p>Verify that changing the node identifier of a device of the network 
+	 * updates the index.</p>
+	 * 
+	 * @throws XBeeException
+	 */
+	@Test
+	public final void testSetNodeIDOfRemoteDevice() throws XBeeException {
+		// Setup the resources for the test.
+		RemoteXBeeDevice remote = network.addRemoteDevice(new RemoteXBeeDevice(xbeeDevice, ADDRESS_64, ADDRESS_16, "REMOTE"));
+		
+		// Call the method under test.
+		remote.setNodeID("RENAMED");
+		
+		// Verify the result.
+		assertThat(network.getDevice("REMOTE"), is(nullValue()));
+		assertThat(network.getDevice("RENAMED") == remote, is(equalTo(true)));
+	}
+}
@@ -0,0 +1,127 @@
+/**
+ * Copyright (c) 2014-2016 Digi International Inc.,
+ * All rights not expressly granted are reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * Digi International Inc. 11001 Bren Road East, Minnetonka, MN 55343
+ * =======================================================================
+ */
+package com.digi.xbee.api;
+
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.hamcrest.core.IsNull.nullValue;
+import static org.junit.Assert.assertThat;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.digi.xbee.api.connection.emulator.XBeeEmulator;
+import com.digi.xbee.api.exceptions.OperationNotSupportedException;
+import com.digi.xbee.api.exceptions.XBeeException;
+import com.digi.xbee.api.models.XBee16BitAddress;
+import com.digi.xbee.api.models.XBee64BitAddress;
+
+public class XBeeNetworkPrimitiveLookupTest {
+	
+	// Constants.
+	private final static long ADDRESS_64 = 0x0013A20040A9E77FL;
+	private final static int ADDRESS_16 = 0x1234;
+	
+	// Variables.
+	private XBeeDevice xbeeDevice;
+	private XBeeNetwork network;
+	
+	private RemoteXBeeDevice remote;
+	
+	@Before
+	public void setUp() throws XBeeException {
+		xbeeDevice = new XBeeDevice(new XBeeEmulator());
+		xbeeDevice.open();
+		network = xbeeDevice.getNetwork();
+		remote = network.addRemoteDevice(new RemoteZigBeeDevice(xbeeDevice, new XBee64BitAddress(ADDRESS_64), 
+				XBee16BitAddress.valueOf(ADDRESS_16), "REMOTE"));
+	}
+	
+	@After
+	public void tearDown() {
+		xbeeDevice.close();
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.XBeeNetwork#getDeviceBy64BitAddress(long)} and
+	 * {@link com.digi.xbee.api.XBeeNetwork#getDeviceBy16BitAddress(int)}.
+	 * 
+	 * <p>Verify that the device is found by the values of its addresses.</p>
+	 * 
+	 * @throws OperationNotSupportedException
+	 */
+	@Test
+	public final void testGetDeviceByAddressValue() throws OperationNotSupportedException {
+		// Call the method under test and verify the result.
+		assertThat(network.getDeviceBy64BitAddress(ADDRESS_64) == remote, is(equalTo(true)));
+		assertThat(network.getDeviceBy16BitAddress(ADDRESS_16) == remote, is(equalTo(true)));
+		assertThat(network.getDeviceBy64BitAddress(ADDRESS_64 + 1), is(nullValue()));
+		assertThat(network.getDeviceBy16BitAddress(ADDRESS_16 + 1), is(nullValue()));
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.XBeeNetwork#getDeviceBy16BitAddress(int)}.
+	 * 
+	 * <p>Verify that the lookups follow the changes of the network.</p>
+	 * 
+	 * @throws OperationNotSupportedException
+	 */
+	@Test
+	public final void testGetDeviceByAddressValueAfterChanges() throws OperationNotSupportedException {
+		// Setup the resources for the test.
+		RemoteXBeeDevice only16 = network.addRemoteDevice(new RemoteZigBeeDevice(xbeeDevice, 
+				XBee64BitAddress.UNKNOWN_ADDRESS, XBee16BitAddress.valueOf(0x5678), "ONLY16"));
+		
+		// Call the method under test and verify the result.
+		assertThat(network.getDeviceBy16BitAddress(0x5678) == only16, is(equalTo(true)));
+		
+		// The device joins the network again with a new 16-bit address.
+		network.addRemoteDevice(new RemoteZigBeeDevice(xbeeDevice, new XBee64BitAddress(ADDRESS_64), 
+				XBee16BitAddress.valueOf(0x9ABC), "REMOTE"));
+		assertThat(network.getDeviceBy16BitAddress(ADDRESS_16), is(nullValue()));
+		assertThat(network.getDeviceBy16BitAddress(0x9ABC) == remote, is(equalTo(true)));
+		
+		network.removeRemoteDevice(remote);
+		assertThat(network.getDeviceBy64BitAddress(ADDRESS_64), is(nullValue()));
+		assertThat(network.getDeviceBy16BitAddress(0x9ABC), is(nullValue()));
+		
+		network.clearDeviceList();
+		assertThat(network.getDeviceBy16BitAddress(0x5678), is(nullValue()));
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.XBeeNetwork#getDeviceBy64BitAddress(long)}.
+	 * 
+	 * <p>Verify that the lookups work with many devices being added and 
+	 * removed.</p>
+	 */
+	@Test
+	public final void testGetDeviceByAddressValueManyDevices() {
+		// Setup the resources for the test.
+		for (int i = 0; i < 2000; i++)
+			network.addRemoteDevice(new RemoteZigBeeDevice(xbeeDevice, new XBee64BitAddress(i + 1), 
+					XBee16BitAddress.UNKNOWN_ADDRESS, null));
+		for (int i = 0; i < 2000; i += 2)
+			network.removeRemoteDevice(network.getDeviceBy64BitAddress(i + 1));
+		
+		// Call the method under test and verify the result.
+		for (int i = 0; i < 2000; i++) {
+			RemoteXBeeDevice device = network.getDeviceBy64BitAddress(i + 1);
+			if (i % 2 == 0)
+				assertThat(device, is(nullValue()));
+			else
+				assertThat(device.get64BitAddress().getLongValue(), is(equalTo((long)(i + 1))));
+		}
+		assertThat(network.getNumberOfDevices(), is(equalTo(1001)));
+	}
+}
@@ -0,0 +1,166 @@
+/**
+ * Copyright (c) 2014-2016 Digi International Inc.,
+ * All rights not expressly granted are reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * Digi International Inc. 11001 Bren Road East, Minnetonka, MN 55343
+ * =======================================================================
+ */
+package com.digi.xbee.api.connection;
+
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.hamcrest.core.IsNull.nullValue;
+import static org.junit.Assert.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import com.digi.xbee.api.models.ATCommandStatus;
+import com.digi.xbee.api.models.OperatingMode;
+import com.digi.xbee.api.packet.XBeePacket;
+import com.digi.xbee.api.packet.common.ATCommandPacket;
+import com.digi.xbee.api.packet.common.ATCommandResponsePacket;
+
+public class BufferedPacketReaderTest {
+
+	// Variables.
+	private BufferedPacketReader reader;
+
+	private XBeePacket atCommandPacket;
+	private XBeePacket atResponsePacket;
+
+	@Rule
+	public ExpectedException exception = ExpectedException.none();
+
+	@Before
+	public void setUp() {
+		reader = new BufferedPacketReader();
+		atCommandPacket = new ATCommandPacket(1, "NI", "");
+		// The value contains bytes that must be escaped.
+		atResponsePacket = new ATCommandResponsePacket(2, ATCommandStatus.OK, "NI",
+				new byte[]{0x7E, 0x7D, 0x11, 0x13, 0x41});
+	}
+
+	/**
+	 * Test method for {@link com.digi.xbee.api.connection.BufferedPacketReader#process(byte[], int, int, OperatingMode)}.
+	 *
+	 * <p>Verify that the operating mode must be API or API escaped.</p>
+	 */
+	@Test
+	public final void testProcessATMode() {
+		exception.expect(IllegalArgumentException.class);
+		exception.expectMessage(is(equalTo("Operating mode must be API or API Escaped.")));
+
+		reader.process(new byte[1], 0, 1, OperatingMode.AT);
+	}
+
+	/**
+	 * Test method for {@link com.digi.xbee.api.connection.BufferedPacketReader#read(java.io.InputStream, OperatingMode)}.
+	 *
+	 * <p>Verify that all the available frames are decoded with a single read.
+	 * </p>
+	 *
+	 * @throws Exception
+	 */
+	@Test
+	public final void testReadSeveralFrames() throws Exception {
+		// Setup the resources for the test.
+		byte[] data = concat(atCommandPacket.generateByteArray(), atResponsePacket.generateByteArray());
+
+		// Call the method under test.
+		int readBytes = reader.read(new ByteArrayInputStream(data), OperatingMode.API);
+
+		// Verify the result.
+		assertThat(readBytes, is(equalTo(data.length)));
+		assertThat(reader.nextPacket(), is(equalTo(atCommandPacket)));
+		assertThat(reader.nextPacket(), is(equalTo(atResponsePacket)));
+		assertThat(reader.nextPacket(), is(nullValue()));
+		assertThat(reader.getReadCount(), is(equalTo(1L)));
+		assertThat(reader.getFrameCount(), is(equalTo(2L)));
+	}
+
+	/**
+	 * Test method for {@link com.digi.xbee.api.connection.BufferedPacketReader#process(byte[], int, int, OperatingMode)}.
+	 *
+	 * <p>Verify that an escaped frame split in several chunks is decoded once
+	 * the last chunk arrives.</p>
+	 */
+	@Test
+	public final void testProcessEscapedFrameInChunks() {
+		// Setup the resources for the test.
+		byte[] data = atResponsePacket.generateByteArrayEscaped();
+		int split = data.length / 2;
+
+		// Call the method under test.
+		reader.process(data, 0, split, OperatingMode.API_ESCAPE);
+		XBeePacket partial = reader.nextPacket();
+		reader.process(data, split, data.length - split, OperatingMode.API_ESCAPE);
+
+		// Verify the result.
+		assertThat(partial, is(nullValue()));
+		assertThat(reader.nextPacket(), is(equalTo(atResponsePacket)));
+		assertThat(reader.getInvalidFrameCount(), is(equalTo(0L)));
+		assertThat(reader.getReadCount(), is(equalTo(0L)));
+	}
+
+	/**
+	 * Test method for {@link com.digi.xbee.api.connection.BufferedPacketReader#process(byte[], int, int, OperatingMode)}.
+	 *
+	 * <p>Verify that bytes before the start delimiter and frames with an
+	 * invalid checksum are discarded without losing the following frames.</p>
+	 */
+	@Test
+	public final void testProcessInvalidChecksum() {
+		// Setup the resources for the test.
+		byte[] invalidFrame = atCommandPacket.generateByteArray();
+		invalidFrame[invalidFrame.length - 1]++;
+		byte[] data = concat(new byte[]{0x01, 0x02}, concat(invalidFrame, atResponsePacket.generateByteArray()));
+
+		// Call the method under test.
+		reader.process(data, 0, data.length, OperatingMode.API);
+
+		// Verify the result.
+		assertThat(reader.nextPacket(), is(equalTo(atResponsePacket)));
+		assertThat(reader.nextPacket(), is(nullValue()));
+		assertThat(reader.getInvalidFrameCount(), is(equalTo(1L)));
+		assertThat(reader.getDiscardedByteCount(), is(equalTo(2L)));
+	}
+
+	/**
+	 * Test method for {@link com.digi.xbee.api.connection.BufferedPacketReader#process(byte[], int, int, OperatingMode)}.
+	 *
+	 * <p>Verify that in API escaped mode an unescaped start delimiter
+	 * discards the incomplete frame and starts a new one.</p>
+	 */
+	@Test
+	public final void testProcessResynchronize() {
+		// Setup the resources for the test.
+		byte[] incompleteFrame = atCommandPacket.generateByteArrayEscaped();
+		byte[] data = concat(incompleteFrame, atResponsePacket.generateByteArrayEscaped());
+
+		// Call the method under test.
+		reader.process(data, 0, incompleteFrame.length - 2, OperatingMode.API_ESCAPE);
+		reader.process(data, incompleteFrame.length, data.length - incompleteFrame.length, OperatingMode.API_ESCAPE);
+
+		// Verify the result.
+		assertThat(reader.nextPacket(), is(equalTo(atResponsePacket)));
+		assertThat(reader.nextPacket(), is(nullValue()));
+		assertThat(reader.getInvalidFrameCount(), is(equalTo(1L)));
+	}
+
+	private static byte[] concat(byte[] first, byte[] second) {
+		ByteArrayOutputStream stream = new ByteArrayOutputStream();
+		stream.write(first, 0, first.length);
+		stream.write(second, 0, second.length);
+		return stream.toByteArray();
+	}
+}
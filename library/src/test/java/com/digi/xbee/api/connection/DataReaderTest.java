@@ -24,8 +24,6 @@ import java.lang.management.ThreadInfo;
 import java.lang.management.ThreadMXBean;
 import java.util.ArrayList;
 import java.util.HashMap;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledThreadPoolExecutor;
 
 import org.junit.After;
 import org.junit.AfterClass;
@@ -57,6 +55,7 @@ import com.digi.xbee.api.listeners.IExplicitDataReceiveListener;
 import com.digi.xbee.api.listeners.IIOSampleReceiveListener;
 import com.digi.xbee.api.listeners.IModemStatusReceiveListener;
 import com.digi.xbee.api.listeners.IPacketReceiveListener;
+import com.digi.xbee.api.models.ATCommandStatus;
 import com.digi.xbee.api.models.ExplicitXBeeMessage;
 import com.digi.xbee.api.models.ModemStatusEvent;
 import com.digi.xbee.api.models.OperatingMode;
@@ -68,6 +67,8 @@ import com.digi.xbee.api.models.XBeePacketsQueue;
 import com.digi.xbee.api.models.XBeeProtocol;
 import com.digi.xbee.api.packet.XBeePacket;
 import com.digi.xbee.api.packet.XBeePacketParser;
+import com.digi.xbee.api.packet.common.ATCommandPacket;
+import com.digi.xbee.api.packet.common.ATCommandResponsePacket;
 
 @RunWith(PowerMockRunner.class)
 @PrepareForTest({DataReader.class})
@@ -97,7 +98,7 @@ public class DataReaderTest {
 	
 	private TestConnectionInterface testCI;
 	
-	private ScheduledThreadPoolExecutor mockExecutorService;
+	private ListenerDispatcher mockDispatcher;
 	
 	@Rule
 	public ExpectedException exception = ExpectedException.none();
@@ -250,18 +251,16 @@ public class DataReaderTest {
 		mockQueue = Mockito.mock(XBeePacketsQueue.class);
 		PowerMockito.whenNew(XBeePacketsQueue.class).withNoArguments().thenReturn(mockQueue);
 		
-		mockExecutorService = Mockito.mock(ScheduledThreadPoolExecutor.class);
-		PowerMockito.mockStatic(Executors.class);
-		Mockito.when(Executors.newScheduledThreadPool(Mockito.anyInt())).thenReturn(mockExecutorService);
-		// Executors.newScheduledThreadPool(Math.min(MAXIMUM_PARALLEL_LISTENER_THREADS, dataReceiveListeners.size()));
+		mockDispatcher = Mockito.mock(ListenerDispatcher.class);
+		PowerMockito.whenNew(ListenerDispatcher.class).withNoArguments().thenReturn(mockDispatcher);
 		
 		Mockito.doAnswer(new Answer<Object>() {
 			public Object answer(InvocationOnMock invocation) throws Exception {
-				((Runnable) invocation.getArguments()[0]).run();
+				((Runnable) invocation.getArguments()[1]).run();
 				testCI.transmissionFinished = true;
-				return null;
+				return true;
 			}
-		}).when(mockExecutorService).execute(Mockito.any(Runnable.class));
+		}).when(mockDispatcher).dispatch(Mockito.any(), Mockito.any(Runnable.class));
 	}
 
 	/**
@@ -1721,4 +1720,116 @@ public class DataReaderTest {
 		Mockito.verify(packetListener, Mockito.times(0)).packetReceived(Mockito.any(XBeePacket.class));
 		assertThat(testCI.isOpen(), is(equalTo(false)));
 	}
-}
\ No newline at end of file
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.connection.DataReader#waitForData()}.
+	 * 
+	 * <p>Verify that a notification sent between the check of the available 
+	 * data and the wait is not lost.</p>
+	 * 
+	 * @throws Exception 
+	 */
+	@Test
+	public final void testWaitForDataNotifiedAfterAvailableCheck() throws Exception {
+		// Setup the resources for the test.
+		final DataReader dataReader = new DataReader(testCI, OperatingMode.API, mockDevice);
+		
+		final Thread notifier = new Thread() {
+			@Override
+			public void run() {
+				testCI.notifyData();
+			}
+		};
+		
+		// New data arrives and is notified right after checking that there 
+		// is no data available, before the reader starts waiting.
+		Mockito.doAnswer(new Answer<Integer>() {
+			@Override
+			public Integer answer(InvocationOnMock invocation) throws Throwable {
+				notifier.start();
+				long deadline = System.currentTimeMillis() + 1000;
+				while (notifier.getState() != State.BLOCKED 
+						&& notifier.getState() != State.TERMINATED 
+						&& System.currentTimeMillis() < deadline)
+					Thread.sleep(10);
+				return 0;
+			}
+		}).when(mockInput).available();
+		
+		Thread reader = new Thread() {
+			@Override
+			public void run() {
+				try {
+					Whitebox.invokeMethod(dataReader, "waitForData");
+				} catch (Exception e) {
+					// Do nothing.
+				}
+			}
+		};
+		
+		// Call the method under test.
+		reader.start();
+		reader.join(5000);
+		
+		boolean notified = !reader.isAlive();
+		reader.interrupt();
+		
+		// Verify the result.
+		assertThat(notified, is(equalTo(true)));
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.connection.DataReader#correlateResponse(XBeePacket)}.
+	 * 
+	 * <p>Verify that the frame ID of a response is released when the request 
+	 * waiting for it receives it.</p>
+	 * 
+	 * @throws Exception 
+	 */
+	@Test
+	public final void testCorrelateResponseReleasesFrameID() throws Exception {
+		// Setup the resources for the test.
+		FrameIDAllocator frameIDAllocator = new FrameIDAllocator();
+		Mockito.when(mockDevice.getFrameIDAllocator()).thenReturn(frameIDAllocator);
+		DataReader dataReader = new DataReader(testCI, OperatingMode.API, mockDevice);
+		
+		int frameID = frameIDAllocator.allocate();
+		dataReader.getResponseCorrelator().register(new ATCommandPacket(frameID, "NI", ""));
+		
+		// Call the method under test.
+		Whitebox.invokeMethod(dataReader, "correlateResponse", 
+				new ATCommandResponsePacket(frameID, ATCommandStatus.OK, "NI", null));
+		
+		// Verify the result.
+		assertThat(frameIDAllocator.isInFlight(frameID), is(equalTo(false)));
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.connection.DataReader#correlateResponse(XBeePacket)}.
+	 * 
+	 * <p>Verify that a response received after its request timed out does not 
+	 * release the frame ID, which may be leased to a newer request.</p>
+	 * 
+	 * @throws Exception 
+	 */
+	@Test
+	public final void testCorrelateResponseLateDoesNotReleaseFrameID() throws Exception {
+		// Setup the resources for the test.
+		FrameIDAllocator frameIDAllocator = new FrameIDAllocator();
+		Mockito.when(mockDevice.getFrameIDAllocator()).thenReturn(frameIDAllocator);
+		DataReader dataReader = new DataReader(testCI, OperatingMode.API, mockDevice);
+		
+		int frameID = frameIDAllocator.allocate();
+		ResponseCorrelator responseCorrelator = dataReader.getResponseCorrelator();
+		// The request times out.
+		responseCorrelator.unregister(responseCorrelator.register(new ATCommandPacket(frameID, "NI", "")));
+		
+		// Call the method under test.
+		Whitebox.invokeMethod(dataReader, "correlateResponse", 
+				new ATCommandResponsePacket(frameID, ATCommandStatus.OK, "NI", null));
+		
+		// Verify the result.
+		assertThat(frameIDAllocator.isInFlight(frameID), is(equalTo(true)));
+		assertThat(responseCorrelator.getLateResponseCount(), is(equalTo(1L)));
+	}
+}
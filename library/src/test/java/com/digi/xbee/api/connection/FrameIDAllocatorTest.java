@@ -0,0 +1,187 @@
+/**
+ * Copyright (c) 2014-2016 Digi International Inc.,
+ * All rights not expressly granted are reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * Digi International Inc. 11001 Bren Road East, Minnetonka, MN 55343
+ * =======================================================================
+ */
+package com.digi.xbee.api.connection;
+
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.junit.Assert.assertThat;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+public class FrameIDAllocatorTest {
+
+	// Constants.
+	private final static int NUM_THREADS = 5;
+	private final static int ALLOCATIONS_PER_THREAD = 50;
+
+	// Variables.
+	private FrameIDAllocator allocator;
+
+	@Rule
+	public ExpectedException exception = ExpectedException.none();
+
+	@Before
+	public void setUp() {
+		allocator = new FrameIDAllocator();
+	}
+
+	/**
+	 * Test method for {@link com.digi.xbee.api.connection.FrameIDAllocator#setLeaseTimeout(long)}.
+	 *
+	 * <p>Verify that the lease timeout cannot be 0.</p>
+	 */
+	@Test
+	public final void testSetLeaseTimeoutZero() {
+		exception.expect(IllegalArgumentException.class);
+		exception.expectMessage(is(equalTo("Lease timeout must be greater than 0.")));
+
+		allocator.setLeaseTimeout(0);
+	}
+
+	/**
+	 * Test method for {@link com.digi.xbee.api.connection.FrameIDAllocator#allocate()}.
+	 *
+	 * <p>Verify that frame IDs are handed out sequentially starting at 1.</p>
+	 */
+	@Test
+	public final void testAllocateSequential() {
+		// Call the method under test.
+		int first = allocator.allocate();
+		int second = allocator.allocate();
+
+		// Verify the result.
+		assertThat(first, is(equalTo(1)));
+		assertThat(second, is(equalTo(2)));
+		assertThat(allocator.getInFlightCount(), is(equalTo(2)));
+		assertThat(allocator.isInFlight(1), is(equalTo(true)));
+	}
+
+	/**
+	 * Test method for {@link com.digi.xbee.api.connection.FrameIDAllocator#allocate()}.
+	 *
+	 * <p>Verify that a frame ID in flight is skipped and that it is handed out
+	 * again once released.</p>
+	 */
+	@Test
+	public final void testAllocateSkipsInFlight() {
+		// Setup the resources for the test.
+		for (int i = 0; i < FrameIDAllocator.MAX_FRAME_ID; i++)
+			allocator.allocate();
+		for (int i = 1; i <= FrameIDAllocator.MAX_FRAME_ID; i++)
+			if (i != 7)
+				allocator.release(i);
+
+		// Call the method under test.
+		int frameID = allocator.allocate();
+		int nextFrameID = allocator.allocate();
+
+		// Verify the result.
+		assertThat(frameID, is(equalTo(1)));
+		assertThat(nextFrameID, is(equalTo(2)));
+		for (int i = 0; i < 4; i++)
+			allocator.allocate();
+		assertThat(allocator.allocate(), is(equalTo(8)));
+		assertThat(allocator.getExhaustedCount(), is(equalTo(0L)));
+		assertThat(allocator.getMaxInFlightCount(), is(equalTo(FrameIDAllocator.MAX_FRAME_ID)));
+	}
+
+	/**
+	 * Test method for {@link com.digi.xbee.api.connection.FrameIDAllocator#allocate()}.
+	 *
+	 * <p>Verify that the exhaustion is reported when all the frame IDs are in
+	 * flight.</p>
+	 */
+	@Test
+	public final void testAllocateExhausted() {
+		// Setup the resources for the test.
+		for (int i = 0; i < FrameIDAllocator.MAX_FRAME_ID; i++)
+			allocator.allocate();
+
+		// Call the method under test.
+		int frameID = allocator.allocate();
+
+		// Verify the result.
+		assertThat(frameID >= FrameIDAllocator.MIN_FRAME_ID && frameID <= FrameIDAllocator.MAX_FRAME_ID, is(equalTo(true)));
+		assertThat(allocator.getExhaustedCount(), is(equalTo(1L)));
+		assertThat(allocator.getInFlightCount(), is(equalTo(FrameIDAllocator.MAX_FRAME_ID)));
+		assertThat(allocator.getAllocatedCount(), is(equalTo((long)FrameIDAllocator.MAX_FRAME_ID + 1)));
+	}
+
+	/**
+	 * Test method for {@link com.digi.xbee.api.connection.FrameIDAllocator#allocate()}.
+	 *
+	 * <p>Verify that a frame ID whose lease expired is handed out again.</p>
+	 *
+	 * @throws Exception
+	 */
+	@Test
+	public final void testAllocateExpiredLease() throws Exception {
+		// Setup the resources for the test.
+		allocator.setLeaseTimeout(1);
+		for (int i = 0; i < FrameIDAllocator.MAX_FRAME_ID; i++)
+			allocator.allocate();
+		Thread.sleep(10);
+
+		// Call the method under test.
+		int frameID = allocator.allocate();
+
+		// Verify the result.
+		assertThat(frameID, is(equalTo(1)));
+		assertThat(allocator.getExpiredCount(), is(equalTo(1L)));
+		assertThat(allocator.getExhaustedCount(), is(equalTo(0L)));
+	}
+
+	/**
+	 * Test method for {@link com.digi.xbee.api.connection.FrameIDAllocator#allocate()}.
+	 *
+	 * <p>Verify that concurrent senders never get the same frame ID.</p>
+	 *
+	 * @throws Exception
+	 */
+	@Test
+	public final void testAllocateConcurrent() throws Exception {
+		// Setup the resources for the test.
+		final Set<Integer> frameIDs = Collections.synchronizedSet(new HashSet<Integer>());
+		final CountDownLatch start = new CountDownLatch(1);
+		Thread[] threads = new Thread[NUM_THREADS];
+		for (int i = 0; i < NUM_THREADS; i++) {
+			threads[i] = new Thread() {
+				@Override
+				public void run() {
+					try {
+						start.await();
+					} catch (InterruptedException e) {}
+					for (int j = 0; j < ALLOCATIONS_PER_THREAD; j++)
+						frameIDs.add(allocator.allocate());
+				}
+			};
+			threads[i].start();
+		}
+
+		// Call the method under test.
+		start.countDown();
+		for (Thread thread : threads)
+			thread.join();
+
+		// Verify the result.
+		assertThat(frameIDs.size(), is(equalTo(NUM_THREADS * ALLOCATIONS_PER_THREAD)));
+		assertThat(allocator.getInFlightCount(), is(equalTo(NUM_THREADS * ALLOCATIONS_PER_THREAD)));
+	}
+}
@@ -0,0 +1,239 @@
+/**
+ * Copyright (c) 2014-2016 Digi International Inc.,
+ * All rights not expressly granted are reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * Digi International Inc. 11001 Bren Road East, Minnetonka, MN 55343
+ * =======================================================================
+ */
+package com.digi.xbee.api.connection;
+
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.junit.Assert.assertThat;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+public class ListenerDispatcherTest {
+
+	// Constants.
+	private final static int NUM_NOTIFICATIONS = 200;
+
+	// Variables.
+	private ListenerDispatcher dispatcher;
+
+	@Rule
+	public ExpectedException exception = ExpectedException.none();
+
+	@Before
+	public void setUp() {
+		dispatcher = new ListenerDispatcher(4, 1000);
+	}
+
+	@After
+	public void tearDown() {
+		dispatcher.shutdown();
+	}
+
+	/**
+	 * Test method for {@link com.digi.xbee.api.connection.ListenerDispatcher#ListenerDispatcher(int, int)}.
+	 *
+	 * <p>Verify that the dispatcher cannot be created with 0 threads.</p>
+	 */
+	@Test
+	public final void testCreateDispatcherZeroThreads() {
+		exception.expect(IllegalArgumentException.class);
+		exception.expectMessage(is(equalTo("Maximum number of threads must be greater than 0.")));
+
+		new ListenerDispatcher(0, 10);
+	}
+
+	/**
+	 * Test method for {@link com.digi.xbee.api.connection.ListenerDispatcher#ListenerDispatcher(int, int)}.
+	 *
+	 * <p>Verify that the dispatcher cannot be created with a queue capacity
+	 * of 0.</p>
+	 */
+	@Test
+	public final void testCreateDispatcherZeroCapacity() {
+		exception.expect(IllegalArgumentException.class);
+		exception.expectMessage(is(equalTo("Queue capacity must be greater than 0.")));
+
+		new ListenerDispatcher(1, 0);
+	}
+
+	/**
+	 * Test method for {@link com.digi.xbee.api.connection.ListenerDispatcher#dispatch(Object, Runnable)}.
+	 *
+	 * <p>Verify that a {@code null} listener cannot be dispatched.</p>
+	 */
+	@Test
+	public final void testDispatchNullListener() {
+		exception.expect(NullPointerException.class);
+		exception.expectMessage(is(equalTo("Listener cannot be null.")));
+
+		dispatcher.dispatch(null, new Runnable() {
+			@Override
+			public void run() {}
+		});
+	}
+
+	/**
+	 * Test method for {@link com.digi.xbee.api.connection.ListenerDispatcher#dispatch(Object, Runnable)}.
+	 *
+	 * <p>Verify that the notifications for the same listener are executed
+	 * sequentially and in the order they were dispatched.</p>
+	 *
+	 * @throws Exception
+	 */
+	@Test
+	public final void testDispatchKeepsListenerOrder() throws Exception {
+		// Setup the resources for the test.
+		final Object listener = new Object();
+		final List<Integer> received = Collections.synchronizedList(new ArrayList<Integer>());
+		final CountDownLatch latch = new CountDownLatch(NUM_NOTIFICATIONS);
+		final int[] running = new int[1];
+		final boolean[] overlapped = new boolean[1];
+
+		// Call the method under test.
+		for (int i = 0; i < NUM_NOTIFICATIONS; i++) {
+			final int value = i;
+			dispatcher.dispatch(listener, new Runnable() {
+				@Override
+				public void run() {
+					synchronized (running) {
+						if (++running[0] > 1)
+							overlapped[0] = true;
+					}
+					received.add(value);
+					synchronized (running) {
+						running[0]--;
+					}
+					latch.countDown();
+				}
+			});
+		}
+
+		// Verify the result.
+		assertThat(latch.await(5, TimeUnit.SECONDS), is(equalTo(true)));
+		assertThat(overlapped[0], is(equalTo(false)));
+		for (int i = 0; i < NUM_NOTIFICATIONS; i++)
+			assertThat(received.get(i), is(equalTo(i)));
+		assertThat(dispatcher.getDispatchedCount(), is(equalTo((long)NUM_NOTIFICATIONS)));
+		assertThat(dispatcher.getQueueDepth(), is(equalTo(0)));
+	}
+
+	/**
+	 * Test method for {@link com.digi.xbee.api.connection.ListenerDispatcher#dispatch(Object, Runnable)}.
+	 *
+	 * <p>Verify that notifications for different listeners run in parallel.
+	 * </p>
+	 *
+	 * @throws Exception
+	 */
+	@Test
+	public final void testDispatchDifferentListenersInParallel() throws Exception {
+		// Setup the resources for the test.
+		final CountDownLatch bothRunning = new CountDownLatch(2);
+		final CountDownLatch finished = new CountDownLatch(2);
+		Runnable notification = new Runnable() {
+			@Override
+			public void run() {
+				bothRunning.countDown();
+				try {
+					// Only returns if the other listener is notified at the same time.
+					if (bothRunning.await(5, TimeUnit.SECONDS))
+						finished.countDown();
+				} catch (InterruptedException e) {}
+			}
+		};
+
+		// Call the method under test.
+		dispatcher.dispatch(new Object(), notification);
+		dispatcher.dispatch(new Object(), notification);
+
+		// Verify the result.
+		assertThat(finished.await(5, TimeUnit.SECONDS), is(equalTo(true)));
+	}
+
+	/**
+	 * Test method for {@link com.digi.xbee.api.connection.ListenerDispatcher#dispatch(Object, Runnable)}.
+	 *
+	 * <p>Verify that notifications are rejected when the queue is full.</p>
+	 *
+	 * @throws Exception
+	 */
+	@Test
+	public final void testDispatchQueueFull() throws Exception {
+		// Setup the resources for the test.
+		ListenerDispatcher smallDispatcher = new ListenerDispatcher(1, 2);
+		final Object listener = new Object();
+		final CountDownLatch started = new CountDownLatch(1);
+		final CountDownLatch release = new CountDownLatch(1);
+		Runnable blocking = new Runnable() {
+			@Override
+			public void run() {
+				started.countDown();
+				try {
+					release.await(5, TimeUnit.SECONDS);
+				} catch (InterruptedException e) {}
+			}
+		};
+		Runnable empty = new Runnable() {
+			@Override
+			public void run() {}
+		};
+
+		try {
+			// Call the method under test.
+			assertThat(smallDispatcher.dispatch(listener, blocking), is(equalTo(true)));
+			assertThat(started.await(5, TimeUnit.SECONDS), is(equalTo(true)));
+			assertThat(smallDispatcher.dispatch(listener, empty), is(equalTo(true)));
+			assertThat(smallDispatcher.dispatch(listener, empty), is(equalTo(true)));
+			boolean accepted = smallDispatcher.dispatch(listener, empty);
+
+			// Verify the result.
+			assertThat(accepted, is(equalTo(false)));
+			assertThat(smallDispatcher.getQueueDepth(), is(equalTo(2)));
+			assertThat(smallDispatcher.getMaxQueueDepth(), is(equalTo(2)));
+			assertThat(smallDispatcher.getRejectedCount(), is(equalTo(1L)));
+		} finally {
+			release.countDown();
+			smallDispatcher.shutdown();
+		}
+	}
+
+	/**
+	 * Test method for {@link com.digi.xbee.api.connection.ListenerDispatcher#shutdown()}.
+	 *
+	 * <p>Verify that notifications are rejected once the dispatcher is shut
+	 * down.</p>
+	 */
+	@Test
+	public final void testDispatchAfterShutdown() {
+		// Call the method under test.
+		dispatcher.shutdown();
+		boolean accepted = dispatcher.dispatch(new Object(), new Runnable() {
+			@Override
+			public void run() {}
+		});
+
+		// Verify the result.
+		assertThat(dispatcher.isShutdown(), is(equalTo(true)));
+		assertThat(accepted, is(equalTo(false)));
+		assertThat(dispatcher.getRejectedCount(), is(equalTo(1L)));
+	}
+}
@@ -0,0 +1,229 @@
+/**
+ * Copyright (c) 2014-2016 Digi International Inc.,
+ * All rights not expressly granted are reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * Digi International Inc. 11001 Bren Road East, Minnetonka, MN 55343
+ * =======================================================================
+ */
+package com.digi.xbee.api.connection;
+
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.hamcrest.core.IsNull.nullValue;
+import static org.junit.Assert.assertThat;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import com.digi.xbee.api.connection.ResponseCorrelator.PendingResponse;
+import com.digi.xbee.api.models.ATCommandStatus;
+import com.digi.xbee.api.models.XBee16BitAddress;
+import com.digi.xbee.api.models.XBee64BitAddress;
+import com.digi.xbee.api.models.XBeeDiscoveryStatus;
+import com.digi.xbee.api.models.XBeeTransmitStatus;
+import com.digi.xbee.api.packet.XBeePacket;
+import com.digi.xbee.api.packet.common.ATCommandPacket;
+import com.digi.xbee.api.packet.common.ATCommandResponsePacket;
+import com.digi.xbee.api.packet.common.TransmitPacket;
+import com.digi.xbee.api.packet.common.TransmitStatusPacket;
+
+public class ResponseCorrelatorTest {
+
+	// Constants.
+	private final static int FRAME_ID = 0x2A;
+
+	// Variables.
+	private ResponseCorrelator correlator;
+
+	@Rule
+	public ExpectedException exception = ExpectedException.none();
+
+	@Before
+	public void setUp() {
+		correlator = new ResponseCorrelator();
+	}
+
+	/**
+	 * Test method for {@link com.digi.xbee.api.connection.ResponseCorrelator#register(com.digi.xbee.api.packet.XBeeAPIPacket)}.
+	 *
+	 * <p>Verify that a packet without frame ID cannot be registered.</p>
+	 */
+	@Test
+	public final void testRegisterNoFrameID() {
+		exception.expect(IllegalArgumentException.class);
+		exception.expectMessage(is(equalTo("Frame ID must be between 0 and 255.")));
+
+		correlator.register(new ATCommandPacket(FRAME_ID, "NI", "") {
+			@Override
+			public int getFrameID() {
+				return NO_FRAME_ID;
+			}
+		});
+	}
+
+	/**
+	 * Test method for {@link com.digi.xbee.api.connection.ResponseCorrelator#complete(XBeePacket)}.
+	 *
+	 * <p>Verify that a transmit status completes the request with the same
+	 * frame ID.</p>
+	 */
+	@Test
+	public final void testCompleteTransmitStatus() {
+		// Setup the resources for the test.
+		PendingResponse pending = correlator.register(createTransmitPacket(FRAME_ID));
+		TransmitStatusPacket status = createTransmitStatusPacket(FRAME_ID);
+
+		// Call the method under test.
+		boolean completed = correlator.complete(status);
+
+		// Verify the result.
+		assertThat(completed, is(equalTo(true)));
+		assertThat(pending.isCompleted(), is(equalTo(true)));
+		assertThat(pending.waitForResponse(0), is(equalTo((XBeePacket)status)));
+		assertThat(correlator.getPendingCount(), is(equalTo(0)));
+		assertThat(correlator.getCompletedCount(), is(equalTo(1L)));
+	}
+
+	/**
+	 * Test method for {@link com.digi.xbee.api.connection.ResponseCorrelator#complete(XBeePacket)}.
+	 *
+	 * <p>Verify that an AT command response only completes the request of the
+	 * same AT command.</p>
+	 */
+	@Test
+	public final void testCompleteATCommandDifferentCommand() {
+		// Setup the resources for the test.
+		PendingResponse pending = correlator.register(new ATCommandPacket(FRAME_ID, "NI", ""));
+		ATCommandResponsePacket response = new ATCommandResponsePacket(FRAME_ID, ATCommandStatus.OK, "SH", new byte[0]);
+
+		// Call the method under test.
+		boolean completed = correlator.complete(response);
+
+		// Verify the result.
+		assertThat(completed, is(equalTo(false)));
+		assertThat(pending.isCompleted(), is(equalTo(false)));
+		assertThat(correlator.getPendingCount(), is(equalTo(1)));
+	}
+
+	/**
+	 * Test method for {@link com.digi.xbee.api.connection.ResponseCorrelator#complete(XBeePacket)}.
+	 *
+	 * <p>Verify that the echo of a sent packet does not complete the request.
+	 * </p>
+	 */
+	@Test
+	public final void testCompleteEcho() {
+		// Setup the resources for the test.
+		TransmitPacket packet = createTransmitPacket(FRAME_ID);
+		PendingResponse pending = correlator.register(packet);
+
+		// Call the method under test.
+		boolean completed = correlator.complete(packet);
+
+		// Verify the result.
+		assertThat(completed, is(equalTo(false)));
+		assertThat(pending.isCompleted(), is(equalTo(false)));
+	}
+
+	/**
+	 * Test method for {@link com.digi.xbee.api.connection.ResponseCorrelator#register(com.digi.xbee.api.packet.XBeeAPIPacket)}.
+	 *
+	 * <p>Verify that registering two requests with the same frame ID is
+	 * reported as a collision and both are completed in order.</p>
+	 */
+	@Test
+	public final void testRegisterCollision() {
+		// Setup the resources for the test.
+		PendingResponse first = correlator.register(createTransmitPacket(FRAME_ID));
+
+		// Call the method under test.
+		PendingResponse second = correlator.register(createTransmitPacket(FRAME_ID));
+
+		// Verify the result.
+		assertThat(correlator.getCollisionCount(), is(equalTo(1L)));
+		assertThat(correlator.getPendingCount(), is(equalTo(2)));
+
+		correlator.complete(createTransmitStatusPacket(FRAME_ID));
+		assertThat(first.isCompleted(), is(equalTo(true)));
+		assertThat(second.isCompleted(), is(equalTo(false)));
+
+		correlator.complete(createTransmitStatusPacket(FRAME_ID));
+		assertThat(second.isCompleted(), is(equalTo(true)));
+	}
+
+	/**
+	 * Test method for {@link com.digi.xbee.api.connection.ResponseCorrelator#reportUnmatchedResponse(com.digi.xbee.api.packet.XBeeAPIPacket)}.
+	 *
+	 * <p>Verify that a response received after its request timed out is
+	 * reported as late, and one nobody waited for as orphaned.</p>
+	 */
+	@Test
+	public final void testReportLateAndOrphanResponses() {
+		// Setup the resources for the test.
+		PendingResponse pending = correlator.register(createTransmitPacket(FRAME_ID));
+		assertThat(pending.waitForResponse(10), is(nullValue()));
+		correlator.unregister(pending);
+		TransmitStatusPacket status = createTransmitStatusPacket(FRAME_ID);
+
+		// Call the method under test.
+		boolean completed = correlator.complete(status);
+		boolean late = correlator.reportUnmatchedResponse(status);
+		boolean orphanLate = correlator.reportUnmatchedResponse(status);
+
+		// Verify the result.
+		assertThat(completed, is(equalTo(false)));
+		assertThat(late, is(equalTo(true)));
+		assertThat(orphanLate, is(equalTo(false)));
+		assertThat(correlator.getLateResponseCount(), is(equalTo(1L)));
+		assertThat(correlator.getOrphanResponseCount(), is(equalTo(1L)));
+		assertThat(correlator.getPendingCount(), is(equalTo(0)));
+	}
+
+	/**
+	 * Test method for {@link com.digi.xbee.api.connection.ResponseCorrelator.PendingResponse#waitForResponse(long)}.
+	 *
+	 * <p>Verify that a thread waiting for the response is woken up when the
+	 * response arrives.</p>
+	 *
+	 * @throws Exception
+	 */
+	@Test
+	public final void testWaitForResponseFromOtherThread() throws Exception {
+		// Setup the resources for the test.
+		PendingResponse pending = correlator.register(createTransmitPacket(FRAME_ID));
+		final TransmitStatusPacket status = createTransmitStatusPacket(FRAME_ID);
+		Thread reader = new Thread() {
+			@Override
+			public void run() {
+				try {
+					Thread.sleep(20);
+				} catch (InterruptedException e) {}
+				correlator.complete(status);
+			}
+		};
+
+		// Call the method under test.
+		reader.start();
+		XBeePacket response = pending.waitForResponse(5000);
+
+		// Verify the result.
+		assertThat(response, is(equalTo((XBeePacket)status)));
+		reader.join();
+	}
+
+	private static TransmitPacket createTransmitPacket(int frameID) {
+		return new TransmitPacket(frameID, XBee64BitAddress.BROADCAST_ADDRESS,
+				XBee16BitAddress.UNKNOWN_ADDRESS, 0, 0, new byte[]{0x01});
+	}
+
+	private static TransmitStatusPacket createTransmitStatusPacket(int frameID) {
+		return new TransmitStatusPacket(frameID, XBee16BitAddress.UNKNOWN_ADDRESS, 0,
+				XBeeTransmitStatus.SUCCESS, XBeeDiscoveryStatus.DISCOVERY_STATUS_NO_DISCOVERY_OVERHEAD);
+	}
+}
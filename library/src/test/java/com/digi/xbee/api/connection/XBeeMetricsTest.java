@@ -0,0 +1,176 @@
+/**
+ * Copyright (c) 2014-2016 Digi International Inc.,
+ * All rights not expressly granted are reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * Digi International Inc. 11001 Bren Road East, Minnetonka, MN 55343
+ * =======================================================================
+ */
+package com.digi.xbee.api.connection;
+
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.junit.Assert.assertThat;
+
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import com.digi.xbee.api.RemoteXBeeDevice;
+import com.digi.xbee.api.XBeeDevice;
+import com.digi.xbee.api.connection.emulator.EmulatedRemoteNode;
+import com.digi.xbee.api.connection.emulator.XBeeEmulator;
+import com.digi.xbee.api.exceptions.TransmitException;
+import com.digi.xbee.api.exceptions.XBeeException;
+import com.digi.xbee.api.models.XBee16BitAddress;
+import com.digi.xbee.api.models.XBee64BitAddress;
+import com.digi.xbee.api.models.XBeeDiscoveryStatus;
+import com.digi.xbee.api.models.XBeeTransmitStatus;
+import com.digi.xbee.api.packet.APIFrameType;
+import com.digi.xbee.api.packet.common.TransmitStatusPacket;
+
+public class XBeeMetricsTest {
+	
+	@Rule
+	public ExpectedException exception = ExpectedException.none();
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.connection.LatencyHistogram#getPercentile(double)}.
+	 * 
+	 * <p>Verify that the percentiles are the upper bound of their bucket, 
+	 * limited to the maximum latency.</p>
+	 */
+	@Test
+	public final void testLatencyPercentiles() {
+		// Setup the resources for the test.
+		LatencyHistogram histogram = new LatencyHistogram();
+		for (int i = 0; i < 99; i++)
+			histogram.record(100000); // 100 us.
+		histogram.record(5000000); // 5 ms.
+		
+		// Verify the result.
+		assertThat(histogram.getCount(), is(equalTo(100L)));
+		assertThat(histogram.getMedian(), is(equalTo(127L)));
+		assertThat(histogram.getPercentile99(), is(equalTo(127L)));
+		assertThat(histogram.getPercentile(100), is(equalTo(5000L)));
+		assertThat(histogram.getMax(), is(equalTo(5000L)));
+		assertThat(histogram.getMean(), is(equalTo(149L)));
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.connection.XBeeMetrics#responseReceived(com.digi.xbee.api.packet.XBeePacket, long)}.
+	 * 
+	 * <p>Verify that the transmit status frames are recorded in the transmit 
+	 * latency histogram and the failures are counted.</p>
+	 */
+	@Test
+	public final void testTransmitStatusReceived() {
+		// Setup the resources for the test.
+		XBeeMetrics metrics = new XBeeMetrics();
+		
+		// Call the method under test.
+		metrics.responseReceived(new TransmitStatusPacket(1, XBee16BitAddress.UNKNOWN_ADDRESS, 0, 
+				XBeeTransmitStatus.SUCCESS, XBeeDiscoveryStatus.DISCOVERY_STATUS_NO_DISCOVERY_OVERHEAD), 2000000);
+		metrics.responseReceived(new TransmitStatusPacket(2, XBee16BitAddress.UNKNOWN_ADDRESS, 0, 
+				XBeeTransmitStatus.NETWORK_ACK_FAILURE, XBeeDiscoveryStatus.DISCOVERY_STATUS_NO_DISCOVERY_OVERHEAD), 4000000);
+		
+		// Verify the result.
+		XBeeMetricsSnapshot snapshot = metrics.getSnapshot();
+		assertThat(snapshot.getTransmitLatency().getCount(), is(equalTo(2L)));
+		assertThat(snapshot.getTransmitLatency().getMax(), is(equalTo(4000L)));
+		assertThat(snapshot.getATCommandLatency().getCount(), is(equalTo(0L)));
+		assertThat(snapshot.getTransmitFailureCount(), is(equalTo(1L)));
+		
+		metrics.reset();
+		assertThat(metrics.getTransmitLatency().getCount(), is(equalTo(0L)));
+		assertThat(metrics.getTransmitFailureCount(), is(equalTo(0L)));
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.AbstractXBeeDevice#getMetrics()}.
+	 * 
+	 * <p>Verify that the frames exchanged with a device and the round trip 
+	 * latencies are recorded.</p>
+	 * 
+	 * @throws XBeeException
+	 */
+	@Test
+	public final void testDeviceMetrics() throws XBeeException {
+		// Setup the resources for the test.
+		XBeeEmulator emulator = new XBeeEmulator();
+		EmulatedRemoteNode node = new EmulatedRemoteNode(new XBee64BitAddress("0013A20040A9E77F"), 
+				new XBee16BitAddress("1234"), "REMOTE");
+		emulator.addRemoteNode(node);
+		XBeeDevice xbeeDevice = new XBeeDevice(emulator);
+		
+		try {
+			xbeeDevice.open();
+			xbeeDevice.getMetrics().reset();
+			
+			// Call the method under test.
+			xbeeDevice.getParameter("NI");
+			xbeeDevice.sendData(new RemoteXBeeDevice(xbeeDevice, node.get64BitAddress()), "Data".getBytes());
+			emulator.setLossRate(1);
+			try {
+				xbeeDevice.sendData(new RemoteXBeeDevice(xbeeDevice, node.get64BitAddress()), "Data".getBytes());
+			} catch (TransmitException e) {}
+			
+			// Verify the result.
+			XBeeMetricsSnapshot snapshot = xbeeDevice.getMetrics().getSnapshot();
+			assertThat(snapshot.getSentFrameCount(APIFrameType.AT_COMMAND), is(equalTo(1L)));
+			assertThat(snapshot.getSentFrameCount(APIFrameType.TRANSMIT_REQUEST), is(equalTo(2L)));
+			assertThat(snapshot.getReceivedFrameCount(APIFrameType.AT_COMMAND_RESPONSE), is(equalTo(1L)));
+			assertThat(snapshot.getReceivedFrameCount(APIFrameType.TRANSMIT_STATUS), is(equalTo(2L)));
+			assertThat(snapshot.getReceivedFrameCount(), is(equalTo(3L)));
+			assertThat(snapshot.getSentByteCount() > 0, is(equalTo(true)));
+			assertThat(snapshot.getReceivedByteCount() > 0, is(equalTo(true)));
+			assertThat(snapshot.getATCommandLatency().getCount(), is(equalTo(1L)));
+			assertThat(snapshot.getTransmitLatency().getCount(), is(equalTo(2L)));
+			assertThat(snapshot.getTransmitFailureCount(), is(equalTo(1L)));
+			assertThat(snapshot.getParseFailureCount(), is(equalTo(0L)));
+		} finally {
+			xbeeDevice.close();
+		}
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.connection.XBeeMetrics#registerMBean(String)}.
+	 * 
+	 * <p>Verify that the metrics are exposed through JMX.</p>
+	 * 
+	 * @throws JMException
+	 */
+	@Test
+	public final void testRegisterMBean() throws JMException {
+		// Setup the resources for the test.
+		XBeeMetrics metrics = new XBeeMetrics();
+		metrics.frameReceived(APIFrameType.RECEIVE_PACKET.getValue());
+		metrics.frameReceived(APIFrameType.RECEIVE_PACKET.getValue());
+		
+		// Call the method under test.
+		ObjectName objectName = metrics.registerMBean("COM1");
+		
+		// Verify the result.
+		try {
+			assertThat(objectName.getKeyProperty("type"), is(equalTo("XBeeMetrics")));
+			assertThat(ManagementFactory.getPlatformMBeanServer().getAttribute(objectName, "ReceivedFrameCount"), 
+					is(equalTo((Object)2L)));
+			assertThat(ManagementFactory.getPlatformMBeanServer().getAttribute(objectName, "ATCommandLatency") != null, 
+					is(equalTo(true)));
+			Map<String, Long> counts = metrics.getReceivedFrameCounts();
+			assertThat(counts.get(APIFrameType.RECEIVE_PACKET.name()), is(equalTo(2L)));
+		} finally {
+			metrics.unregisterMBean();
+		}
+		assertThat(ManagementFactory.getPlatformMBeanServer().isRegistered(objectName), is(equalTo(false)));
+	}
+}
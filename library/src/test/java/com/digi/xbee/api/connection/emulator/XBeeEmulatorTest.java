@@ -0,0 +1,283 @@
+/**
+ * Copyright (c) 2014-2016 Digi International Inc.,
+ * All rights not expressly granted are reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * Digi International Inc. 11001 Bren Road East, Minnetonka, MN 55343
+ * =======================================================================
+ */
+package com.digi.xbee.api.connection.emulator;
+
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.hamcrest.core.IsNull.notNullValue;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertThat;
+
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import com.digi.xbee.api.RemoteXBeeDevice;
+import com.digi.xbee.api.XBeeDevice;
+import com.digi.xbee.api.exceptions.TransmitException;
+import com.digi.xbee.api.exceptions.XBeeException;
+import com.digi.xbee.api.models.OperatingMode;
+import com.digi.xbee.api.models.QueueOverflowPolicy;
+import com.digi.xbee.api.models.XBee16BitAddress;
+import com.digi.xbee.api.models.XBee64BitAddress;
+import com.digi.xbee.api.models.XBeeMessage;
+import com.digi.xbee.api.models.XBeePacketsQueue;
+import com.digi.xbee.api.models.XBeeProtocol;
+
+public class XBeeEmulatorTest {
+	
+	// Constants.
+	private final static byte[] DATA = "Data".getBytes();
+	
+	// Variables.
+	private XBeeEmulator emulator;
+	private XBeeDevice xbeeDevice;
+	private EmulatedRemoteNode node;
+	
+	@Rule
+	public ExpectedException exception = ExpectedException.none();
+	
+	@Before
+	public void setUp() {
+		emulator = new XBeeEmulator();
+		node = new EmulatedRemoteNode(new XBee64BitAddress("0013A20040A9E77F"), new XBee16BitAddress("1234"), "REMOTE");
+		emulator.addRemoteNode(node);
+		xbeeDevice = new XBeeDevice(emulator);
+	}
+	
+	@After
+	public void tearDown() {
+		xbeeDevice.close();
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.XBeeDevice#open()}.
+	 * 
+	 * <p>Verify that a device opened on the emulator reads its information.</p>
+	 * 
+	 * @throws XBeeException
+	 */
+	@Test
+	public final void testOpen() throws XBeeException {
+		// Call the method under test.
+		xbeeDevice.open();
+		
+		// Verify the result.
+		assertThat(xbeeDevice.getOperatingMode(), is(equalTo(OperatingMode.API)));
+		assertThat(xbeeDevice.getXBeeProtocol(), is(equalTo(XBeeProtocol.ZIGBEE)));
+		assertThat(xbeeDevice.get64BitAddress(), is(equalTo(XBeeEmulator.DEFAULT_64_BIT_ADDRESS)));
+		assertThat(xbeeDevice.getNodeID(), is(equalTo("EMULATOR")));
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.XBeeDevice#open()}.
+	 * 
+	 * <p>Verify that the emulator answers in API escaped mode.</p>
+	 * 
+	 * @throws XBeeException
+	 */
+	@Test
+	public final void testOpenEscaped() throws XBeeException {
+		// Setup the resources for the test.
+		emulator.setParameter("AP", new byte[] {(byte)OperatingMode.API_ESCAPE.getID()});
+		
+		// Call the method under test.
+		xbeeDevice.open();
+		
+		// Verify the result.
+		assertThat(xbeeDevice.getOperatingMode(), is(equalTo(OperatingMode.API_ESCAPE)));
+		assertThat(xbeeDevice.get64BitAddress(), is(equalTo(XBeeEmulator.DEFAULT_64_BIT_ADDRESS)));
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.XBeeDevice#sendData(RemoteXBeeDevice, byte[])}.
+	 * 
+	 * <p>Verify that the data sent to a remote node reaches it.</p>
+	 * 
+	 * @throws XBeeException
+	 */
+	@Test
+	public final void testSendData() throws XBeeException {
+		// Setup the resources for the test.
+		xbeeDevice.open();
+		RemoteXBeeDevice remote = new RemoteXBeeDevice(xbeeDevice, node.get64BitAddress());
+		
+		// Call the method under test.
+		xbeeDevice.sendData(remote, DATA);
+		
+		// Verify the result.
+		assertThat(node.getReceivedMessageCount(), is(equalTo(1L)));
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.XBeeDevice#sendData(RemoteXBeeDevice, byte[])}.
+	 * 
+	 * <p>Verify that the data sent to an address that is not in the network 
+	 * fails.</p>
+	 * 
+	 * @throws XBeeException
+	 */
+	@Test
+	public final void testSendDataUnknownAddress() throws XBeeException {
+		// Setup the resources for the test.
+		xbeeDevice.open();
+		RemoteXBeeDevice remote = new RemoteXBeeDevice(xbeeDevice, new XBee64BitAddress("0013A20040000001"));
+		
+		exception.expect(TransmitException.class);
+		
+		// Call the method under test.
+		xbeeDevice.sendData(remote, DATA);
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.connection.emulator.XBeeEmulator#setLossRate(double)}.
+	 * 
+	 * <p>Verify that the data sent with a loss rate of 1 fails.</p>
+	 * 
+	 * @throws XBeeException
+	 */
+	@Test
+	public final void testSendDataLost() throws XBeeException {
+		// Setup the resources for the test.
+		xbeeDevice.open();
+		emulator.setLossRate(1);
+		RemoteXBeeDevice remote = new RemoteXBeeDevice(xbeeDevice, node.get64BitAddress());
+		
+		exception.expect(TransmitException.class);
+		
+		// Call the method under test.
+		try {
+			xbeeDevice.sendData(remote, DATA);
+		} finally {
+			assertThat(node.getReceivedMessageCount(), is(equalTo(0L)));
+			assertThat(emulator.getLostMessageCount(), is(equalTo(1L)));
+		}
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.RemoteXBeeDevice#getParameter(String)}.
+	 * 
+	 * <p>Verify that the remote AT commands are answered by the node.</p>
+	 * 
+	 * @throws XBeeException
+	 */
+	@Test
+	public final void testRemoteGetParameter() throws XBeeException {
+		// Setup the resources for the test.
+		xbeeDevice.open();
+		RemoteXBeeDevice remote = new RemoteXBeeDevice(xbeeDevice, node.get64BitAddress());
+		
+		// Call the method under test.
+		byte[] value = remote.getParameter("NI");
+		
+		// Verify the result.
+		assertArrayEquals("REMOTE".getBytes(), value);
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.connection.emulator.XBeeEmulator#receiveData(EmulatedRemoteNode, byte[])}.
+	 * 
+	 * <p>Verify that the data sent by a node is read by the local device.</p>
+	 * 
+	 * @throws XBeeException
+	 */
+	@Test
+	public final void testReceiveData() throws XBeeException {
+		// Setup the resources for the test.
+		xbeeDevice.open();
+		
+		// Call the method under test.
+		emulator.receiveData(node, DATA);
+		XBeeMessage message = xbeeDevice.readData(2000);
+		
+		// Verify the result.
+		assertArrayEquals(DATA, message.getData());
+		assertThat(message.getDevice().get64BitAddress(), is(equalTo(node.get64BitAddress())));
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.XBeeDevice#getParameter(String)}.
+	 * 
+	 * <p>Verify that an AT command completes while the received packets 
+	 * queue is full with the block policy, and the queued data is kept.</p>
+	 * 
+	 * @throws Exception
+	 */
+	@Test
+	public final void testGetParameterPacketsQueueFullBlock() throws Exception {
+		// Setup the resources for the test.
+		xbeeDevice.open();
+		// Once the data is read, the responses received while opening the 
+		// device are already in the queue and can be discarded.
+		emulator.receiveData(node, DATA);
+		assertThat(xbeeDevice.readData(2000), is(notNullValue()));
+		XBeePacketsQueue queue = xbeeDevice.getPacketsQueue();
+		queue.clearQueue();
+		
+		xbeeDevice.configurePacketsQueue(1, QueueOverflowPolicy.BLOCK);
+		queue.setBlockTimeout(10000);
+		emulator.receiveData(node, DATA);
+		long deadline = System.currentTimeMillis() + 2000;
+		while (queue.getCurrentSize() < 1 && System.currentTimeMillis() < deadline)
+			Thread.sleep(10);
+		assertThat(queue.getCurrentSize(), is(equalTo(1)));
+		
+		// Call the method under test.
+		byte[] value = xbeeDevice.getParameter("NI");
+		
+		// Verify the result.
+		assertArrayEquals("EMULATOR".getBytes(), value);
+		assertArrayEquals(DATA, xbeeDevice.readData(0).getData());
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.XBeeNetwork#discoverDevice(String)}.
+	 * 
+	 * <p>Verify that the nodes of the emulator are discovered.</p>
+	 * 
+	 * @throws XBeeException
+	 */
+	@Test
+	public final void testDiscoverDevices() throws XBeeException {
+		// Setup the resources for the test.
+		emulator.setParameter("NT", new byte[] {0x01});
+		emulator.createRemoteNodes(2);
+		xbeeDevice.open();
+		
+		// Call the method under test.
+		RemoteXBeeDevice remote = xbeeDevice.getNetwork().discoverDevice("REMOTE");
+		
+		// Verify the result.
+		assertThat(remote.get64BitAddress(), is(equalTo(node.get64BitAddress())));
+		assertThat(remote.get16BitAddress(), is(equalTo(node.get16BitAddress())));
+		
+		List<EmulatedRemoteNode> nodes = emulator.getRemoteNodes();
+		assertThat(nodes.size(), is(equalTo(3)));
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.connection.emulator.XBeeEmulator#setLossRate(double)}.
+	 * 
+	 * <p>Verify that the loss rate cannot be greater than 1.</p>
+	 */
+	@Test
+	public final void testSetLossRateInvalid() {
+		exception.expect(IllegalArgumentException.class);
+		exception.expectMessage(is(equalTo("Loss rate must be between 0 and 1.")));
+		
+		emulator.setLossRate(1.5);
+	}
+}
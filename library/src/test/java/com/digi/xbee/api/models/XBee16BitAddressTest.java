@@ -419,4 +419,53 @@ public class XBee16BitAddressTest {
 		assertThat("Consistent hashcode test fails", addr.hashCode(), is(equalTo(initialHashCode)));
 		assertThat("Consistent hashcode test fails", addr.hashCode(), is(equalTo(initialHashCode)));
 	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.models.XBee16BitAddress#getIntValue()}.
+	 */
+	@Test
+	public final void testGetIntValue() {
+		// Setup the resources for the test.
+		XBee16BitAddress addr = new XBee16BitAddress("0xFFFE");
+		
+		// Call the method under test and verify the result.
+		assertThat(addr.getIntValue(), is(equalTo(0xFFFE)));
+		assertThat(addr.getHsb(), is(equalTo((int)(byte)0xFF)));
+		assertThat(addr.getLsb(), is(equalTo((int)(byte)0xFE)));
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.models.XBee16BitAddress#valueOf(int)}.
+	 */
+	@Test
+	public final void testValueOfReusesInstances() {
+		// Call the method under test.
+		XBee16BitAddress addr1 = XBee16BitAddress.valueOf(0x1234);
+		XBee16BitAddress addr2 = XBee16BitAddress.valueOf(0x1234);
+		
+		// Verify the result.
+		assertThat(addr1 == addr2, is(equalTo(true)));
+		assertThat(addr1, is(equalTo(new XBee16BitAddress("1234"))));
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.models.XBee16BitAddress#valueOf(int)}.
+	 */
+	@Test
+	public final void testValueOfOutOfRange() {
+		// Test with invalid value (lesser than 0).
+		try {
+			XBee16BitAddress.valueOf(-1);
+			fail("Object should not have been created.");
+		} catch (Exception e) {
+			assertEquals(e.getClass(), IllegalArgumentException.class);
+		}
+		// Test with invalid value (greater than 0xFFFF).
+		try {
+			XBee16BitAddress.valueOf(0x10000);
+			fail("Object should not have been created.");
+		} catch (Exception e) {
+			assertEquals(e.getClass(), IllegalArgumentException.class);
+		}
+	}
 }
@@ -494,4 +494,32 @@ public class XBee64BitAddressTest {
 		assertThat("Consistent hashcode test fails", addr.hashCode(), is(equalTo(initialHashCode)));
 		assertThat("Consistent hashcode test fails", addr.hashCode(), is(equalTo(initialHashCode)));
 	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.models.XBee64BitAddress#XBee64BitAddress(long)}.
+	 */
+	@Test
+	public final void testCreateWithLongValue() {
+		// Call the method under test.
+		XBee64BitAddress addr = new XBee64BitAddress(0x0013A20040A9E77FL);
+		
+		// Verify the result.
+		assertThat(addr, is(equalTo(new XBee64BitAddress("0013A20040A9E77F"))));
+		assertThat(addr.getLongValue(), is(equalTo(0x0013A20040A9E77FL)));
+		assertArrayEquals(new byte[] {0x00, 0x13, (byte)0xA2, 0x00, 0x40, (byte)0xA9, (byte)0xE7, 0x7F}, addr.getValue());
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.models.XBee64BitAddress#valueOf(long)}.
+	 */
+	@Test
+	public final void testValueOfReusesInstances() {
+		// Call the method under test.
+		XBee64BitAddress addr1 = XBee64BitAddress.valueOf(0x0013A20040A9E77FL);
+		XBee64BitAddress addr2 = XBee64BitAddress.valueOf(0x0013A20040A9E77FL);
+		
+		// Verify the result.
+		assertThat(addr1 == addr2, is(equalTo(true)));
+		assertThat(addr1, is(equalTo(new XBee64BitAddress("0013A20040A9E77F"))));
+	}
 }
@@ -0,0 +1,163 @@
+/**
+ * Copyright (c) 2014-2016 Digi International Inc.,
+ * All rights not expressly granted are reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * Digi International Inc. 11001 Bren Road East, Minnetonka, MN 55343
+ * =======================================================================
+ */
+package com.digi.xbee.api.models;
+
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertThat;
+
+import java.nio.ByteBuffer;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.mockito.Mockito;
+
+import com.digi.xbee.api.RemoteXBeeDevice;
+import com.digi.xbee.api.exceptions.InvalidPacketException;
+import com.digi.xbee.api.packet.XBeePacketView;
+import com.digi.xbee.api.packet.common.ExplicitRxIndicatorPacket;
+
+public class XBeeMessagePoolTest {
+
+	// Constants.
+	private final static byte[] DATA = "Data".getBytes();
+
+	// Variables.
+	private RemoteXBeeDevice remoteXBeeDevice;
+
+	@Rule
+	public ExpectedException exception = ExpectedException.none();
+
+	@Before
+	public void setUp() {
+		remoteXBeeDevice = Mockito.mock(RemoteXBeeDevice.class);
+	}
+
+	/**
+	 * Test method for {@link com.digi.xbee.api.models.XBeeMessagePool#XBeeMessagePool(int, int)}.
+	 *
+	 * <p>Verify that the pool cannot be created with a capacity of 0.</p>
+	 */
+	@Test
+	public final void testCreateInvalidCapacity() {
+		exception.expect(IllegalArgumentException.class);
+		exception.expectMessage(is(equalTo("Capacity must be greater than 0.")));
+
+		new XBeeMessagePool(0, 16);
+	}
+
+	/**
+	 * Test method for {@link com.digi.xbee.api.models.XBeeMessagePool#acquire(RemoteXBeeDevice, byte[], int, int, boolean)}.
+	 *
+	 * <p>Verify that a released message is reused and its data is replaced.</p>
+	 */
+	@Test
+	public final void testAcquireReusesReleasedMessage() {
+		// Setup the resources for the test.
+		XBeeMessagePool pool = new XBeeMessagePool(2, 2);
+		PooledXBeeMessage message = pool.acquire(remoteXBeeDevice, DATA, 0, DATA.length, true);
+		assertThat(message.getDataString(), is(equalTo("Data")));
+		assertThat(message.isBroadcast(), is(equalTo(true)));
+		message.release();
+
+		// Call the method under test.
+		PooledXBeeMessage reused = pool.acquire(remoteXBeeDevice, DATA, 1, 2, false);
+
+		// Verify the result.
+		assertThat(reused == message, is(equalTo(true)));
+		assertArrayEquals("at".getBytes(), reused.getData());
+		assertThat(reused.getDataLength(), is(equalTo(2)));
+		assertThat(reused.isBroadcast(), is(equalTo(false)));
+		assertThat(reused.isExplicit(), is(equalTo(false)));
+		assertThat(pool.getCreatedCount(), is(equalTo(1L)));
+		assertThat(pool.getReusedCount(), is(equalTo(1L)));
+	}
+
+	/**
+	 * Test method for {@link com.digi.xbee.api.models.PooledXBeeMessage#release()}.
+	 *
+	 * <p>Verify that a message returns to the pool only when all its
+	 * references are released, and that the pool never holds more free
+	 * messages than its capacity.</p>
+	 */
+	@Test
+	public final void testReleaseReferences() {
+		// Setup the resources for the test.
+		XBeeMessagePool pool = new XBeeMessagePool(1, 16);
+		PooledXBeeMessage first = pool.acquire(remoteXBeeDevice, DATA, 0, DATA.length, false);
+		PooledXBeeMessage second = pool.acquire(remoteXBeeDevice, DATA, 0, DATA.length, false);
+		first.retain();
+
+		// Call the method under test.
+		first.release();
+		assertThat(pool.getAvailableCount(), is(equalTo(0)));
+		first.release();
+		second.release();
+
+		// Verify the result.
+		assertThat(pool.getAvailableCount(), is(equalTo(1)));
+		assertThat(pool.getCreatedCount(), is(equalTo(2L)));
+	}
+
+	/**
+	 * Test method for {@link com.digi.xbee.api.models.PooledXBeeMessage#release()}.
+	 *
+	 * <p>Verify that a message cannot be released twice.</p>
+	 */
+	@Test
+	public final void testReleaseTwice() {
+		// Setup the resources for the test.
+		PooledXBeeMessage message = new XBeeMessagePool().acquire(remoteXBeeDevice, DATA, 0, DATA.length, false);
+		message.release();
+
+		exception.expect(IllegalStateException.class);
+		exception.expectMessage(is(equalTo("The message was already released.")));
+
+		// Call the method under test.
+		message.release();
+	}
+
+	/**
+	 * Test method for {@link com.digi.xbee.api.models.XBeeMessagePool#acquire(RemoteXBeeDevice, XBeePacketView)}.
+	 *
+	 * <p>Verify that the data and the application layer fields of an
+	 * explicit frame are copied to the message.</p>
+	 *
+	 * @throws InvalidPacketException
+	 */
+	@Test
+	public final void testAcquireFromExplicitView() throws InvalidPacketException {
+		// Setup the resources for the test.
+		ExplicitRxIndicatorPacket packet = new ExplicitRxIndicatorPacket(new XBee64BitAddress("0013A20040A9E77F"),
+				new XBee16BitAddress("1234"), 0xE8, 0xE6, 0x0011, 0xC105, 0x02, DATA);
+		XBeePacketView view = new XBeePacketView().wrap(ByteBuffer.wrap(packet.getPacketData()));
+
+		// Call the method under test.
+		PooledXBeeMessage message = new XBeeMessagePool(1, 1).acquire(remoteXBeeDevice, view);
+
+		// Verify the result.
+		assertArrayEquals(DATA, message.getData());
+		assertThat(message.isBroadcast(), is(equalTo(true)));
+		assertThat(message.isExplicit(), is(equalTo(true)));
+		assertThat(message.getSourceEndpoint(), is(equalTo(0xE8)));
+		assertThat(message.getDestinationEndpoint(), is(equalTo(0xE6)));
+		assertThat(message.getClusterID(), is(equalTo(0x0011)));
+		assertThat(message.getProfileID(), is(equalTo(0xC105)));
+
+		ExplicitXBeeMessage explicitMessage = message.toExplicitXBeeMessage();
+		assertArrayEquals(DATA, explicitMessage.getData());
+		assertThat(explicitMessage.getClusterID(), is(equalTo(0x0011)));
+	}
+}
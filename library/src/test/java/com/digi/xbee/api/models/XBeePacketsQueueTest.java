@@ -14,13 +14,12 @@ package com.digi.xbee.api.models;
 import static org.junit.Assert.*;
 
 import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
 
 import org.junit.BeforeClass;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.Mockito;
-import org.mockito.invocation.InvocationOnMock;
-import org.mockito.stubbing.Answer;
 import org.powermock.api.mockito.PowerMockito;
 import org.powermock.core.classloader.annotations.PrepareForTest;
 import org.powermock.modules.junit4.PowerMockRunner;
@@ -30,6 +29,7 @@ import com.digi.xbee.api.RemoteXBeeDevice;
 import com.digi.xbee.api.packet.APIFrameType;
 import com.digi.xbee.api.packet.XBeeAPIPacket;
 import com.digi.xbee.api.packet.XBeePacket;
+import com.digi.xbee.api.packet.common.ATCommandResponsePacket;
 import com.digi.xbee.api.packet.common.ExplicitRxIndicatorPacket;
 import com.digi.xbee.api.packet.common.ReceivePacket;
 import com.digi.xbee.api.packet.common.RemoteATCommandResponsePacket;
@@ -39,25 +39,25 @@ import com.digi.xbee.api.packet.raw.RX64IOPacket;
 import com.digi.xbee.api.packet.raw.RX64Packet;
 
 @RunWith(PowerMockRunner.class)
-@PrepareForTest({System.class, XBeePacketsQueue.class})
+@PrepareForTest({XBeePacketsQueue.class})
 public class XBeePacketsQueueTest {
 
 	// Constants.
 	private final static int MAX_LENGTH = XBeePacketsQueue.DEFAULT_MAX_LENGTH;
 	
+	private final static int TIMEOUT = 300;
+	private final static int PRODUCER_ITERATIONS = 20;
+	
 	private final static String ADDRESS_64_1 = "0123456789ABCDEF";
 	private final static String ADDRESS_64_2 = "0123456701234567";
 	private final static String ADDRESS_64_3 = "0123012301230123";
 	private final static String ADDRESS_16_1 = "0123";
 	private final static String ADDRESS_16_2 = "4567";
-	private final static String METHOD_SLEEP = "sleep";
 	private final static String METHOD_IS_DATA_PACKET = "isDataPacket";
 	private final static String METHOD_IS_EXPLICIT_DATA_PACKET = "isExplicitDataPacket";
 	private final static String METHOD_ADDRESSES_MATCH = "addressesMatch";
 	
 	// Variables.
-	private long currentMillis = 0;
-	
 	private static XBee64BitAddress xbee64BitAddress1;
 	private static XBee64BitAddress xbee64BitAddress2;
 	private static XBee64BitAddress xbee64BitAddress3;
@@ -429,6 +429,196 @@ public class XBeePacketsQueueTest {
 		assertEquals(4, xbeePacketsQueue.getCurrentSize());
 	}
 	
+	/**
+	 * Test method for {@link com.digi.xbee.api.models.XBeePacketsQueue#getFirstDataPacketFrom(RemoteXBeeDevice, int)}.
+	 * 
+	 * <p>Verify that the data packets of a remote XBee device are returned in arrival order 
+	 * whether they were indexed by its 64-bit or its 16-bit address, and that the packets of 
+	 * other devices keep their order for the rest of readers.</p>
+	 */
+	@Test
+	public void testGetFirstDataPacketFromArrivalOrder() {
+		// Create a mocked remote XBee device with both addresses.
+		RemoteXBeeDevice mockedRemoteDevice = Mockito.mock(RemoteXBeeDevice.class);
+		Mockito.when(mockedRemoteDevice.get64BitAddress()).thenReturn(xbee64BitAddress1);
+		Mockito.when(mockedRemoteDevice.get16BitAddress()).thenReturn(xbee16BitAddress1);
+		
+		XBeePacket packet16 = new RX16Packet(xbee16BitAddress1, 40, 0, new byte[]{0x01});
+		XBeePacket otherPacket1 = new RX64Packet(xbee64BitAddress2, 40, 0, new byte[]{0x02});
+		XBeePacket packet64 = new RX64Packet(xbee64BitAddress1, 40, 0, new byte[]{0x03});
+		XBeePacket otherPacket2 = new RX16Packet(xbee16BitAddress2, 40, 0, new byte[]{0x04});
+		
+		XBeePacketsQueue xbeePacketsQueue = new XBeePacketsQueue(5);
+		xbeePacketsQueue.addPacket(packet16);
+		xbeePacketsQueue.addPacket(otherPacket1);
+		xbeePacketsQueue.addPacket(packet64);
+		xbeePacketsQueue.addPacket(otherPacket2);
+		
+		// Verify the packets of the remote device are returned in order.
+		assertEquals(packet16, xbeePacketsQueue.getFirstDataPacketFrom(mockedRemoteDevice, 0));
+		assertEquals(packet64, xbeePacketsQueue.getFirstDataPacketFrom(mockedRemoteDevice, 0));
+		assertNull(xbeePacketsQueue.getFirstDataPacketFrom(mockedRemoteDevice, 0));
+		
+		// Verify the rest of packets keep their order.
+		assertEquals(otherPacket1, xbeePacketsQueue.getFirstDataPacket(0));
+		assertEquals(otherPacket2, xbeePacketsQueue.getFirstDataPacket(0));
+		assertEquals(0, xbeePacketsQueue.getCurrentSize());
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.models.XBeePacketsQueue#XBeePacketsQueue(int, QueueOverflowPolicy)}.
+	 * 
+	 * <p>Verify that the queue cannot be created with a null overflow policy.</p>
+	 */
+	@Test(expected=NullPointerException.class)
+	public void testCreateNullOverflowPolicy() {
+		new XBeePacketsQueue(5, null);
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.models.XBeePacketsQueue#addPacket(XBeePacket)}.
+	 * 
+	 * <p>Verify that with the drop-oldest policy the first packets are discarded and counted.</p>
+	 */
+	@Test
+	public void testAddPacketDropOldest() {
+		XBeePacketsQueue xbeePacketsQueue = new XBeePacketsQueue(2, QueueOverflowPolicy.DROP_OLDEST);
+		XBeePacket[] packets = createDataPackets(4);
+		for (XBeePacket packet : packets)
+			xbeePacketsQueue.addPacket(packet);
+		
+		assertEquals(packets[2], xbeePacketsQueue.getFirstPacket(0));
+		assertEquals(packets[3], xbeePacketsQueue.getFirstPacket(0));
+		assertEquals(2, xbeePacketsQueue.getDroppedCount());
+		assertEquals(2, xbeePacketsQueue.getHighWaterMark());
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.models.XBeePacketsQueue#addPacket(XBeePacket)}.
+	 * 
+	 * <p>Verify that with the drop-newest policy the packets received when the queue is full 
+	 * are discarded and counted.</p>
+	 */
+	@Test
+	public void testAddPacketDropNewest() {
+		XBeePacketsQueue xbeePacketsQueue = new XBeePacketsQueue(2, QueueOverflowPolicy.DROP_NEWEST);
+		XBeePacket[] packets = createDataPackets(4);
+		for (XBeePacket packet : packets)
+			xbeePacketsQueue.addPacket(packet);
+		
+		assertEquals(packets[0], xbeePacketsQueue.getFirstPacket(0));
+		assertEquals(packets[1], xbeePacketsQueue.getFirstPacket(0));
+		assertNull(xbeePacketsQueue.getFirstPacket(0));
+		assertEquals(2, xbeePacketsQueue.getDroppedCount());
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.models.XBeePacketsQueue#addPacket(XBeePacket)}.
+	 * 
+	 * <p>Verify that with the block policy the packet is added as soon as a reader makes room, 
+	 * without dropping any packet.</p>
+	 * 
+	 * @throws Exception 
+	 */
+	@Test
+	public void testAddPacketBlock() throws Exception {
+		final XBeePacketsQueue xbeePacketsQueue = new XBeePacketsQueue(1, QueueOverflowPolicy.BLOCK);
+		xbeePacketsQueue.setBlockTimeout(10000);
+		XBeePacket[] packets = createDataPackets(2);
+		xbeePacketsQueue.addPacket(packets[0]);
+		
+		// Read the first packet from another thread while the second one is blocked.
+		final XBeePacket[] readPacket = new XBeePacket[1];
+		Thread reader = new Thread() {
+			@Override
+			public void run() {
+				try {
+					Thread.sleep(50);
+				} catch (InterruptedException e) {}
+				readPacket[0] = xbeePacketsQueue.getFirstPacket(0);
+			}
+		};
+		reader.start();
+		
+		long start = System.nanoTime();
+		xbeePacketsQueue.addPacket(packets[1]);
+		long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+		reader.join();
+		
+		assertEquals(packets[0], readPacket[0]);
+		assertEquals(packets[1], xbeePacketsQueue.getFirstPacket(0));
+		assertTrue(elapsed < 5000);
+		assertEquals(0, xbeePacketsQueue.getDroppedCount());
+		assertEquals(1, xbeePacketsQueue.getBlockedCount());
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.models.XBeePacketsQueue#addPacket(XBeePacket)}.
+	 * 
+	 * <p>Verify that with the block policy the oldest packet is discarded if nobody makes room 
+	 * before the block timeout.</p>
+	 */
+	@Test
+	public void testAddPacketBlockTimeout() {
+		XBeePacketsQueue xbeePacketsQueue = new XBeePacketsQueue(1, QueueOverflowPolicy.BLOCK);
+		xbeePacketsQueue.setBlockTimeout(TIMEOUT);
+		XBeePacket[] packets = createDataPackets(2);
+		xbeePacketsQueue.addPacket(packets[0]);
+		
+		long start = System.nanoTime();
+		xbeePacketsQueue.addPacket(packets[1]);
+		long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+		
+		assertTrue(elapsed >= TIMEOUT);
+		assertEquals(packets[1], xbeePacketsQueue.getFirstPacket(0));
+		assertEquals(1, xbeePacketsQueue.getDroppedCount());
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.models.XBeePacketsQueue#addPacket(XBeePacket)}.
+	 * 
+	 * <p>Verify that with the block policy a response packet does not wait for room and is 
+	 * discarded, keeping the queued data packets.</p>
+	 */
+	@Test
+	public void testAddPacketBlockResponse() {
+		XBeePacketsQueue xbeePacketsQueue = new XBeePacketsQueue(1, QueueOverflowPolicy.BLOCK);
+		xbeePacketsQueue.setBlockTimeout(10000);
+		XBeePacket[] packets = createDataPackets(1);
+		xbeePacketsQueue.addPacket(packets[0]);
+		
+		long start = System.nanoTime();
+		xbeePacketsQueue.addPacket(new ATCommandResponsePacket(1, ATCommandStatus.OK, "NI", null));
+		long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+		
+		assertTrue(elapsed < 5000);
+		assertEquals(packets[0], xbeePacketsQueue.getFirstPacket(0));
+		assertNull(xbeePacketsQueue.getFirstPacket(0));
+		assertEquals(1, xbeePacketsQueue.getDroppedCount());
+		assertEquals(0, xbeePacketsQueue.getBlockedCount());
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.models.XBeePacketsQueue#setMaxSize(int)}.
+	 * 
+	 * <p>Verify that shrinking the queue discards the oldest packets.</p>
+	 */
+	@Test
+	public void testSetMaxSizeShrink() {
+		XBeePacketsQueue xbeePacketsQueue = new XBeePacketsQueue(5);
+		XBeePacket[] packets = createDataPackets(4);
+		for (XBeePacket packet : packets)
+			xbeePacketsQueue.addPacket(packet);
+		
+		xbeePacketsQueue.setMaxSize(1);
+		
+		assertEquals(1, xbeePacketsQueue.getMaxSize());
+		assertEquals(1, xbeePacketsQueue.getCurrentSize());
+		assertEquals(packets[3], xbeePacketsQueue.getFirstPacket(0));
+		assertEquals(3, xbeePacketsQueue.getDroppedCount());
+		assertEquals(4, xbeePacketsQueue.getHighWaterMark());
+	}
+	
 	/**
 	 * Test method for {@link com.digi.xbee.api.models.XBeePacketsQueue#getFirstPacket(int)}.
 	 * 
@@ -440,31 +630,16 @@ public class XBeePacketsQueueTest {
 	@Test
 	public void testGetFirstPacketTimeout() throws Exception {
 		// Create an XBeePacketsQueue of 5 slots but don't fill it.
-		XBeePacketsQueue xbeePacketsQueue = PowerMockito.spy(new XBeePacketsQueue(5));
-		
-		// Get the current time.
-		currentMillis = System.currentTimeMillis();
-		
-		// Prepare the System class to return our fixed currentMillis variable when requested.
-		PowerMockito.mockStatic(System.class);
-		PowerMockito.when(System.currentTimeMillis()).thenReturn(currentMillis);
-		
-		// When the sleep method is called, add 100ms to the currentMillis variable.
-		PowerMockito.doAnswer(new Answer<Object>() {
-			public Object answer(InvocationOnMock invocation) throws Exception {
-				Object[] args = invocation.getArguments();
-				int sleepTime = (Integer)args[0];
-				changeMillisToReturn(sleepTime);
-				return null;
-			}
-		}).when(xbeePacketsQueue, METHOD_SLEEP, Mockito.anyInt());
+		XBeePacketsQueue xbeePacketsQueue = new XBeePacketsQueue(5);
 		
-		// Request the first packet with 5s of timeout.
-		XBeePacket xbeePacket = xbeePacketsQueue.getFirstPacket(5000);
+		// Request the first packet with a timeout.
+		long start = System.nanoTime();
+		XBeePacket xbeePacket = xbeePacketsQueue.getFirstPacket(TIMEOUT);
+		long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
 		
-		// Verify that the sleep method was called 50 times (50 * 100ms = 5s) and the packet 
+		// Verify that the whole timeout elapsed and the packet 
 		// retrieved is null.
-		PowerMockito.verifyPrivate(xbeePacketsQueue, Mockito.times(50)).invoke(METHOD_SLEEP, 100);
+		assertTrue(elapsed >= TIMEOUT);
 		assertNull(xbeePacket);
 	}
 	
@@ -488,7 +663,7 @@ public class XBeePacketsQueueTest {
 		Mockito.when(mockedReceivePacket.get64bitSourceAddress()).thenReturn(xbee64BitAddress3);
 		
 		// Create an XBeePacketsQueue of 5 slots.
-		XBeePacketsQueue xbeePacketsQueue = PowerMockito.spy(new XBeePacketsQueue(5));
+		XBeePacketsQueue xbeePacketsQueue = new XBeePacketsQueue(5);
 		
 		// Fill the queue with some packets.
 		xbeePacketsQueue.addPacket(Mockito.mock(XBeePacket.class));
@@ -496,29 +671,14 @@ public class XBeePacketsQueueTest {
 		xbeePacketsQueue.addPacket(Mockito.mock(XBeePacket.class));
 		xbeePacketsQueue.addPacket(mockedReceivePacket);
 		
-		// Get the current time.
-		currentMillis = System.currentTimeMillis();
+		// Request the first packet from our remote XBee device with a timeout.
+		long start = System.nanoTime();
+		XBeePacket xbeePacket = xbeePacketsQueue.getFirstPacketFrom(mockedRemoteDevice, TIMEOUT);
+		long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
 		
-		// Prepare the System class to return our fixed currentMillis variable when requested.
-		PowerMockito.mockStatic(System.class);
-		PowerMockito.when(System.currentTimeMillis()).thenReturn(currentMillis);
-		
-		// When the sleep method is called, add 100ms to the currentMillis variable.
-		PowerMockito.doAnswer(new Answer<Object>() {
-			public Object answer(InvocationOnMock invocation) throws Exception {
-				Object[] args = invocation.getArguments();
-				int sleepTime = (Integer)args[0];
-				changeMillisToReturn(sleepTime);
-				return null;
-			}
-		}).when(xbeePacketsQueue, METHOD_SLEEP, Mockito.anyInt());
-		
-		// Request the first packet from our remote XBee device with 5s of timeout.
-		XBeePacket xbeePacket = xbeePacketsQueue.getFirstPacketFrom(mockedRemoteDevice, 5000);
-		
-		// Verify that the sleep method was called 50 times (50 * 100ms = 5s) and the packet 
+		// Verify that the whole timeout elapsed and the packet 
 		// retrieved is null (there was not any packet from our remote XBee device in the queue).
-		PowerMockito.verifyPrivate(xbeePacketsQueue, Mockito.times(50)).invoke(METHOD_SLEEP, 100);
+		assertTrue(elapsed >= TIMEOUT);
 		assertNull(xbeePacket);
 	}
 	
@@ -534,7 +694,7 @@ public class XBeePacketsQueueTest {
 	@Test
 	public void testGetFirstDataPacketTimeout() throws Exception {
 		// Create an XBeePacketsQueue of 5 slots.
-		XBeePacketsQueue xbeePacketsQueue = PowerMockito.spy(new XBeePacketsQueue(5));
+		XBeePacketsQueue xbeePacketsQueue = new XBeePacketsQueue(5);
 		
 		// Add some dummy packets (non data packets).
 		for (int i = 0; i < 3; i ++)
@@ -543,29 +703,14 @@ public class XBeePacketsQueueTest {
 		xbeePacketsQueue.addPacket(mockedExplicitRxIndicatorPacket);
 		xbeePacketsQueue.addPacket(mockedRxIO64Packet);
 		
-		// Get the current time.
-		currentMillis = System.currentTimeMillis();
-		
-		// Prepare the System class to return our fixed currentMillis variable when requested.
-		PowerMockito.mockStatic(System.class);
-		PowerMockito.when(System.currentTimeMillis()).thenReturn(currentMillis);
-		
-		// When the sleep method is called, add 100ms to the currentMillis variable.
-		PowerMockito.doAnswer(new Answer<Object>() {
-			public Object answer(InvocationOnMock invocation) throws Exception {
-				Object[] args = invocation.getArguments();
-				int sleepTime = (Integer)args[0];
-				changeMillisToReturn(sleepTime);
-				return null;
-			}
-		}).when(xbeePacketsQueue, METHOD_SLEEP, Mockito.anyInt());
-		
-		// Request the first data packet with 5s of timeout.
-		XBeePacket xbeePacket = xbeePacketsQueue.getFirstDataPacket(5000);
+		// Request the first data packet with a timeout.
+		long start = System.nanoTime();
+		XBeePacket xbeePacket = xbeePacketsQueue.getFirstDataPacket(TIMEOUT);
+		long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
 		
-		// Verify that the sleep method was called 50 times (50 * 100ms = 5s) and the data 
+		// Verify that the whole timeout elapsed and the data 
 		// packet retrieved is null (there was not any data packet in the queue).
-		PowerMockito.verifyPrivate(xbeePacketsQueue, Mockito.times(50)).invoke(METHOD_SLEEP, 100);
+		assertTrue(elapsed >= TIMEOUT);
 		assertNull(xbeePacket);
 	}
 	
@@ -589,7 +734,7 @@ public class XBeePacketsQueueTest {
 		Mockito.when(mockedReceivePacket.get64bitSourceAddress()).thenReturn(xbee64BitAddress3);
 		
 		// Create an XBeePacketsQueue of 5 slots.
-		XBeePacketsQueue xbeePacketsQueue = PowerMockito.spy(new XBeePacketsQueue(5));
+		XBeePacketsQueue xbeePacketsQueue = new XBeePacketsQueue(5);
 		
 		// Fill the queue with some packets.
 		xbeePacketsQueue.addPacket(Mockito.mock(XBeePacket.class));
@@ -597,29 +742,14 @@ public class XBeePacketsQueueTest {
 		xbeePacketsQueue.addPacket(Mockito.mock(XBeePacket.class));
 		xbeePacketsQueue.addPacket(mockedReceivePacket);
 		
-		// Get the current time.
-		currentMillis = System.currentTimeMillis();
-		
-		// Prepare the System class to return our fixed currentMillis variable when requested.
-		PowerMockito.mockStatic(System.class);
-		PowerMockito.when(System.currentTimeMillis()).thenReturn(currentMillis);
+		// Request the first data packet from our remote XBee device with a timeout.
+		long start = System.nanoTime();
+		XBeePacket xbeePacket = xbeePacketsQueue.getFirstDataPacketFrom(mockedRemoteDevice, TIMEOUT);
+		long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
 		
-		// When the sleep method is called, add 100ms to the currentMillis variable.
-		PowerMockito.doAnswer(new Answer<Object>() {
-			public Object answer(InvocationOnMock invocation) throws Exception {
-				Object[] args = invocation.getArguments();
-				int sleepTime = (Integer)args[0];
-				changeMillisToReturn(sleepTime);
-				return null;
-			}
-		}).when(xbeePacketsQueue, METHOD_SLEEP, Mockito.anyInt());
-		
-		// Request the first data packet from our remote XBee device with 5s of timeout.
-		XBeePacket xbeePacket = xbeePacketsQueue.getFirstDataPacketFrom(mockedRemoteDevice, 5000);
-		
-		// Verify that the sleep method was called 50 times (50 * 100ms = 5s) and the data packet 
+		// Verify that the whole timeout elapsed and the data packet 
 		// retrieved is null (there was not any data packet from our remote XBee device in the queue).
-		PowerMockito.verifyPrivate(xbeePacketsQueue, Mockito.times(50)).invoke(METHOD_SLEEP, 100);
+		assertTrue(elapsed >= TIMEOUT);
 		assertNull(xbeePacket);
 	}
 	
@@ -635,7 +765,7 @@ public class XBeePacketsQueueTest {
 	@Test
 	public void testGetFirstExplicitDataPacketTimeout() throws Exception {
 		// Create an XBeePacketsQueue of 5 slots.
-		XBeePacketsQueue xbeePacketsQueue = PowerMockito.spy(new XBeePacketsQueue(5));
+		XBeePacketsQueue xbeePacketsQueue = new XBeePacketsQueue(5);
 		
 		// Add some dummy packets (non explicit data packets).
 		for (int i = 0; i < 3; i ++)
@@ -644,29 +774,14 @@ public class XBeePacketsQueueTest {
 		xbeePacketsQueue.addPacket(mockedReceivePacket);
 		xbeePacketsQueue.addPacket(mockedRx64Packet);
 		
-		// Get the current time.
-		currentMillis = System.currentTimeMillis();
+		// Request the first explicit data packet with a timeout.
+		long start = System.nanoTime();
+		XBeePacket xbeePacket = xbeePacketsQueue.getFirstExplicitDataPacket(TIMEOUT);
+		long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
 		
-		// Prepare the System class to return our fixed currentMillis variable when requested.
-		PowerMockito.mockStatic(System.class);
-		PowerMockito.when(System.currentTimeMillis()).thenReturn(currentMillis);
-		
-		// When the sleep method is called, add 100ms to the currentMillis variable.
-		PowerMockito.doAnswer(new Answer<Object>() {
-			public Object answer(InvocationOnMock invocation) throws Exception {
-				Object[] args = invocation.getArguments();
-				int sleepTime = (Integer)args[0];
-				changeMillisToReturn(sleepTime);
-				return null;
-			}
-		}).when(xbeePacketsQueue, METHOD_SLEEP, Mockito.anyInt());
-		
-		// Request the first explicit data packet with 5s of timeout.
-		XBeePacket xbeePacket = xbeePacketsQueue.getFirstExplicitDataPacket(5000);
-		
-		// Verify that the sleep method was called 50 times (50 * 100ms = 5s) and the explicit data 
+		// Verify that the whole timeout elapsed and the explicit data 
 		// packet retrieved is null (there was not any explicit data packet in the queue).
-		PowerMockito.verifyPrivate(xbeePacketsQueue, Mockito.times(50)).invoke(METHOD_SLEEP, 100);
+		assertTrue(elapsed >= TIMEOUT);
 		assertNull(xbeePacket);
 	}
 	
@@ -693,7 +808,7 @@ public class XBeePacketsQueueTest {
 		Mockito.when(mockedRx64Packet.get64bitSourceAddress()).thenReturn(xbee64BitAddress1);
 		
 		// Create an XBeePacketsQueue of 5 slots.
-		XBeePacketsQueue xbeePacketsQueue = PowerMockito.spy(new XBeePacketsQueue(5));
+		XBeePacketsQueue xbeePacketsQueue = new XBeePacketsQueue(5);
 		
 		// Fill the queue with some packets.
 		xbeePacketsQueue.addPacket(Mockito.mock(XBeePacket.class));
@@ -702,30 +817,98 @@ public class XBeePacketsQueueTest {
 		xbeePacketsQueue.addPacket(mockedReceivePacket);
 		xbeePacketsQueue.addPacket(mockedRx64Packet);
 		
-		// Get the current time.
-		currentMillis = System.currentTimeMillis();
+		// Request the first explicit data packet from our remote XBee device with a timeout.
+		long start = System.nanoTime();
+		XBeePacket xbeePacket = xbeePacketsQueue.getFirstExplicitDataPacketFrom(mockedRemoteDevice, TIMEOUT);
+		long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+		
+		// Verify that the whole timeout elapsed and the explicit data packet 
+		// retrieved is null (there was not any explicit data packet from our remote XBee device in the queue).
+		assertTrue(elapsed >= TIMEOUT);
+		assertNull(xbeePacket);
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.models.XBeePacketsQueue#getFirstDataPacketFrom(RemoteXBeeDevice, int)}.
+	 * 
+	 * <p>Verify that a reader waiting for a data packet from a specific remote XBee device 
+	 * is woken up when that packet is added, ignoring the packets added before from other 
+	 * devices.</p>
+	 * 
+	 * @throws Exception 
+	 */
+	@Test
+	public void testGetFirstDataPacketFromWakesUp() throws Exception {
+		// Create a mocked remote XBee device.
+		RemoteXBeeDevice mockedRemoteDevice = Mockito.mock(RemoteXBeeDevice.class);
+		Mockito.when(mockedRemoteDevice.get64BitAddress()).thenReturn(xbee64BitAddress1);
 		
-		// Prepare the System class to return our fixed currentMillis variable when requested.
-		PowerMockito.mockStatic(System.class);
-		PowerMockito.when(System.currentTimeMillis()).thenReturn(currentMillis);
+		// Configure 2 data frames, only the second one from the remote device.
+		Mockito.when(mockedRx64Packet.get64bitSourceAddress()).thenReturn(xbee64BitAddress2);
+		Mockito.when(mockedReceivePacket.get64bitSourceAddress()).thenReturn(xbee64BitAddress1);
 		
-		// When the sleep method is called, add 100ms to the currentMillis variable.
-		PowerMockito.doAnswer(new Answer<Object>() {
-			public Object answer(InvocationOnMock invocation) throws Exception {
-				Object[] args = invocation.getArguments();
-				int sleepTime = (Integer)args[0];
-				changeMillisToReturn(sleepTime);
-				return null;
+		final XBeePacketsQueue xbeePacketsQueue = new XBeePacketsQueue(5);
+		
+		// Add the packets from another thread while the reader is waiting.
+		Thread producer = new Thread() {
+			@Override
+			public void run() {
+				try {
+					Thread.sleep(50);
+					xbeePacketsQueue.addPacket(mockedRx64Packet);
+					Thread.sleep(50);
+					xbeePacketsQueue.addPacket(mockedReceivePacket);
+				} catch (InterruptedException e) {}
 			}
-		}).when(xbeePacketsQueue, METHOD_SLEEP, Mockito.anyInt());
+		};
+		producer.start();
+		
+		// Request the first data packet from our remote XBee device with a long timeout.
+		long start = System.nanoTime();
+		XBeePacket xbeePacket = xbeePacketsQueue.getFirstDataPacketFrom(mockedRemoteDevice, 10000);
+		long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+		producer.join();
+		
+		// Verify that the packet from the remote device is returned as soon as it is added 
+		// and the other data packet stays in the queue.
+		assertEquals(mockedReceivePacket, xbeePacket);
+		assertTrue(elapsed < 5000);
+		assertEquals(1, xbeePacketsQueue.getCurrentSize());
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.models.XBeePacketsQueue#getFirstDataPacket(int)}.
+	 * 
+	 * <p>Verify that a reader waiting for data packets gets every packet 
+	 * added from another thread. The latency is measured by the 
+	 * {@code PacketsQueueBenchmark} of the benchmarks module.</p>
+	 * 
+	 * @throws Exception 
+	 */
+	@Test
+	public void testGetFirstDataPacketWaitingReader() throws Exception {
+		final XBeePacketsQueue xbeePacketsQueue = new XBeePacketsQueue(5);
+		
+		// Add a data packet every 20 ms from another thread.
+		Thread producer = new Thread() {
+			@Override
+			public void run() {
+				try {
+					for (int i = 0; i < PRODUCER_ITERATIONS; i++) {
+						Thread.sleep(20);
+						xbeePacketsQueue.addPacket(mockedRx64Packet);
+					}
+				} catch (InterruptedException e) {}
+			}
+		};
+		producer.start();
 		
-		// Request the first explicit data packet from our remote XBee device with 5s of timeout.
-		XBeePacket xbeePacket = xbeePacketsQueue.getFirstExplicitDataPacketFrom(mockedRemoteDevice, 5000);
+		// Read the data packets while they are being added.
+		for (int i = 0; i < PRODUCER_ITERATIONS; i++)
+			assertNotNull(xbeePacketsQueue.getFirstDataPacket(10000));
+		producer.join();
 		
-		// Verify that the sleep method was called 50 times (50 * 100ms = 5s) and the explicit data packet 
-		// retrieved is null (there was not any explicit data packet from our remote XBee device in the queue).
-		PowerMockito.verifyPrivate(xbeePacketsQueue, Mockito.times(50)).invoke(METHOD_SLEEP, 100);
-		assertNull(xbeePacket);
+		assertEquals(0, xbeePacketsQueue.getCurrentSize());
 	}
 	
 	/**
@@ -933,15 +1116,17 @@ public class XBeePacketsQueueTest {
 	}
 	
 	/**
-	 * Helper method that changes the milliseconds to return when the System.currentMillis() 
-	 * method is invoked.
+	 * Helper method that creates the given number of data packets from the 
+	 * same remote device.
+	 * 
+	 * @param count The number of packets to create.
 	 * 
-	 * @param time The time to all to the milliseconds to return.
+	 * @return The data packets.
 	 */
-	public void changeMillisToReturn(int time) {
-		currentMillis += time;
-		
-		// Prepare the System class to return our fixed currentMillis variable when requested.
-		PowerMockito.when(System.currentTimeMillis()).thenReturn(currentMillis);
+	private static XBeePacket[] createDataPackets(int count) {
+		XBeePacket[] packets = new XBeePacket[count];
+		for (int i = 0; i < count; i++)
+			packets[i] = new RX64Packet(xbee64BitAddress1, 40, 0, new byte[]{(byte)i});
+		return packets;
 	}
 }
@@ -0,0 +1,121 @@
+/**
+ * Copyright (c) 2014-2016 Digi International Inc.,
+ * All rights not expressly granted are reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * Digi International Inc. 11001 Bren Road East, Minnetonka, MN 55343
+ * =======================================================================
+ */
+package com.digi.xbee.api.packet;
+
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertThat;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import com.digi.xbee.api.exceptions.InvalidPacketException;
+
+public class XBeeEscapeCodecTest {
+	
+	// Constants.
+	private final static byte[] UNESCAPED = new byte[] {0x01, 0x7E, 0x02, 0x03, 0x7D, 0x11, 0x04, 0x13};
+	private final static byte[] ESCAPED = new byte[] {0x01, 0x7D, 0x5E, 0x02, 0x03, 0x7D, 0x5D, 0x7D, 0x31, 0x04, 0x7D, 0x33};
+	
+	@Rule
+	public ExpectedException exception = ExpectedException.none();
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.packet.XBeeEscapeCodec#isSpecialByte(int)}.
+	 * 
+	 * <p>Verify that only the special bytes must be escaped.</p>
+	 */
+	@Test
+	public final void testIsSpecialByte() {
+		int count = 0;
+		for (int b = 0; b < 256; b++) {
+			if (XBeeEscapeCodec.isSpecialByte(b))
+				count++;
+		}
+		
+		assertThat(count, is(equalTo(4)));
+		assertThat(XBeeEscapeCodec.isSpecialByte((byte)0x7E), is(equalTo(true)));
+		assertThat(XBeeEscapeCodec.isSpecialByte(0x7F), is(equalTo(false)));
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.packet.XBeeEscapeCodec#escape(byte[], int, int)}.
+	 * 
+	 * <p>Verify that the special bytes of a range are escaped.</p>
+	 */
+	@Test
+	public final void testEscape() {
+		// Call the method under test.
+		byte[] escaped = XBeeEscapeCodec.escape(UNESCAPED, 0, UNESCAPED.length);
+		
+		// Verify the result.
+		assertArrayEquals(ESCAPED, escaped);
+		assertThat(XBeeEscapeCodec.getEscapedLength(UNESCAPED, 2, 2), is(equalTo(2)));
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.packet.XBeeEscapeCodec#unescape(byte[], int, int, byte[], int)}.
+	 * 
+	 * <p>Verify that a range can be unescaped in place.</p>
+	 * 
+	 * @throws InvalidPacketException 
+	 */
+	@Test
+	public final void testUnescapeInPlace() throws InvalidPacketException {
+		// Setup the resources for the test.
+		byte[] data = ESCAPED.clone();
+		
+		// Call the method under test.
+		int length = XBeeEscapeCodec.unescape(data, 0, data.length, data, 0);
+		
+		// Verify the result.
+		assertThat(length, is(equalTo(UNESCAPED.length)));
+		for (int i = 0; i < length; i++)
+			assertThat(data[i], is(equalTo(UNESCAPED[i])));
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.packet.XBeeEscapeCodec#unescape(byte[], int, int)}.
+	 * 
+	 * <p>An {@code InvalidPacketException} must be thrown when the range 
+	 * contains a special byte that is not escaped.</p>
+	 * 
+	 * @throws InvalidPacketException 
+	 */
+	@Test
+	public final void testUnescapeSpecialByteNotEscaped() throws InvalidPacketException {
+		exception.expect(InvalidPacketException.class);
+		exception.expectMessage(is(equalTo("Special byte not escaped: 0x11.")));
+		
+		// Call the method under test that should throw an InvalidPacketException.
+		XBeeEscapeCodec.unescape(new byte[] {0x01, 0x11}, 0, 2);
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.packet.XBeeEscapeCodec#unescape(byte[], int, int)}.
+	 * 
+	 * <p>An {@code InvalidPacketException} must be thrown when the range ends 
+	 * with an escape byte.</p>
+	 * 
+	 * @throws InvalidPacketException 
+	 */
+	@Test
+	public final void testUnescapeIncomplete() throws InvalidPacketException {
+		exception.expect(InvalidPacketException.class);
+		exception.expectMessage(is(equalTo("Error parsing packet: Incomplete packet.")));
+		
+		// Call the method under test that should throw an InvalidPacketException.
+		XBeeEscapeCodec.unescape(new byte[] {0x01, 0x7D}, 0, 2);
+	}
+}
@@ -0,0 +1,175 @@
+/**
+ * Copyright (c) 2014-2016 Digi International Inc.,
+ * All rights not expressly granted are reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * Digi International Inc. 11001 Bren Road East, Minnetonka, MN 55343
+ * =======================================================================
+ */
+package com.digi.xbee.api.packet;
+
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertThat;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import com.digi.xbee.api.models.ATCommandStatus;
+import com.digi.xbee.api.models.OperatingMode;
+import com.digi.xbee.api.models.XBee16BitAddress;
+import com.digi.xbee.api.models.XBee64BitAddress;
+import com.digi.xbee.api.packet.common.ATCommandPacket;
+import com.digi.xbee.api.packet.common.ATCommandQueuePacket;
+import com.digi.xbee.api.packet.common.ATCommandResponsePacket;
+import com.digi.xbee.api.packet.common.ExplicitAddressingPacket;
+import com.digi.xbee.api.packet.common.RemoteATCommandPacket;
+import com.digi.xbee.api.packet.common.TransmitPacket;
+import com.digi.xbee.api.packet.raw.TX16Packet;
+import com.digi.xbee.api.packet.raw.TX64Packet;
+
+public class XBeeFrameWriterTest {
+
+	// Variables.
+	private XBeePacket[] packets;
+
+	@Rule
+	public ExpectedException exception = ExpectedException.none();
+
+	@Before
+	public void setUp() {
+		// Addresses and data contain bytes that must be escaped.
+		XBee64BitAddress address64 = new XBee64BitAddress("0013A2007E7D1113");
+		XBee16BitAddress address16 = new XBee16BitAddress("7D11");
+		byte[] data = new byte[]{0x7E, 0x7D, 0x11, 0x13, 0x41};
+
+		packets = new XBeePacket[]{
+				new TransmitPacket(0x7E, address64, address16, 0, 0x11, data),
+				new TransmitPacket(1, address64, address16, 0, 0, null),
+				new TX64Packet(0x13, address64, 0, data),
+				new TX16Packet(2, address16, 0, data),
+				new ExplicitAddressingPacket(3, address64, address16, 0xE8, 0x7D, 0x0011, 0xC105, 0, 0, data),
+				new ATCommandPacket(4, "NI", data),
+				new ATCommandPacket(5, "NI", (byte[])null),
+				new ATCommandQueuePacket(6, "NI", "TEST"),
+				new RemoteATCommandPacket(7, address64, address16, 2, "DH", data),
+				new ATCommandResponsePacket(8, ATCommandStatus.OK, "NI", data)
+		};
+	}
+
+	/**
+	 * Test method for {@link com.digi.xbee.api.packet.XBeeFrameWriter#XBeeFrameWriter(OperatingMode)}.
+	 *
+	 * <p>Verify that the operating mode must be API or API escaped.</p>
+	 */
+	@Test
+	public final void testCreateATMode() {
+		exception.expect(IllegalArgumentException.class);
+		exception.expectMessage(is(equalTo("Operating mode must be API or API Escaped.")));
+
+		new XBeeFrameWriter(OperatingMode.AT);
+	}
+
+	/**
+	 * Test method for {@link com.digi.xbee.api.packet.XBeePacket#writeTo(ByteBuffer, OperatingMode)}.
+	 *
+	 * <p>Verify that the frames written in API mode are equal to the ones
+	 * generated by {@link XBeePacket#generateByteArray()}.</p>
+	 */
+	@Test
+	public final void testWriteToAPI() {
+		// Setup the resources for the test.
+		ByteBuffer buffer = ByteBuffer.allocate(256);
+
+		for (XBeePacket packet : packets) {
+			buffer.clear();
+
+			// Call the method under test.
+			int length = packet.writeTo(buffer, OperatingMode.API);
+
+			// Verify the result.
+			assertThat(length, is(equalTo(buffer.position())));
+			assertArrayEquals(packet.generateByteArray(), Arrays.copyOf(buffer.array(), length));
+		}
+	}
+
+	/**
+	 * Test method for {@link com.digi.xbee.api.packet.XBeePacket#writeTo(ByteBuffer, OperatingMode)}.
+	 *
+	 * <p>Verify that the frames written in API escaped mode are equal to the
+	 * ones generated by {@link XBeePacket#generateByteArrayEscaped()}.</p>
+	 */
+	@Test
+	public final void testWriteToAPIEscaped() {
+		// Setup the resources for the test.
+		ByteBuffer buffer = ByteBuffer.allocate(256);
+
+		for (XBeePacket packet : packets) {
+			buffer.clear();
+
+			// Call the method under test.
+			int length = packet.writeTo(buffer, OperatingMode.API_ESCAPE);
+
+			// Verify the result.
+			assertArrayEquals(packet.generateByteArrayEscaped(), Arrays.copyOf(buffer.array(), length));
+		}
+	}
+
+	/**
+	 * Test method for {@link com.digi.xbee.api.packet.XBeeFrameWriter#write(XBeePacket, ByteBuffer)}.
+	 *
+	 * <p>Verify that the same writer and buffer can be reused to write
+	 * several frames one after the other.</p>
+	 */
+	@Test
+	public final void testWriteSeveralFrames() {
+		// Setup the resources for the test.
+		XBeeFrameWriter writer = new XBeeFrameWriter(OperatingMode.API_ESCAPE);
+		ByteBuffer buffer = ByteBuffer.allocate(256);
+		byte[] first = packets[0].generateByteArrayEscaped();
+		byte[] second = packets[4].generateByteArrayEscaped();
+
+		// Call the method under test.
+		writer.write(packets[0], buffer);
+		writer.write(packets[4], buffer);
+
+		// Verify the result.
+		assertThat(buffer.position(), is(equalTo(first.length + second.length)));
+		assertArrayEquals(first, Arrays.copyOfRange(buffer.array(), 0, first.length));
+		assertArrayEquals(second, Arrays.copyOfRange(buffer.array(), first.length, buffer.position()));
+	}
+
+	/**
+	 * Test method for {@link com.digi.xbee.api.packet.XBeeFrameWriter#write(XBeePacket, ByteBuffer)}.
+	 *
+	 * <p>Verify that the position of the buffer is restored when the frame
+	 * does not fit in it.</p>
+	 */
+	@Test
+	public final void testWriteOverflow() {
+		// Setup the resources for the test.
+		XBeeFrameWriter writer = new XBeeFrameWriter(OperatingMode.API);
+		ByteBuffer buffer = ByteBuffer.allocate(packets[0].generateByteArray().length + 1);
+		buffer.put((byte)0x01);
+		buffer.put((byte)0x02);
+
+		// Call the method under test.
+		try {
+			writer.write(packets[0], buffer);
+			throw new AssertionError("BufferOverflowException expected.");
+		} catch (BufferOverflowException e) {
+			// Verify the result.
+			assertThat(buffer.position(), is(equalTo(2)));
+		}
+	}
+}
@@ -0,0 +1,210 @@
+/**
+ * Copyright (c) 2014-2016 Digi International Inc.,
+ * All rights not expressly granted are reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * Digi International Inc. 11001 Bren Road East, Minnetonka, MN 55343
+ * =======================================================================
+ */
+package com.digi.xbee.api.packet;
+
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.junit.Assert.assertThat;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import com.digi.xbee.api.listeners.IPacketReceiveListener;
+import com.digi.xbee.api.models.ATCommandStatus;
+import com.digi.xbee.api.models.OperatingMode;
+import com.digi.xbee.api.packet.common.ATCommandPacket;
+import com.digi.xbee.api.packet.common.ATCommandResponsePacket;
+
+public class XBeePacketDecoderTest {
+
+	// Variables.
+	private List<XBeePacket> receivedPackets;
+
+	private IPacketReceiveListener listener;
+
+	private XBeePacket atCommandPacket;
+	private XBeePacket atResponsePacket;
+
+	@Rule
+	public ExpectedException exception = ExpectedException.none();
+
+	@Before
+	public void setUp() {
+		receivedPackets = new ArrayList<XBeePacket>();
+		listener = new IPacketReceiveListener() {
+			@Override
+			public void packetReceived(XBeePacket receivedPacket) {
+				receivedPackets.add(receivedPacket);
+			}
+		};
+		atCommandPacket = new ATCommandPacket(1, "NI", "");
+		// The value contains bytes that must be escaped.
+		atResponsePacket = new ATCommandResponsePacket(2, ATCommandStatus.OK, "NI",
+				new byte[]{0x7E, 0x7D, 0x11, 0x13, 0x41});
+	}
+
+	/**
+	 * Test method for {@link com.digi.xbee.api.packet.XBeePacketDecoder#XBeePacketDecoder(OperatingMode, IPacketReceiveListener)}.
+	 *
+	 * <p>Verify that the decoder cannot be created with a null listener.</p>
+	 */
+	@Test
+	public final void testCreateNullListener() {
+		exception.expect(NullPointerException.class);
+		exception.expectMessage(is(equalTo("Listener cannot be null.")));
+
+		new XBeePacketDecoder(OperatingMode.API, (IPacketReceiveListener)null);
+	}
+
+	/**
+	 * Test method for {@link com.digi.xbee.api.packet.XBeePacketDecoder#XBeePacketDecoder(OperatingMode, IPacketReceiveListener)}.
+	 *
+	 * <p>Verify that the operating mode must be API or API escaped.</p>
+	 */
+	@Test
+	public final void testCreateATMode() {
+		exception.expect(IllegalArgumentException.class);
+		exception.expectMessage(is(equalTo("Operating mode must be API or API Escaped.")));
+
+		new XBeePacketDecoder(OperatingMode.AT, listener);
+	}
+
+	/**
+	 * Test method for {@link com.digi.xbee.api.packet.XBeePacketDecoder#decode(ByteBuffer)}.
+	 *
+	 * <p>Verify that all the frames of a buffer are notified and the buffer
+	 * is fully consumed.</p>
+	 */
+	@Test
+	public final void testDecodeSeveralFrames() {
+		// Setup the resources for the test.
+		XBeePacketDecoder decoder = new XBeePacketDecoder(OperatingMode.API, listener);
+		ByteBuffer chunk = ByteBuffer.wrap(concat(atCommandPacket.generateByteArray(), atResponsePacket.generateByteArray()));
+
+		// Call the method under test.
+		decoder.decode(chunk);
+
+		// Verify the result.
+		assertThat(chunk.hasRemaining(), is(equalTo(false)));
+		assertThat(receivedPackets.size(), is(equalTo(2)));
+		assertThat(receivedPackets.get(0), is(equalTo(atCommandPacket)));
+		assertThat(receivedPackets.get(1), is(equalTo(atResponsePacket)));
+		assertThat(decoder.getPacketCount(), is(equalTo(2L)));
+		assertThat(decoder.isDecodingFrame(), is(equalTo(false)));
+	}
+
+	/**
+	 * Test method for {@link com.digi.xbee.api.packet.XBeePacketDecoder#decode(ByteBuffer)}.
+	 *
+	 * <p>Verify that an escaped frame pushed one byte at a time through a
+	 * direct buffer is decoded, even when the chunks split escape sequences.
+	 * </p>
+	 */
+	@Test
+	public final void testDecodeEscapedByteByByte() {
+		// Setup the resources for the test.
+		XBeePacketDecoder decoder = new XBeePacketDecoder(OperatingMode.API_ESCAPE, listener);
+		byte[] data = atResponsePacket.generateByteArrayEscaped();
+		ByteBuffer chunk = ByteBuffer.allocateDirect(1);
+
+		// Call the method under test.
+		for (int i = 0; i < data.length; i++) {
+			assertThat(receivedPackets.size(), is(equalTo(0)));
+			chunk.clear();
+			chunk.put(data[i]);
+			chunk.flip();
+			decoder.decode(chunk);
+		}
+
+		// Verify the result.
+		assertThat(receivedPackets.size(), is(equalTo(1)));
+		assertThat(receivedPackets.get(0), is(equalTo(atResponsePacket)));
+		assertThat(decoder.getInvalidFrameCount(), is(equalTo(0L)));
+	}
+
+	/**
+	 * Test method for {@link com.digi.xbee.api.packet.XBeePacketDecoder#decode(byte[], int, int)}.
+	 *
+	 * <p>Verify that bytes before the start delimiter and frames with an
+	 * invalid checksum are discarded without losing the following frames.</p>
+	 */
+	@Test
+	public final void testDecodeInvalidChecksum() {
+		// Setup the resources for the test.
+		XBeePacketDecoder decoder = new XBeePacketDecoder(OperatingMode.API, listener);
+		byte[] invalidFrame = atCommandPacket.generateByteArray();
+		invalidFrame[invalidFrame.length - 1]++;
+		byte[] data = concat(new byte[]{0x01, 0x02}, concat(invalidFrame, atResponsePacket.generateByteArray()));
+
+		// Call the method under test.
+		decoder.decode(data, 0, data.length);
+
+		// Verify the result.
+		assertThat(receivedPackets.size(), is(equalTo(1)));
+		assertThat(receivedPackets.get(0), is(equalTo(atResponsePacket)));
+		assertThat(decoder.getInvalidFrameCount(), is(equalTo(1L)));
+		assertThat(decoder.getDiscardedByteCount(), is(equalTo(2L)));
+	}
+
+	/**
+	 * Test method for {@link com.digi.xbee.api.packet.XBeePacketDecoder#reset()}.
+	 *
+	 * <p>Verify that a partial frame is discarded and the next frame is
+	 * decoded.</p>
+	 */
+	@Test
+	public final void testReset() {
+		// Setup the resources for the test.
+		XBeePacketDecoder decoder = new XBeePacketDecoder(OperatingMode.API, listener);
+		byte[] partialFrame = atCommandPacket.generateByteArray();
+		decoder.decode(partialFrame, 0, partialFrame.length - 1);
+
+		// Call the method under test.
+		boolean discarded = decoder.reset();
+
+		// Verify the result.
+		assertThat(discarded, is(equalTo(true)));
+		assertThat(decoder.reset(), is(equalTo(false)));
+		byte[] data = atResponsePacket.generateByteArray();
+		decoder.decode(data, 0, data.length);
+		assertThat(receivedPackets.size(), is(equalTo(1)));
+		assertThat(receivedPackets.get(0), is(equalTo(atResponsePacket)));
+		assertThat(decoder.getInvalidFrameCount(), is(equalTo(1L)));
+	}
+
+	/**
+	 * Test method for {@link com.digi.xbee.api.packet.XBeePacketDecoder#decode(byte[], int, int)}.
+	 *
+	 * <p>Verify that the offset and count must be within the data.</p>
+	 */
+	@Test
+	public final void testDecodeOutOfBounds() {
+		exception.expect(IllegalArgumentException.class);
+		exception.expectMessage(is(equalTo("Offset + count cannot be greater than the data length.")));
+
+		new XBeePacketDecoder(OperatingMode.API, listener).decode(new byte[4], 2, 3);
+	}
+
+	private static byte[] concat(byte[] first, byte[] second) {
+		ByteArrayOutputStream stream = new ByteArrayOutputStream();
+		stream.write(first, 0, first.length);
+		stream.write(second, 0, second.length);
+		return stream.toByteArray();
+	}
+}
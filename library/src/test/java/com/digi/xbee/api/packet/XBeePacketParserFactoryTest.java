@@ -0,0 +1,163 @@
+/**
+ * Copyright (c) 2014-2016 Digi International Inc.,
+ * All rights not expressly granted are reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * Digi International Inc. 11001 Bren Road East, Minnetonka, MN 55343
+ * =======================================================================
+ */
+package com.digi.xbee.api.packet;
+
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.hamcrest.core.IsInstanceOf.instanceOf;
+import static org.hamcrest.core.IsNull.nullValue;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertThat;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import com.digi.xbee.api.exceptions.InvalidPacketException;
+import com.digi.xbee.api.models.OperatingMode;
+import com.digi.xbee.api.models.XBee16BitAddress;
+import com.digi.xbee.api.models.XBee64BitAddress;
+import com.digi.xbee.api.packet.common.ReceivePacket;
+
+public class XBeePacketParserFactoryTest {
+	
+	// Constants.
+	private final static int CUSTOM_FRAME_TYPE = 0x3F;
+	
+	private final static byte[] CUSTOM_FRAME = new byte[] {0x7E, 0x00, 0x03, 0x3F, 0x01, 0x02, (byte)0xBD};
+	
+	@Rule
+	public ExpectedException exception = ExpectedException.none();
+	
+	// Variables.
+	private XBeePacketParser packetParser;
+	
+	private IPacketFactory customFactory;
+	
+	@Before
+	public void setUp() {
+		packetParser = new XBeePacketParser();
+		customFactory = new IPacketFactory() {
+			@Override
+			public XBeePacket createPacket(byte[] payload) {
+				return GenericXBeePacket.createPacket(new byte[] {(byte)0xFF, payload[1], payload[2]});
+			}
+		};
+	}
+	
+	@After
+	public void tearDown() {
+		XBeePacketParser.unregisterPacketFactory(CUSTOM_FRAME_TYPE);
+		XBeePacketParser.unregisterPacketFactory(APIFrameType.RECEIVE_PACKET.getValue());
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.packet.XBeePacketParser#registerPacketFactory(int, IPacketFactory)}.
+	 * 
+	 * <p>Verify that the packets of a registered frame type are created by 
+	 * its factory.</p>
+	 * 
+	 * @throws InvalidPacketException 
+	 */
+	@Test
+	public final void testRegisterPacketFactory() throws InvalidPacketException {
+		// Call the method under test.
+		IPacketFactory previous = XBeePacketParser.registerPacketFactory(CUSTOM_FRAME_TYPE, customFactory);
+		XBeePacket packet = packetParser.parsePacket(CUSTOM_FRAME, OperatingMode.API);
+		
+		// Verify the result.
+		assertThat(previous, is(nullValue()));
+		assertThat(XBeePacketParser.getPacketFactory(CUSTOM_FRAME_TYPE), is(equalTo(customFactory)));
+		assertThat(packet, is(instanceOf(GenericXBeePacket.class)));
+		assertArrayEquals(new byte[] {0x01, 0x02}, ((GenericXBeePacket)packet).getRFData());
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.packet.XBeePacketParser#unregisterPacketFactory(int)}.
+	 * 
+	 * <p>Verify that the packets of a frame type are parsed as unknown packets 
+	 * once its factory is unregistered.</p>
+	 * 
+	 * @throws InvalidPacketException 
+	 */
+	@Test
+	public final void testUnregisterPacketFactory() throws InvalidPacketException {
+		// Setup the resources for the test.
+		XBeePacketParser.registerPacketFactory(CUSTOM_FRAME_TYPE, customFactory);
+		
+		// Call the method under test.
+		IPacketFactory removed = XBeePacketParser.unregisterPacketFactory(CUSTOM_FRAME_TYPE);
+		XBeePacket packet = packetParser.parsePacket(CUSTOM_FRAME, OperatingMode.API);
+		
+		// Verify the result.
+		assertThat(removed, is(equalTo(customFactory)));
+		assertThat(XBeePacketParser.getPacketFactory(CUSTOM_FRAME_TYPE), is(nullValue()));
+		assertThat(packet, is(instanceOf(UnknownXBeePacket.class)));
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.packet.XBeePacketParser#unregisterPacketFactory(int)}.
+	 * 
+	 * <p>Verify that unregistering the factory of a supported frame type 
+	 * restores the factory of the library.</p>
+	 * 
+	 * @throws InvalidPacketException 
+	 */
+	@Test
+	public final void testUnregisterRestoresBuiltInFactory() throws InvalidPacketException {
+		// Setup the resources for the test.
+		byte[] receiveFrame = new ReceivePacket(new XBee64BitAddress("0013A20040A9E77F"), 
+				new XBee16BitAddress("1234"), 0x01, new byte[] {0x01}).generateByteArray();
+		IPacketFactory builtIn = XBeePacketParser.getPacketFactory(APIFrameType.RECEIVE_PACKET.getValue());
+		XBeePacketParser.registerPacketFactory(APIFrameType.RECEIVE_PACKET.getValue(), customFactory);
+		
+		// Call the method under test.
+		XBeePacketParser.unregisterPacketFactory(APIFrameType.RECEIVE_PACKET.getValue());
+		XBeePacket packet = packetParser.parsePacket(receiveFrame, OperatingMode.API);
+		
+		// Verify the result.
+		assertThat(XBeePacketParser.getPacketFactory(APIFrameType.RECEIVE_PACKET.getValue()), is(equalTo(builtIn)));
+		assertThat(packet, is(instanceOf(ReceivePacket.class)));
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.packet.XBeePacketParser#registerPacketFactory(int, IPacketFactory)}.
+	 * 
+	 * <p>A {@code NullPointerException} must be thrown when registering a 
+	 * {@code null} factory.</p>
+	 */
+	@Test
+	public final void testRegisterNullPacketFactory() {
+		exception.expect(NullPointerException.class);
+		exception.expectMessage(is(equalTo("Packet factory cannot be null.")));
+		
+		// Call the method under test that should throw a NullPointerException.
+		XBeePacketParser.registerPacketFactory(CUSTOM_FRAME_TYPE, null);
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.packet.XBeePacketParser#registerPacketFactory(int, IPacketFactory)}.
+	 * 
+	 * <p>An {@code IllegalArgumentException} must be thrown when registering 
+	 * a factory for an invalid frame type.</p>
+	 */
+	@Test
+	public final void testRegisterPacketFactoryInvalidFrameType() {
+		exception.expect(IllegalArgumentException.class);
+		exception.expectMessage(is(equalTo("Frame type must be between 0 and 255.")));
+		
+		// Call the method under test that should throw an IllegalArgumentException.
+		XBeePacketParser.registerPacketFactory(256, customFactory);
+	}
+}
@@ -811,6 +811,33 @@ public class XBeePacketParserFromByteArrayTest {
 		assertThat("Generated API array from packet is not the expected one", packet.generateByteArrayEscaped(), is(equalTo(byteArray)));
 	}
 	
+	/**
+	 * Test method for {@link com.digi.xbee.api.packet.XBeePacketParser#parsePacket(byte[], OperatingMode)}.
+	 * 
+	 * <p>A valid API escaped byte array followed by other data (another 
+	 * frame and special bytes) must result in the API packet of the first 
+	 * frame, ignoring the trailing data.</p>
+	 * 
+	 * @throws InvalidPacketException 
+	 */
+	@Test
+	public final void testParsePacketApiEscapeModeTrailingData() throws InvalidPacketException {
+		// Setup the resources for the test.
+		byte[] frame = {0x7E, 0x00, 0x09, (byte)0x88, 0x07, 0x53, 0x48, 0x00, 0x00, 0x7D, 0x33, (byte)0xA2, 0x00, 0x20};
+		byte[] trailing = {0x7E, 0x00, 0x04, 0x08, 0x01, 0x4E, 0x49, 0x5F, 0x11, 0x13, 0x7D};
+		byte[] byteArray = new byte[frame.length + trailing.length];
+		System.arraycopy(frame, 0, byteArray, 0, frame.length);
+		System.arraycopy(trailing, 0, byteArray, frame.length, trailing.length);
+		
+		// Call the method under test.
+		XBeePacket packet = packetParser.parsePacket(byteArray, OperatingMode.API_ESCAPE);
+		
+		// Verify the result.
+		assertThat("Packet must be an AT command response packet", packet, is(instanceOf(ATCommandResponsePacket.class)));
+		assertThat("Returned length is not the expected one", packet.getPacketLength(), is(equalTo(9)));
+		assertThat("Generated API array from packet is not the expected one", packet.generateByteArrayEscaped(), is(equalTo(frame)));
+	}
+	
 	/**
 	 * Test method for {@link com.digi.xbee.api.packet.XBeePacketParser#parsePacket(byte[], OperatingMode)}.
 	 * 
@@ -1041,4 +1041,53 @@ public class XBeePacketTest {
 		assertThat("Consistent hashcode test fails", packet.hashCode(), is(equalTo(initialHashCode)));
 		assertThat("Consistent hashcode test fails", packet.hashCode(), is(equalTo(initialHashCode)));
 	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.packet.XBeePacket#generateByteArray()}.
+	 * 
+	 * <p>Verify that modifying the returned array does not modify the cached 
+	 * frame of the packet.</p>
+	 * 
+	 * @throws InvalidPacketException 
+	 */
+	@Test
+	public final void testGenerateByteArrayReturnsCopy() throws InvalidPacketException {
+		// Setup the resources for the test.
+		String dataString = "7E000808014E496E616D65BE";
+		XBeePacket packet = XBeePacket.parsePacket(dataString, OperatingMode.API);
+		
+		// Call the method under test.
+		byte[] data = packet.generateByteArray();
+		data[4] = 0x02;
+		
+		// Verify the result.
+		assertThat("Returned array must be a copy", HexUtils.byteArrayToHexString(packet.generateByteArray()), is(equalTo(dataString)));
+		assertThat("Returned string is not the expected one", packet.toString(), is(equalTo(dataString)));
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.packet.XBeePacket#invalidateSerializedData()}.
+	 * 
+	 * <p>Verify that the cached frame, checksum and hash code are updated 
+	 * when the frame ID of the packet changes.</p>
+	 * 
+	 * @throws InvalidPacketException 
+	 */
+	@Test
+	public final void testSetFrameIDInvalidatesSerializedData() throws InvalidPacketException {
+		// Setup the resources for the test.
+		XBeeAPIPacket packet = (XBeeAPIPacket)XBeePacket.parsePacket("7E000808014E496E616D65BE", OperatingMode.API);
+		XBeePacket expectedPacket = XBeePacket.parsePacket("7E000808024E496E616D65BD", OperatingMode.API);
+		int initialHashCode = packet.hashCode();
+		
+		// Call the method under test.
+		packet.setFrameID(2);
+		
+		// Verify the result.
+		assertThat("Returned string is not the expected one", packet.toString(), is(equalTo("7E000808024E496E616D65BD")));
+		assertThat("Returned checksum is not the expected one", packet.getChecksum(), is(equalTo(0xBD)));
+		assertThat("Hash code must change", packet.hashCode(), is(not(equalTo(initialHashCode))));
+		assertThat("Hash code must be equal to the expected one", packet.hashCode(), is(equalTo(expectedPacket.hashCode())));
+		assertThat("Packet must be equal to the expected one", packet.equals(expectedPacket), is(equalTo(true)));
+	}
 }
@@ -0,0 +1,233 @@
+/**
+ * Copyright (c) 2014-2016 Digi International Inc.,
+ * All rights not expressly granted are reserved.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this file,
+ * You can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * Digi International Inc. 11001 Bren Road East, Minnetonka, MN 55343
+ * =======================================================================
+ */
+package com.digi.xbee.api.packet;
+
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.junit.Assert.assertThat;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import com.digi.xbee.api.exceptions.InvalidPacketException;
+import com.digi.xbee.api.listeners.IPacketViewReceiveListener;
+import com.digi.xbee.api.models.ATCommandStatus;
+import com.digi.xbee.api.models.OperatingMode;
+import com.digi.xbee.api.models.XBee16BitAddress;
+import com.digi.xbee.api.models.XBee64BitAddress;
+import com.digi.xbee.api.packet.common.ATCommandResponsePacket;
+import com.digi.xbee.api.packet.common.ExplicitRxIndicatorPacket;
+import com.digi.xbee.api.packet.common.ReceivePacket;
+import com.digi.xbee.api.packet.raw.RX16Packet;
+
+public class XBeePacketViewTest {
+
+	// Constants.
+	private static final XBee64BitAddress ADDRESS_64 = new XBee64BitAddress("0013A20040A9E77F");
+	private static final XBee16BitAddress ADDRESS_16 = new XBee16BitAddress("7D84");
+
+	private static final byte[] RF_DATA = new byte[]{0x48, 0x6F, 0x6C, 0x61};
+
+	@Rule
+	public ExpectedException exception = ExpectedException.none();
+
+	/**
+	 * Test method for {@link com.digi.xbee.api.packet.XBeePacketView#wrap(ByteBuffer)}.
+	 *
+	 * <p>Verify that the fields of a receive packet are read from the
+	 * wrapped buffer.</p>
+	 *
+	 * @throws InvalidPacketException
+	 */
+	@Test
+	public final void testWrapReceivePacket() throws InvalidPacketException {
+		// Setup the resources for the test.
+		ReceivePacket packet = new ReceivePacket(ADDRESS_64, ADDRESS_16, 0x02, RF_DATA);
+
+		// Call the method under test.
+		XBeePacketView view = new XBeePacketView().wrap(ByteBuffer.wrap(packet.getPacketData()));
+
+		// Verify the result.
+		assertThat(view.getFrameType(), is(equalTo(APIFrameType.RECEIVE_PACKET)));
+		assertThat(view.isReceiveFrame(), is(equalTo(true)));
+		assertThat(view.get64BitSourceAddressValue(), is(equalTo(0x0013A20040A9E77FL)));
+		assertThat(view.get64BitSourceAddress(), is(equalTo(ADDRESS_64)));
+		assertThat(view.get16BitSourceAddressValue(), is(equalTo(0x7D84)));
+		assertThat(view.get16BitSourceAddress(), is(equalTo(ADDRESS_16)));
+		assertThat(view.getReceiveOptions(), is(equalTo(0x02)));
+		assertThat(view.getRSSI(), is(equalTo(-1)));
+		assertThat(view.getRFDataLength(), is(equalTo(RF_DATA.length)));
+		assertThat(view.getRFDataByte(1), is(equalTo(RF_DATA[1])));
+		assertThat(view.getRFData(), is(equalTo(ByteBuffer.wrap(RF_DATA))));
+		assertThat(view.toPacket(), is(equalTo((XBeePacket)packet)));
+	}
+
+	/**
+	 * Test method for {@link com.digi.xbee.api.packet.XBeePacketView#wrap(ByteBuffer)}.
+	 *
+	 * <p>Verify that the fields of an RX 16-bit packet are read from the
+	 * wrapped buffer.</p>
+	 *
+	 * @throws InvalidPacketException
+	 */
+	@Test
+	public final void testWrapRX16Packet() throws InvalidPacketException {
+		// Setup the resources for the test.
+		RX16Packet packet = new RX16Packet(ADDRESS_16, 0x28, 0x01, RF_DATA);
+
+		// Call the method under test.
+		XBeePacketView view = new XBeePacketView().wrap(ByteBuffer.wrap(packet.getPacketData()));
+
+		// Verify the result.
+		assertThat(view.getFrameType(), is(equalTo(APIFrameType.RX_16)));
+		assertThat(view.get64BitSourceAddress(), is(equalTo(XBee64BitAddress.UNKNOWN_ADDRESS)));
+		assertThat(view.get16BitSourceAddress(), is(equalTo(ADDRESS_16)));
+		assertThat(view.getRSSI(), is(equalTo(0x28)));
+		assertThat(view.getReceiveOptions(), is(equalTo(0x01)));
+		assertThat(view.getRFData(), is(equalTo(ByteBuffer.wrap(RF_DATA))));
+	}
+
+	/**
+	 * Test method for {@link com.digi.xbee.api.packet.XBeePacketView#wrap(ByteBuffer)}.
+	 *
+	 * <p>Verify that the fields of an explicit RX indicator packet are read
+	 * from the wrapped buffer.</p>
+	 *
+	 * @throws InvalidPacketException
+	 */
+	@Test
+	public final void testWrapExplicitRxIndicatorPacket() throws InvalidPacketException {
+		// Setup the resources for the test.
+		ExplicitRxIndicatorPacket packet = new ExplicitRxIndicatorPacket(ADDRESS_64, ADDRESS_16,
+				0xE8, 0xE6, 0x0011, 0xC105, 0x01, RF_DATA);
+
+		// Call the method under test.
+		XBeePacketView view = new XBeePacketView().wrap(ByteBuffer.wrap(packet.getPacketData()));
+
+		// Verify the result.
+		assertThat(view.get64BitSourceAddress(), is(equalTo(ADDRESS_64)));
+		assertThat(view.get16BitSourceAddress(), is(equalTo(ADDRESS_16)));
+		assertThat(view.getSourceEndpoint(), is(equalTo(0xE8)));
+		assertThat(view.getDestinationEndpoint(), is(equalTo(0xE6)));
+		assertThat(view.getClusterID(), is(equalTo(0x0011)));
+		assertThat(view.getProfileID(), is(equalTo(0xC105)));
+		assertThat(view.getReceiveOptions(), is(equalTo(0x01)));
+		assertThat(view.getRFData(), is(equalTo(ByteBuffer.wrap(RF_DATA))));
+	}
+
+	/**
+	 * Test method for {@link com.digi.xbee.api.packet.XBeePacketView#getRFData()}.
+	 *
+	 * <p>Verify that the RF data shares the content of the wrapped buffer and
+	 * is read-only.</p>
+	 *
+	 * @throws InvalidPacketException
+	 */
+	@Test
+	public final void testGetRFDataIsNotCopied() throws InvalidPacketException {
+		// Setup the resources for the test.
+		byte[] frameData = new ReceivePacket(ADDRESS_64, ADDRESS_16, 0x02, RF_DATA).getPacketData();
+		XBeePacketView view = new XBeePacketView().wrap(ByteBuffer.wrap(frameData));
+
+		// Call the method under test.
+		ByteBuffer rfData = view.getRFData();
+		frameData[frameData.length - 1] = 0x21;
+
+		// Verify the result.
+		assertThat(rfData.isReadOnly(), is(equalTo(true)));
+		assertThat(rfData.get(RF_DATA.length - 1), is(equalTo((byte)0x21)));
+	}
+
+	/**
+	 * Test method for {@link com.digi.xbee.api.packet.XBeePacketView#wrap(ByteBuffer)}.
+	 *
+	 * <p>Verify that the receive fields of a frame that is not a receive
+	 * frame are not available.</p>
+	 *
+	 * @throws InvalidPacketException
+	 */
+	@Test
+	public final void testWrapNonReceiveFrame() throws InvalidPacketException {
+		// Setup the resources for the test.
+		XBeePacket packet = new ATCommandResponsePacket(1, ATCommandStatus.OK, "NI", RF_DATA);
+
+		// Call the method under test.
+		XBeePacketView view = new XBeePacketView().wrap(ByteBuffer.wrap(packet.getPacketData()));
+
+		// Verify the result.
+		assertThat(view.getFrameType(), is(equalTo(APIFrameType.AT_COMMAND_RESPONSE)));
+		assertThat(view.isReceiveFrame(), is(equalTo(false)));
+		assertThat(view.get64BitSourceAddress(), is(equalTo(XBee64BitAddress.UNKNOWN_ADDRESS)));
+		assertThat(view.getReceiveOptions(), is(equalTo(-1)));
+		assertThat(view.getRFData() == null, is(equalTo(true)));
+		assertThat(view.toPacket(), is(equalTo(packet)));
+	}
+
+	/**
+	 * Test method for {@link com.digi.xbee.api.packet.XBeePacketView#wrap(ByteBuffer)}.
+	 *
+	 * <p>Verify that a receive frame shorter than its fixed fields cannot be
+	 * wrapped.</p>
+	 *
+	 * @throws InvalidPacketException
+	 */
+	@Test
+	public final void testWrapIncompleteFrame() throws InvalidPacketException {
+		// Setup the resources for the test.
+		byte[] frameData = new ReceivePacket(ADDRESS_64, ADDRESS_16, 0x02, null).getPacketData();
+
+		exception.expect(InvalidPacketException.class);
+		exception.expectMessage(is(equalTo("Error parsing packet: Incomplete packet.")));
+
+		// Call the method under test.
+		new XBeePacketView().wrap(ByteBuffer.wrap(frameData, 0, frameData.length - 1));
+	}
+
+	/**
+	 * Test method for {@link com.digi.xbee.api.packet.XBeePacketDecoder#XBeePacketDecoder(OperatingMode, IPacketViewReceiveListener)}.
+	 *
+	 * <p>Verify that the decoder notifies the frames through the same view.
+	 * </p>
+	 */
+	@Test
+	public final void testDecodeViews() {
+		// Setup the resources for the test.
+		final List<XBeePacketView> views = new ArrayList<XBeePacketView>();
+		final List<Long> addresses = new ArrayList<Long>();
+		XBeePacketDecoder decoder = new XBeePacketDecoder(OperatingMode.API_ESCAPE, new IPacketViewReceiveListener() {
+			@Override
+			public void packetReceived(XBeePacketView packetView) {
+				views.add(packetView);
+				addresses.add(packetView.get64BitSourceAddressValue());
+			}
+		});
+		XBee64BitAddress otherAddress = new XBee64BitAddress("0013A2007E7D1113");
+		byte[] first = new ReceivePacket(ADDRESS_64, ADDRESS_16, 0x02, RF_DATA).generateByteArrayEscaped();
+		byte[] second = new ReceivePacket(otherAddress, ADDRESS_16, 0x02, RF_DATA).generateByteArrayEscaped();
+
+		// Call the method under test.
+		decoder.decode(first, 0, first.length);
+		decoder.decode(second, 0, second.length);
+
+		// Verify the result.
+		assertThat(views.size(), is(equalTo(2)));
+		assertThat(views.get(0) == views.get(1), is(equalTo(true)));
+		assertThat(addresses.get(0), is(equalTo(ADDRESS_64.getLongValue())));
+		assertThat(addresses.get(1), is(equalTo(otherAddress.getLongValue())));
+		assertThat(decoder.getPacketCount(), is(equalTo(2L)));
+	}
+}